@@ -1,15 +1,42 @@
 package io.github.caojohnny.databenchmark;
 
+import io.github.caojohnny.databenchmark.budget.TimeBudget;
+import io.github.caojohnny.databenchmark.durability.DurabilityBenchmark;
+import io.github.caojohnny.databenchmark.fixture.DatasetFixtures;
+import io.github.caojohnny.databenchmark.fork.ForkedBenchmark;
+import io.github.caojohnny.databenchmark.generator.ChangeRateGenerator;
 import io.github.caojohnny.databenchmark.generator.DataGenerator;
 import io.github.caojohnny.databenchmark.generator.GeneratedData;
 import io.github.caojohnny.databenchmark.generator.RandomDataGenerator;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
 import io.github.caojohnny.databenchmark.generator.SameKeyGenerator;
+import io.github.caojohnny.databenchmark.generator.SchemaDataGenerator;
+import io.github.caojohnny.databenchmark.interference.BackgroundLoad;
+import io.github.caojohnny.databenchmark.jfr.BenchmarkEvent;
+import io.github.caojohnny.databenchmark.jfr.BenchmarkRecording;
+import io.github.caojohnny.databenchmark.jfr.IterationEvent;
+import io.github.caojohnny.databenchmark.jfr.QueryEvent;
+import io.github.caojohnny.databenchmark.jfr.StoreEvent;
+import io.github.caojohnny.databenchmark.metrics.MetricsFileExporter;
+import io.github.caojohnny.databenchmark.metrics.MetricsRegistry;
 import io.github.caojohnny.databenchmark.statistics.BenchmarkResult;
+import io.github.caojohnny.databenchmark.statistics.GcStatistics;
+import io.github.caojohnny.databenchmark.statistics.IoCounters;
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import io.github.caojohnny.databenchmark.statistics.SampleSummary;
+import io.github.caojohnny.databenchmark.statistics.SteadyStateDetector;
 import io.github.caojohnny.databenchmark.storage.*;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 
@@ -24,13 +51,33 @@ import static java.lang.String.format;
  */
 public class DataBenchmark {
     /**
-     * The number of times to run the warm-up for the prior to measurement
+     * The number of warm-up iterations in each window whose median times are
+     * compared to detect when the warm-up is complete
      */
-    private static final int N_WARMUP = 10;
+    private static final int WARMUP_WINDOW = 10;
     /**
-     * The number of iterations to perform per benchmark to repeat the test
+     * The largest relative difference between the median times of consecutive
+     * warm-up windows once the warm-up is complete
      */
-    private static final int N_ITERATIONS = 100;
+    private static final double WARMUP_TOLERANCE = 0.05;
+    /**
+     * The maximum number of warm-up iterations, after which the measurement
+     * starts even if the times are still trending
+     */
+    private static final int MAX_WARMUP = 100;
+    /**
+     * The number of outlier iterations that are logged at most per operation
+     */
+    private static final int MAX_LOGGED_OUTLIERS = 20;
+    /**
+     * The minimum number of iterations to measure per benchmark
+     */
+    private static final int MIN_ITERATIONS = 10;
+    /**
+     * The maximum number of iterations to measure per benchmark, which stops
+     * the measurement even if it has not converged
+     */
+    private static final int MAX_ITERATIONS = 1000;
     /**
      * The number of existing data in each storage medium before the benchmark
      * data is gathered
@@ -40,34 +87,624 @@ public class DataBenchmark {
      * The number of {@link GeneratedData} entries to store in each benchmark
      */
     private static final int N_ENTRIES = 1000;
+    /**
+     * The numbers of shard files to partition the data into for each of the
+     * sharded flat-file storages
+     */
+    private static final int[] N_SHARDS = {16, 256, N_DATASET,
+            ShardedFileStorage.ONE_FILE_PER_KEY};
+    /**
+     * The numbers of rows inserted by each statement of the storages which
+     * insert multiple rows with a single statement
+     */
+    private static final int[] N_ROWS_PER_STATEMENT = {16, 256, N_ENTRIES};
+    /**
+     * The numbers of threads used by the storages which serialize the data in
+     * parallel, used to compare their speedup over a single thread against
+     * the number of cores
+     */
+    private static final int[] N_THREADS = IntStream
+            .of(1, 2, 4, Runtime.getRuntime().availableProcessors())
+            .distinct()
+            .sorted()
+            .toArray();
+
+    /**
+     * The number of bytes in one kibibyte
+     */
+    private static final double BYTES_PER_KB = 1024;
+
+    /**
+     * The system property key which selects the benchmark mode
+     */
+    private static final String MODE_PROP = "data-benchmark.mode";
+    /**
+     * The benchmark mode which runs the {@link DurabilityBenchmark} rather
+     * than measuring the store and query times
+     */
+    private static final String DURABILITY_MODE = "durability";
+    /**
+     * The benchmark mode which additionally runs each benchmark under a
+     * {@link BackgroundLoad} and compares the times against the benchmark
+     * without it
+     */
+    private static final String INTERFERENCE_MODE = "interference";
+    /**
+     * Whether the benchmark is run in the {@link #INTERFERENCE_MODE}
+     */
+    private static final boolean INTERFERENCE = INTERFERENCE_MODE.equals(System.getProperty(MODE_PROP));
+    /**
+     * The system property key for the number of threads of the background
+     * load which spin on the CPU
+     */
+    private static final String LOAD_CPU_THREADS_PROP = "data-benchmark.load-cpu-threads";
+    /**
+     * The system property key for the number of threads of the background
+     * load which allocate memory
+     */
+    private static final String LOAD_ALLOCATION_THREADS_PROP = "data-benchmark.load-allocation-threads";
+    /**
+     * The system property key for the number of threads of the background
+     * load which sequentially write a file
+     */
+    private static final String LOAD_WRITE_THREADS_PROP = "data-benchmark.load-write-threads";
+    /**
+     * The suffix of the results of the benchmarks run under the background
+     * load
+     */
+    private static final String UNDER_LOAD = " under load";
+    /**
+     * The system property key for the path of the JDK Flight Recorder file to
+     * record the benchmark to, which is not recorded if unset
+     */
+    private static final String JFR_PROP = "data-benchmark.jfr";
+    /**
+     * The system property key for a comma-separated list of record sizes, in
+     * bytes, for which to additionally benchmark records with a payload of
+     * that size
+     */
+    private static final String RECORD_SIZES_PROP = "data-benchmark.record-sizes";
+    /**
+     * The system property key for a comma-separated list of percentages of
+     * the records which change between iterations, for each of which to
+     * additionally benchmark data generated with that change rate
+     */
+    private static final String CHANGE_RATES_PROP = "data-benchmark.change-rates";
+    /**
+     * The system property key for the seed from which all of the data is
+     * generated
+     */
+    private static final String SEED_PROP = "data-benchmark.seed";
+    /**
+     * The seed from which all of the data is generated, so that every run and
+     * every storage is given the same data. Each benchmark is given a newly
+     * created generator so that it starts from the seed rather than from the
+     * state left behind by the benchmark before it.
+     */
+    private static final long SEED = Long.getLong(SEED_PROP, 0);
+    /**
+     * The system property key for the directory in which to keep the dataset
+     * fixtures and storage snapshots, which are not kept if unset
+     */
+    private static final String FIXTURES_PROP = "data-benchmark.fixtures";
+    /**
+     * The system property key for the target relative error of the store and
+     * query times, at which the measurement of a benchmark is stopped
+     */
+    private static final String TARGET_ERROR_PROP = "data-benchmark.target-error";
+    /**
+     * The largest half-width of the 95% confidence interval of the store and
+     * query times relative to the times at which the measurement is stopped
+     */
+    private static final double TARGET_ERROR = Double.parseDouble(
+            System.getProperty(TARGET_ERROR_PROP, "0.05"));
+    /**
+     * The system property key for the time which must be within the
+     * {@link #TARGET_ERROR} for the measurement to stop, either {@code mean}
+     * or {@code p99}
+     */
+    private static final String CONVERGE_ON_PROP = "data-benchmark.converge-on";
+    /**
+     * Whether the measurement stops once the 99th percentile rather than the
+     * mean of the store and query times is within the {@link #TARGET_ERROR}
+     */
+    private static final boolean CONVERGE_ON_P99 = "p99".equals(System.getProperty(CONVERGE_ON_PROP));
+    /**
+     * The system property key for the time, in seconds, after which the
+     * measurement of a benchmark is stopped even if it has not converged
+     */
+    private static final String MEASUREMENT_TIME_PROP = "data-benchmark.measurement-time";
+    /**
+     * The time after which the measurement of a benchmark is stopped even if
+     * it has not converged, in nanoseconds. The iteration in progress is
+     * always completed.
+     */
+    private static final long MEASUREMENT_TIME_NS = TimeUnit.SECONDS.toNanos(
+            Long.getLong(MEASUREMENT_TIME_PROP, 60));
+    /**
+     * The system property key for the time budget of each benchmark, in
+     * seconds
+     */
+    private static final String TIMEOUT_PROP = "data-benchmark.timeout";
+    /**
+     * The time after which a benchmark is cancelled, including the setup of
+     * the storage and the warm-up, in nanoseconds
+     */
+    private static final long TIMEOUT_NS = TimeUnit.SECONDS.toNanos(
+            Long.getLong(TIMEOUT_PROP, 600));
+    /**
+     * The system property key for the time budget of each iteration of a
+     * benchmark, in seconds
+     */
+    private static final String ITERATION_TIMEOUT_PROP = "data-benchmark.iteration-timeout";
+    /**
+     * The time after which a benchmark is cancelled if a single iteration
+     * has not completed, in nanoseconds
+     */
+    private static final long ITERATION_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(
+            Long.getLong(ITERATION_TIMEOUT_PROP, 60));
+    /**
+     * The system property key for the number of child JVMs in which to run
+     * each benchmark, which are all run in this JVM if unset
+     */
+    private static final String FORKS_PROP = "data-benchmark.forks";
+    /**
+     * The system property key for the JVM options of the child JVMs, with
+     * each set of options separated by a semicolon being benchmarked
+     * separately
+     */
+    private static final String JVM_OPTIONS_PROP = "data-benchmark.jvm-options";
+    /**
+     * The system property key for the path of the file to periodically write
+     * the metrics of the storages to in the Prometheus text format, which are
+     * not written if unset
+     */
+    private static final String METRICS_FILE_PROP = "data-benchmark.metrics-file";
+    /**
+     * The system property key for the time between each write of the metrics
+     * file, in seconds
+     */
+    private static final String METRICS_PERIOD_PROP = "data-benchmark.metrics-period";
+    /**
+     * The system property key which exposes the metrics of the storages over
+     * JMX if set to {@code true}
+     */
+    private static final String JMX_PROP = "data-benchmark.jmx";
+
+    /**
+     * The reason given for stopping the measurement of a benchmark whose
+     * times are within the {@link #TARGET_ERROR}
+     */
+    private static final String CONVERGED = "converged";
+
+    /**
+     * The dataset fixtures used to set up the storages, opened by the first
+     * benchmark, or {@code null} if every storage is set up by importing a
+     * newly generated dataset
+     */
+    private static DatasetFixtures fixtures;
+    /**
+     * The names of the storages whose benchmark thread did not stop after
+     * exceeding its time budget, which may still be using the storage and
+     * therefore cannot be benchmarked again or cleaned up
+     */
+    private static final Set<String> ABANDONED_STORAGES = new HashSet<>();
 
     public static void main(String[] args) throws Exception {
         log("Starting DataBenchmark test suite...");
-        log("N_WARMUP = %d", N_WARMUP);
-        log("N_ITERATIONS = %d", N_ITERATIONS);
+        log("MAX_WARMUP = %d", MAX_WARMUP);
+        log("MIN_ITERATIONS = %d", MIN_ITERATIONS);
+        log("MAX_ITERATIONS = %d", MAX_ITERATIONS);
+        log("TARGET_ERROR = %.1f%% of %s", TARGET_ERROR * 100, CONVERGE_ON_P99 ? "p99" : "mean");
+        log("MEASUREMENT_TIME = %d s", TimeUnit.NANOSECONDS.toSeconds(MEASUREMENT_TIME_NS));
+        log("TIMEOUT = %d s", TimeUnit.NANOSECONDS.toSeconds(TIMEOUT_NS));
+        log("ITERATION_TIMEOUT = %d s", TimeUnit.NANOSECONDS.toSeconds(ITERATION_TIMEOUT_NS));
         log("N_DATASET = %d", N_DATASET);
         log("N_ENTRIES = %d", N_ENTRIES);
+        log("N_SHARDS = %s", Arrays.toString(N_SHARDS));
+        log("N_ROWS_PER_STATEMENT = %s", Arrays.toString(N_ROWS_PER_STATEMENT));
+        log("N_THREADS = %s", Arrays.toString(N_THREADS));
+        log("N_CORES = %d", Runtime.getRuntime().availableProcessors());
+        log("SEED = %d", SEED);
+        if (INTERFERENCE) {
+            log("LOAD = %s", createLoad());
+        }
+        log("");
+
+        List<DataGenerator> generators = createGenerators();
+        List<Storage> storages = createStorages();
+        if (DURABILITY_MODE.equals(System.getProperty(MODE_PROP))) {
+            DurabilityBenchmark.run(storages, N_DATASET, N_ENTRIES);
+            return;
+        }
+
+        Map<String, BenchmarkResult> results = new LinkedHashMap<>(
+                generators.size() * storages.size());
+        int runCount = storages.size() == 1 ? 1 : 2;
+
+        // The allocation pressure of the background load only competes with a
+        // storage in the same JVM, so the interference mode is never forked
+        String forks = INTERFERENCE ? null : System.getProperty(FORKS_PROP);
+        String jfrPath = System.getProperty(JFR_PROP);
+        // Forked benchmarks export the metrics of their own JVM
+        MetricsFileExporter metricsExporter = forks == null ? exportMetrics() : null;
+        if (forks != null) {
+            runCount = Integer.parseInt(forks);
+            List<List<String>> jvmOptions = ForkedBenchmark.parseJvmOptions(
+                    System.getProperty(JVM_OPTIONS_PROP, ""));
+            ForkedBenchmark.run(generators, storages, jvmOptions, runCount, results);
+        } else if (jfrPath == null) {
+            runSuites(generators, storages, results, runCount);
+        } else {
+            try (BenchmarkRecording recording = new BenchmarkRecording(Paths.get(jfrPath))) {
+                log("Recording to '%s'...", recording.getDestination());
+                log("");
+
+                runSuites(generators, storages, results, runCount);
+            }
+        }
+
+        if (metricsExporter != null) {
+            metricsExporter.close();
+            log("Wrote metrics to '%s'", metricsExporter.getFilePath());
+            log("");
+        }
+
+        log("--- Results ---");
+        for (Map.Entry<String, BenchmarkResult> entry : results.entrySet()) {
+            BenchmarkResult result = entry.getValue();
+
+            if (result.getTimeoutCount() > 0) {
+                log("%s - TIMED OUT after %.0f iterations, extrapolated %.3f ms/op",
+                        entry.getKey(), result.getTimeoutIterations(), result.getExtrapolatedMs());
+            }
+            if (result.getStoreCount() > 0) {
+                log("%s - STORE = %s", entry.getKey(), formatSummary(result.getStoreSummary()));
+                log("%s - QUERY = %s", entry.getKey(), formatSummary(result.getQuerySummary()));
+            }
+            for (Map.Entry<String, Double> statistic : result.getStatistics().entrySet()) {
+                log("%s - %s = %.3f", entry.getKey(), statistic.getKey(),
+                        statistic.getValue());
+            }
+        }
+
         log("");
+        log("--- Phase Breakdown ---");
+        for (Map.Entry<String, BenchmarkResult> entry : results.entrySet()) {
+            BenchmarkResult result = entry.getValue();
+            if (result.getStoreCount() == 0) {
+                continue;
+            }
+
+            double[] storePhaseMs = new double[Phase.values().length];
+            double[] queryPhaseMs = new double[Phase.values().length];
+            for (Phase phase : Phase.values()) {
+                storePhaseMs[phase.ordinal()] = result.getTotalStorePhaseMs(phase);
+                queryPhaseMs[phase.ordinal()] = result.getTotalQueryPhaseMs(phase);
+            }
+
+            log("%s - STORE = %s", entry.getKey(), formatPhases(
+                    result.getTotalStoreMs(), storePhaseMs, result.getStoreCount()));
+            log("%s - QUERY = %s", entry.getKey(), formatPhases(
+                    result.getTotalQueryMs(), queryPhaseMs, result.getQueryCount()));
+        }
 
+        log("");
+        log("--- Speedup ---");
+        Map<String, String> baselines = getSpeedupBaselines();
+        for (Map.Entry<String, BenchmarkResult> entry : results.entrySet()) {
+            for (Map.Entry<String, String> baseline : baselines.entrySet()) {
+                String baselineId = getBaselineId(entry.getKey(), baseline.getKey(), baseline.getValue());
+                BenchmarkResult single = baselineId == null ? null : results.get(baselineId);
+                BenchmarkResult parallel = entry.getValue();
+                if (single == null || single.getStoreCount() == 0 || parallel.getStoreCount() == 0) {
+                    continue;
+                }
+
+                log("%s - STORE = x%.2f, QUERY = x%.2f", entry.getKey(),
+                        single.getStoreSummary().getMeanMs() / parallel.getStoreSummary().getMeanMs(),
+                        single.getQuerySummary().getMeanMs() / parallel.getQuerySummary().getMeanMs());
+            }
+        }
+
+        if (INTERFERENCE) {
+            log("");
+            log("--- Interference ---");
+            for (Map.Entry<String, BenchmarkResult> entry : results.entrySet()) {
+                if (!entry.getKey().endsWith(UNDER_LOAD)) {
+                    continue;
+                }
+
+                String resultId = entry.getKey().substring(0, entry.getKey().length() - UNDER_LOAD.length());
+                BenchmarkResult idle = results.get(resultId);
+                BenchmarkResult loaded = entry.getValue();
+                if (idle == null || idle.getStoreCount() == 0 || loaded.getStoreCount() == 0) {
+                    continue;
+                }
+
+                log("%s - STORE = %s", resultId, formatDegradation(
+                        idle.getStoreSummary(), loaded.getStoreSummary()));
+                log("%s - QUERY = %s", resultId, formatDegradation(
+                        idle.getQuerySummary(), loaded.getQuerySummary()));
+            }
+        }
+    }
+
+    /**
+     * Obtains the ID of the result of the single-threaded storage to compare
+     * the result with the given ID against, if it is a result of the given
+     * multi-threaded storage.
+     *
+     * @param resultId the ID of the result
+     * @param name     the name of the multi-threaded storage
+     * @param baseline the name of the single-threaded storage
+     * @return the ID of the single-threaded result, or {@code null} if the
+     * result is not of the multi-threaded storage
+     */
+    private static @Nullable String getBaselineId(@NonNull String resultId, @NonNull String name,
+                                                  @NonNull String baseline) {
+        String storage = ") " + name;
+        int start = resultId.indexOf(storage);
+        int end = start + storage.length();
+        if (start < 0 || end < resultId.length() && resultId.charAt(end) != ' ') {
+            return null;
+        }
+
+        return resultId.substring(0, start) + ") " + baseline + resultId.substring(end);
+    }
+
+    /**
+     * Formats the mean, median and 99th percentile times of an operation
+     * without and under the background load, along with the factor by which
+     * the load slowed each of them down.
+     *
+     * @param idle   the summary of the times without the load
+     * @param loaded the summary of the times under the load
+     * @return the formatted comparison
+     */
+    private static @NonNull String formatDegradation(@NonNull SampleSummary idle,
+                                                     @NonNull SampleSummary loaded) {
+        return format("mean %.3f -> %.3f ms (x%.2f), p50 %.3f -> %.3f ms (x%.2f), p99 %.3f -> %.3f ms (x%.2f)",
+                idle.getMeanMs(), loaded.getMeanMs(), loaded.getMeanMs() / idle.getMeanMs(),
+                idle.getMedianMs(), loaded.getMedianMs(), loaded.getMedianMs() / idle.getMedianMs(),
+                idle.getP99Ms(), loaded.getP99Ms(), loaded.getP99Ms() / idle.getP99Ms());
+    }
+
+    /**
+     * Formats the mean time of an operation along with its 95% confidence
+     * interval, its median and 99th percentile and the number of outliers.
+     *
+     * @param summary the summary of the times of the operation
+     * @return the formatted summary
+     */
+    private static @NonNull String formatSummary(@NonNull SampleSummary summary) {
+        return format("%.3f ms +/- %.3f ms (p50 = %.3f ms, p99 = %.3f ms, n = %d, %d outliers)",
+                summary.getMeanMs(), summary.getMeanErrorMs(), summary.getMedianMs(),
+                summary.getP99Ms(), summary.getCount(), summary.getOutliers().size());
+    }
+
+    /**
+     * Formats the average time spent in each {@link Phase} of an operation,
+     * followed by the time which was not attributed to any phase, along with
+     * their share of the average time of the operation.
+     *
+     * @param totalMs    the total time of all operations, in milliseconds
+     * @param phaseMs    the total time spent in each phase by all operations,
+     *                   in milliseconds, indexed by the phase ordinal
+     * @param operations the number of operations
+     * @return the formatted breakdown of the operation time
+     */
+    private static @NonNull String formatPhases(double totalMs, double @NonNull [] phaseMs,
+                                                int operations) {
+        StringJoiner joiner = new StringJoiner(" + ");
+        double unattributedMs = totalMs;
+        for (Phase phase : Phase.values()) {
+            double ms = phaseMs[phase.ordinal()];
+            if (ms == 0) {
+                continue;
+            }
+
+            unattributedMs -= ms;
+            joiner.add(format("%s %.3f ms (%.1f%%)", phase.getDescription(),
+                    ms / operations, ms / totalMs * 100));
+        }
+
+        joiner.add(format("Unattributed %.3f ms (%.1f%%)",
+                unattributedMs / operations, unattributedMs / totalMs * 100));
+        return joiner.toString();
+    }
+
+    /**
+     * Creates every {@link DataGenerator} included in the benchmark, in the
+     * order in which they are run. The generators are identified by their
+     * name, so each must have a distinct name.
+     *
+     * @return the generators to benchmark
+     */
+    public static @NonNull List<DataGenerator> createGenerators() {
+        // Each generator is seeded after the dataset seed so that it does not
+        // generate the keys already in the dataset
         List<DataGenerator> generators = new ArrayList<>();
         // generators.add(new RandomDataGenerator());
         // generators.add(new SameDataGenerator());
-        generators.add(new SameKeyGenerator());
+        generators.add(new SameKeyGenerator(SEED + 1));
+
+        String recordSizes = System.getProperty(RECORD_SIZES_PROP);
+        if (recordSizes != null) {
+            for (String recordSize : recordSizes.split(",")) {
+                RecordSchema schema = RecordSchema.withPayload(Integer.parseInt(recordSize.trim()));
+                generators.add(new SchemaDataGenerator(schema, true, SEED + generators.size() + 1));
+            }
+        }
+
+        String changeRates = System.getProperty(CHANGE_RATES_PROP);
+        if (changeRates != null) {
+            for (String changeRate : changeRates.split(",")) {
+                generators.add(new ChangeRateGenerator(Double.parseDouble(changeRate.trim()),
+                        SEED + generators.size() + 1));
+            }
+        }
+
+        return generators;
+    }
+
+    /**
+     * Creates a new instance of the {@link DataGenerator} with the given name,
+     * seeded in the same way as by {@link #createGenerators()}, so that it
+     * generates the same data as any other instance created by this method.
+     *
+     * @param name the name of the generator
+     * @return the new generator
+     * @throws IllegalArgumentException if no generator has the given name
+     */
+    public static @NonNull DataGenerator createGenerator(@NonNull String name) {
+        return createGenerators().stream()
+                .filter(g -> g.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown generator: " + name));
+    }
 
+    /**
+     * Creates every {@link Storage} included in the benchmark, in the order
+     * in which they are run. The storages are identified by their name, so
+     * each must have a distinct name.
+     *
+     * @return the storages to benchmark
+     */
+    public static @NonNull List<Storage> createStorages() {
         List<Storage> storages = new ArrayList<>();
-        storages.add(new YamlStorage());
-        storages.add(new JsonStorage());
+        storages.add(new OnHeapStorage());
+        storages.add(new OffHeapStorage());
+        for (FileWriteMode writeMode : FileWriteMode.values()) {
+            storages.add(new YamlStorage(writeMode));
+            storages.add(new JsonStorage(writeMode));
+        }
+        storages.add(new BinaryStorage());
+        storages.add(new BinaryStreamingStorage());
+        for (int shardCount : N_SHARDS) {
+            storages.add(new ShardedYamlStorage(shardCount));
+            storages.add(new ShardedJsonStorage(shardCount));
+        }
+        for (int threads : N_THREADS) {
+            storages.add(new ParallelYamlStorage(threads));
+            storages.add(new ParallelJsonStorage(threads));
+            if (threads > 1) {
+                storages.add(new ShardedJsonStorage(N_SHARDS[1], threads));
+            }
+        }
         storages.add(new SqliteUnsafeStorage());
         storages.add(new MySqlStorage());
         storages.add(new MySqlReplaceStorage());
-        // storages.add(new SqliteStorage());
+        storages.add(new MySqlCachedStorage());
+        for (int rowsPerStatement : N_ROWS_PER_STATEMENT) {
+            storages.add(new MySqlMultiRowStorage(rowsPerStatement));
+        }
+        storages.add(new MySqlLoadDataStorage());
+        storages.add(new H2Storage());
+        storages.add(new H2MemoryStorage());
+        for (int rowsPerStatement : N_ROWS_PER_STATEMENT) {
+            storages.add(new H2MultiRowStorage(rowsPerStatement));
+        }
+        storages.add(new DerbyStorage());
+        storages.add(new SqliteStorage());
         storages.add(new SqliteTransactionStorage());
+        storages.add(new SqliteCachedStorage());
+        for (int rowsPerStatement : N_ROWS_PER_STATEMENT) {
+            storages.add(new SqliteMultiRowStorage(rowsPerStatement));
+        }
+        storages.add(new SqliteStagingStorage());
+        storages.add(new BitcaskStorage());
+        storages.add(new LsmStorage());
+        storages.add(new ChangeTrackingStorage(new JsonStorage()));
+        storages.add(new ChangeTrackingStorage(new BinaryStorage()));
+        storages.add(new ChangeTrackingStorage(new SqliteTransactionStorage()));
+        storages.add(new ChangeTrackingStorage(new MySqlStorage()));
+        storages.add(new ChangeTrackingStorage(new LsmStorage()));
 
-        Map<String, BenchmarkResult> results = new LinkedHashMap<>(
-                generators.size() * storages.size());
+        storages.replaceAll(InstrumentedStorage::new);
+
+        return storages;
+    }
+
+    /**
+     * Obtains the names of the storages created by {@link #createStorages()}
+     * which store the data on multiple threads, mapped to the name of the same
+     * storage on a single thread, whose mean times are divided by theirs to
+     * obtain their speedup.
+     *
+     * @return the names of the single-threaded storages, mapped by the names
+     * of the multi-threaded storages
+     */
+    private static @NonNull Map<String, String> getSpeedupBaselines() {
+        Map<String, String> baselines = new LinkedHashMap<>();
+        for (int threads : N_THREADS) {
+            if (threads == 1) {
+                continue;
+            }
+
+            baselines.put(new ParallelYamlStorage(threads).getName(), new ParallelYamlStorage(1).getName());
+            baselines.put(new ParallelJsonStorage(threads).getName(), new ParallelJsonStorage(1).getName());
+            baselines.put(new ShardedJsonStorage(N_SHARDS[1], threads).getName(),
+                    new ShardedJsonStorage(N_SHARDS[1]).getName());
+        }
+
+        return baselines;
+    }
+
+    /**
+     * Exposes the metrics of the storages over JMX and starts writing them to
+     * the metrics file, if either is enabled by its system property.
+     *
+     * @return the exporter writing the metrics file, which must be closed
+     * once the storages are no longer used, or {@code null} if the metrics
+     * file is not written
+     */
+    public static @Nullable MetricsFileExporter exportMetrics() {
+        if (Boolean.getBoolean(JMX_PROP)) {
+            MetricsRegistry.getDefault().registerMBeans();
+        }
+
+        String metricsPath = System.getProperty(METRICS_FILE_PROP);
+        if (metricsPath == null) {
+            return null;
+        }
+
+        long periodMs = TimeUnit.SECONDS.toMillis(Long.getLong(METRICS_PERIOD_PROP, 10));
+        return new MetricsFileExporter(MetricsRegistry.getDefault(), Paths.get(metricsPath), periodMs);
+    }
+
+    /**
+     * Creates the background load of the {@link #INTERFERENCE_MODE} as
+     * configured by its system properties, which by default spins on every
+     * core, allocates on one thread and writes one file.
+     *
+     * @return the background load, which has not been started
+     */
+    private static @NonNull BackgroundLoad createLoad() {
+        return new BackgroundLoad(
+                Integer.getInteger(LOAD_CPU_THREADS_PROP, Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger(LOAD_ALLOCATION_THREADS_PROP, 1),
+                Integer.getInteger(LOAD_WRITE_THREADS_PROP, 1));
+    }
+
+    /**
+     * Runs the entire suite of benchmarks the given number of times, reversing
+     * the order of the storages for the second run.
+     *
+     * @param generators the generators which to use for obtaining data
+     * @param storages   the storage mediums which to benchmark
+     * @param results    the collection of results to populate with the
+     *                   collected benchmark data
+     * @param runCount   the number of times to run the suite, either 1 or 2
+     * @throws Exception if the benchmark threw an exception while running
+     */
+    private static void runSuites(@NonNull Collection<DataGenerator> generators,
+                                  @NonNull List<Storage> storages,
+                                  @NonNull Map<String, BenchmarkResult> results,
+                                  int runCount) throws Exception {
         runSuite(generators, storages, results);
 
-        int runCount = storages.size() == 1 ? 1 : 2;
         if (runCount != 1) {
             log("Reversing storages to reduce skew...");
             log("");
@@ -75,21 +712,13 @@ public class DataBenchmark {
             Collections.reverse(storages);
             runSuite(generators, storages, results);
         }
-
-        log("--- Results ---");
-        for (Map.Entry<String, BenchmarkResult> entry : results.entrySet()) {
-            BenchmarkResult result = entry.getValue();
-
-            log("%s - STORE = %.3f ms", entry.getKey(),
-                    result.getTotalStoreMs() / N_ITERATIONS / runCount);
-            log("%s - QUERY = %.3f ms", entry.getKey(),
-                    result.getTotalQueryMs() / N_ITERATIONS / runCount);
-        }
     }
 
     /**
      * Runs the entire suite of benchmarks with the given collection of
-     * {@link DataGenerator}s and {@link Storage}s.
+     * {@link DataGenerator}s and {@link Storage}s. Each benchmark is run with
+     * a new instance of the generator created by
+     * {@link #createGenerator(String)}.
      *
      * @param generators the generators which to use for obtaining data
      * @param storages   the storage mediums which to benchmark
@@ -103,40 +732,192 @@ public class DataBenchmark {
             throws Exception {
         for (DataGenerator generator : generators) {
             for (Storage storage : storages) {
-                String resultId = format("(%s) %s", generator.getName(), storage.getName());
-                BenchmarkResult result = results.computeIfAbsent(resultId,
-                        k -> new BenchmarkResult());
-                benchmark(storage, generator, result);
+                if (!storage.supports(generator.getSchema())) {
+                    log("Skipping '%s', which does not support '%s'", storage.getName(),
+                            generator.getName());
+                    log("");
+                    continue;
+                }
 
-                log("");
+                String resultId = format("(%s) %s", generator.getName(), storage.getName());
+                runBenchmark(storage, createGenerator(generator.getName()), resultId, results,
+                        false);
+                if (INTERFERENCE) {
+                    runBenchmark(storage, createGenerator(generator.getName()),
+                            resultId + UNDER_LOAD, results, true);
+                }
             }
         }
     }
 
+    /**
+     * Runs the benchmark of the given {@code storage} with the given
+     * {@code generator}, unless it has already timed out, and records it to
+     * the result with the given ID. The background load is started before the
+     * storage is set up and stopped once it has been cleaned up, so that the
+     * warm-up also reaches its steady state under the load.
+     *
+     * @param storage   the destination for the generated data
+     * @param generator source of data that shall be stored
+     * @param resultId  the ID of the result to record the benchmark to
+     * @param results   the collection of results to populate with the
+     *                  collected benchmark data
+     * @param underLoad {@code true} to run the benchmark under the background
+     *                  load
+     * @throws Exception if the benchmark threw an exception while running
+     */
+    private static void runBenchmark(@NonNull Storage storage,
+                                     @NonNull DataGenerator generator,
+                                     @NonNull String resultId,
+                                     @NonNull Map<String, BenchmarkResult> results,
+                                     boolean underLoad) throws Exception {
+        BenchmarkResult result = results.computeIfAbsent(resultId,
+                k -> new BenchmarkResult());
+        if (result.getTimeoutCount() > 0) {
+            log("Skipping '%s', which timed out", resultId);
+            log("");
+            return;
+        }
+        if (ABANDONED_STORAGES.contains(storage.getName())) {
+            log("Skipping '%s', whose storage is still in use by a timed out benchmark", resultId);
+            log("");
+            return;
+        }
+
+        if (!underLoad) {
+            benchmark(storage, generator, result);
+            log("");
+            return;
+        }
+
+        BackgroundLoad load = createLoad();
+        log("Starting background load with %s...", load);
+        load.start();
+        try {
+            benchmark(storage, generator, result, load);
+        } finally {
+            load.close();
+        }
+
+        log("Load allocated MB/s = %.3f", load.getAllocatedMbPerSecond());
+        log("Load written MB/s = %.3f", load.getWrittenMbPerSecond());
+        result.addStatistic("Load allocated MB/s", load.getAllocatedMbPerSecond());
+        result.addStatistic("Load written MB/s", load.getWrittenMbPerSecond());
+        log("");
+    }
+
     /**
      * Performs the benchmark procedure that attempts to store data from the
-     * given {@code generator} into the given {@code storage} medium.
+     * given {@code generator} into the given {@code storage} medium within
+     * the {@link #TIMEOUT_NS} and the {@link #ITERATION_TIMEOUT_NS}. If
+     * either is exceeded, the benchmark is cancelled, the storage is cleaned
+     * up and the timeout is recorded to the result. If the benchmark thread
+     * does not stop, the storage is left as it is instead and is not
+     * benchmarked again.
+     *
+     * @param storage   the destination for the generated data.
+     * @param generator source of data that shall be stored.
+     * @param result    the results from running the benchmark that will be
+     *                  populated by the data collected
+     * @throws Exception if the benchmark threw an exception while running
+     */
+    public static void benchmark(@NonNull Storage storage,
+                                 @NonNull DataGenerator generator,
+                                 @NonNull BenchmarkResult result)
+            throws Exception {
+        benchmark(storage, generator, result, null);
+    }
+
+    /**
+     * Performs the benchmark procedure in the same way as
+     * {@link #benchmark(Storage, DataGenerator, BenchmarkResult)} while the
+     * given background load is running, whose writes are excluded from the
+     * I/O counters of the storage.
      *
      * @param storage   the destination for the generated data.
      * @param generator source of data that shall be stored.
      * @param result    the results from running the benchmark that will be
      *                  populated by the data collected
+     * @param load      the running background load, or {@code null} if the
+     *                  benchmark is not run under load
      * @throws Exception if the benchmark threw an exception while running
      */
     private static void benchmark(@NonNull Storage storage,
                                   @NonNull DataGenerator generator,
-                                  @NonNull BenchmarkResult result)
+                                  @NonNull BenchmarkResult result,
+                                  @Nullable BackgroundLoad load)
+            throws Exception {
+        TimeBudget budget = new TimeBudget(TIMEOUT_NS, ITERATION_TIMEOUT_NS);
+        try {
+            budget.run("Benchmark Runner", () -> {
+                benchmark(storage, generator, result, load, budget);
+                return null;
+            });
+        } catch (TimeoutException e) {
+            double extrapolatedNs = budget.getExtrapolatedIterationNs();
+            if (Double.isNaN(extrapolatedNs)) {
+                // Timed out during the setup, which stores N_DATASET rather
+                // than N_ENTRIES records
+                extrapolatedNs = (double) budget.getTimeoutBenchmarkNs() * N_ENTRIES / N_DATASET;
+            }
+
+            log("");
+            log("%s, timed out after %d iterations, extrapolated %.3f ms/op", e.getMessage(),
+                    budget.getCompletedIterations(), extrapolatedNs / BenchmarkResult.NS_PER_MS);
+            result.addTimeout(budget.getCompletedIterations(), extrapolatedNs);
+
+            if (budget.isRunnerAlive()) {
+                log("Benchmark Runner did not stop, skipping the cleanup of '%s'",
+                        storage.getName());
+                ABANDONED_STORAGES.add(storage.getName());
+                return;
+            }
+
+            try {
+                storage.cleanup();
+            } catch (Exception cleanupException) {
+                log("Failed to clean up '%s': %s", storage.getName(), cleanupException);
+            }
+        }
+    }
+
+    /**
+     * Performs the benchmark procedure on the current thread, marking each
+     * iteration in the given {@code budget}.
+     *
+     * @param storage   the destination for the generated data.
+     * @param generator source of data that shall be stored.
+     * @param result    the results from running the benchmark that will be
+     *                  populated by the data collected
+     * @param load      the running background load, or {@code null} if the
+     *                  benchmark is not run under load
+     * @param budget    the time budget of the benchmark
+     * @throws Exception if the benchmark threw an exception while running
+     */
+    private static void benchmark(@NonNull Storage storage,
+                                  @NonNull DataGenerator generator,
+                                  @NonNull BenchmarkResult result,
+                                  @Nullable BackgroundLoad load,
+                                  @NonNull TimeBudget budget)
             throws Exception {
         log("Starting benchmark...");
         log("Storage = '%s'", storage.getName());
         log("Data = '%s'", generator.getName());
 
-        DataGenerator rdg = new RandomDataGenerator();
-        List<GeneratedData> dataset = rdg.generate(N_DATASET);
-        storage.setup(dataset);
+        BenchmarkEvent benchmarkEvent = new BenchmarkEvent();
+        benchmarkEvent.begin();
+
+        setup(storage, generator);
 
         log("Starting warmup...");
-        for (int i = 0; i < N_WARMUP; i++) {
+        SteadyStateDetector steadyState = new SteadyStateDetector(WARMUP_WINDOW, WARMUP_TOLERANCE);
+        boolean steady = false;
+        int warmupCount = 0;
+        while (!steady && warmupCount < MAX_WARMUP) {
+            budget.startIteration();
+            IterationEvent iterationEvent = new IterationEvent();
+            iterationEvent.begin();
+
             List<GeneratedData> dataCollection = generator.generate(N_ENTRIES);
 
             int randIdx = ThreadLocalRandom
@@ -145,48 +926,383 @@ public class DataBenchmark {
             GeneratedData randData = dataCollection.get(randIdx);
 
             storage.setupIter();
-            storage.storeData(dataCollection);
-            boolean querySuccess = storage.queryData(randData);
-            if (!querySuccess) {
-                throw new IllegalStateException("Failed to query data");
-            }
+            long storeNs = store(storage, generator, dataCollection, load);
+            long queryNs = query(storage, generator, randData);
 
             storage.cleanupIter(dataCollection);
+
+            warmupCount++;
+            budget.completeIteration(storeNs + queryNs);
+            steady = steadyState.add(storeNs + queryNs);
+            commitIteration(iterationEvent, storage, generator, warmupCount, true);
         }
+        log("Warmed up after %d iterations%s", warmupCount,
+                steady ? "" : ", without reaching a steady state");
 
         log("Starting measurement...");
-        for (int i = 0; i < N_ITERATIONS; i++) {
-            logp("Starting iteration %d... ", i + 1);
+        long gcCountStart = GcStatistics.getCollectionCount();
+        long gcMsStart = GcStatistics.getCollectionMs();
+        IoCounters io = IoCounters.ZERO;
+        long loadWrittenBytes = 0;
+        long logicalBytes = 0;
+        boolean recordViews = storage.supportsRecordViews();
+        long viewFieldNs = 0;
+        long viewRecordNs = 0;
+        List<Long> storeSamplesNs = new ArrayList<>();
+        List<Long> querySamplesNs = new ArrayList<>();
+        long measurementStart = System.nanoTime();
+        String stopReason = null;
+        int iterationCount = 0;
+        while (stopReason == null) {
+            logp("Starting iteration %d... ", iterationCount + 1);
+            budget.startIteration();
+            IterationEvent iterationEvent = new IterationEvent();
+            iterationEvent.begin();
+
             List<GeneratedData> dataCollection = generator.generate(N_ENTRIES);
 
             storage.setupIter();
+            PhaseTimer.drain();
+            IoCounters ioStart = IoStatistics.read();
+            long loadWrittenStart = load == null ? 0 : load.getWrittenBytes();
 
-            long storeStart = System.nanoTime();
-            storage.storeData(dataCollection);
-            long storeNs = System.nanoTime() - storeStart;
-            result.addStoreNs(storeNs);
+            long storeNs = store(storage, generator, dataCollection, load);
+            long[] storePhaseNs = PhaseTimer.drain();
 
             int randIdx = ThreadLocalRandom
                     .current()
                     .nextInt(dataCollection.size());
             GeneratedData randData = dataCollection.get(randIdx);
 
-            long queryStart = System.nanoTime();
-            boolean querySuccess = storage.queryData(randData);
-            long queryNs = System.nanoTime() - queryStart;
-            if (!querySuccess) {
-                throw new IllegalStateException("Failed to query data");
+            long queryNs = query(storage, generator, randData);
+            long[] queryPhaseNs = PhaseTimer.drain();
+            IoCounters iterationIo = IoStatistics.read().minus(ioStart);
+            long iterationLoadWrittenBytes = load == null ? 0 : load.getWrittenBytes() - loadWrittenStart;
+
+            long iterationViewFieldNs = 0;
+            long iterationViewRecordNs = 0;
+            if (recordViews) {
+                iterationViewFieldNs = queryView(storage, randData, 1);
+                iterationViewRecordNs = queryView(storage, randData, randData.getLength() - 1);
             }
-            result.addQueryNs(queryNs);
 
             storage.cleanupIter(dataCollection);
+            budget.completeIteration(storeNs + queryNs);
+
+            // Only completed iterations are recorded, as the iteration which
+            // exceeded the time budget does not complete
+            iterationCount++;
+            storeSamplesNs.add(storeNs);
+            querySamplesNs.add(queryNs);
+            result.addStoreNs(storeNs);
+            result.addStorePhaseNs(storePhaseNs);
+            result.addQueryNs(queryNs);
+            result.addQueryPhaseNs(queryPhaseNs);
+            io = io.plus(iterationIo);
+            loadWrittenBytes += iterationLoadWrittenBytes;
+            logicalBytes += IoStatistics.getLogicalBytes(dataCollection);
+            viewFieldNs += iterationViewFieldNs;
+            viewRecordNs += iterationViewRecordNs;
+            commitIteration(iterationEvent, storage, generator, iterationCount, false);
 
             log("STORE = %.3f ms, QUERY = %.3f ms",
                     (double) storeNs / BenchmarkResult.NS_PER_MS,
                     (double) queryNs / BenchmarkResult.NS_PER_MS);
+            stopReason = getStopReason(SampleSummary.of(storeSamplesNs),
+                    SampleSummary.of(querySamplesNs), System.nanoTime() - measurementStart);
+        }
+
+        SampleSummary storeSummary = SampleSummary.of(storeSamplesNs);
+        SampleSummary querySummary = SampleSummary.of(querySamplesNs);
+        log("Stopped after %d iterations, %s", iterationCount, stopReason);
+        log("STORE = %s", formatSummary(storeSummary));
+        log("QUERY = %s", formatSummary(querySummary));
+        logOutliers("STORE", storeSummary);
+        logOutliers("QUERY", querySummary);
+
+        Map<String, Double> statistics = new LinkedHashMap<>();
+        statistics.put("Warm-up iterations", (double) warmupCount);
+        statistics.put("Iterations", (double) iterationCount);
+        statistics.put("Converged", stopReason.equals(CONVERGED) ? 1.0 : 0.0);
+        statistics.put("GC count", (double) (GcStatistics.getCollectionCount() - gcCountStart));
+        statistics.put("GC ms", (double) (GcStatistics.getCollectionMs() - gcMsStart));
+        statistics.put("Retained heap MB", GcStatistics.getRetainedHeapMb());
+        statistics.put("Direct MB", GcStatistics.getDirectMb());
+        if (IoStatistics.isAvailable() && !storage.isNetworked()) {
+            // The process also counts the writes of the background load, so
+            // they are subtracted. They reach the device whenever they are
+            // written back, where they cannot be told apart from those of the
+            // storage, so the device counters are omitted under load
+            long writtenChars = io.getWrittenChars() - loadWrittenBytes;
+            statistics.put("Written KB/iter", (double) writtenChars / BYTES_PER_KB / iterationCount);
+            statistics.put("Read KB/iter", (double) io.getReadChars() / BYTES_PER_KB / iterationCount);
+            if (load == null) {
+                statistics.put("Device written KB/iter", (double) io.getWrittenBytes() / BYTES_PER_KB / iterationCount);
+                statistics.put("Device read KB/iter", (double) io.getReadBytes() / BYTES_PER_KB / iterationCount);
+            }
+            statistics.put("Write amplification", (double) writtenChars / logicalBytes);
+        }
+        statistics.put("Logical KB/iter", (double) logicalBytes / BYTES_PER_KB / iterationCount);
+        statistics.put("Syncs/iter", (double) io.getSyncs() / iterationCount);
+        if (recordViews) {
+            statistics.put("View 1 field ms", (double) viewFieldNs / BenchmarkResult.NS_PER_MS / iterationCount);
+            statistics.put("View all fields ms", (double) viewRecordNs / BenchmarkResult.NS_PER_MS / iterationCount);
+        }
+        statistics.putAll(storage.collectStatistics());
+        for (Map.Entry<String, Double> statistic : statistics.entrySet()) {
+            log("%s = %.3f", statistic.getKey(), statistic.getValue());
+            result.addStatistic(statistic.getKey(), statistic.getValue());
         }
 
         storage.cleanup();
+
+        benchmarkEvent.end();
+        if (benchmarkEvent.shouldCommit()) {
+            benchmarkEvent.storage = storage.getName();
+            benchmarkEvent.generator = generator.getName();
+            benchmarkEvent.datasetSize = N_DATASET;
+            benchmarkEvent.warmupIterations = warmupCount;
+            benchmarkEvent.iterations = iterationCount;
+            benchmarkEvent.commit();
+        }
+    }
+
+    /**
+     * Determines whether the measurement of a benchmark should stop, which it
+     * does once the store and query times are both within the
+     * {@link #TARGET_ERROR}, or once either the {@link #MAX_ITERATIONS} or
+     * the {@link #MEASUREMENT_TIME_NS} has been reached.
+     *
+     * @param storeSummary the summary of the store times measured so far
+     * @param querySummary the summary of the query times measured so far
+     * @param elapsedNs    the elapsed nanoseconds since the measurement
+     *                     started
+     * @return the reason to stop the measurement, or {@code null} if it
+     * should continue
+     */
+    private static String getStopReason(@NonNull SampleSummary storeSummary,
+                                        @NonNull SampleSummary querySummary,
+                                        long elapsedNs) {
+        int iterationCount = storeSummary.getCount();
+        if (iterationCount < MIN_ITERATIONS) {
+            return null;
+        }
+
+        double storeError = CONVERGE_ON_P99 ?
+                storeSummary.getP99RelativeError() : storeSummary.getMeanRelativeError();
+        double queryError = CONVERGE_ON_P99 ?
+                querySummary.getP99RelativeError() : querySummary.getMeanRelativeError();
+        if (storeError <= TARGET_ERROR && queryError <= TARGET_ERROR) {
+            return CONVERGED;
+        }
+
+        if (iterationCount >= MAX_ITERATIONS) {
+            return format("reached the maximum iterations with an error of %.1f%% (STORE) and %.1f%% (QUERY)",
+                    storeError * 100, queryError * 100);
+        }
+
+        if (elapsedNs >= MEASUREMENT_TIME_NS) {
+            return format("exceeded the measurement time with an error of %.1f%% (STORE) and %.1f%% (QUERY)",
+                    storeError * 100, queryError * 100);
+        }
+
+        return null;
+    }
+
+    /**
+     * Logs the iterations whose times of the given operation are outliers, up
+     * to the {@link #MAX_LOGGED_OUTLIERS}.
+     *
+     * @param operation the name of the operation
+     * @param summary   the summary of the times of the operation
+     */
+    private static void logOutliers(@NonNull String operation, @NonNull SampleSummary summary) {
+        if (summary.getOutliers().isEmpty()) {
+            return;
+        }
+
+        List<Integer> outliers = summary.getOutliers();
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int index : outliers.subList(0, Math.min(outliers.size(), MAX_LOGGED_OUTLIERS))) {
+            joiner.add(String.valueOf(index + 1));
+        }
+        if (outliers.size() > MAX_LOGGED_OUTLIERS) {
+            joiner.add("...");
+        }
+        log("%s outliers in iterations %s", operation, joiner);
+    }
+
+    /**
+     * Sets the given {@code storage} up with a dataset of {@link #N_DATASET}
+     * records of the schema of the given {@code generator}. The dataset is
+     * restored from or saved to the {@link #fixtures}, if they are kept and
+     * support the schema, and otherwise generated from the {@link #SEED}.
+     *
+     * @param storage   the storage to set up
+     * @param generator the generator whose schema the dataset has
+     * @throws Exception if the storage threw an exception during setup
+     */
+    private static void setup(@NonNull Storage storage, @NonNull DataGenerator generator)
+            throws Exception {
+        String fixturesPath = System.getProperty(FIXTURES_PROP);
+        if (fixtures == null && fixturesPath != null) {
+            fixtures = new DatasetFixtures(Paths.get(fixturesPath));
+            log("Keeping fixtures in '%s'...", fixtures.getDirectory());
+        }
+
+        long start = System.nanoTime();
+        RecordSchema schema = generator.getSchema();
+        if (fixtures != null && schema.equals(RecordSchema.DEFAULT)) {
+            boolean restored = fixtures.setup(storage, SEED, N_DATASET);
+            log("%s dataset in %.3f ms", restored ? "Restored" : "Imported",
+                    (double) (System.nanoTime() - start) / BenchmarkResult.NS_PER_MS);
+            return;
+        }
+
+        DataGenerator rdg = schema.equals(RecordSchema.DEFAULT) ?
+                new RandomDataGenerator(SEED) : new SchemaDataGenerator(schema, false, SEED);
+        List<GeneratedData> dataset = rdg.generate(N_DATASET);
+        storage.setup(dataset);
+        log("Imported dataset in %.3f ms", (double) (System.nanoTime() - start) / BenchmarkResult.NS_PER_MS);
+    }
+
+    /**
+     * Stores the given {@code dataCollection} into the given {@code storage}
+     * and records the operation as a {@link StoreEvent}.
+     *
+     * @param storage        the storage to store the data into
+     * @param generator      the generator which generated the data
+     * @param dataCollection the data to store
+     * @param load           the running background load, whose writes are
+     *                       excluded from the bytes written by the storage, or
+     *                       {@code null} if there is none
+     * @return the elapsed nanoseconds to store the data
+     * @throws Exception if the storage threw an exception storing the data
+     */
+    private static long store(@NonNull Storage storage,
+                              @NonNull DataGenerator generator,
+                              @NonNull Collection<GeneratedData> dataCollection,
+                              @Nullable BackgroundLoad load)
+            throws Exception {
+        StoreEvent event = new StoreEvent();
+        IoCounters ioStart = event.isEnabled() ? IoStatistics.read() : IoCounters.ZERO;
+        long loadWrittenStart = load == null ? 0 : load.getWrittenBytes();
+        event.begin();
+
+        long storeStart = System.nanoTime();
+        storage.storeData(dataCollection);
+        long storeNs = System.nanoTime() - storeStart;
+
+        event.end();
+        if (event.shouldCommit()) {
+            IoCounters io = IoStatistics.read().minus(ioStart);
+            long loadWrittenBytes = load == null ? 0 : load.getWrittenBytes() - loadWrittenStart;
+            event.storage = storage.getName();
+            event.generator = generator.getName();
+            event.entries = dataCollection.size();
+            event.bytesWritten = IoStatistics.isAvailable() && !storage.isNetworked() ?
+                    io.getWrittenChars() - loadWrittenBytes : -1;
+            event.commit();
+        }
+
+        return storeNs;
+    }
+
+    /**
+     * Queries the given {@code storage} for the given {@code randData} and
+     * records the operation as a {@link QueryEvent}.
+     *
+     * @param storage   the storage to query
+     * @param generator the generator which generated the data
+     * @param randData  the data to query for, which must have been stored
+     * @return the elapsed nanoseconds to query the data
+     * @throws Exception if the storage threw an exception querying the data
+     *                   or if the data could not be found
+     */
+    private static long query(@NonNull Storage storage,
+                              @NonNull DataGenerator generator,
+                              @NonNull GeneratedData randData) throws Exception {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+
+        long queryStart = System.nanoTime();
+        boolean querySuccess = storage.queryData(randData);
+        long queryNs = System.nanoTime() - queryStart;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.storage = storage.getName();
+            event.generator = generator.getName();
+            event.found = querySuccess;
+            event.commit();
+        }
+
+        if (!querySuccess) {
+            throw new IllegalStateException("Failed to query data");
+        }
+
+        return queryNs;
+    }
+
+    /**
+     * Queries the given {@code storage} for a view of the given
+     * {@code randData} and accesses the given number of its value fields,
+     * which are then checked against the data.
+     *
+     * @param storage    the storage to query
+     * @param randData   the data to query for, which must have been stored
+     * @param fieldCount the number of value fields to access, starting from
+     *                   the first
+     * @return the elapsed nanoseconds to query the view and access the fields
+     * @throws Exception if the storage threw an exception querying the data or
+     *                   if the data could not be found
+     */
+    private static long queryView(@NonNull Storage storage, @NonNull GeneratedData randData,
+                                  int fieldCount) throws Exception {
+        Object[] values = new Object[fieldCount];
+
+        long queryStart = System.nanoTime();
+        GeneratedData view = storage.queryRecord(randData);
+        if (view != null) {
+            for (int i = 0; i < fieldCount; i++) {
+                values[i] = view.getDataAt(i + 1, Object.class);
+            }
+        }
+        long queryNs = System.nanoTime() - queryStart;
+
+        if (view == null) {
+            throw new IllegalStateException("Failed to query record view");
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            if (!Objects.deepEquals(values[i], randData.getDataAt(i + 1, Object.class))) {
+                throw new IllegalStateException("Record view does not match the stored data");
+            }
+        }
+
+        return queryNs;
+    }
+
+    /**
+     * Ends and records the given {@link IterationEvent}.
+     *
+     * @param event     the event which began with the iteration
+     * @param storage   the storage being benchmarked
+     * @param generator the generator being benchmarked
+     * @param iteration the number of the iteration, starting from 1
+     * @param warmup    {@code true} if the iteration is part of the warm-up
+     */
+    private static void commitIteration(@NonNull IterationEvent event,
+                                        @NonNull Storage storage,
+                                        @NonNull DataGenerator generator,
+                                        int iteration, boolean warmup) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.storage = storage.getName();
+            event.generator = generator.getName();
+            event.iteration = iteration;
+            event.warmup = warmup;
+            event.commit();
+        }
     }
 
     /**
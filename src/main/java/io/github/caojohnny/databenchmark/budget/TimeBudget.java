@@ -0,0 +1,268 @@
+package io.github.caojohnny.databenchmark.budget;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Enforces a time budget for an entire benchmark and for each of its
+ * iterations, so that a storage which is far slower than expected is
+ * cancelled rather than stalling the rest of the benchmark suite.
+ *
+ * <p>The benchmark is run on a separate thread while the calling thread
+ * watches the time it has taken. The benchmark marks the start and the end of
+ * each iteration, which allows the time of the iterations that were not
+ * completed to be extrapolated from the ones that were. Once a budget is
+ * exceeded, the benchmark thread is interrupted and given a moment to stop.
+ * Blocking I/O generally cannot be interrupted, so the thread may still be
+ * running once the budget has given up waiting for it, in which case it stops
+ * at the end of its running iteration without completing it. Whether it has
+ * stopped can be checked with {@link #isRunnerAlive()}, as whatever it was
+ * benchmarking may still be in use until it has.</p>
+ */
+public class TimeBudget {
+    /**
+     * The value of {@link #iterationStartNs} while no iteration is running
+     */
+    private static final long NO_ITERATION = Long.MIN_VALUE;
+    /**
+     * The longest time to wait for the benchmark to complete before checking
+     * the budgets again, in nanoseconds
+     */
+    private static final long POLL_NS = TimeUnit.MILLISECONDS.toNanos(100);
+    /**
+     * The time which the benchmark thread is given to stop once it has been
+     * interrupted, in milliseconds
+     */
+    private static final long STOP_GRACE_MS = 5000;
+
+    /**
+     * The time budget of the entire benchmark, in nanoseconds
+     */
+    private final long benchmarkTimeoutNs;
+    /**
+     * The time budget of each iteration, in nanoseconds
+     */
+    private final long iterationTimeoutNs;
+    /**
+     * The clock which the budgets are measured by, in nanoseconds
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The time of the {@link #clock} at which the running iteration started,
+     * or {@link #NO_ITERATION}
+     */
+    private volatile long iterationStartNs = NO_ITERATION;
+    /**
+     * The number of iterations which have been completed
+     */
+    private volatile int completedIterations;
+    /**
+     * The total time of the iterations which have been completed, in
+     * nanoseconds
+     */
+    private volatile long completedIterationNs;
+    /**
+     * Whether a budget has been exceeded, after which no further iteration
+     * may be started
+     */
+    private volatile boolean cancelled;
+    /**
+     * The thread running the benchmark, or {@code null} if it has not been
+     * started
+     */
+    private Thread runner;
+
+    /**
+     * The elapsed nanoseconds of the benchmark when a budget was exceeded
+     */
+    private long timeoutBenchmarkNs;
+    /**
+     * The elapsed nanoseconds of the running iteration when a budget was
+     * exceeded, or {@code -1} if no iteration was running
+     */
+    private long timeoutIterationNs = -1;
+
+    /**
+     * Creates a new time budget.
+     *
+     * @param benchmarkTimeoutNs the time budget of the entire benchmark, in
+     *                           nanoseconds
+     * @param iterationTimeoutNs the time budget of each iteration, in
+     *                           nanoseconds
+     */
+    public TimeBudget(long benchmarkTimeoutNs, long iterationTimeoutNs) {
+        this(benchmarkTimeoutNs, iterationTimeoutNs, System::nanoTime);
+    }
+
+    /**
+     * Creates a new time budget which is measured by the given clock.
+     *
+     * @param benchmarkTimeoutNs the time budget of the entire benchmark, in
+     *                           nanoseconds
+     * @param iterationTimeoutNs the time budget of each iteration, in
+     *                           nanoseconds
+     * @param clock              the clock, in nanoseconds, such as
+     *                           {@link System#nanoTime()}
+     */
+    TimeBudget(long benchmarkTimeoutNs, long iterationTimeoutNs, @NonNull LongSupplier clock) {
+        this.benchmarkTimeoutNs = benchmarkTimeoutNs;
+        this.iterationTimeoutNs = iterationTimeoutNs;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the given benchmark on a new thread with the given name and waits
+     * for it to complete within the budgets.
+     *
+     * @param name      the name of the benchmark thread
+     * @param benchmark the benchmark to run, which must call
+     *                  {@link #startIteration()} and
+     *                  {@link #completeIteration(long)} around each of its
+     *                  iterations
+     * @throws TimeoutException if a budget was exceeded, in which case the
+     *                          benchmark thread has been interrupted and may
+     *                          still be running if it did not stop within
+     *                          the {@link #STOP_GRACE_MS}
+     * @throws Exception        if the benchmark threw an exception
+     */
+    public void run(@NonNull String name, @NonNull Callable<?> benchmark) throws Exception {
+        FutureTask<?> task = new FutureTask<>(benchmark);
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+
+        long benchmarkStartNs = this.clock.getAsLong();
+        this.runner = thread;
+        thread.start();
+        while (true) {
+            long now = this.clock.getAsLong();
+            long remainingNs = benchmarkStartNs + this.benchmarkTimeoutNs - now;
+            long iterationStart = this.iterationStartNs;
+            if (iterationStart != NO_ITERATION) {
+                remainingNs = Math.min(remainingNs,
+                        iterationStart + this.iterationTimeoutNs - now);
+            }
+
+            if (remainingNs <= 0) {
+                this.cancelled = true;
+                this.timeoutBenchmarkNs = now - benchmarkStartNs;
+                if (iterationStart != NO_ITERATION) {
+                    this.timeoutIterationNs = now - iterationStart;
+                }
+
+                thread.interrupt();
+                thread.join(STOP_GRACE_MS);
+                throw new TimeoutException(iterationStart != NO_ITERATION &&
+                        this.timeoutIterationNs >= this.iterationTimeoutNs ?
+                        "Iteration exceeded its time budget" :
+                        "Benchmark exceeded its time budget");
+            }
+
+            try {
+                task.get(Math.min(remainingNs, POLL_NS), TimeUnit.NANOSECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // Check the budgets again
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Marks the start of an iteration.
+     *
+     * @throws CancellationException if a budget has already been exceeded
+     */
+    public void startIteration() {
+        if (this.cancelled) {
+            throw new CancellationException("Benchmark exceeded its time budget");
+        }
+
+        this.iterationStartNs = this.clock.getAsLong();
+    }
+
+    /**
+     * Marks the end of the running iteration. The results of the iteration
+     * should only be recorded once this returns, as an iteration which was
+     * still running when a budget was exceeded is not completed.
+     *
+     * @param nanos the time of the iteration which is used to extrapolate the
+     *              time of the iterations that were not completed, in
+     *              nanoseconds
+     * @throws CancellationException if a budget was exceeded while the
+     *                               iteration was running
+     */
+    public void completeIteration(long nanos) {
+        if (this.cancelled) {
+            throw new CancellationException("Benchmark exceeded its time budget");
+        }
+
+        this.iterationStartNs = NO_ITERATION;
+        this.completedIterationNs += nanos;
+        this.completedIterations++;
+    }
+
+    /**
+     * Determines whether the benchmark thread is still running, such as after
+     * it did not stop within the {@link #STOP_GRACE_MS} of exceeding a
+     * budget.
+     *
+     * @return {@code true} if the benchmark thread has been started and has
+     * not yet terminated
+     */
+    public boolean isRunnerAlive() {
+        return this.runner != null && this.runner.isAlive();
+    }
+
+    /**
+     * Obtains the number of iterations which were completed.
+     *
+     * @return the number of completed iterations
+     */
+    public int getCompletedIterations() {
+        return this.completedIterations;
+    }
+
+    /**
+     * Obtains the elapsed time of the benchmark when a budget was exceeded.
+     *
+     * @return the elapsed nanoseconds of the benchmark, or {@code 0} if no
+     * budget was exceeded
+     */
+    public long getTimeoutBenchmarkNs() {
+        return this.timeoutBenchmarkNs;
+    }
+
+    /**
+     * Extrapolates the time of an iteration from the completed iterations
+     * and the time of the iteration which was running when a budget was
+     * exceeded, if any. The running iteration is counted as if it had been
+     * completed at that moment, so the extrapolated time is a lower bound.
+     *
+     * @return the extrapolated time of an iteration, in nanoseconds, or
+     * {@link Double#NaN} if no iteration was started
+     */
+    public double getExtrapolatedIterationNs() {
+        double totalNs = this.completedIterationNs;
+        int iterations = this.completedIterations;
+        if (this.timeoutIterationNs >= 0) {
+            totalNs += this.timeoutIterationNs;
+            iterations++;
+        }
+
+        return iterations == 0 ? Double.NaN : totalNs / iterations;
+    }
+}
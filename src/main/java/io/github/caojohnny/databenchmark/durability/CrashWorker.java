@@ -0,0 +1,96 @@
+package io.github.caojohnny.databenchmark.durability;
+
+import io.github.caojohnny.databenchmark.DataBenchmark;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.storage.Storage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The entry point of the child process launched by the
+ * {@link DurabilityBenchmark}. The worker sets up a single storage and then
+ * stores batches of a {@link CrashWorkload} in a loop until it is forcibly
+ * terminated by the parent.
+ *
+ * <p>Each batch is acknowledged by printing a line to {@link System#out} once
+ * the storage has returned from storing it, in the form
+ * {@code ACK <batch> <store nanoseconds>}, the initial dataset being batch
+ * {@code 0}. A record which has been acknowledged is one that the storage
+ * claimed to have persisted.</p>
+ */
+public final class CrashWorker {
+    /**
+     * The prefix of the lines printed to acknowledge a batch
+     */
+    static final String ACK = "ACK";
+
+    private CrashWorker() {
+    }
+
+    /**
+     * Runs the worker.
+     *
+     * @param args the name of the storage, the workload seed, the dataset size
+     *             and the batch size
+     * @throws Exception if the storage threw an exception while running
+     */
+    public static void main(String[] args) throws Exception {
+        String storageName = args[0];
+        CrashWorkload workload = new CrashWorkload(Long.parseLong(args[1]),
+                Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+
+        Storage storage = DataBenchmark.createStorages().stream()
+                .filter(s -> s.getName().equals(storageName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown storage: " + storageName));
+
+        Thread watchdog = new Thread(CrashWorker::awaitParentExit, "Crash Worker Watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+
+        storage.setup(workload.generateDataset());
+        acknowledge(0, 0);
+
+        for (int batch = 1; ; batch++) {
+            List<GeneratedData> dataCollection = workload.generateBatch(batch);
+
+            storage.setupIter();
+
+            long storeStart = System.nanoTime();
+            storage.storeData(dataCollection);
+            long storeNs = System.nanoTime() - storeStart;
+
+            acknowledge(batch, storeNs);
+        }
+    }
+
+    /**
+     * Acknowledges that the given batch has been stored.
+     *
+     * @param batch   the batch
+     * @param storeNs the elapsed nanoseconds to store the batch
+     */
+    private static void acknowledge(int batch, long storeNs) {
+        System.out.println(ACK + " " + batch + " " + storeNs);
+        System.out.flush();
+    }
+
+    /**
+     * Blocks until the standard input of this process is closed, which occurs
+     * when the parent process exits, and then halts this process so that it
+     * does not outlive the benchmark.
+     */
+    private static void awaitParentExit() {
+        try {
+            while (System.in.read() >= 0) {
+                // Discard any input until the parent closes the stream
+            }
+        } catch (IOException e) {
+            // Treat a broken stream the same as a closed stream
+        }
+
+        Runtime.getRuntime().halt(1);
+    }
+}
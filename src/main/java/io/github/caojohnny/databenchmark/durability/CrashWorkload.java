@@ -0,0 +1,161 @@
+package io.github.caojohnny.databenchmark.durability;
+
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * The deterministic store workload run by a {@link CrashWorker}, which allows
+ * the parent process to reproduce every record the worker may have stored
+ * from nothing more than the seed and the number of acknowledged batches.
+ *
+ * <p>The workload mirrors the {@code Same Key} generator: the initial dataset
+ * is written once during setup and every subsequent batch overwrites the same
+ * set of keys with new values. Each record is generated from its own
+ * {@link SplittableRandom} so that any single record can be regenerated
+ * without generating the batches preceding it.</p>
+ */
+final class CrashWorkload {
+    /**
+     * The seed from which every record is derived
+     */
+    private final long seed;
+    /**
+     * The number of records in the initial dataset
+     */
+    private final int datasetSize;
+    /**
+     * The number of records in each batch
+     */
+    private final int batchSize;
+
+    /**
+     * Creates a new crash workload.
+     *
+     * @param seed        the seed from which every record is derived
+     * @param datasetSize the number of records in the initial dataset
+     * @param batchSize   the number of records in each batch
+     */
+    CrashWorkload(long seed, int datasetSize, int batchSize) {
+        this.seed = seed;
+        this.datasetSize = datasetSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Obtains the seed from which every record is derived.
+     *
+     * @return the seed
+     */
+    long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Obtains the number of records in the initial dataset.
+     *
+     * @return the dataset size
+     */
+    int getDatasetSize() {
+        return this.datasetSize;
+    }
+
+    /**
+     * Obtains the number of records in each batch.
+     *
+     * @return the batch size
+     */
+    int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * Generates the record with the key at the given index as it is written in
+     * the given batch.
+     *
+     * @param keyIndex the index of the key, the dataset keys followed by the
+     *                 batch keys
+     * @param batch    the batch, {@code 0} being the initial dataset
+     * @return the generated record
+     */
+    private @NonNull GeneratedData generate(int keyIndex, int batch) {
+        SplittableRandom keyRandom = new SplittableRandom(this.seed + keyIndex);
+        String uuid = new UUID(keyRandom.nextLong(), keyRandom.nextLong()).toString();
+
+        SplittableRandom random = new SplittableRandom(keyRandom.nextLong() + batch);
+        Object[] dataArray = {uuid, random.nextInt(), random.nextDouble(),
+                (float) random.nextDouble(), random.nextLong()};
+        return new ArrayGeneratedData(dataArray);
+    }
+
+    /**
+     * Obtains the record of the initial dataset at the given index.
+     *
+     * @param index the index of the record, less than the dataset size
+     * @return the dataset record
+     */
+    @NonNull GeneratedData getDatasetRecord(int index) {
+        return this.generate(index, 0);
+    }
+
+    /**
+     * Obtains the record at the given index of the given batch.
+     *
+     * @param batch the batch, starting from {@code 1}
+     * @param index the index of the record, less than the batch size
+     * @return the batch record
+     */
+    @NonNull GeneratedData getBatchRecord(int batch, int index) {
+        return this.generate(this.datasetSize + index, batch);
+    }
+
+    /**
+     * Generates the entire initial dataset.
+     *
+     * @return the dataset records
+     */
+    @NonNull List<GeneratedData> generateDataset() {
+        List<GeneratedData> dataCollection = new ArrayList<>(this.datasetSize);
+        for (int i = 0; i < this.datasetSize; i++) {
+            dataCollection.add(this.getDatasetRecord(i));
+        }
+
+        return Collections.unmodifiableList(dataCollection);
+    }
+
+    /**
+     * Generates an entire batch.
+     *
+     * @param batch the batch, starting from {@code 1}
+     * @return the batch records
+     */
+    @NonNull List<GeneratedData> generateBatch(int batch) {
+        List<GeneratedData> dataCollection = new ArrayList<>(this.batchSize);
+        for (int i = 0; i < this.batchSize; i++) {
+            dataCollection.add(this.getBatchRecord(batch, i));
+        }
+
+        return Collections.unmodifiableList(dataCollection);
+    }
+
+    /**
+     * Determines whether the given records have the same key and values.
+     *
+     * @param expected the record that was stored
+     * @param actual   the record that was recovered
+     * @return {@code true} if every element of the records is equal
+     */
+    static boolean matches(@NonNull GeneratedData expected, @NonNull GeneratedData actual) {
+        return expected.getDataAt(0, String.class).equals(actual.getDataAt(0, String.class)) &&
+                expected.getDataAt(1, Integer.class).equals(actual.getDataAt(1, Integer.class)) &&
+                expected.getDataAt(2, Double.class).equals(actual.getDataAt(2, Double.class)) &&
+                expected.getDataAt(3, Float.class).equals(actual.getDataAt(3, Float.class)) &&
+                expected.getDataAt(4, Long.class).equals(actual.getDataAt(4, Long.class));
+    }
+}
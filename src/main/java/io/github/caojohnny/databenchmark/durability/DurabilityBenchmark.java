@@ -0,0 +1,392 @@
+package io.github.caojohnny.databenchmark.durability;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.BenchmarkResult;
+import io.github.caojohnny.databenchmark.statistics.DurabilityResult;
+import io.github.caojohnny.databenchmark.storage.Storage;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The durability benchmark, which measures what each storage actually
+ * guarantees in exchange for its speed rather than how fast it is.
+ *
+ * <p>For each trial, a {@link CrashWorker} is launched in a child JVM to run a
+ * store workload against the storage and is forcibly killed at a random point
+ * once its setup has completed. The storage is then recovered in this process
+ * and every record that the worker acknowledged is checked: a record is lost
+ * if it is missing or has reverted to a value from an older batch, and is
+ * corrupted if it has a value that was never stored. The batch that was in
+ * flight when the worker was killed may legitimately be present either with
+ * its old or its new values.</p>
+ *
+ * <p>Killing the process simulates an application crash, not a power loss or
+ * operating system crash: data which was written but not yet forced to the
+ * storage device survives in the page cache. This mode therefore detects the
+ * loss of data still buffered by the application and torn writes such as a
+ * file being truncated and rewritten, but not the absence of an fsync.</p>
+ */
+public final class DurabilityBenchmark {
+    /**
+     * The number of times each storage is crashed and recovered
+     */
+    private static final int N_CRASH_TRIALS = 5;
+    /**
+     * The minimum time the worker is allowed to store batches before it is
+     * killed, in milliseconds
+     */
+    private static final long MIN_CRASH_DELAY_MS = 250;
+    /**
+     * The maximum time the worker is allowed to store batches before it is
+     * killed, in milliseconds
+     */
+    private static final long MAX_CRASH_DELAY_MS = 2500;
+    /**
+     * The maximum time to wait for the worker to set up the storage, in
+     * milliseconds
+     */
+    private static final long SETUP_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+    /**
+     * The prefix of the system properties which are passed on to the worker
+     */
+    private static final String PROPERTY_PREFIX = "data-benchmark.";
+
+    private DurabilityBenchmark() {
+    }
+
+    /**
+     * Runs the durability benchmark against each of the given storages and
+     * prints a table of their store speed against the durability they
+     * provided.
+     *
+     * @param storages    the storages which to crash, which must be
+     *                    obtainable by name from
+     *                    {@link io.github.caojohnny.databenchmark.DataBenchmark#createStorages()}
+     *                    in the worker
+     * @param datasetSize the number of records to store during setup
+     * @param batchSize   the number of records to store in each batch
+     */
+    public static void run(@NonNull Collection<Storage> storages, int datasetSize,
+                           int batchSize) {
+        log("Starting durability benchmark...");
+        log("N_CRASH_TRIALS = %d", N_CRASH_TRIALS);
+        log("CRASH_DELAY = %d-%d ms", MIN_CRASH_DELAY_MS, MAX_CRASH_DELAY_MS);
+        log("");
+
+        Map<String, DurabilityResult> results = new LinkedHashMap<>(storages.size());
+        for (Storage storage : storages) {
+            log("Storage = '%s'", storage.getName());
+
+            DurabilityResult result = new DurabilityResult();
+            try {
+                for (int i = 0; i < N_CRASH_TRIALS; i++) {
+                    logp("Starting trial %d... ", i + 1);
+                    crash(storage, datasetSize, batchSize, result);
+                }
+
+                results.put(storage.getName(), result);
+            } catch (Exception e) {
+                log("Skipping '%s': %s", storage.getName(), e);
+            }
+
+            log("");
+        }
+
+        log("--- Durability Results ---");
+        log("%-40s %12s %12s %10s %10s %10s %8s", "STORAGE", "STORE ms",
+                "RECOVERY ms", "ACKED", "LOST", "CORRUPTED", "FAILED");
+        for (Map.Entry<String, DurabilityResult> entry : results.entrySet()) {
+            DurabilityResult result = entry.getValue();
+
+            log("%-40s %12.3f %12.3f %10d %10d %10d %8s", entry.getKey(),
+                    result.getAverageStoreMs(), result.getAverageRecoveryMs(),
+                    result.getAcknowledged(), result.getLost(),
+                    result.getCorrupted(), format("%d/%d",
+                            result.getFailedRecoveries(), result.getTrialCount()));
+        }
+    }
+
+    /**
+     * Performs a single crash trial, running the workload in a worker until
+     * it is killed and then recovering and verifying the storage.
+     *
+     * @param storage     the storage to crash
+     * @param datasetSize the number of records to store during setup
+     * @param batchSize   the number of records to store in each batch
+     * @param result      the results which to populate with the outcome of
+     *                    the trial
+     * @throws Exception if the worker failed or the storage could not be
+     *                   cleaned up
+     */
+    private static void crash(@NonNull Storage storage, int datasetSize, int batchSize,
+                              @NonNull DurabilityResult result) throws Exception {
+        long seed = ThreadLocalRandom.current().nextLong();
+        CrashWorkload workload = new CrashWorkload(seed, datasetSize, batchSize);
+
+        WorkerMonitor monitor;
+        try {
+            monitor = runWorker(storage, workload);
+        } catch (Exception e) {
+            discard(storage, e);
+            throw e;
+        }
+        for (long storeNs : monitor.storeNs) {
+            result.addStoreNs(storeNs);
+        }
+
+        int lastAck = monitor.lastAck;
+        long acknowledged = datasetSize + (lastAck > 0 ? batchSize : 0);
+        try {
+            long recoveryStart = System.nanoTime();
+            Collection<GeneratedData> recovered;
+            try {
+                recovered = storage.recover();
+            } catch (Exception e) {
+                result.addFailedTrial(acknowledged);
+                log("BATCHES = %d, RECOVERY FAILED: %s", lastAck, e);
+                return;
+            }
+            long recoveryNs = System.nanoTime() - recoveryStart;
+
+            Map<String, GeneratedData> records = new HashMap<>(recovered.size());
+            for (GeneratedData data : recovered) {
+                records.put(data.getDataAt(0, String.class), data);
+            }
+
+            int lost = 0;
+            int corrupted = 0;
+            for (int i = 0; i < datasetSize; i++) {
+                GeneratedData expected = workload.getDatasetRecord(i);
+                GeneratedData actual = records.get(expected.getDataAt(0, String.class));
+                if (actual == null) {
+                    lost++;
+                } else if (!CrashWorkload.matches(expected, actual)) {
+                    corrupted++;
+                }
+            }
+
+            if (lastAck > 0) {
+                for (int i = 0; i < batchSize; i++) {
+                    GeneratedData expected = workload.getBatchRecord(lastAck, i);
+                    GeneratedData actual = records.get(expected.getDataAt(0, String.class));
+                    if (actual == null || isStale(workload, lastAck, i, actual)) {
+                        lost++;
+                    } else if (!CrashWorkload.matches(expected, actual) &&
+                            !CrashWorkload.matches(workload.getBatchRecord(lastAck + 1, i), actual)) {
+                        corrupted++;
+                    }
+                }
+            }
+
+            result.addTrial(acknowledged, lost, corrupted, recoveryNs);
+            log("BATCHES = %d, RECOVERY = %.3f ms, LOST = %d, CORRUPTED = %d",
+                    lastAck, (double) recoveryNs / BenchmarkResult.NS_PER_MS,
+                    lost, corrupted);
+        } finally {
+            storage.cleanup();
+        }
+    }
+
+    /**
+     * Cleans up the files left behind by a worker which failed, reattaching
+     * to them first so that the storage is able to clean them up. Any
+     * exception thrown along the way is suppressed by the failure of the
+     * worker, which is left to be rethrown.
+     *
+     * @param storage the storage run by the worker
+     * @param failure the exception thrown by the worker
+     */
+    private static void discard(@NonNull Storage storage, @NonNull Exception failure) {
+        try {
+            storage.recover();
+        } catch (Exception e) {
+            failure.addSuppressed(e);
+        }
+
+        try {
+            storage.cleanup();
+        } catch (Exception e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Determines whether the given recovered record has the value written to
+     * its key by a batch older than the last acknowledged batch.
+     *
+     * @param workload the workload run by the worker
+     * @param lastAck  the last acknowledged batch
+     * @param index    the index of the record in each batch
+     * @param actual   the recovered record
+     * @return {@code true} if the record reverted to an older value
+     */
+    private static boolean isStale(@NonNull CrashWorkload workload, int lastAck, int index,
+                                   @NonNull GeneratedData actual) {
+        for (int batch = lastAck - 1; batch > 0; batch--) {
+            if (CrashWorkload.matches(workload.getBatchRecord(batch, index), actual)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Launches a worker to run the given workload against the storage and
+     * kills it at a random point once it has finished its setup.
+     *
+     * @param storage  the storage to run the workload against
+     * @param workload the workload to run
+     * @return the monitor containing the batches acknowledged by the worker
+     * @throws Exception if the worker did not finish its setup or exited
+     *                   before being killed
+     */
+    private static @NonNull WorkerMonitor runWorker(@NonNull Storage storage,
+                                                    @NonNull CrashWorkload workload)
+            throws Exception {
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve current working directory");
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PROPERTY_PREFIX)) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(CrashWorker.class.getName());
+        command.add(storage.getName());
+        command.add(String.valueOf(workload.getSeed()));
+        command.add(String.valueOf(workload.getDatasetSize()));
+        command.add(String.valueOf(workload.getBatchSize()));
+
+        Process process = new ProcessBuilder(command)
+                .directory(new File(workingDir))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        WorkerMonitor monitor = new WorkerMonitor(process.getInputStream());
+        monitor.start();
+
+        try {
+            if (!monitor.ready.await(SETUP_TIMEOUT_MS, TimeUnit.MILLISECONDS) ||
+                    monitor.lastAck < 0) {
+                throw new IllegalStateException("Worker failed to set up the storage");
+            }
+
+            long delay = ThreadLocalRandom.current().nextLong(MIN_CRASH_DELAY_MS,
+                    MAX_CRASH_DELAY_MS + 1);
+            if (process.waitFor(delay, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Worker exited with code " +
+                        process.exitValue());
+            }
+        } finally {
+            process.destroyForcibly();
+            process.waitFor();
+            monitor.join();
+        }
+
+        return monitor;
+    }
+
+    /**
+     * Reads the acknowledgements printed by a worker.
+     */
+    private static final class WorkerMonitor extends Thread {
+        /**
+         * The standard output of the worker
+         */
+        private final InputStream in;
+        /**
+         * Released once the worker has acknowledged its setup or exited
+         */
+        private final CountDownLatch ready = new CountDownLatch(1);
+        /**
+         * The elapsed nanoseconds of each acknowledged batch, excluding the
+         * setup
+         */
+        private final List<Long> storeNs = new ArrayList<>();
+        /**
+         * The last batch acknowledged by the worker, or {@code -1} if it has
+         * not yet finished its setup
+         */
+        private volatile int lastAck = -1;
+
+        WorkerMonitor(@NonNull InputStream in) {
+            super("Crash Worker Monitor");
+            this.in = in;
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(this.in,
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    String[] parts = line.split(" ");
+                    if (parts.length != 3 || !parts[0].equals(CrashWorker.ACK)) {
+                        continue;
+                    }
+
+                    int batch = Integer.parseInt(parts[1]);
+                    if (batch > 0) {
+                        this.storeNs.add(Long.parseLong(parts[2]));
+                    }
+
+                    this.lastAck = batch;
+                    this.ready.countDown();
+                }
+            } catch (IOException e) {
+                // The stream is closed when the worker is killed
+            } finally {
+                this.ready.countDown();
+            }
+        }
+    }
+
+    /**
+     * Short-cut logging method for printing a full line to {@link System#out}.
+     *
+     * @param fmt     the format string.
+     * @param objects the objects to fill any placeholders in the format
+     *                string.
+     * @see String#format(String, Object...)
+     */
+    private static void log(String fmt, Object... objects) {
+        logp(fmt, objects);
+        System.out.println();
+    }
+
+    /**
+     * Short-cut logging method for printing messages to {@link System#out}
+     * without appending a new line.
+     *
+     * @param fmt     the format string.
+     * @param objects the objects to fill any placeholders in the format
+     *                string.
+     * @see String#format(String, Object...)
+     */
+    private static void logp(String fmt, Object... objects) {
+        System.out.printf(fmt, objects);
+    }
+}
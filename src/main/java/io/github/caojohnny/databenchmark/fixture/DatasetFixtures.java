@@ -0,0 +1,311 @@
+package io.github.caojohnny.databenchmark.fixture;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RandomDataGenerator;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.storage.BinaryRecordCodec;
+import io.github.caojohnny.databenchmark.storage.Storage;
+import io.github.caojohnny.databenchmark.storage.StorageFiles;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps pre-generated datasets, along with snapshots of the storages which
+ * have been set up with them, in a directory so that they can be reused across
+ * benchmarks and runs rather than being generated and imported every time.
+ *
+ * <p>A dataset is identified by the seed and the number of records that it is
+ * generated with by a {@link RandomDataGenerator}. It is written once to a
+ * fixture file of records encoded by the {@link BinaryRecordCodec}, which is
+ * memory-mapped to read it back. Once a storage has been set up with a
+ * dataset, its {@link Storage#getSnapshotPaths()} are copied into a snapshot
+ * named after the storage, so that setting the storage up with the same
+ * dataset again only copies the snapshot back and recovers from it.</p>
+ *
+ * <p>Only datasets of the {@link RecordSchema#DEFAULT} schema are kept.
+ * Snapshots are not invalidated when a storage changes the format of its
+ * files, so the directory should be cleared whenever a storage is changed.</p>
+ */
+public class DatasetFixtures {
+    /**
+     * The first bytes of a fixture file
+     */
+    private static final int MAGIC = 0x44424658;
+    /**
+     * The number of bytes used by the header of a fixture file, which
+     * consists of the {@link #MAGIC} and the number of records
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+
+    /**
+     * The directory containing the fixture files and the snapshots
+     */
+    private final Path directory;
+
+    /**
+     * Creates a new collection of fixtures kept in the given directory, which
+     * is created if it does not exist.
+     *
+     * @param directory the directory containing the fixtures
+     * @throws IOException if the directory cannot be created
+     */
+    public DatasetFixtures(@NonNull Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Obtains the directory containing the fixture files and the snapshots.
+     *
+     * @return the fixture directory
+     */
+    public @NonNull Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Obtains the dataset generated from the given seed, reading it from its
+     * fixture file or generating it and writing the fixture file if it does
+     * not exist yet.
+     *
+     * @param seed the seed of the dataset
+     * @param size the number of records in the dataset
+     * @return the dataset
+     * @throws IOException if an error occurs reading or writing the fixture
+     *                     file
+     */
+    public @NonNull List<GeneratedData> loadDataset(long seed, int size) throws IOException {
+        Path fixturePath = this.directory.resolve(getDatasetName(seed, size) + ".bin");
+        if (Files.exists(fixturePath)) {
+            return readFixture(fixturePath);
+        }
+
+        List<GeneratedData> dataset = new RandomDataGenerator(seed).generate(size);
+        writeFixture(fixturePath, dataset);
+        return dataset;
+    }
+
+    /**
+     * Sets the given storage up with the dataset generated from the given
+     * seed, restoring it from its snapshot if one exists or otherwise setting
+     * it up from the fixture file and snapshotting it.
+     *
+     * @param storage the storage to set up
+     * @param seed    the seed of the dataset
+     * @param size    the number of records in the dataset
+     * @return {@code true} if the storage was restored from a snapshot
+     * @throws Exception if an error occurs setting up or snapshotting the
+     *                   storage
+     */
+    public boolean setup(@NonNull Storage storage, long seed, int size) throws Exception {
+        Collection<Path> paths = storage.getSnapshotPaths();
+        Path snapshotPath = this.directory
+                .resolve(getDatasetName(seed, size))
+                .resolve(getSnapshotName(storage));
+        if (!paths.isEmpty() && Files.isDirectory(snapshotPath)) {
+            if (isComplete(snapshotPath, paths)) {
+                for (Path path : paths) {
+                    StorageFiles.copy(snapshotPath.resolve(path.getFileName().toString()), path);
+                }
+
+                if (recover(storage, paths, size)) {
+                    return true;
+                }
+            }
+
+            // Stale snapshot, start over from the dataset
+            StorageFiles.deleteDirectory(snapshotPath);
+        }
+
+        storage.setup(this.loadDataset(seed, size));
+        if (!paths.isEmpty()) {
+            snapshot(snapshotPath, paths);
+        }
+
+        return false;
+    }
+
+    /**
+     * Recovers the given storage from the snapshot which has been copied into
+     * its paths. If the storage recovers a different number of records, it is
+     * cleaned up. If it cannot recover at all, such as from a corrupt snapshot
+     * or one written by an incompatible version of the storage, its paths are
+     * deleted instead, as it may not have opened anything to clean up.
+     *
+     * @param storage the storage to recover
+     * @param paths   the paths of the storage
+     * @param size    the number of records in the dataset
+     * @return {@code true} if the storage recovered every record of the
+     * dataset
+     * @throws Exception if an error occurs cleaning up the storage
+     */
+    private static boolean recover(@NonNull Storage storage, @NonNull Collection<Path> paths,
+                                   int size) throws Exception {
+        Collection<GeneratedData> dataset;
+        try {
+            dataset = storage.recover();
+        } catch (Exception e) {
+            System.err.println("Failed to recover " + storage.getName() + " from its snapshot: " + e);
+            for (Path path : paths) {
+                if (Files.isDirectory(path)) {
+                    StorageFiles.deleteDirectory(path);
+                } else {
+                    Files.deleteIfExists(path);
+                }
+            }
+
+            return false;
+        }
+
+        if (dataset.size() == size) {
+            return true;
+        }
+
+        storage.cleanup();
+        return false;
+    }
+
+    /**
+     * Obtains the name of the fixture file and the snapshot directory of the
+     * dataset generated from the given seed.
+     *
+     * @param seed the seed of the dataset
+     * @param size the number of records in the dataset
+     * @return the dataset name
+     */
+    private static @NonNull String getDatasetName(long seed, int size) {
+        return "dataset-" + seed + "-" + size;
+    }
+
+    /**
+     * Obtains the name of the snapshot directory of the given storage, which
+     * is its name stripped of any characters that may not be allowed in a
+     * file name.
+     *
+     * @param storage the storage
+     * @return the snapshot name
+     */
+    private static @NonNull String getSnapshotName(@NonNull Storage storage) {
+        return storage.getName().replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+
+    /**
+     * Reads every record of the given fixture file by memory-mapping it.
+     *
+     * @param fixturePath the path to the fixture file
+     * @return the records of the fixture
+     * @throws IOException if an error occurs reading the file or if it is not
+     *                     a fixture file
+     */
+    private static @NonNull List<GeneratedData> readFixture(@NonNull Path fixturePath)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(fixturePath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a dataset fixture: " + fixturePath);
+            }
+
+            GeneratedData[] records = new GeneratedData[buffer.getInt()];
+            for (int i = 0; i < records.length; i++) {
+                buffer.position(buffer.position() + BinaryRecordCodec.LENGTH_PREFIX_BYTES);
+                records[i] = BinaryRecordCodec.decode(buffer);
+            }
+
+            return Collections.unmodifiableList(Arrays.asList(records));
+        }
+    }
+
+    /**
+     * Writes the given records to a new fixture file, which is written to a
+     * temporary file first so that it is never left partially written.
+     *
+     * @param fixturePath the path to the fixture file
+     * @param records     the records to write
+     * @throws IOException if an error occurs writing the file
+     */
+    private static void writeFixture(@NonNull Path fixturePath,
+                                     @NonNull List<GeneratedData> records) throws IOException {
+        List<byte[]> keys = new ArrayList<>(records.size());
+        int length = HEADER_BYTES;
+        for (GeneratedData data : records) {
+            byte[] keyBytes = BinaryRecordCodec.encodeKey(data.getDataAt(0, String.class));
+            keys.add(keyBytes);
+            length += BinaryRecordCodec.getEncodedLength(keyBytes);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            BinaryRecordCodec.encode(records.get(i), keys.get(i), buffer);
+        }
+        buffer.flip();
+
+        Path tempPath = fixturePath.resolveSibling(fixturePath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        Files.move(tempPath, fixturePath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Copies the given paths of a storage into a new snapshot, which is copied
+     * into a temporary directory first so that it is never left partially
+     * copied.
+     *
+     * @param snapshotPath the path of the snapshot directory
+     * @param paths        the paths of the storage
+     * @throws IOException if an error occurs copying the files
+     */
+    private static void snapshot(@NonNull Path snapshotPath, @NonNull Collection<Path> paths)
+            throws IOException {
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        if (Files.exists(tempPath)) {
+            StorageFiles.deleteDirectory(tempPath);
+        }
+
+        Files.createDirectories(tempPath);
+        for (Path path : paths) {
+            if (Files.exists(path)) {
+                StorageFiles.copy(path, tempPath.resolve(path.getFileName().toString()));
+            }
+        }
+
+        Files.move(tempPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Determines whether the given snapshot contains every one of the given
+     * paths of a storage.
+     *
+     * @param snapshotPath the path of the snapshot directory
+     * @param paths        the paths of the storage
+     * @return {@code true} if the snapshot can be restored
+     */
+    private static boolean isComplete(@NonNull Path snapshotPath, @NonNull Collection<Path> paths) {
+        for (Path path : paths) {
+            if (!Files.exists(snapshotPath.resolve(path.getFileName().toString()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.caojohnny.databenchmark.fork;
+
+import io.github.caojohnny.databenchmark.DataBenchmark;
+import io.github.caojohnny.databenchmark.generator.DataGenerator;
+import io.github.caojohnny.databenchmark.metrics.MetricsFileExporter;
+import io.github.caojohnny.databenchmark.statistics.BenchmarkResult;
+import io.github.caojohnny.databenchmark.storage.Storage;
+
+import java.io.IOException;
+import java.util.StringJoiner;
+
+/**
+ * The entry point of the child process launched by the
+ * {@link ForkedBenchmark}. The worker runs the benchmark of a single storage
+ * and generator and then exits.
+ *
+ * <p>The benchmark logs to {@link System#out} as usual, which is inherited by
+ * the parent. Each value recorded to its result is printed as a line in the
+ * form {@code RESULT <type> <values...>} to {@link System#err} instead, which
+ * the parent records to its own result in the same order. Results are kept
+ * apart from the log because it does not always end its lines before a value
+ * is recorded.</p>
+ */
+public final class ForkWorker {
+    /**
+     * The prefix of the lines printed to record a value of the result
+     */
+    static final String RESULT = "RESULT";
+    /**
+     * The type of the result lines recording the time of a store
+     */
+    static final String STORE = "STORE";
+    /**
+     * The type of the result lines recording the time of a query
+     */
+    static final String QUERY = "QUERY";
+    /**
+     * The type of the result lines recording the phases of a store
+     */
+    static final String STORE_PHASES = "STORE_PHASES";
+    /**
+     * The type of the result lines recording the phases of a query
+     */
+    static final String QUERY_PHASES = "QUERY_PHASES";
+    /**
+     * The type of the result lines recording an additional statistic, whose
+     * value is followed by its description
+     */
+    static final String STATISTIC = "STATISTIC";
+    /**
+     * The type of the result lines recording that the benchmark exceeded its
+     * time budget, with the number of iterations it completed followed by the
+     * extrapolated time of an iteration
+     */
+    static final String TIMEOUT = "TIMEOUT";
+
+    private ForkWorker() {
+    }
+
+    /**
+     * Runs the worker.
+     *
+     * @param args the name of the storage and the name of the generator
+     * @throws Exception if the benchmark threw an exception while running
+     */
+    public static void main(String[] args) throws Exception {
+        String storageName = args[0];
+        String generatorName = args[1];
+
+        Storage storage = DataBenchmark.createStorages().stream()
+                .filter(s -> s.getName().equals(storageName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown storage: " + storageName));
+        DataGenerator generator = DataBenchmark.createGenerator(generatorName);
+
+        Thread watchdog = new Thread(ForkWorker::awaitParentExit, "Fork Worker Watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+
+        MetricsFileExporter metricsExporter = DataBenchmark.exportMetrics();
+        DataBenchmark.benchmark(storage, generator, new ForwardingResult());
+        if (metricsExporter != null) {
+            metricsExporter.close();
+        }
+        System.out.flush();
+        System.err.flush();
+
+        // Threads left behind by a storage would otherwise keep the JVM alive
+        System.exit(0);
+    }
+
+    /**
+     * Prints a line recording a value of the result to {@link System#err}.
+     *
+     * @param type   the type of the value
+     * @param values the values, separated by spaces
+     */
+    private static void record(String type, Object... values) {
+        StringJoiner joiner = new StringJoiner(" ");
+        joiner.add(RESULT);
+        joiner.add(type);
+        for (Object value : values) {
+            joiner.add(String.valueOf(value));
+        }
+
+        System.err.println(joiner);
+    }
+
+    /**
+     * Blocks until the standard input of this process is closed, which occurs
+     * when the parent process exits, and then halts this process so that it
+     * does not outlive the benchmark.
+     */
+    private static void awaitParentExit() {
+        try {
+            while (System.in.read() >= 0) {
+                // Discard any input until the parent closes the stream
+            }
+        } catch (IOException e) {
+            // Treat a broken stream the same as a closed stream
+        }
+
+        Runtime.getRuntime().halt(1);
+    }
+
+    /**
+     * A result which prints every value recorded to it for the parent.
+     */
+    private static final class ForwardingResult extends BenchmarkResult {
+        @Override
+        public void addStoreNs(long nanos) {
+            super.addStoreNs(nanos);
+            record(STORE, nanos);
+        }
+
+        @Override
+        public void addQueryNs(long nanos) {
+            super.addQueryNs(nanos);
+            record(QUERY, nanos);
+        }
+
+        @Override
+        public void addStorePhaseNs(long[] phaseNs) {
+            super.addStorePhaseNs(phaseNs);
+            record(STORE_PHASES, toObjects(phaseNs));
+        }
+
+        @Override
+        public void addQueryPhaseNs(long[] phaseNs) {
+            super.addQueryPhaseNs(phaseNs);
+            record(QUERY_PHASES, toObjects(phaseNs));
+        }
+
+        @Override
+        public void addTimeout(int iterations, double extrapolatedNs) {
+            super.addTimeout(iterations, extrapolatedNs);
+            record(TIMEOUT, iterations, extrapolatedNs);
+        }
+
+        @Override
+        public void addStatistic(String name, double value) {
+            super.addStatistic(name, value);
+            record(STATISTIC, value, name);
+        }
+
+        /**
+         * Boxes the given phase times so that they can be recorded.
+         *
+         * @param phaseNs the elapsed nanoseconds of each phase
+         * @return the boxed values
+         */
+        private static Object[] toObjects(long[] phaseNs) {
+            Object[] values = new Object[phaseNs.length];
+            for (int i = 0; i < phaseNs.length; i++) {
+                values[i] = phaseNs[i];
+            }
+
+            return values;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.caojohnny.databenchmark.fork;
+
+import io.github.caojohnny.databenchmark.generator.DataGenerator;
+import io.github.caojohnny.databenchmark.statistics.BenchmarkResult;
+import io.github.caojohnny.databenchmark.storage.Storage;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs every benchmark in its own child JVM rather than running all of them
+ * in the benchmark JVM, so that the code compiled by the JIT, the state of the
+ * heap and the garbage collector left behind by one storage cannot influence
+ * the results of another.
+ *
+ * <p>For each storage and generator, a {@link ForkWorker} is launched a given
+ * number of times, once for each set of JVM options, and the results recorded
+ * by each worker are aggregated into a single result per set of options. This
+ * allows the storages to be compared under different heap sizes or garbage
+ * collectors.</p>
+ */
+public final class ForkedBenchmark {
+    /**
+     * The prefix of the system properties which are passed on to the worker
+     */
+    private static final String PROPERTY_PREFIX = "data-benchmark.";
+    /**
+     * The system properties which are only used by this process and are not
+     * passed on to the worker
+     */
+    private static final Set<String> PARENT_PROPERTIES = new HashSet<>(Arrays.asList(
+            "data-benchmark.forks", "data-benchmark.jvm-options", "data-benchmark.jfr"));
+    /**
+     * The separator between the sets of JVM options
+     */
+    private static final String JVM_OPTIONS_SEPARATOR = ";";
+
+    private ForkedBenchmark() {
+    }
+
+    /**
+     * Parses the sets of JVM options with which to run the workers. Each set
+     * is separated by a semicolon and the options within a set are separated
+     * by whitespace, such as {@code -XX:+UseG1GC;-XX:+UseParallelGC}.
+     *
+     * @param jvmOptions the sets of JVM options
+     * @return each set of JVM options, a single empty set if none are given
+     */
+    public static @NonNull List<List<String>> parseJvmOptions(@NonNull String jvmOptions) {
+        List<List<String>> sets = new ArrayList<>();
+        for (String set : jvmOptions.split(JVM_OPTIONS_SEPARATOR)) {
+            String trimmed = set.trim();
+            sets.add(trimmed.isEmpty() ? Collections.emptyList() :
+                    Arrays.asList(trimmed.split("\\s+")));
+        }
+
+        return sets;
+    }
+
+    /**
+     * Runs the benchmark of each of the given storages with each of the given
+     * generators in child JVMs.
+     *
+     * @param generators the generators which to use for obtaining data, which
+     *                   must be obtainable by name from
+     *                   {@link io.github.caojohnny.databenchmark.DataBenchmark#createGenerators()}
+     *                   in the worker
+     * @param storages   the storages which to benchmark, which must be
+     *                   obtainable by name from
+     *                   {@link io.github.caojohnny.databenchmark.DataBenchmark#createStorages()}
+     *                   in the worker
+     * @param jvmOptions the sets of JVM options with which to run the workers
+     * @param forkCount  the number of workers to run for each benchmark and
+     *                   set of JVM options
+     * @param results    the collection of results to populate with the
+     *                   aggregated results of the workers
+     */
+    public static void run(@NonNull Collection<DataGenerator> generators,
+                           @NonNull Collection<Storage> storages,
+                           @NonNull List<List<String>> jvmOptions, int forkCount,
+                           @NonNull Map<String, BenchmarkResult> results) {
+        log("Starting forked benchmark...");
+        log("N_FORKS = %d", forkCount);
+        for (List<String> options : jvmOptions) {
+            log("JVM_OPTIONS = %s", options);
+        }
+        log("");
+
+        for (DataGenerator generator : generators) {
+            for (Storage storage : storages) {
+                if (!storage.supports(generator.getSchema())) {
+                    log("Skipping '%s', which does not support '%s'", storage.getName(),
+                            generator.getName());
+                    log("");
+                    continue;
+                }
+
+                for (List<String> options : jvmOptions) {
+                    String resultId = format("(%s) %s", generator.getName(), storage.getName());
+                    if (jvmOptions.size() > 1 || !options.isEmpty()) {
+                        resultId += " " + options;
+                    }
+
+                    BenchmarkResult result = new BenchmarkResult();
+                    try {
+                        for (int i = 0; i < forkCount; i++) {
+                            log("Starting fork %d of '%s'...", i + 1, resultId);
+                            runWorker(storage, generator, options, result);
+                            if (result.getTimeoutCount() > 0) {
+                                log("Skipping the remaining forks of '%s', which timed out",
+                                        resultId);
+                                break;
+                            }
+                        }
+
+                        results.put(resultId, result);
+                    } catch (Exception e) {
+                        log("Skipping '%s': %s", resultId, e);
+                    }
+
+                    log("");
+                }
+            }
+        }
+    }
+
+    /**
+     * Launches a worker to run the benchmark of the given storage with the
+     * given generator and waits for it to exit.
+     *
+     * @param storage    the storage to benchmark
+     * @param generator  the generator to obtain data from
+     * @param jvmOptions the options of the worker JVM
+     * @param result     the result to record the values printed by the worker
+     *                   to its standard error to
+     * @throws Exception if the worker could not be launched or did not exit
+     *                   successfully
+     */
+    private static void runWorker(@NonNull Storage storage, @NonNull DataGenerator generator,
+                                  @NonNull List<String> jvmOptions,
+                                  @NonNull BenchmarkResult result) throws Exception {
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve current working directory");
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PROPERTY_PREFIX) && !PARENT_PROPERTIES.contains(name)) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ForkWorker.class.getName());
+        command.add(storage.getName());
+        command.add(generator.getName());
+
+        Process process = new ProcessBuilder(command)
+                .directory(new File(workingDir))
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.startsWith(ForkWorker.RESULT + " ")) {
+                    record(line, result);
+                } else {
+                    System.err.println(line);
+                }
+            }
+        } finally {
+            process.destroy();
+        }
+
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Worker exited with code " + exitCode);
+        }
+    }
+
+    /**
+     * Records the value printed by a worker on the given result line to the
+     * given result.
+     *
+     * @param line   the result line
+     * @param result the result to record the value to
+     */
+    private static void record(@NonNull String line, @NonNull BenchmarkResult result) {
+        String[] parts = line.split(" ", 3);
+        String values = parts.length > 2 ? parts[2] : "";
+        switch (parts[1]) {
+            case ForkWorker.STORE:
+                result.addStoreNs(Long.parseLong(values));
+                break;
+            case ForkWorker.QUERY:
+                result.addQueryNs(Long.parseLong(values));
+                break;
+            case ForkWorker.STORE_PHASES:
+                result.addStorePhaseNs(parseLongs(values));
+                break;
+            case ForkWorker.QUERY_PHASES:
+                result.addQueryPhaseNs(parseLongs(values));
+                break;
+            case ForkWorker.TIMEOUT:
+                String[] timeout = values.split(" ");
+                result.addTimeout(Integer.parseInt(timeout[0]), Double.parseDouble(timeout[1]));
+                break;
+            case ForkWorker.STATISTIC:
+                String[] statistic = values.split(" ", 2);
+                result.addStatistic(statistic[1], Double.parseDouble(statistic[0]));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown result line: " + line);
+        }
+    }
+
+    /**
+     * Parses the given values separated by spaces.
+     *
+     * @param values the values
+     * @return the parsed values
+     */
+    private static long @NonNull [] parseLongs(@NonNull String values) {
+        return Arrays.stream(values.split(" "))
+                .mapToLong(Long::parseLong)
+                .toArray();
+    }
+
+    /**
+     * Short-cut logging method for printing a full line to {@link System#out}.
+     *
+     * @param fmt     the format string.
+     * @param objects the objects to fill any placeholders in the format
+     *                string.
+     */
+    private static void log(String fmt, Object... objects) {
+        System.out.printf(fmt, objects);
+        System.out.println();
+    }
+}
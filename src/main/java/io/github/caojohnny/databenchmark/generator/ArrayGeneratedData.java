@@ -12,9 +12,14 @@ public class ArrayGeneratedData implements GeneratedData {
      * The array of generated data given through the constructor
      */
     private final Object[] dataArray;
+    /**
+     * The schema of the data
+     */
+    private final RecordSchema schema;
 
     /**
-     * Creates a new array of generated data initialized with the given values.
+     * Creates a new array of generated data initialized with the given values
+     * of the {@link RecordSchema#DEFAULT} schema.
      *
      * <p>The array is not allowed to have {@code null elements} and will be
      * cloned upon construction.</p>
@@ -22,9 +27,33 @@ public class ArrayGeneratedData implements GeneratedData {
      * @param dataArray the array of values
      */
     public ArrayGeneratedData(Object[] dataArray) {
+        this(RecordSchema.DEFAULT, dataArray);
+    }
+
+    /**
+     * Creates a new array of generated data initialized with the given values
+     * of the given schema.
+     *
+     * <p>The array is not allowed to have {@code null elements} and will be
+     * cloned upon construction.</p>
+     *
+     * @param schema    the schema of the data
+     * @param dataArray the array of values, one for each field of the schema
+     */
+    public ArrayGeneratedData(@NonNull RecordSchema schema, Object[] dataArray) {
+        if (dataArray.length != schema.getLength()) {
+            throw new IllegalArgumentException("Data does not match the schema");
+        }
+
+        this.schema = schema;
         this.dataArray = dataArray.clone();
     }
 
+    @Override
+    public @NonNull RecordSchema getSchema() {
+        return this.schema;
+    }
+
     @Override
     public int getLength() {
         return this.dataArray.length;
@@ -0,0 +1,106 @@
+package io.github.caojohnny.databenchmark.generator;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link SameKeyGenerator}, but instead of generating new values for every
+ * record on each call to {@link #generate(int)}, only generates new values for
+ * a given percentage of the records chosen at random and returns the rest of
+ * the records unchanged from the previous call.
+ *
+ * <p>A change rate of 0% generates the same data on every call like the
+ * {@link SameDataGenerator}, while a change rate of 100% generates new values
+ * for every record like the {@link SameKeyGenerator}.</p>
+ */
+public class ChangeRateGenerator implements DataGenerator {
+    /**
+     * The percentage of the records which are changed by each call to
+     * {@link #generate(int)}
+     */
+    private final double changePercent;
+    /**
+     * The random used to generate the records and to choose which of them
+     * change
+     */
+    private final SplittableRandom random;
+
+    /**
+     * The records returned by the previous call to {@link #generate(int)}
+     */
+    private List<GeneratedData> records;
+
+    /**
+     * Creates a new change rate generator which generates the same data as any
+     * other generator created with the given change rate and seed.
+     *
+     * @param changePercent the percentage of the records which change on each
+     *                      call, between 0 and 100
+     * @param seed          the seed
+     */
+    public ChangeRateGenerator(double changePercent, long seed) {
+        if (!(changePercent >= 0 && changePercent <= 100)) {
+            throw new IllegalArgumentException("Change rate must be between 0% and 100%");
+        }
+
+        this.changePercent = changePercent;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "Change Rate (" +
+                BigDecimal.valueOf(this.changePercent).stripTrailingZeros().toPlainString() + "%)";
+    }
+
+    @Override
+    public @NonNull List<GeneratedData> generate(int amount) {
+        if (this.records == null) {
+            List<String> keys = RandomRecords.generateKeys(this.random, amount);
+            this.records = RandomRecords.generate(this.random, amount,
+                    (index, random) -> newRecord(keys.get(index), random));
+            return this.records;
+        }
+
+        // Partial Fisher-Yates shuffle of the indices, choosing the records
+        // to change without repetition
+        GeneratedData[] records = this.records.toArray(new GeneratedData[0]);
+        int[] indices = IntStream.range(0, records.length).toArray();
+        int changes = (int) Math.round(records.length * this.changePercent / 100);
+        for (int i = 0; i < changes; i++) {
+            int j = i + this.random.nextInt(records.length - i);
+            int index = indices[j];
+            indices[j] = indices[i];
+            indices[i] = index;
+
+            records[index] = newRecord(records[index].getDataAt(0, String.class), this.random);
+        }
+
+        this.records = Collections.unmodifiableList(Arrays.asList(records));
+        return this.records;
+    }
+
+    /**
+     * Generates a record with the given key and random values.
+     *
+     * @param key    the key of the record
+     * @param random the random to generate the values from
+     * @return the generated record
+     */
+    private static @NonNull GeneratedData newRecord(@NonNull String key,
+                                                    @NonNull SplittableRandom random) {
+        int randInteger = random.nextInt();
+        double randDouble = random.nextDouble();
+        float randFloat = RandomRecords.nextFloat(random);
+        long randLong = random.nextLong();
+
+        Object[] dataArray = {key, randInteger, randDouble, randFloat, randLong};
+        return new ArrayGeneratedData(dataArray);
+    }
+}
@@ -18,6 +18,15 @@ public interface DataGenerator {
      */
     @NonNull String getName();
 
+    /**
+     * Obtains the schema of the data produced by this generator.
+     *
+     * @return the schema of the generated data
+     */
+    default @NonNull RecordSchema getSchema() {
+        return RecordSchema.DEFAULT;
+    }
+
     /**
      * Generates some given amount of data.
      *
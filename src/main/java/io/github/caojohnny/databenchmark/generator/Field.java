@@ -0,0 +1,122 @@
+package io.github.caojohnny.databenchmark.generator;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Represents a named field of a {@link RecordSchema}.
+ *
+ * <p>The length of the value of a variable-length field, in characters for a
+ * {@link FieldType#STRING} or in bytes for a {@link FieldType#BYTES}, is
+ * chosen uniformly between the minimum and maximum length of the field for
+ * every generated record.</p>
+ */
+public final class Field {
+    /**
+     * The name of the field, used as the JSON/YAML key or the column name
+     */
+    private final String name;
+    /**
+     * The type of the field
+     */
+    private final FieldType type;
+    /**
+     * The minimum length of the values of a variable-length field
+     */
+    private final int minLength;
+    /**
+     * The maximum length of the values of a variable-length field
+     */
+    private final int maxLength;
+
+    /**
+     * Creates a new fixed-length field.
+     *
+     * @param name the name of the field
+     * @param type the type of the field, which must not be variable-length
+     */
+    public Field(@NonNull String name, @NonNull FieldType type) {
+        this(name, type, 0, 0);
+        if (type.isVariableLength()) {
+            throw new IllegalArgumentException("Variable-length field requires a length");
+        }
+    }
+
+    /**
+     * Creates a new variable-length field.
+     *
+     * @param name      the name of the field
+     * @param type      the type of the field
+     * @param minLength the minimum length of the values
+     * @param maxLength the maximum length of the values, inclusive
+     */
+    public Field(@NonNull String name, @NonNull FieldType type, int minLength,
+                 int maxLength) {
+        if (minLength < 0 || maxLength < minLength) {
+            throw new IllegalArgumentException("Invalid length range");
+        }
+
+        this.name = name;
+        this.type = type;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Obtains the name of the field.
+     *
+     * @return the field name
+     */
+    public @NonNull String getName() {
+        return this.name;
+    }
+
+    /**
+     * Obtains the type of the field.
+     *
+     * @return the field type
+     */
+    public @NonNull FieldType getType() {
+        return this.type;
+    }
+
+    /**
+     * Obtains the minimum length of the values of a variable-length field.
+     *
+     * @return the minimum length
+     */
+    public int getMinLength() {
+        return this.minLength;
+    }
+
+    /**
+     * Obtains the maximum length of the values of a variable-length field.
+     *
+     * @return the maximum length, inclusive
+     */
+    public int getMaxLength() {
+        return this.maxLength;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Field)) {
+            return false;
+        }
+
+        Field field = (Field) o;
+        return this.minLength == field.minLength &&
+                this.maxLength == field.maxLength &&
+                this.name.equals(field.name) &&
+                this.type == field.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.name, this.type, this.minLength, this.maxLength);
+    }
+}
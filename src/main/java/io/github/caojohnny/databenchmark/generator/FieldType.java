@@ -0,0 +1,78 @@
+package io.github.caojohnny.databenchmark.generator;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Represents the type of a {@link Field} of a {@link RecordSchema}, which
+ * determines the class of the value of the field in a {@link GeneratedData}.
+ */
+public enum FieldType {
+    /**
+     * A variable-length {@link String} of alphanumeric characters
+     */
+    STRING(String.class, -1),
+    /**
+     * A variable-length {@code byte[]} of random bytes
+     */
+    BYTES(byte[].class, -1),
+    /**
+     * An {@link Integer}
+     */
+    INT(Integer.class, Integer.BYTES),
+    /**
+     * A {@link Long}
+     */
+    LONG(Long.class, Long.BYTES),
+    /**
+     * A {@link Float}
+     */
+    FLOAT(Float.class, Float.BYTES),
+    /**
+     * A {@link Double}
+     */
+    DOUBLE(Double.class, Double.BYTES);
+
+    /**
+     * The class of the values of this type
+     */
+    private final Class<?> valueClass;
+    /**
+     * The number of bytes taken by a value of this type, or {@code -1} if
+     * values have a variable length
+     */
+    private final int fixedBytes;
+
+    FieldType(@NonNull Class<?> valueClass, int fixedBytes) {
+        this.valueClass = valueClass;
+        this.fixedBytes = fixedBytes;
+    }
+
+    /**
+     * Obtains the class of the values of this type.
+     *
+     * @return the value class
+     */
+    public @NonNull Class<?> getValueClass() {
+        return this.valueClass;
+    }
+
+    /**
+     * Determines whether the values of this type have a variable length, in
+     * which case the length is chosen by the {@link Field}.
+     *
+     * @return {@code true} if the values have a variable length
+     */
+    public boolean isVariableLength() {
+        return this.fixedBytes < 0;
+    }
+
+    /**
+     * Obtains the number of bytes taken by a value of this type in binary
+     * form.
+     *
+     * @return the value size, or {@code -1} if values have a variable length
+     */
+    public int getFixedBytes() {
+        return this.fixedBytes;
+    }
+}
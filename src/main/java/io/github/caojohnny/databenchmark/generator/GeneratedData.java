@@ -20,6 +20,16 @@ public interface GeneratedData {
      */
     int getLength();
 
+    /**
+     * Obtains the schema which describes the type of each element of the
+     * data.
+     *
+     * @return the schema of this data
+     */
+    default @NonNull RecordSchema getSchema() {
+        return RecordSchema.DEFAULT;
+    }
+
     /**
      * Obtains the data at the given index.
      *
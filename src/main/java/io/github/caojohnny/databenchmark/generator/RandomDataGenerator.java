@@ -2,18 +2,42 @@ package io.github.caojohnny.databenchmark.generator;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents a data generator which generates a random array of 5 objects in
  * the following order: a {@link String}, {@code int}, {@code double},
  * {@code float} and {@code long}.
+ *
+ * <p>Generators created with the same seed generate the same data, large
+ * amounts of which are generated in parallel.</p>
  */
 public class RandomDataGenerator implements DataGenerator {
+    /**
+     * The random from which the random of each call to
+     * {@link #generate(int)} is split
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Creates a new random data generator with a random seed.
+     */
+    public RandomDataGenerator() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a new random data generator which generates the same data as
+     * any other generator created with the given seed.
+     *
+     * @param seed the seed
+     */
+    public RandomDataGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
     @Override
     public @NonNull String getName() {
         return "Random Data";
@@ -21,22 +45,16 @@ public class RandomDataGenerator implements DataGenerator {
 
     @Override
     public @NonNull List<GeneratedData> generate(int amount) {
-        List<GeneratedData> dataCollection = new ArrayList<>(amount);
-        for (int i = 0; i < amount; i++) {
-            ThreadLocalRandom tlr = ThreadLocalRandom.current();
-
-            String randUuid = UUID.randomUUID().toString();
-            int randInteger = tlr.nextInt();
-            double randDouble = tlr.nextDouble();
-            float randFloat = tlr.nextFloat();
-            long randLong = tlr.nextLong();
+        return RandomRecords.generate(this.random, amount, (index, random) -> {
+            String randUuid = RandomRecords.nextUuid(random);
+            int randInteger = random.nextInt();
+            double randDouble = random.nextDouble();
+            float randFloat = RandomRecords.nextFloat(random);
+            long randLong = random.nextLong();
 
             Object[] dataArray = {randUuid, randInteger, randDouble, randFloat,
                     randLong};
-            GeneratedData data = new ArrayGeneratedData(dataArray);
-            dataCollection.add(data);
-        }
-
-        return Collections.unmodifiableList(dataCollection);
+            return new ArrayGeneratedData(dataArray);
+        });
     }
 }
@@ -0,0 +1,124 @@
+package io.github.caojohnny.databenchmark.generator;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Utility methods shared by the generators which derive their records from a
+ * seeded {@link SplittableRandom}.
+ *
+ * <p>The records are generated in chunks of consecutive indices, each of which
+ * draws from its own {@link SplittableRandom} split off the generator's random
+ * in order, so the chunks can be generated in parallel while the generated
+ * records depend only on the seed and never on the number of threads or the
+ * order in which the chunks are scheduled.</p>
+ */
+final class RandomRecords {
+    /**
+     * The number of records generated from each split random, which is also
+     * the least number of records that are generated in parallel
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    private RandomRecords() {
+    }
+
+    /**
+     * Generates the given amount of records, in parallel if there is more than
+     * one chunk of them.
+     *
+     * @param random  the random of the generator, from which a random is split
+     *                for each chunk
+     * @param amount  the number of records to generate
+     * @param factory the procedure which generates each record
+     * @param <T>     the type of the records
+     * @return an unmodifiable list of the generated records
+     */
+    @SuppressWarnings("unchecked")
+    static <T> @NonNull List<T> generate(@NonNull SplittableRandom random, int amount,
+                                         @NonNull RecordFactory<T> factory) {
+        int chunks = (amount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = random.split();
+        }
+
+        Object[] records = new Object[amount];
+        IntStream stream = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            stream = stream.parallel();
+        }
+
+        stream.forEach(chunk -> {
+            SplittableRandom chunkRandom = randoms[chunk];
+            int end = Math.min(amount, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                records[i] = factory.create(i, chunkRandom);
+            }
+        });
+
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(records));
+    }
+
+    /**
+     * Generates the given amount of random {@link UUID} strings to be used as
+     * the keys of records.
+     *
+     * @param random the random of the generator
+     * @param amount the number of keys to generate
+     * @return an unmodifiable list of the generated keys
+     */
+    static @NonNull List<String> generateKeys(@NonNull SplittableRandom random, int amount) {
+        return generate(random, amount, (index, keyRandom) -> nextUuid(keyRandom));
+    }
+
+    /**
+     * Generates a random version 4 {@link UUID} string, as would be returned
+     * by {@link UUID#randomUUID()}, using the given random rather than a
+     * {@link java.security.SecureRandom}.
+     *
+     * @param random the random
+     * @return the 36 character UUID string
+     */
+    static @NonNull String nextUuid(@NonNull SplittableRandom random) {
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xCL << 60)) | (0x8L << 60);
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    /**
+     * Generates a random {@code float} between {@code 0} (inclusive) and
+     * {@code 1} (exclusive), as would be returned by
+     * {@link java.util.Random#nextFloat()}.
+     *
+     * @param random the random
+     * @return the random float
+     */
+    static float nextFloat(@NonNull SplittableRandom random) {
+        return (random.nextInt() >>> 8) * 0x1.0p-24f;
+    }
+
+    /**
+     * Generates a single record.
+     *
+     * @param <T> the type of the record
+     */
+    @FunctionalInterface
+    interface RecordFactory<T> {
+        /**
+         * Generates the record at the given index.
+         *
+         * @param index  the index of the record in the generated list
+         * @param random the random of the chunk containing the record, which
+         *               must not be used by any other thread
+         * @return the generated record
+         */
+        @NonNull T create(int index, @NonNull SplittableRandom random);
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.caojohnny.databenchmark.generator;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Represents the fields of the records produced by a {@link DataGenerator}.
+ *
+ * <p>The first field of every schema is the {@link #KEY}, a {@link String}
+ * UUID which identifies the record, followed by any number of value fields.
+ * The element of a {@link GeneratedData} at each index is the value of the
+ * field at the same index.</p>
+ */
+public final class RecordSchema {
+    /**
+     * The key field which is the first field of every schema
+     */
+    public static final Field KEY = new Field("str", FieldType.STRING, 36, 36);
+    /**
+     * The schema of the records of the original generators, which have an
+     * {@code int}, {@code double}, {@code float} and {@code long} value
+     */
+    public static final RecordSchema DEFAULT = new RecordSchema("Default", Arrays.asList(
+            new Field("int", FieldType.INT),
+            new Field("double", FieldType.DOUBLE),
+            new Field("float", FieldType.FLOAT),
+            new Field("long", FieldType.LONG)));
+
+    /**
+     * The name of the schema, used to identify it in the logging output
+     */
+    private final String name;
+    /**
+     * Every field of the schema, starting with the key
+     */
+    private final List<Field> fields;
+
+    /**
+     * Creates a new record schema.
+     *
+     * @param name        the name of the schema
+     * @param valueFields the fields following the key, which must have
+     *                    distinct names
+     */
+    public RecordSchema(@NonNull String name, @NonNull List<Field> valueFields) {
+        List<Field> fields = new ArrayList<>(valueFields.size() + 1);
+        fields.add(KEY);
+        fields.addAll(valueFields);
+        for (int i = 0; i < fields.size(); i++) {
+            for (int j = i + 1; j < fields.size(); j++) {
+                if (fields.get(i).getName().equals(fields.get(j).getName())) {
+                    throw new IllegalArgumentException("Duplicate field: " + fields.get(i).getName());
+                }
+            }
+        }
+
+        this.name = name;
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Creates a schema with the fields of the {@link #DEFAULT} schema followed
+     * by a {@code byte[]} payload, sized so that the logical size of each
+     * record is the given number of bytes.
+     *
+     * @param recordBytes the logical size of each record, at least the size
+     *                    of a record of the default schema
+     * @return the schema
+     */
+    public static @NonNull RecordSchema withPayload(int recordBytes) {
+        int payloadBytes = recordBytes - DEFAULT.getMinLogicalBytes();
+        if (payloadBytes < 0) {
+            throw new IllegalArgumentException("Record size is smaller than the default record");
+        }
+
+        List<Field> valueFields = new ArrayList<>(DEFAULT.fields.subList(1, DEFAULT.fields.size()));
+        valueFields.add(new Field("payload", FieldType.BYTES, payloadBytes, payloadBytes));
+        return new RecordSchema(recordBytes + " B", valueFields);
+    }
+
+    /**
+     * Obtains the schema of the given data, which is assumed to be the same
+     * for every item.
+     *
+     * @param dataCollection the data
+     * @return the schema of the first item, or the {@link #DEFAULT} schema if
+     * there is no data
+     */
+    public static @NonNull RecordSchema of(@NonNull Collection<GeneratedData> dataCollection) {
+        Iterator<GeneratedData> iterator = dataCollection.iterator();
+        return iterator.hasNext() ? iterator.next().getSchema() : DEFAULT;
+    }
+
+    /**
+     * Obtains the name of the schema.
+     *
+     * @return the schema name
+     */
+    public @NonNull String getName() {
+        return this.name;
+    }
+
+    /**
+     * Obtains every field of the schema, starting with the {@link #KEY}.
+     *
+     * @return the fields
+     */
+    public @NonNull List<Field> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Obtains the fields of the schema which follow the {@link #KEY}.
+     *
+     * @return the value fields
+     */
+    public @NonNull List<Field> getValueFields() {
+        return this.fields.subList(1, this.fields.size());
+    }
+
+    /**
+     * Obtains the field at the given index.
+     *
+     * @param index the index of the field, {@code 0} being the key
+     * @return the field
+     */
+    public @NonNull Field getField(int index) {
+        return this.fields.get(index);
+    }
+
+    /**
+     * Obtains the number of fields, including the key.
+     *
+     * @return the field count
+     */
+    public int getLength() {
+        return this.fields.size();
+    }
+
+    /**
+     * Determines the logical size of the given record, which is the size of
+     * the UTF-8 strings, the bytes and the binary numbers of each field
+     * without any framing or formatting.
+     *
+     * @param data the record, which must have this schema
+     * @return the logical size of the record, in bytes
+     */
+    public long getLogicalBytes(@NonNull GeneratedData data) {
+        long bytes = 0;
+        for (int i = 0; i < this.fields.size(); i++) {
+            FieldType type = this.fields.get(i).getType();
+            if (type == FieldType.STRING) {
+                bytes += data.getDataAt(i, String.class).getBytes(StandardCharsets.UTF_8).length;
+            } else if (type == FieldType.BYTES) {
+                bytes += data.getDataAt(i, byte[].class).length;
+            } else {
+                bytes += type.getFixedBytes();
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Determines the smallest logical size of a record of this schema, taking
+     * each character of a string as a single byte.
+     *
+     * @return the minimum logical size, in bytes
+     */
+    private int getMinLogicalBytes() {
+        int bytes = 0;
+        for (Field field : this.fields) {
+            bytes += field.getType().isVariableLength() ?
+                    field.getMinLength() : field.getType().getFixedBytes();
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RecordSchema)) {
+            return false;
+        }
+
+        return this.fields.equals(((RecordSchema) o).fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.fields.hashCode();
+    }
+}
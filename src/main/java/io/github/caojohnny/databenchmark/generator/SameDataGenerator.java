@@ -11,10 +11,27 @@ import java.util.List;
  * singleton across calls to {@link #generate(int)}.
  */
 public class SameDataGenerator implements DataGenerator {
-    private final DataGenerator delegate = new RandomDataGenerator();
+    private final DataGenerator delegate;
 
     private List<GeneratedData> sameData;
 
+    /**
+     * Creates a new same data generator with a random seed.
+     */
+    public SameDataGenerator() {
+        this.delegate = new RandomDataGenerator();
+    }
+
+    /**
+     * Creates a new same data generator which generates the same data as any
+     * other generator created with the given seed.
+     *
+     * @param seed the seed
+     */
+    public SameDataGenerator(long seed) {
+        this.delegate = new RandomDataGenerator(seed);
+    }
+
     @Override
     public @NonNull String getName() {
         return "Same Data";
@@ -2,10 +2,8 @@ package io.github.caojohnny.databenchmark.generator;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.SplittableRandom;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -14,8 +12,31 @@ import java.util.concurrent.ThreadLocalRandom;
  * to {@link #generate(int)}.
  */
 public class SameKeyGenerator implements DataGenerator {
+    /**
+     * The random from which the random of each call to
+     * {@link #generate(int)} is split
+     */
+    private final SplittableRandom random;
+
     private List<String> keys;
 
+    /**
+     * Creates a new same key generator with a random seed.
+     */
+    public SameKeyGenerator() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a new same key generator which generates the same data as any
+     * other generator created with the given seed.
+     *
+     * @param seed the seed
+     */
+    public SameKeyGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
     @Override
     public @NonNull String getName() {
         return "Same Key";
@@ -23,28 +44,21 @@ public class SameKeyGenerator implements DataGenerator {
 
     @Override
     public @NonNull List<GeneratedData> generate(int amount) {
-        ThreadLocalRandom tlr = ThreadLocalRandom.current();
         if (this.keys == null) {
-            this.keys = new ArrayList<>(amount);
-            for (int i = 0; i < amount; i++) {
-                this.keys.add(UUID.randomUUID().toString());
-            }
+            this.keys = RandomRecords.generateKeys(this.random, amount);
         }
 
-        List<GeneratedData> dataCollection = new ArrayList<>(amount);
-        for (int i = 0; i < amount; i++) {
-            String randUuid = this.keys.get(i);
-            int randInteger = tlr.nextInt();
-            double randDouble = tlr.nextDouble();
-            float randFloat = tlr.nextFloat();
-            long randLong = tlr.nextLong();
+        List<String> keys = this.keys;
+        return RandomRecords.generate(this.random, amount, (index, random) -> {
+            String randUuid = keys.get(index);
+            int randInteger = random.nextInt();
+            double randDouble = random.nextDouble();
+            float randFloat = RandomRecords.nextFloat(random);
+            long randLong = random.nextLong();
 
             Object[] dataArray = {randUuid, randInteger, randDouble, randFloat,
                     randLong};
-            GeneratedData data = new ArrayGeneratedData(dataArray);
-            dataCollection.add(data);
-        }
-
-        return Collections.unmodifiableList(dataCollection);
+            return new ArrayGeneratedData(dataArray);
+        });
     }
 }
@@ -0,0 +1,137 @@
+package io.github.caojohnny.databenchmark.generator;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents a data generator which generates random records of any
+ * {@link RecordSchema}, optionally re-using the same keys across calls to
+ * {@link #generate(int)} like the {@link SameKeyGenerator}.
+ *
+ * <p>Generators created with the same schema and seed generate the same data,
+ * large amounts of which are generated in parallel.</p>
+ */
+public class SchemaDataGenerator implements DataGenerator {
+    /**
+     * The characters which random strings are made of
+     */
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    /**
+     * The schema of the generated records
+     */
+    private final RecordSchema schema;
+    /**
+     * Whether the same keys are re-used across calls to {@link #generate(int)}
+     */
+    private final boolean sameKey;
+    /**
+     * The random from which the random of each call to
+     * {@link #generate(int)} is split
+     */
+    private final SplittableRandom random;
+
+    /**
+     * The keys generated by the first call to {@link #generate(int)}, if the
+     * keys are re-used
+     */
+    private List<String> keys;
+
+    /**
+     * Creates a new schema data generator with a random seed.
+     *
+     * @param schema  the schema of the generated records
+     * @param sameKey {@code true} to re-use the same keys across calls to
+     *                {@link #generate(int)}, {@code false} to generate new
+     *                random keys every time
+     */
+    public SchemaDataGenerator(@NonNull RecordSchema schema, boolean sameKey) {
+        this(schema, sameKey, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a new schema data generator which generates the same data as
+     * any other generator created with the given schema and seed.
+     *
+     * @param schema  the schema of the generated records
+     * @param sameKey {@code true} to re-use the same keys across calls to
+     *                {@link #generate(int)}, {@code false} to generate new
+     *                random keys every time
+     * @param seed    the seed
+     */
+    public SchemaDataGenerator(@NonNull RecordSchema schema, boolean sameKey, long seed) {
+        this.schema = schema;
+        this.sameKey = sameKey;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return (this.sameKey ? "Same Key, " : "Random Data, ") + this.schema.getName();
+    }
+
+    @Override
+    public @NonNull RecordSchema getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Generates a random value for the given field.
+     *
+     * @param field  the field
+     * @param random the source of randomness
+     * @return the generated value
+     */
+    private static @NonNull Object generateValue(@NonNull Field field,
+                                                 @NonNull SplittableRandom random) {
+        int length = field.getMinLength() == field.getMaxLength() ? field.getMinLength() :
+                field.getMinLength() + random.nextInt(field.getMaxLength() - field.getMinLength() + 1);
+        switch (field.getType()) {
+            case STRING:
+                char[] chars = new char[length];
+                for (int i = 0; i < length; i++) {
+                    chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+                }
+
+                return new String(chars);
+            case BYTES:
+                byte[] bytes = new byte[length];
+                random.nextBytes(bytes);
+                return bytes;
+            case INT:
+                return random.nextInt();
+            case LONG:
+                return random.nextLong();
+            case FLOAT:
+                return RandomRecords.nextFloat(random);
+            case DOUBLE:
+                return random.nextDouble();
+            default:
+                throw new IllegalArgumentException("Unknown field type: " + field.getType());
+        }
+    }
+
+    @Override
+    public @NonNull List<GeneratedData> generate(int amount) {
+        if (this.sameKey && this.keys == null) {
+            this.keys = RandomRecords.generateKeys(this.random, amount);
+        }
+
+        RecordSchema schema = this.schema;
+        List<Field> fields = schema.getFields();
+        List<String> keys = this.keys;
+        return RandomRecords.generate(this.random, amount, (index, random) -> {
+            Object[] dataArray = new Object[fields.size()];
+            dataArray[0] = keys != null ? keys.get(index) : RandomRecords.nextUuid(random);
+            for (int j = 1; j < dataArray.length; j++) {
+                dataArray[j] = generateValue(fields.get(j), random);
+            }
+
+            return new ArrayGeneratedData(schema, dataArray);
+        });
+    }
+}
@@ -0,0 +1,351 @@
+package io.github.caojohnny.databenchmark.interference;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Background load which competes with a storage for the resources of the
+ * machine while it is benchmarked, so that the storages can be compared on a
+ * busy machine rather than an idle one.
+ *
+ * <p>The load consists of three kinds of threads, each of which runs until
+ * the load is closed:</p>
+ * <ul>
+ *     <li>CPU threads, which spin on arithmetic and compete for the cores</li>
+ *     <li>allocation threads, which allocate arrays of random sizes and
+ *     retain a share of them, so that the garbage collector has to run more
+ *     often and has to copy objects which survive</li>
+ *     <li>write threads, which each sequentially write their own file in the
+ *     working directory and periodically force it to the storage device, so
+ *     that they compete for the page cache and the device</li>
+ * </ul>
+ *
+ * <p>The threads run in the same JVM as the storage, as the allocation
+ * pressure only affects the garbage collector of its own heap. The I/O
+ * counters of the process therefore include the writes of the load, which
+ * can be subtracted using {@link #getWrittenBytes()}.</p>
+ */
+public final class BackgroundLoad implements AutoCloseable {
+    /**
+     * The number of arrays retained by each allocation thread, each of which
+     * is replaced by a random new allocation
+     */
+    private static final int RETAINED_ALLOCATIONS = 1024;
+    /**
+     * The largest array allocated by the allocation threads, in bytes
+     */
+    private static final int MAX_ALLOCATION_BYTES = 64 * 1024;
+    /**
+     * The size of each block written by the write threads, in bytes
+     */
+    private static final int WRITE_BLOCK_BYTES = 1024 * 1024;
+    /**
+     * The size at which the write threads wrap around and overwrite their
+     * file from the start, in bytes
+     */
+    private static final long MAX_FILE_BYTES = 256L * 1024 * 1024;
+    /**
+     * The number of bytes written by a write thread between forcing its file
+     * to the storage device
+     */
+    private static final long SYNC_BYTES = 16L * 1024 * 1024;
+    /**
+     * The number of arithmetic steps taken by a CPU thread between checking
+     * whether it should stop
+     */
+    private static final int CPU_STEPS = 1 << 20;
+    /**
+     * The number of bytes in one mebibyte
+     */
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * The number of threads which spin on the CPU
+     */
+    private final int cpuThreads;
+    /**
+     * The number of threads which allocate memory
+     */
+    private final int allocationThreads;
+    /**
+     * The number of threads which write a file
+     */
+    private final int writeThreads;
+    /**
+     * The directory in which the write threads create their files
+     */
+    private final Path directory;
+
+    /**
+     * The threads running the load
+     */
+    private final List<Thread> threads = new ArrayList<>();
+    /**
+     * The files written by the write threads
+     */
+    private final List<Path> files = new ArrayList<>();
+    /**
+     * The total number of bytes allocated by the allocation threads
+     */
+    private final LongAdder allocatedBytes = new LongAdder();
+    /**
+     * The total number of bytes written by the write threads
+     */
+    private final LongAdder writtenBytes = new LongAdder();
+
+    /**
+     * Whether the threads should keep running
+     */
+    private volatile boolean running;
+    /**
+     * Written with the result of the CPU threads so that their arithmetic is
+     * not eliminated by the JIT
+     */
+    private volatile long sink;
+    /**
+     * The exception thrown by a write thread, which stopped that thread
+     */
+    private volatile IOException writeFailure;
+    /**
+     * The {@link System#nanoTime()} at which the load was started
+     */
+    private long startNs;
+    /**
+     * The elapsed nanoseconds from the start of the load until it was
+     * stopped, or {@code -1} while it is running
+     */
+    private long elapsedNs = -1;
+
+    /**
+     * Creates a new load with the given number of each kind of thread, which
+     * is not started until {@link #start()} is called.
+     *
+     * @param cpuThreads        the number of threads which spin on the CPU
+     * @param allocationThreads the number of threads which allocate memory
+     * @param writeThreads      the number of threads which write a file
+     */
+    public BackgroundLoad(int cpuThreads, int allocationThreads, int writeThreads) {
+        if (cpuThreads < 0 || allocationThreads < 0 || writeThreads < 0) {
+            throw new IllegalArgumentException("Thread counts must not be negative");
+        }
+
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve working directory");
+
+        this.cpuThreads = cpuThreads;
+        this.allocationThreads = allocationThreads;
+        this.writeThreads = writeThreads;
+        this.directory = Paths.get(workingDir);
+    }
+
+    /**
+     * Starts every thread of the load.
+     *
+     * @throws IllegalStateException if the load has already been started
+     */
+    public void start() {
+        if (!this.threads.isEmpty()) {
+            throw new IllegalStateException("Background load has already been started");
+        }
+
+        this.running = true;
+        this.startNs = System.nanoTime();
+        for (int i = 0; i < this.cpuThreads; i++) {
+            long seed = i + 1;
+            this.startThread("Background Load CPU " + (i + 1), () -> this.spin(seed));
+        }
+        for (int i = 0; i < this.allocationThreads; i++) {
+            long seed = i + 1;
+            this.startThread("Background Load Allocation " + (i + 1), () -> this.allocate(seed));
+        }
+        for (int i = 0; i < this.writeThreads; i++) {
+            Path file = this.directory.resolve("background-load-" + (i + 1) + ".bin");
+            this.files.add(file);
+            this.startThread("Background Load Write " + (i + 1), () -> this.write(file));
+        }
+    }
+
+    /**
+     * Starts a daemon thread running the given task, so that a load which is
+     * never closed does not keep the JVM alive.
+     *
+     * @param name the name of the thread
+     * @param task the task to run
+     */
+    private void startThread(@NonNull String name, @NonNull Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        this.threads.add(thread);
+    }
+
+    /**
+     * Spins on xorshift steps until the load is stopped.
+     *
+     * @param seed the initial state, which must not be zero
+     */
+    private void spin(long seed) {
+        long x = seed;
+        while (this.running) {
+            for (int i = 0; i < CPU_STEPS; i++) {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+        }
+
+        this.sink = x;
+    }
+
+    /**
+     * Allocates arrays of random sizes until the load is stopped, each of
+     * which replaces a random one of the {@link #RETAINED_ALLOCATIONS}.
+     *
+     * @param seed the seed of the sizes and the replaced allocations
+     */
+    private void allocate(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[][] retained = new byte[RETAINED_ALLOCATIONS][];
+        while (this.running) {
+            int size = random.nextInt(MAX_ALLOCATION_BYTES) + 1;
+            retained[random.nextInt(RETAINED_ALLOCATIONS)] = new byte[size];
+            this.allocatedBytes.add(size);
+        }
+    }
+
+    /**
+     * Sequentially writes blocks of random bytes to the given file until the
+     * load is stopped, wrapping around at the {@link #MAX_FILE_BYTES} and
+     * forcing the file to the storage device every {@link #SYNC_BYTES}.
+     *
+     * @param file the file to write
+     */
+    private void write(@NonNull Path file) {
+        byte[] bytes = new byte[WRITE_BLOCK_BYTES];
+        new SplittableRandom(file.hashCode()).nextBytes(bytes);
+        ByteBuffer block = ByteBuffer.allocateDirect(WRITE_BLOCK_BYTES);
+        block.put(bytes);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long unsynced = 0;
+            while (this.running) {
+                block.clear();
+                while (block.hasRemaining()) {
+                    int written = channel.write(block, position);
+                    this.writtenBytes.add(written);
+                    position += written;
+                    unsynced += written;
+                }
+
+                if (unsynced >= SYNC_BYTES) {
+                    channel.force(false);
+                    unsynced = 0;
+                }
+                if (position >= MAX_FILE_BYTES) {
+                    position = 0;
+                }
+            }
+        } catch (IOException e) {
+            this.writeFailure = e;
+        }
+    }
+
+    /**
+     * Obtains the elapsed time of the load, until it was stopped if it has
+     * been.
+     *
+     * @return the elapsed nanoseconds since the load was started
+     */
+    private long getElapsedNs() {
+        return this.elapsedNs < 0 ? System.nanoTime() - this.startNs : this.elapsedNs;
+    }
+
+    /**
+     * Obtains the number of bytes passed to write system calls by the write
+     * threads so far, which are counted by the I/O counters of the process
+     * as well.
+     *
+     * @return the total bytes written by the load
+     */
+    public long getWrittenBytes() {
+        return this.writtenBytes.sum();
+    }
+
+    /**
+     * Obtains the average rate at which the allocation threads allocated
+     * memory.
+     *
+     * @return the allocated mebibytes per second
+     */
+    public double getAllocatedMbPerSecond() {
+        return this.allocatedBytes.sum() / BYTES_PER_MB / (this.getElapsedNs() / 1e9);
+    }
+
+    /**
+     * Obtains the average rate at which the write threads wrote their files.
+     *
+     * @return the written mebibytes per second
+     */
+    public double getWrittenMbPerSecond() {
+        return this.writtenBytes.sum() / BYTES_PER_MB / (this.getElapsedNs() / 1e9);
+    }
+
+    /**
+     * Stops every thread of the load, waits for them to exit and deletes the
+     * files written by the write threads.
+     *
+     * @throws IOException if a write thread failed to write its file or a
+     *                     file could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        this.running = false;
+        boolean interrupted = false;
+        for (Thread thread : this.threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (this.elapsedNs < 0) {
+            this.elapsedNs = System.nanoTime() - this.startNs;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Path file : this.files) {
+            Files.deleteIfExists(file);
+        }
+
+        IOException failure = this.writeFailure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format("%d CPU, %d allocation and %d write threads", this.cpuThreads,
+                this.allocationThreads, this.writeThreads);
+    }
+}
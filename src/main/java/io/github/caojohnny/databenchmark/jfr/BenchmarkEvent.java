@@ -0,0 +1,33 @@
+package io.github.caojohnny.databenchmark.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for the entire benchmark of a single storage with a single
+ * generator, from the setup of the storage until it is cleaned up.
+ */
+@Name("io.github.caojohnny.databenchmark.Benchmark")
+@Label("Benchmark")
+@Category("Data Benchmark")
+@Description("The benchmark of a storage with a generator")
+public class BenchmarkEvent extends Event {
+    @Label("Storage")
+    public String storage;
+
+    @Label("Generator")
+    public String generator;
+
+    @Label("Dataset Size")
+    @Description("The number of entries stored during the setup")
+    public int datasetSize;
+
+    @Label("Warm-up Iterations")
+    public int warmupIterations;
+
+    @Label("Measured Iterations")
+    public int iterations;
+}
@@ -0,0 +1,73 @@
+package io.github.caojohnny.databenchmark.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A JDK Flight Recorder recording of the benchmark, which captures the
+ * custom benchmark events alongside the CPU samples, allocations, file I/O and
+ * garbage collections of the {@code profile} configuration of the JVM so that
+ * they can be correlated with the storage operations running at the time.
+ */
+public class BenchmarkRecording implements AutoCloseable {
+    /**
+     * The name of the JVM configuration used for the recording
+     */
+    private static final String CONFIGURATION = "profile";
+
+    /**
+     * The path which the recording is written to once it is closed
+     */
+    private final Path destination;
+    /**
+     * The recording
+     */
+    private final Recording recording;
+
+    /**
+     * Creates and starts a new recording.
+     *
+     * @param destination the path to the {@code .jfr} file which the recording
+     *                    is written to once it is closed
+     * @throws Exception if the configuration cannot be loaded
+     */
+    public BenchmarkRecording(@NonNull Path destination) throws Exception {
+        this.destination = destination;
+
+        this.recording = new Recording(Configuration.getConfiguration(CONFIGURATION));
+        this.recording.setName("DataBenchmark");
+        this.recording.enable(BenchmarkEvent.class);
+        this.recording.enable(IterationEvent.class);
+        this.recording.enable(StoreEvent.class);
+        this.recording.enable(QueryEvent.class);
+        this.recording.start();
+    }
+
+    /**
+     * Obtains the path which the recording is written to once it is closed.
+     *
+     * @return the path to the {@code .jfr} file
+     */
+    public @NonNull Path getDestination() {
+        return this.destination;
+    }
+
+    /**
+     * Stops the recording and writes it to the destination file.
+     *
+     * @throws IOException if the recording cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.recording.stop();
+            this.recording.dump(this.destination);
+        } finally {
+            this.recording.close();
+        }
+    }
+}
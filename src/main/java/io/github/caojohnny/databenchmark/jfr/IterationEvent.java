@@ -0,0 +1,30 @@
+package io.github.caojohnny.databenchmark.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for a single warm-up or measured iteration of a benchmark, which
+ * includes generating the data along with the store and query operations.
+ */
+@Name("io.github.caojohnny.databenchmark.Iteration")
+@Label("Iteration")
+@Category("Data Benchmark")
+@Description("A single iteration of a benchmark")
+public class IterationEvent extends Event {
+    @Label("Storage")
+    public String storage;
+
+    @Label("Generator")
+    public String generator;
+
+    @Label("Iteration")
+    @Description("The number of the iteration, starting from 1 for both the warm-up and the measurement")
+    public int iteration;
+
+    @Label("Warm-up")
+    public boolean warmup;
+}
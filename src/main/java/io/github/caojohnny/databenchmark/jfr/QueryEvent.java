@@ -0,0 +1,26 @@
+package io.github.caojohnny.databenchmark.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for a single call to the query operation of a storage.
+ */
+@Name("io.github.caojohnny.databenchmark.Query")
+@Label("Query")
+@Category("Data Benchmark")
+@Description("A single query operation of a storage")
+public class QueryEvent extends Event {
+    @Label("Storage")
+    public String storage;
+
+    @Label("Generator")
+    public String generator;
+
+    @Label("Found")
+    @Description("Whether the queried entry was found")
+    public boolean found;
+}
@@ -0,0 +1,32 @@
+package io.github.caojohnny.databenchmark.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for a single call to the store operation of a storage.
+ */
+@Name("io.github.caojohnny.databenchmark.Store")
+@Label("Store")
+@Category("Data Benchmark")
+@Description("A single store operation of a storage")
+public class StoreEvent extends Event {
+    @Label("Storage")
+    public String storage;
+
+    @Label("Generator")
+    public String generator;
+
+    @Label("Entries")
+    @Description("The number of entries passed to the store operation")
+    public int entries;
+
+    @Label("Bytes Written")
+    @Description("The number of bytes written by the process during the operation, or -1 if unavailable or the storage is networked")
+    @DataAmount
+    public long bytesWritten;
+}
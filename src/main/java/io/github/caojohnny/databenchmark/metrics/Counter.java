@@ -0,0 +1,57 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count which only ever increases, such as the number of operations
+ * performed.
+ *
+ * <p>The count is kept in a {@link LongAdder}, which spreads concurrent
+ * increments over separate cells rather than contending on a single value,
+ * so incrementing it from many threads neither locks nor retries on the same
+ * memory location. Reading the count sums the cells.</p>
+ */
+public final class Counter implements Metric, CounterMXBean {
+    /**
+     * The striped count
+     */
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    /**
+     * Increments the count by one.
+     */
+    public void increment() {
+        this.count.increment();
+    }
+
+    /**
+     * Increments the count by the given amount.
+     *
+     * @param amount the amount, which must not be negative
+     */
+    public void add(long amount) {
+        this.count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    @Override
+    public @NonNull String getType() {
+        return "counter";
+    }
+
+    @Override
+    public void writeSamples(@NonNull Appendable out, @NonNull String name,
+                             @NonNull String labels) throws IOException {
+        Metric.writeSample(out, name, labels, Long.toString(this.getCount()));
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+/**
+ * The management interface through which a {@link Counter} is exposed over
+ * JMX.
+ */
+public interface CounterMXBean {
+    /**
+     * Obtains the current count.
+     *
+     * @return the count
+     */
+    long getCount();
+}
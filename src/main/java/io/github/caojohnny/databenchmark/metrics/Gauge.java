@@ -0,0 +1,37 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value which may increase or decrease, such as the size of a file, which is
+ * obtained from its supplier whenever it is read.
+ */
+public final class Gauge implements Metric, GaugeMXBean {
+    /**
+     * The supplier of the value
+     */
+    private final DoubleSupplier supplier;
+
+    Gauge(@NonNull DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public double getValue() {
+        return this.supplier.getAsDouble();
+    }
+
+    @Override
+    public @NonNull String getType() {
+        return "gauge";
+    }
+
+    @Override
+    public void writeSamples(@NonNull Appendable out, @NonNull String name,
+                             @NonNull String labels) throws IOException {
+        Metric.writeSample(out, name, labels, Double.toString(this.getValue()));
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+/**
+ * The management interface through which a {@link Gauge} is exposed over
+ * JMX.
+ */
+public interface GaugeMXBean {
+    /**
+     * Obtains the current value.
+     *
+     * @return the value
+     */
+    double getValue();
+}
@@ -0,0 +1,49 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+
+/**
+ * A single metric of a {@link MetricsRegistry}, identified by the name of its
+ * family and its labels.
+ */
+interface Metric {
+    /**
+     * Obtains the type of this metric as it is declared in the Prometheus
+     * text format.
+     *
+     * @return the type, such as {@code counter}
+     */
+    @NonNull String getType();
+
+    /**
+     * Writes the samples of this metric in the Prometheus text format.
+     *
+     * @param out    the output to write to
+     * @param name   the name of the family of the metric
+     * @param labels the labels of the metric, formatted as a comma-separated
+     *               list of {@code name="value"} pairs, which may be empty
+     * @throws IOException if the output could not be written
+     */
+    void writeSamples(@NonNull Appendable out, @NonNull String name, @NonNull String labels)
+            throws IOException;
+
+    /**
+     * Writes a single sample line in the Prometheus text format.
+     *
+     * @param out    the output to write to
+     * @param name   the name of the sample
+     * @param labels the formatted labels of the sample, which may be empty
+     * @param value  the value of the sample
+     * @throws IOException if the output could not be written
+     */
+    static void writeSample(@NonNull Appendable out, @NonNull String name,
+                            @NonNull String labels, @NonNull String value) throws IOException {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+}
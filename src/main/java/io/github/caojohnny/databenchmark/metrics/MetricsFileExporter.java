@@ -0,0 +1,106 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Periodically writes the metrics of a {@link MetricsRegistry} to a local file
+ * in the Prometheus text format, such as for the textfile collector of the
+ * Prometheus node exporter.
+ *
+ * <p>Each dump is written to a temporary file which is then moved over the
+ * file, so readers never observe a partially written dump. A final dump is
+ * written when the exporter is closed.</p>
+ */
+public class MetricsFileExporter implements AutoCloseable {
+    /**
+     * The registry whose metrics are written
+     */
+    private final MetricsRegistry registry;
+    /**
+     * The path of the file which the metrics are written to
+     */
+    private final Path filePath;
+    /**
+     * The executor which writes the metrics periodically
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Creates a new exporter and starts writing the metrics of the given
+     * registry to the given file at the given period.
+     *
+     * @param registry the registry whose metrics are written
+     * @param filePath the path of the file to write the metrics to
+     * @param periodMs the time between each dump, in milliseconds
+     */
+    public MetricsFileExporter(@NonNull MetricsRegistry registry, @NonNull Path filePath,
+                               long periodMs) {
+        this.registry = requireNonNull(registry, "registry");
+        this.filePath = requireNonNull(filePath, "filePath");
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Metrics File Exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(this::tryWrite, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtains the path of the file which the metrics are written to.
+     *
+     * @return the path of the metrics file
+     */
+    public @NonNull Path getFilePath() {
+        return this.filePath;
+    }
+
+    /**
+     * Writes the current metrics to the file.
+     *
+     * @throws IOException if the file could not be written
+     */
+    public synchronized void write() throws IOException {
+        Path tempPath = this.filePath.resolveSibling(this.filePath.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempPath)) {
+            this.registry.writePrometheus(writer);
+        }
+
+        Files.move(tempPath, this.filePath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the current metrics to the file, reporting any failure to
+     * {@link System#err} rather than cancelling the periodic dumps.
+     */
+    private void tryWrite() {
+        try {
+            this.write();
+        } catch (IOException e) {
+            System.err.println("Failed to write metrics to '" + this.filePath + "': " + e);
+        }
+    }
+
+    /**
+     * Stops writing the metrics periodically and writes them one last time.
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        this.executor.shutdownNow();
+        this.write();
+    }
+}
@@ -0,0 +1,305 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A collection of named {@link Counter}s, {@link Timer}s and {@link Gauge}s
+ * which can be exported in the Prometheus text format and exposed over JMX.
+ *
+ * <p>Metrics are grouped into families by their name, such as
+ * {@code data_benchmark_rows_total}, and each metric of a family is
+ * distinguished by its labels, such as the storage which reports it. Looking
+ * up a metric which already exists returns the same instance, so callers on
+ * a hot path should look their metrics up once and keep them.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ */
+public final class MetricsRegistry {
+    /**
+     * The domain of the names of the MBeans of the metrics
+     */
+    private static final String JMX_DOMAIN = "io.github.caojohnny.databenchmark";
+    /**
+     * The registry which every storage reports into
+     */
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    /**
+     * The families of metrics, sorted by their name
+     */
+    private final ConcurrentMap<String, Family> families = new ConcurrentSkipListMap<>();
+    /**
+     * The server which the MBeans of the metrics are registered with, or
+     * {@code null} if they are not exposed over JMX
+     */
+    private volatile MBeanServer mBeanServer;
+
+    /**
+     * Obtains the registry which every storage reports into.
+     *
+     * @return the default registry
+     */
+    public static @NonNull MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Obtains the counter with the given name and labels, creating it if it
+     * does not exist yet.
+     *
+     * @param name   the name of the family of the counter
+     * @param help   the description of the family
+     * @param labels the names and values of the labels of the counter,
+     *               alternating
+     * @return the counter
+     */
+    public @NonNull Counter counter(@NonNull String name, @NonNull String help,
+                                    @NonNull String... labels) {
+        return this.getOrCreate(name, help, labels, Counter.class, Counter::new);
+    }
+
+    /**
+     * Obtains the timer with the given name and labels, creating it if it
+     * does not exist yet.
+     *
+     * @param name   the name of the family of the timer, which should end in
+     *               {@code _seconds}
+     * @param help   the description of the family
+     * @param labels the names and values of the labels of the timer,
+     *               alternating
+     * @return the timer
+     */
+    public @NonNull Timer timer(@NonNull String name, @NonNull String help,
+                                @NonNull String... labels) {
+        return this.getOrCreate(name, help, labels, Timer.class, Timer::new);
+    }
+
+    /**
+     * Registers a gauge with the given name and labels whose value is
+     * obtained from the given supplier, replacing the supplier of any gauge
+     * already registered with that name and those labels.
+     *
+     * @param name     the name of the family of the gauge
+     * @param help     the description of the family
+     * @param supplier the supplier of the value of the gauge
+     * @param labels   the names and values of the labels of the gauge,
+     *                 alternating
+     * @return the gauge
+     */
+    public @NonNull Gauge gauge(@NonNull String name, @NonNull String help,
+                                @NonNull DoubleSupplier supplier, @NonNull String... labels) {
+        Family family = this.getFamily(name, help);
+        String formattedLabels = formatLabels(labels);
+        Gauge gauge = new Gauge(supplier);
+        family.labels.put(formattedLabels, labels.clone());
+        Metric previous = family.metrics.put(formattedLabels, gauge);
+        if (previous != null && !(previous instanceof Gauge)) {
+            throw new IllegalArgumentException(name + " is not a Gauge");
+        }
+
+        this.registerMBean(name, labels, gauge);
+        return gauge;
+    }
+
+    /**
+     * Obtains the metric of the given type with the given name and labels,
+     * creating it if it does not exist yet.
+     *
+     * @param name    the name of the family of the metric
+     * @param help    the description of the family
+     * @param labels  the names and values of the labels, alternating
+     * @param type    the type of the metric
+     * @param factory the procedure which creates the metric
+     * @param <T>     the type of the metric
+     * @return the metric
+     * @throws IllegalArgumentException if the family contains metrics of
+     *                                  another type
+     */
+    private <T extends Metric> @NonNull T getOrCreate(@NonNull String name, @NonNull String help,
+                                                      @NonNull String @NonNull [] labels,
+                                                      @NonNull Class<T> type,
+                                                      @NonNull Supplier<T> factory) {
+        Family family = this.getFamily(name, help);
+        String formattedLabels = formatLabels(labels);
+        Metric metric = family.metrics.get(formattedLabels);
+        if (metric == null) {
+            T created = factory.get();
+            family.labels.putIfAbsent(formattedLabels, labels.clone());
+            metric = family.metrics.putIfAbsent(formattedLabels, created);
+            if (metric == null) {
+                metric = created;
+                this.registerMBean(name, labels, created);
+            }
+        }
+
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(name + " is not a " + type.getSimpleName());
+        }
+
+        return type.cast(metric);
+    }
+
+    /**
+     * Obtains the family with the given name, creating it if it does not
+     * exist yet.
+     *
+     * @param name the name of the family
+     * @param help the description of the family
+     * @return the family
+     */
+    private @NonNull Family getFamily(@NonNull String name, @NonNull String help) {
+        return this.families.computeIfAbsent(name, k -> new Family(help));
+    }
+
+    /**
+     * Formats the given labels as a comma-separated list of
+     * {@code name="value"} pairs, escaping the values as required by the
+     * Prometheus text format.
+     *
+     * @param labels the names and values of the labels, alternating
+     * @return the formatted labels
+     */
+    private static @NonNull String formatLabels(@NonNull String @NonNull [] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be pairs of names and values");
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            builder.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    builder.append('\\').append(c);
+                } else if (c == '\n') {
+                    builder.append("\\n");
+                } else {
+                    builder.append(c);
+                }
+            }
+            builder.append('"');
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes every metric in the Prometheus text format, preceded by the
+     * description and the type of its family.
+     *
+     * @param out the output to write to
+     * @throws IOException if the output could not be written
+     */
+    public void writePrometheus(@NonNull Appendable out) throws IOException {
+        for (Map.Entry<String, Family> entry : this.families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            boolean first = true;
+            for (Map.Entry<String, Metric> metric : family.metrics.entrySet()) {
+                if (first) {
+                    out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+                    out.append("# TYPE ").append(name).append(' ')
+                            .append(metric.getValue().getType()).append('\n');
+                    first = false;
+                }
+
+                metric.getValue().writeSamples(out, name, metric.getKey());
+            }
+        }
+    }
+
+    /**
+     * Exposes every metric, including those created later, as an MBean of
+     * the platform {@link MBeanServer}. Each MBean is named after the family
+     * and the labels of its metric, such as
+     * {@code io.github.caojohnny.databenchmark:name=data_benchmark_rows_total,storage="JSON",...}.
+     */
+    public synchronized void registerMBeans() {
+        if (this.mBeanServer != null) {
+            return;
+        }
+
+        this.mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<String, Family> entry : this.families.entrySet()) {
+            Family family = entry.getValue();
+            for (Map.Entry<String, Metric> metric : family.metrics.entrySet()) {
+                String[] labels = family.labels.get(metric.getKey());
+                this.registerMBean(entry.getKey(), labels, metric.getValue());
+            }
+        }
+    }
+
+    /**
+     * Registers the given metric as an MBean, replacing any MBean already
+     * registered for the same name and labels, if the metrics are exposed
+     * over JMX.
+     *
+     * @param name   the name of the family of the metric
+     * @param labels the names and values of the labels, alternating
+     * @param metric the metric
+     */
+    private synchronized void registerMBean(@NonNull String name, @NonNull String @NonNull [] labels,
+                               @NonNull Metric metric) {
+        MBeanServer server = this.mBeanServer;
+        if (server == null) {
+            return;
+        }
+
+        Hashtable<String, String> properties = new Hashtable<>();
+        properties.put("name", name);
+        for (int i = 0; i < labels.length; i += 2) {
+            properties.put(labels[i], ObjectName.quote(labels[i + 1]));
+        }
+
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN, properties);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(metric, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register " + name + " over JMX", e);
+        }
+    }
+
+    /**
+     * The metrics which share a name.
+     */
+    private static final class Family {
+        /**
+         * The description of the family
+         */
+        private final String help;
+        /**
+         * The metrics of the family, mapped by their formatted labels
+         */
+        private final ConcurrentMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+        /**
+         * The names and values of the labels of each metric, mapped by their
+         * formatted labels
+         */
+        private final ConcurrentMap<String, String[]> labels = new ConcurrentHashMap<>();
+
+        Family(@NonNull String help) {
+            this.help = help;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, such as the time taken by each operation.
+ *
+ * <p>Durations are counted into buckets whose upper bounds are the powers of
+ * two from {@code 2^10} nanoseconds, about a microsecond, to {@code 2^40}
+ * nanoseconds, about 18 minutes, followed by a bucket for any longer
+ * duration. Finding the bucket of a duration takes a single leading zero
+ * count, and each bucket is a {@link LongAdder}, so recording a duration is
+ * lock-free and allocates nothing. Percentiles are only as precise as the
+ * buckets, that is, within a factor of two.</p>
+ */
+public final class Timer implements Metric, TimerMXBean {
+    /**
+     * The exponent of the upper bound of the first bucket, in nanoseconds
+     */
+    private static final int MIN_EXPONENT = 10;
+    /**
+     * The exponent of the upper bound of the last bounded bucket, in
+     * nanoseconds
+     */
+    private static final int MAX_EXPONENT = 40;
+    /**
+     * The number of nanoseconds in one millisecond
+     */
+    private static final double NS_PER_MS = 1_000_000;
+    /**
+     * The number of nanoseconds in one second
+     */
+    private static final double NS_PER_S = 1_000_000_000;
+
+    /**
+     * The number of durations in each bucket, the last of which is unbounded
+     */
+    private final LongAdder[] buckets = new LongAdder[MAX_EXPONENT - MIN_EXPONENT + 2];
+    /**
+     * The sum of the recorded durations, in nanoseconds
+     */
+    private final LongAdder totalNs = new LongAdder();
+    /**
+     * The longest recorded duration, in nanoseconds
+     */
+    private final LongAccumulator maxNs = new LongAccumulator(Math::max, 0);
+
+    Timer() {
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the given duration.
+     *
+     * @param nanos the duration, in nanoseconds
+     */
+    public void record(long nanos) {
+        // The bucket whose upper bound is the least power of two which is not
+        // less than the duration
+        int exponent = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 1) - 1);
+        int bucket = Math.min(Math.max(exponent, MIN_EXPONENT), MAX_EXPONENT + 1) - MIN_EXPONENT;
+        this.buckets[bucket].increment();
+        this.totalNs.add(nanos);
+        this.maxNs.accumulate(nanos);
+    }
+
+    /**
+     * Records the time elapsed since the given timestamp.
+     *
+     * @param startNs the {@link System#nanoTime()} at which the timed work
+     *                started
+     * @return the current timestamp
+     */
+    public long recordSince(long startNs) {
+        long now = System.nanoTime();
+        this.record(now - startNs);
+        return now;
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+
+        return count;
+    }
+
+    @Override
+    public double getTotalMs() {
+        return this.totalNs.sum() / NS_PER_MS;
+    }
+
+    @Override
+    public double getMeanMs() {
+        long count = this.getCount();
+        return count == 0 ? 0 : this.getTotalMs() / count;
+    }
+
+    @Override
+    public double getMaxMs() {
+        return this.maxNs.get() / NS_PER_MS;
+    }
+
+    @Override
+    public double getP50Ms() {
+        return this.getPercentileNs(0.5) / NS_PER_MS;
+    }
+
+    @Override
+    public double getP99Ms() {
+        return this.getPercentileNs(0.99) / NS_PER_MS;
+    }
+
+    /**
+     * Estimates the given percentile as the upper bound of the bucket which
+     * contains it, or the maximum for the unbounded bucket.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @return the estimated percentile, in nanoseconds
+     */
+    private double getPercentileNs(double percentile) {
+        long[] counts = new long[this.buckets.length];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile * count);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length - 1; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(getUpperBoundNs(i), this.maxNs.get());
+            }
+        }
+
+        return this.maxNs.get();
+    }
+
+    /**
+     * Obtains the upper bound of the given bounded bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the upper bound, in nanoseconds
+     */
+    private static long getUpperBoundNs(int bucket) {
+        return 1L << (bucket + MIN_EXPONENT);
+    }
+
+    @Override
+    public @NonNull String getType() {
+        return "histogram";
+    }
+
+    /**
+     * Writes the cumulative count of each bucket, with its upper bound in
+     * seconds, followed by the sum and the count.
+     */
+    @Override
+    public void writeSamples(@NonNull Appendable out, @NonNull String name,
+                             @NonNull String labels) throws IOException {
+        String separator = labels.isEmpty() ? "" : ",";
+        long cumulative = 0;
+        for (int i = 0; i < this.buckets.length; i++) {
+            cumulative += this.buckets[i].sum();
+            String bound = i == this.buckets.length - 1 ?
+                    "+Inf" : Double.toString(getUpperBoundNs(i) / NS_PER_S);
+            Metric.writeSample(out, name + "_bucket",
+                    labels + separator + "le=\"" + bound + "\"", Long.toString(cumulative));
+        }
+
+        Metric.writeSample(out, name + "_sum", labels, Double.toString(this.totalNs.sum() / NS_PER_S));
+        Metric.writeSample(out, name + "_count", labels, Long.toString(cumulative));
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.caojohnny.databenchmark.metrics;
+
+/**
+ * The management interface through which a {@link Timer} is exposed over
+ * JMX.
+ */
+public interface TimerMXBean {
+    /**
+     * Obtains the number of recorded durations.
+     *
+     * @return the count
+     */
+    long getCount();
+
+    /**
+     * Obtains the sum of the recorded durations.
+     *
+     * @return the total, in milliseconds
+     */
+    double getTotalMs();
+
+    /**
+     * Obtains the mean of the recorded durations.
+     *
+     * @return the mean, in milliseconds, or {@code 0} if none was recorded
+     */
+    double getMeanMs();
+
+    /**
+     * Obtains the longest recorded duration.
+     *
+     * @return the maximum, in milliseconds
+     */
+    double getMaxMs();
+
+    /**
+     * Estimates the median of the recorded durations as the upper bound of
+     * the bucket containing it.
+     *
+     * @return the estimated median, in milliseconds
+     */
+    double getP50Ms();
+
+    /**
+     * Estimates the 99th percentile of the recorded durations as the upper
+     * bound of the bucket containing it.
+     *
+     * @return the estimated 99th percentile, in milliseconds
+     */
+    double getP99Ms();
+}
@@ -1,7 +1,9 @@
 package io.github.caojohnny.databenchmark.statistics;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents the result of running a benchmark trial.
@@ -34,6 +36,42 @@ public class BenchmarkResult {
      */
     private double totalQueryNs;
 
+    /**
+     * The running totals of the time spent in each {@link Phase} by all store
+     * iterations, in nanoseconds
+     */
+    private final double[] totalStorePhaseNs = new double[Phase.values().length];
+    /**
+     * The running totals of the time spent in each {@link Phase} by all query
+     * iterations, in nanoseconds
+     */
+    private final double[] totalQueryPhaseNs = new double[Phase.values().length];
+
+    /**
+     * The number of times the benchmark exceeded its time budget
+     */
+    private int timeoutCount;
+    /**
+     * A running total of the iterations completed by the benchmark before it
+     * exceeded its time budget
+     */
+    private long totalTimeoutIterations;
+    /**
+     * A running total of the time of an iteration extrapolated when the
+     * benchmark exceeded its time budget, in nanoseconds
+     */
+    private double totalExtrapolatedNs;
+
+    /**
+     * The running totals of the additional statistics reported by the
+     * storage, mapped by their description
+     */
+    private final Map<String, Double> totalStatistics = new LinkedHashMap<>();
+    /**
+     * The number of times each additional statistic has been reported
+     */
+    private final Map<String, Integer> statisticCounts = new LinkedHashMap<>();
+
     /**
      * Records the given number of elapsed nanoseconds to run a store operation
      * to this benchmark result.
@@ -75,4 +113,165 @@ public class BenchmarkResult {
     public double getTotalQueryMs() {
         return this.totalQueryNs / NS_PER_MS;
     }
+
+    /**
+     * Obtains the number of store operations recorded to this benchmark
+     * result.
+     *
+     * @return the number of store iterations
+     */
+    public int getStoreCount() {
+        return this.iterationStoreNs.size();
+    }
+
+    /**
+     * Obtains the number of query operations recorded to this benchmark
+     * result.
+     *
+     * @return the number of query iterations
+     */
+    public int getQueryCount() {
+        return this.iterationQueryNs.size();
+    }
+
+    /**
+     * Summarizes the times of every store operation recorded to this
+     * benchmark result.
+     *
+     * @return the summary of the store times
+     */
+    public SampleSummary getStoreSummary() {
+        return SampleSummary.of(this.iterationStoreNs);
+    }
+
+    /**
+     * Summarizes the times of every query operation recorded to this
+     * benchmark result.
+     *
+     * @return the summary of the query times
+     */
+    public SampleSummary getQuerySummary() {
+        return SampleSummary.of(this.iterationQueryNs);
+    }
+
+    /**
+     * Records the time spent in each phase of a single store operation, as
+     * drained from the {@link PhaseTimer}.
+     *
+     * @param phaseNs the elapsed nanoseconds of each phase, indexed by the
+     *                {@link Phase#ordinal()} of the phase
+     */
+    public void addStorePhaseNs(long[] phaseNs) {
+        for (int i = 0; i < phaseNs.length; i++) {
+            this.totalStorePhaseNs[i] += phaseNs[i];
+        }
+    }
+
+    /**
+     * Records the time spent in each phase of a single query operation, as
+     * drained from the {@link PhaseTimer}.
+     *
+     * @param phaseNs the elapsed nanoseconds of each phase, indexed by the
+     *                {@link Phase#ordinal()} of the phase
+     */
+    public void addQueryPhaseNs(long[] phaseNs) {
+        for (int i = 0; i < phaseNs.length; i++) {
+            this.totalQueryPhaseNs[i] += phaseNs[i];
+        }
+    }
+
+    /**
+     * Obtains the accumulated time spent in the given phase by all store
+     * operations, converted to milliseconds.
+     *
+     * @param phase the phase
+     * @return the number of milliseconds spent in the phase
+     */
+    public double getTotalStorePhaseMs(Phase phase) {
+        return this.totalStorePhaseNs[phase.ordinal()] / NS_PER_MS;
+    }
+
+    /**
+     * Obtains the accumulated time spent in the given phase by all query
+     * operations, converted to milliseconds.
+     *
+     * @param phase the phase
+     * @return the number of milliseconds spent in the phase
+     */
+    public double getTotalQueryPhaseMs(Phase phase) {
+        return this.totalQueryPhaseNs[phase.ordinal()] / NS_PER_MS;
+    }
+
+    /**
+     * Records that the benchmark exceeded its time budget and was cancelled.
+     *
+     * @param iterations     the number of iterations completed before the
+     *                       benchmark was cancelled
+     * @param extrapolatedNs the time of an iteration extrapolated from the
+     *                       iterations that were run, in nanoseconds
+     */
+    public void addTimeout(int iterations, double extrapolatedNs) {
+        this.timeoutCount++;
+        this.totalTimeoutIterations += iterations;
+        this.totalExtrapolatedNs += extrapolatedNs;
+    }
+
+    /**
+     * Obtains the number of times the benchmark exceeded its time budget.
+     *
+     * @return the number of timeouts
+     */
+    public int getTimeoutCount() {
+        return this.timeoutCount;
+    }
+
+    /**
+     * Obtains the average number of iterations completed before the
+     * benchmark exceeded its time budget.
+     *
+     * @return the number of iterations before timing out
+     */
+    public double getTimeoutIterations() {
+        return (double) this.totalTimeoutIterations / this.timeoutCount;
+    }
+
+    /**
+     * Obtains the average time of an iteration extrapolated when the
+     * benchmark exceeded its time budget, converted to milliseconds.
+     *
+     * @return the extrapolated milliseconds of an iteration
+     */
+    public double getExtrapolatedMs() {
+        return this.totalExtrapolatedNs / this.timeoutCount / NS_PER_MS;
+    }
+
+    /**
+     * Records a value of an additional statistic reported by the storage.
+     * Statistics reported more than once, such as across multiple runs, are
+     * averaged.
+     *
+     * @param name  the description of the statistic
+     * @param value the value of the statistic
+     */
+    public void addStatistic(String name, double value) {
+        this.totalStatistics.merge(name, value, Double::sum);
+        this.statisticCounts.merge(name, 1, Integer::sum);
+    }
+
+    /**
+     * Obtains the average value of each additional statistic reported by the
+     * storage.
+     *
+     * @return the average statistic values mapped by their description, in
+     * the order they were first reported
+     */
+    public Map<String, Double> getStatistics() {
+        Map<String, Double> statistics = new LinkedHashMap<>(this.totalStatistics.size());
+        for (Map.Entry<String, Double> entry : this.totalStatistics.entrySet()) {
+            int count = this.statisticCounts.get(entry.getKey());
+            statistics.put(entry.getKey(), entry.getValue() / count);
+        }
+
+        return statistics;
+    }
 }
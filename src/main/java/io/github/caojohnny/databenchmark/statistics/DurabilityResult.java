@@ -0,0 +1,161 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+/**
+ * Represents the result of running the crash trials of a durability
+ * benchmark against a single storage.
+ */
+public class DurabilityResult {
+    /**
+     * A running total of the time taken to run all store operations before
+     * the crashes, in nanoseconds
+     */
+    private double totalStoreNs;
+    /**
+     * The number of store operations that were recorded
+     */
+    private int storeCount;
+
+    /**
+     * A running total of the time taken to recover the storage after each
+     * crash, in nanoseconds, excluding the recoveries that failed
+     */
+    private double totalRecoveryNs;
+    /**
+     * The number of crash trials that were recorded
+     */
+    private int trialCount;
+    /**
+     * The number of crash trials after which the storage could not be
+     * recovered at all
+     */
+    private int failedRecoveries;
+
+    /**
+     * The number of records that were acknowledged as stored prior to the
+     * crashes
+     */
+    private long acknowledged;
+    /**
+     * The number of acknowledged records that were missing or reverted to an
+     * older value after recovery
+     */
+    private long lost;
+    /**
+     * The number of acknowledged records that were recovered with a value
+     * which was never stored
+     */
+    private long corrupted;
+
+    /**
+     * Records the given number of elapsed nanoseconds to run a store operation
+     * to this durability result.
+     *
+     * @param nanos the elapsed nanoseconds for a single store operation
+     */
+    public void addStoreNs(long nanos) {
+        this.totalStoreNs += nanos;
+        this.storeCount++;
+    }
+
+    /**
+     * Records the outcome of a crash trial after which the storage was
+     * successfully recovered.
+     *
+     * @param acknowledged the number of records acknowledged before the crash
+     * @param lost         the number of acknowledged records that were lost
+     * @param corrupted    the number of acknowledged records that were
+     *                     corrupted
+     * @param recoveryNs   the elapsed nanoseconds to recover the storage
+     */
+    public void addTrial(long acknowledged, long lost, long corrupted, long recoveryNs) {
+        this.trialCount++;
+        this.acknowledged += acknowledged;
+        this.lost += lost;
+        this.corrupted += corrupted;
+        this.totalRecoveryNs += recoveryNs;
+    }
+
+    /**
+     * Records the outcome of a crash trial after which the storage could not
+     * be recovered, in which case every acknowledged record is lost.
+     *
+     * @param acknowledged the number of records acknowledged before the crash
+     */
+    public void addFailedTrial(long acknowledged) {
+        this.trialCount++;
+        this.failedRecoveries++;
+        this.acknowledged += acknowledged;
+        this.lost += acknowledged;
+    }
+
+    /**
+     * Obtains the average time taken to run a store operation, converted to
+     * milliseconds.
+     *
+     * @return the average number of milliseconds for a store to occur
+     */
+    public double getAverageStoreMs() {
+        return this.totalStoreNs / this.storeCount / BenchmarkResult.NS_PER_MS;
+    }
+
+    /**
+     * Obtains the average time taken to recover the storage, converted to
+     * milliseconds.
+     *
+     * @return the average number of milliseconds for a successful recovery
+     * to occur, or {@link Double#NaN} if none succeeded
+     */
+    public double getAverageRecoveryMs() {
+        int recoveries = this.trialCount - this.failedRecoveries;
+        return this.totalRecoveryNs / recoveries / BenchmarkResult.NS_PER_MS;
+    }
+
+    /**
+     * Obtains the number of crash trials that were recorded.
+     *
+     * @return the trial count
+     */
+    public int getTrialCount() {
+        return this.trialCount;
+    }
+
+    /**
+     * Obtains the number of crash trials after which the storage could not be
+     * recovered at all.
+     *
+     * @return the failed recovery count
+     */
+    public int getFailedRecoveries() {
+        return this.failedRecoveries;
+    }
+
+    /**
+     * Obtains the total number of records acknowledged as stored before the
+     * crashes.
+     *
+     * @return the acknowledged record count
+     */
+    public long getAcknowledged() {
+        return this.acknowledged;
+    }
+
+    /**
+     * Obtains the total number of acknowledged records that were missing or
+     * reverted to an older value after recovery.
+     *
+     * @return the lost record count
+     */
+    public long getLost() {
+        return this.lost;
+    }
+
+    /**
+     * Obtains the total number of acknowledged records that were recovered
+     * with a value which was never stored.
+     *
+     * @return the corrupted record count
+     */
+    public long getCorrupted() {
+        return this.corrupted;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Utility methods for measuring the impact of the data held by a storage on
+ * the garbage collector and on the memory used by the JVM.
+ */
+public final class GcStatistics {
+    /**
+     * The number of bytes in one mebibyte
+     */
+    private static final double BYTES_PER_MB = 1024 * 1024;
+    /**
+     * The name of the buffer pool which tracks the direct buffers
+     */
+    private static final String DIRECT_POOL = "direct";
+
+    private GcStatistics() {
+    }
+
+    /**
+     * Obtains the total number of collections performed by every garbage
+     * collector since the JVM started.
+     *
+     * @return the collection count
+     */
+    public static long getCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+
+        return count;
+    }
+
+    /**
+     * Obtains the total time spent by every garbage collector performing
+     * collections since the JVM started.
+     *
+     * @return the accumulated collection time, in milliseconds
+     */
+    public static long getCollectionMs() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+
+        return time;
+    }
+
+    /**
+     * Requests a full garbage collection and then obtains the amount of heap
+     * memory that remains in use, which approximates the size of the objects
+     * that are still reachable.
+     *
+     * @return the used heap memory, in mebibytes
+     */
+    public static double getRetainedHeapMb() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / BYTES_PER_MB;
+    }
+
+    /**
+     * Obtains the amount of memory used by the direct buffers allocated
+     * outside of the heap.
+     *
+     * @return the used direct memory, in mebibytes
+     */
+    public static double getDirectMb() {
+        for (BufferPoolMXBean bean : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (bean.getName().equals(DIRECT_POOL)) {
+                return bean.getMemoryUsed() / BYTES_PER_MB;
+            }
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A snapshot of the I/O counters of the benchmark process, or the difference
+ * between two snapshots.
+ *
+ * <p>The character counters include every byte passed to a read or write
+ * system call, whether or not it reached the storage device, while the byte
+ * counters only include the bytes which were actually read from or sent to
+ * the storage device. Writes are only sent to the device once the page cache
+ * is written back, which may happen after the operation which performed them
+ * has returned unless the file is synchronized.</p>
+ */
+public final class IoCounters {
+    /**
+     * The counters of a process which performed no I/O
+     */
+    public static final IoCounters ZERO = new IoCounters(0, 0, 0, 0, 0);
+
+    /**
+     * The number of bytes passed to read system calls
+     */
+    private final long readChars;
+    /**
+     * The number of bytes passed to write system calls
+     */
+    private final long writtenChars;
+    /**
+     * The number of bytes read from the storage device
+     */
+    private final long readBytes;
+    /**
+     * The number of bytes sent to the storage device
+     */
+    private final long writtenBytes;
+    /**
+     * The number of times a file was synchronized with the storage device by
+     * the benchmark
+     */
+    private final long syncs;
+
+    IoCounters(long readChars, long writtenChars, long readBytes,
+               long writtenBytes, long syncs) {
+        this.readChars = readChars;
+        this.writtenChars = writtenChars;
+        this.readBytes = readBytes;
+        this.writtenBytes = writtenBytes;
+        this.syncs = syncs;
+    }
+
+    /**
+     * Adds the given counters to these counters.
+     *
+     * @param other the counters to add
+     * @return the sum of the counters
+     */
+    public @NonNull IoCounters plus(@NonNull IoCounters other) {
+        return new IoCounters(this.readChars + other.readChars,
+                this.writtenChars + other.writtenChars,
+                this.readBytes + other.readBytes,
+                this.writtenBytes + other.writtenBytes,
+                this.syncs + other.syncs);
+    }
+
+    /**
+     * Subtracts the given earlier counters from these counters.
+     *
+     * @param start the counters at the start of the measured interval
+     * @return the I/O performed since the given counters were read
+     */
+    public @NonNull IoCounters minus(@NonNull IoCounters start) {
+        return new IoCounters(this.readChars - start.readChars,
+                this.writtenChars - start.writtenChars,
+                this.readBytes - start.readBytes,
+                this.writtenBytes - start.writtenBytes,
+                this.syncs - start.syncs);
+    }
+
+    /**
+     * Obtains the number of bytes passed to read system calls.
+     *
+     * @return the bytes read
+     */
+    public long getReadChars() {
+        return this.readChars;
+    }
+
+    /**
+     * Obtains the number of bytes passed to write system calls.
+     *
+     * @return the bytes written
+     */
+    public long getWrittenChars() {
+        return this.writtenChars;
+    }
+
+    /**
+     * Obtains the number of bytes read from the storage device.
+     *
+     * @return the bytes read from the device
+     */
+    public long getReadBytes() {
+        return this.readBytes;
+    }
+
+    /**
+     * Obtains the number of bytes sent to the storage device.
+     *
+     * @return the bytes written to the device
+     */
+    public long getWrittenBytes() {
+        return this.writtenBytes;
+    }
+
+    /**
+     * Obtains the number of times a file was synchronized with the storage
+     * device using {@link IoStatistics#sync(java.nio.channels.FileChannel, boolean)}.
+     *
+     * @return the sync count
+     */
+    public long getSyncs() {
+        return this.syncs;
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.storage.Storage;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Utility methods for measuring the I/O performed by the benchmark process.
+ *
+ * <p>The bytes read and written are obtained from the {@code /proc} file
+ * system and are therefore only available on Linux. They include the I/O of
+ * every thread in the process, such as the background merges and compactions
+ * of a storage, as well as the I/O of any embedded database, but not the I/O of
+ * an external database server. The bytes sent to and received from such a
+ * server over a socket are counted as written and read instead, so the
+ * counters are not reported for {@link Storage#isNetworked() networked}
+ * storages.</p>
+ *
+ * <p>Synchronizations are counted by the storages themselves as they force
+ * their files through {@link #sync(FileChannel, boolean)}, so the
+ * synchronizations performed internally by a database are not counted.</p>
+ */
+public final class IoStatistics {
+    /**
+     * The path to the I/O counters of the current process
+     */
+    private static final Path PROC_IO = Paths.get("/proc/self/io");
+
+    /**
+     * The number of times a file has been synchronized with the storage
+     * device since the JVM started
+     */
+    private static final LongAdder SYNC_COUNT = new LongAdder();
+
+    private IoStatistics() {
+    }
+
+    /**
+     * Forces the contents of the given channel to the storage device and
+     * counts the synchronization.
+     *
+     * @param channel  the channel to synchronize
+     * @param metaData {@code true} to also force the metadata of the file
+     * @throws IOException if an error occurs forcing the file
+     * @see FileChannel#force(boolean)
+     */
+    public static void sync(@NonNull FileChannel channel, boolean metaData) throws IOException {
+        channel.force(metaData);
+        SYNC_COUNT.increment();
+    }
+
+    /**
+     * Determines whether the bytes read and written by the process can be
+     * measured on this system.
+     *
+     * @return {@code true} if the I/O counters are available
+     */
+    public static boolean isAvailable() {
+        return Files.isReadable(PROC_IO);
+    }
+
+    /**
+     * Reads the current I/O counters of the process. The bytes read and
+     * written are zero if the counters are not available.
+     *
+     * @return the I/O counters since the JVM started
+     */
+    public static @NonNull IoCounters read() {
+        long readChars = 0;
+        long writtenChars = 0;
+        long readBytes = 0;
+        long writtenBytes = 0;
+
+        if (isAvailable()) {
+            try {
+                for (String line : Files.readAllLines(PROC_IO, StandardCharsets.US_ASCII)) {
+                    int separator = line.indexOf(':');
+                    if (separator < 0) {
+                        continue;
+                    }
+
+                    long value = Long.parseLong(line.substring(separator + 1).trim());
+                    switch (line.substring(0, separator)) {
+                        case "rchar":
+                            readChars = value;
+                            break;
+                        case "wchar":
+                            writtenChars = value;
+                            break;
+                        case "read_bytes":
+                            readBytes = value;
+                            break;
+                        case "write_bytes":
+                            writtenBytes = value;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } catch (IOException e) {
+                // Counters disappeared, report what has been read
+            }
+        }
+
+        return new IoCounters(readChars, writtenChars, readBytes, writtenBytes,
+                SYNC_COUNT.sum());
+    }
+
+    /**
+     * Determines the logical size of the given data, which is the size of the
+     * UTF-8 key and of the binary values of each item without any framing or
+     * formatting, as given by {@link RecordSchema#getLogicalBytes(GeneratedData)}.
+     * This is the least amount of data which any storage must write to store
+     * the data.
+     *
+     * @param dataCollection the data
+     * @return the logical size of the data, in bytes
+     */
+    public static long getLogicalBytes(@NonNull Collection<GeneratedData> dataCollection) {
+        long bytes = 0;
+        for (GeneratedData data : dataCollection) {
+            bytes += data.getSchema().getLogicalBytes(data);
+        }
+
+        return bytes;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Represents a part of a store or query operation which a storage may mark
+ * using the {@link PhaseTimer} to break down where the time of the operation
+ * is spent.
+ */
+public enum Phase {
+    /**
+     * Determining which records have changed since they were last stored,
+     * such as by comparing their fingerprints
+     */
+    DIFF("Diff"),
+    /**
+     * Preparing the statements of a database, such as parsing and planning
+     * the SQL of a {@link java.sql.PreparedStatement}
+     */
+    PREPARE("Prepare"),
+    /**
+     * Converting the data into the format of the storage, such as building
+     * and printing a JSON tree or binding the parameters of a statement
+     */
+    SERIALIZE("Serialize"),
+    /**
+     * Handing the serialized data to the file system or the database, such as
+     * writing a file or executing a statement
+     */
+    WRITE("Write/execute"),
+    /**
+     * Making the written data durable, such as forcing a file to the storage
+     * device or committing a transaction
+     */
+    COMMIT("Flush/commit"),
+    /**
+     * Reading and converting the stored data back into objects
+     */
+    PARSE("Parse");
+
+    /**
+     * The description of the phase shown in the results
+     */
+    private final String description;
+
+    Phase(@NonNull String description) {
+        this.description = description;
+    }
+
+    /**
+     * Obtains the description of this phase shown in the results.
+     *
+     * @return the phase description
+     */
+    public @NonNull String getDescription() {
+        return this.description;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Records the time spent by a storage in each {@link Phase} of an operation.
+ *
+ * <p>A storage obtains a timestamp from {@link #start()} and then marks the
+ * end of each consecutive phase using {@link #mark(Phase, long)}, which adds
+ * the time since the previous timestamp to the phase and returns the
+ * timestamp of the next one:</p>
+ *
+ * <pre>
+ * long time = PhaseTimer.start();
+ * String json = root.toString();
+ * time = PhaseTimer.mark(Phase.SERIALIZE, time);
+ * writer.write(json);
+ * PhaseTimer.mark(Phase.WRITE, time);
+ * </pre>
+ *
+ * <p>The time is accumulated into a primitive array owned by the current
+ * thread, so marking a phase allocates nothing and needs no synchronization
+ * beyond reading the clock. Only the phases marked by the thread calling the
+ * storage are reported, work done on other threads should be marked by the
+ * calling thread as the span it spends waiting for that work. Time which is
+ * not marked as any phase is reported as unattributed.</p>
+ */
+public final class PhaseTimer {
+    /**
+     * Every phase, indexed by their ordinal
+     */
+    private static final Phase[] PHASES = Phase.values();
+    /**
+     * The total nanoseconds spent in each phase by the current thread since
+     * the last time the totals were drained
+     */
+    private static final ThreadLocal<long[]> PHASE_NS =
+            ThreadLocal.withInitial(() -> new long[PHASES.length]);
+
+    private PhaseTimer() {
+    }
+
+    /**
+     * Obtains the timestamp at which the first phase of an operation starts.
+     *
+     * @return the current timestamp, in nanoseconds
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time elapsed since the given timestamp to the given phase.
+     *
+     * @param phase the phase which has just ended
+     * @param start the timestamp at which the phase started
+     * @return the current timestamp, at which the next phase starts
+     */
+    public static long mark(@NonNull Phase phase, long start) {
+        long now = System.nanoTime();
+        PHASE_NS.get()[phase.ordinal()] += now - start;
+        return now;
+    }
+
+    /**
+     * Obtains the time spent in each phase by the current thread and resets
+     * it to zero.
+     *
+     * @return the nanoseconds spent in each phase, indexed by the
+     * {@link Phase#ordinal()} of the phase
+     */
+    public static long @NonNull [] drain() {
+        long[] phaseNs = PHASE_NS.get();
+        long[] drained = phaseNs.clone();
+        Arrays.fill(phaseNs, 0);
+
+        return drained;
+    }
+}
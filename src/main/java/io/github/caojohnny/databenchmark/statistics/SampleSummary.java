@@ -0,0 +1,224 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A summary of the times recorded by the iterations of a benchmark, including
+ * the 95% confidence intervals of the mean and the 99th percentile, which are
+ * used to decide when enough iterations have been run, and the iterations
+ * whose times are outliers.
+ *
+ * <p>The confidence interval of the mean uses the normal approximation, which
+ * holds for the number of iterations that are run at the least. The confidence
+ * interval of a percentile is distribution-free, bounded by the order
+ * statistics whose ranks are within the normal approximation of the binomial
+ * distribution of the rank of the percentile. It is unbounded until enough
+ * iterations have been run, which is around 380 iterations for the 99th
+ * percentile.</p>
+ *
+ * <p>Outliers are the times outside of Tukey's fences, that is, more than 1.5
+ * times the interquartile range below the first or above the third quartile.
+ * They are only flagged and are still included in the summary.</p>
+ */
+public final class SampleSummary {
+    /**
+     * The critical value of the standard normal distribution for a two-sided
+     * 95% confidence interval
+     */
+    private static final double Z_95 = 1.959964;
+    /**
+     * The multiple of the interquartile range beyond the quartiles past which
+     * a time is an outlier
+     */
+    private static final double OUTLIER_IQR_FACTOR = 1.5;
+
+    /**
+     * The number of times
+     */
+    private final int count;
+    /**
+     * The mean time, in nanoseconds
+     */
+    private final double meanNs;
+    /**
+     * The half-width of the confidence interval of the mean, in nanoseconds
+     */
+    private final double meanErrorNs;
+    /**
+     * The median time, in nanoseconds
+     */
+    private final double medianNs;
+    /**
+     * The 99th percentile time, in nanoseconds
+     */
+    private final double p99Ns;
+    /**
+     * The largest distance from the 99th percentile to a bound of its
+     * confidence interval, in nanoseconds
+     */
+    private final double p99ErrorNs;
+    /**
+     * The indices of the times which are outliers, in the order they were
+     * recorded
+     */
+    private final List<Integer> outliers;
+
+    private SampleSummary(int count, double meanNs, double meanErrorNs, double medianNs,
+                          double p99Ns, double p99ErrorNs, @NonNull List<Integer> outliers) {
+        this.count = count;
+        this.meanNs = meanNs;
+        this.meanErrorNs = meanErrorNs;
+        this.medianNs = medianNs;
+        this.p99Ns = p99Ns;
+        this.p99ErrorNs = p99ErrorNs;
+        this.outliers = outliers;
+    }
+
+    /**
+     * Summarizes the given times.
+     *
+     * @param samplesNs the times, in nanoseconds, in the order they were
+     *                  recorded
+     * @return the summary of the times
+     */
+    public static @NonNull SampleSummary of(@NonNull List<Long> samplesNs) {
+        int n = samplesNs.size();
+        if (n == 0) {
+            return new SampleSummary(0, Double.NaN, Double.POSITIVE_INFINITY, Double.NaN,
+                    Double.NaN, Double.POSITIVE_INFINITY, Collections.emptyList());
+        }
+
+        long[] sorted = new long[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sorted[i] = samplesNs.get(i);
+            sum += sorted[i];
+        }
+        Arrays.sort(sorted);
+
+        double mean = sum / n;
+        double squares = 0;
+        for (long sample : sorted) {
+            squares += (sample - mean) * (sample - mean);
+        }
+        double meanError = n < 2 ? Double.POSITIVE_INFINITY :
+                Z_95 * Math.sqrt(squares / (n - 1)) / Math.sqrt(n);
+
+        double p99 = percentile(sorted, 0.99);
+        double rankError = Z_95 * Math.sqrt(n * 0.99 * 0.01);
+        int lowerRank = (int) Math.floor(n * 0.99 - rankError);
+        int upperRank = (int) Math.ceil(n * 0.99 + rankError);
+        double p99Error = lowerRank < 1 || upperRank > n ? Double.POSITIVE_INFINITY :
+                Math.max(p99 - sorted[lowerRank - 1], sorted[upperRank - 1] - p99);
+
+        double q1 = percentile(sorted, 0.25);
+        double q3 = percentile(sorted, 0.75);
+        double lowerFence = q1 - OUTLIER_IQR_FACTOR * (q3 - q1);
+        double upperFence = q3 + OUTLIER_IQR_FACTOR * (q3 - q1);
+        List<Integer> outliers = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            long sample = samplesNs.get(i);
+            if (sample < lowerFence || sample > upperFence) {
+                outliers.add(i);
+            }
+        }
+
+        return new SampleSummary(n, mean, meanError, percentile(sorted, 0.5), p99, p99Error,
+                Collections.unmodifiableList(outliers));
+    }
+
+    /**
+     * Obtains the given percentile of the given times using the nearest-rank
+     * method.
+     *
+     * @param sortedNs   the times in ascending order, which must not be empty
+     * @param percentile the percentile, between 0 and 1
+     * @return the time at the percentile
+     */
+    static double percentile(long @NonNull [] sortedNs, double percentile) {
+        int rank = (int) Math.ceil(percentile * sortedNs.length);
+        return sortedNs[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Obtains the number of times summarized.
+     *
+     * @return the number of times
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Obtains the mean time, converted to milliseconds.
+     *
+     * @return the mean time
+     */
+    public double getMeanMs() {
+        return this.meanNs / BenchmarkResult.NS_PER_MS;
+    }
+
+    /**
+     * Obtains the half-width of the 95% confidence interval of the mean time,
+     * converted to milliseconds.
+     *
+     * @return the error of the mean time, which is infinite if fewer than 2
+     * times were summarized
+     */
+    public double getMeanErrorMs() {
+        return this.meanErrorNs / BenchmarkResult.NS_PER_MS;
+    }
+
+    /**
+     * Obtains the half-width of the 95% confidence interval of the mean time
+     * relative to the mean time.
+     *
+     * @return the relative error of the mean time
+     */
+    public double getMeanRelativeError() {
+        return this.meanErrorNs / this.meanNs;
+    }
+
+    /**
+     * Obtains the median time, converted to milliseconds.
+     *
+     * @return the median time
+     */
+    public double getMedianMs() {
+        return this.medianNs / BenchmarkResult.NS_PER_MS;
+    }
+
+    /**
+     * Obtains the 99th percentile time, converted to milliseconds.
+     *
+     * @return the 99th percentile time
+     */
+    public double getP99Ms() {
+        return this.p99Ns / BenchmarkResult.NS_PER_MS;
+    }
+
+    /**
+     * Obtains the largest distance from the 99th percentile time to a bound of
+     * its 95% confidence interval relative to the 99th percentile time.
+     *
+     * @return the relative error of the 99th percentile time, which is
+     * infinite if too few times were summarized to bound the interval
+     */
+    public double getP99RelativeError() {
+        return this.p99ErrorNs / this.p99Ns;
+    }
+
+    /**
+     * Obtains the indices of the times which are outliers.
+     *
+     * @return the indices of the outliers, in the order they were recorded
+     */
+    public @NonNull List<Integer> getOutliers() {
+        return this.outliers;
+    }
+}
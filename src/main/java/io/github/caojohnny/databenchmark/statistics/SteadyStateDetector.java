@@ -0,0 +1,88 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Detects when the times of the warm-up iterations of a benchmark have
+ * stopped trending, which happens once the JIT has compiled the code of the
+ * storage and its caches have been filled.
+ *
+ * <p>The times are split into moving windows of a fixed number of iterations.
+ * The warm-up is complete once the median time of the latest window differs
+ * from the median time of the window before it by no more than a given
+ * tolerance. Medians are compared rather than means so that a single garbage
+ * collection does not prolong the warm-up.</p>
+ */
+public class SteadyStateDetector {
+    /**
+     * The number of iterations in each window
+     */
+    private final int window;
+    /**
+     * The largest relative difference between the medians of consecutive
+     * windows in the steady state
+     */
+    private final double tolerance;
+    /**
+     * The times recorded so far, in nanoseconds
+     */
+    private final List<Long> samplesNs = new ArrayList<>();
+
+    /**
+     * Creates a new detector.
+     *
+     * @param window    the number of iterations in each window
+     * @param tolerance the largest relative difference between the medians of
+     *                  consecutive windows in the steady state
+     */
+    public SteadyStateDetector(int window, double tolerance) {
+        this.window = window;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Records the time of a warm-up iteration.
+     *
+     * @param nanos the elapsed nanoseconds of the iteration
+     * @return {@code true} if the steady state has been reached
+     */
+    public boolean add(long nanos) {
+        this.samplesNs.add(nanos);
+        return this.isSteady();
+    }
+
+    /**
+     * Determines whether the steady state has been reached, which requires at
+     * least two windows of iterations.
+     *
+     * @return {@code true} if the steady state has been reached
+     */
+    public boolean isSteady() {
+        int size = this.samplesNs.size();
+        if (size < this.window * 2) {
+            return false;
+        }
+
+        double previous = this.getMedian(size - this.window * 2);
+        double latest = this.getMedian(size - this.window);
+        return Math.abs(latest - previous) <= this.tolerance * previous;
+    }
+
+    /**
+     * Obtains the median time of the window starting at the given index.
+     *
+     * @param start the index of the first iteration in the window
+     * @return the median time, in nanoseconds
+     */
+    private double getMedian(int start) {
+        long[] sorted = new long[this.window];
+        for (int i = 0; i < this.window; i++) {
+            sorted[i] = this.samplesNs.get(start + i);
+        }
+        Arrays.sort(sorted);
+
+        return SampleSummary.percentile(sorted, 0.5);
+    }
+}
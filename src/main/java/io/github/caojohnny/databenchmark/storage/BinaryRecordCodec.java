@@ -0,0 +1,187 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compact binary codec for {@link GeneratedData} records.
+ *
+ * <p>Each record is prefixed by its length so that a reader may skip over
+ * records without decoding them. A record is laid out as follows:</p>
+ *
+ * <pre>
+ * int    length of the remainder of the record
+ * short  length of the key
+ * byte[] UTF-8 encoded key
+ * int, double, float, long
+ * </pre>
+ */
+public final class BinaryRecordCodec {
+    /**
+     * The number of bytes used by the length prefix of a record
+     */
+    public static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+    /**
+     * The number of bytes used by the values of a record, excluding the key
+     */
+    public static final int VALUE_BYTES = Integer.BYTES + Double.BYTES +
+            Float.BYTES + Long.BYTES;
+
+    private BinaryRecordCodec() {
+    }
+
+    /**
+     * Encodes the key of a record into the bytes that are written by this
+     * codec.
+     *
+     * @param key the key to encode
+     * @return the encoded key
+     */
+    public static byte @NonNull [] encodeKey(@NonNull String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Key is too long to be encoded");
+        }
+
+        return keyBytes;
+    }
+
+    /**
+     * Determines the number of bytes taken by the given data once encoded,
+     * including the length prefix.
+     *
+     * @param keyBytes the encoded key of the data
+     * @return the encoded length of the record
+     */
+    public static int getEncodedLength(byte @NonNull [] keyBytes) {
+        return LENGTH_PREFIX_BYTES + Short.BYTES + keyBytes.length + VALUE_BYTES;
+    }
+
+    /**
+     * Encodes the given data into the given buffer, which must have at least
+     * {@link #getEncodedLength(byte[])} bytes remaining.
+     *
+     * @param data     the data to encode
+     * @param keyBytes the encoded key of the data
+     * @param buffer   the buffer to write the record into
+     */
+    public static void encode(@NonNull GeneratedData data,
+                              byte @NonNull [] keyBytes,
+                              @NonNull ByteBuffer buffer) {
+        buffer.putInt(getEncodedLength(keyBytes) - LENGTH_PREFIX_BYTES);
+        buffer.putShort((short) keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.putInt(data.getDataAt(1, int.class));
+        buffer.putDouble(data.getDataAt(2, double.class));
+        buffer.putFloat(data.getDataAt(3, float.class));
+        buffer.putLong(data.getDataAt(4, long.class));
+    }
+
+    /**
+     * Encodes only the values of the given data, without the length prefix
+     * and the key, for stores which already keep the key of each record.
+     *
+     * @param data the data whose values to encode
+     * @return the {@link #VALUE_BYTES} encoded values
+     */
+    public static byte @NonNull [] encodeValues(@NonNull GeneratedData data) {
+        ByteBuffer buffer = ByteBuffer.allocate(VALUE_BYTES);
+        buffer.putInt(data.getDataAt(1, int.class));
+        buffer.putDouble(data.getDataAt(2, double.class));
+        buffer.putFloat(data.getDataAt(3, float.class));
+        buffer.putLong(data.getDataAt(4, long.class));
+
+        return buffer.array();
+    }
+
+    /**
+     * Encodes the given data into a new buffer, flipped and ready to be read.
+     *
+     * @param data the data to encode
+     * @return the buffer containing the record
+     */
+    public static @NonNull ByteBuffer encode(@NonNull GeneratedData data) {
+        byte[] keyBytes = encodeKey(data.getDataAt(0, String.class));
+        ByteBuffer buffer = ByteBuffer.allocate(getEncodedLength(keyBytes));
+        encode(data, keyBytes, buffer);
+        buffer.flip();
+
+        return buffer;
+    }
+
+    /**
+     * Decodes the key from the body of a record, that is, a buffer positioned
+     * immediately after the length prefix. The position of the buffer is not
+     * modified.
+     *
+     * @param body the record body
+     * @return the decoded key
+     */
+    public static @NonNull String decodeKey(@NonNull ByteBuffer body) {
+        int position = body.position();
+        int keyLength = body.getShort(position);
+
+        byte[] keyBytes = new byte[keyLength];
+        for (int i = 0; i < keyLength; i++) {
+            keyBytes[i] = body.get(position + Short.BYTES + i);
+        }
+
+        return new String(keyBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Determines whether the body of the given record has the given key
+     * without decoding it. The position of the buffer is not modified.
+     *
+     * @param body     the record body
+     * @param keyBytes the encoded key to compare against
+     * @return {@code true} if the keys are equal
+     */
+    public static boolean keyEquals(@NonNull ByteBuffer body,
+                                    byte @NonNull [] keyBytes) {
+        int position = body.position();
+        if (body.getShort(position) != keyBytes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (body.get(position + Short.BYTES + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Decodes the body of a record, that is, a buffer positioned immediately
+     * after the length prefix, advancing the buffer past the record.
+     *
+     * @param body the record body
+     * @return the decoded data
+     */
+    public static @NonNull GeneratedData decode(@NonNull ByteBuffer body) {
+        String key = decodeKey(body);
+        body.position(body.position() + Short.BYTES + body.getShort(body.position()));
+
+        return decodeValues(key, body);
+    }
+
+    /**
+     * Decodes the values encoded by {@link #encodeValues(GeneratedData)},
+     * advancing the buffer past them.
+     *
+     * @param key    the key of the record
+     * @param values the buffer positioned at the encoded values
+     * @return the decoded data
+     */
+    public static @NonNull GeneratedData decodeValues(@NonNull String key, @NonNull ByteBuffer values) {
+        Object[] dataArray = {key, values.getInt(), values.getDouble(),
+                values.getFloat(), values.getLong()};
+        return new ArrayGeneratedData(dataArray);
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents a binary flat-file storage medium which encodes the data using
+ * {@link BinaryRecordCodec} and writes it through a buffered
+ * {@link FileChannel}.
+ *
+ * <p>This mirrors the behavior of {@link JsonStorage}: the entire file is
+ * rewritten on every store and the entire file is decoded on every query,
+ * which separates the cost of rewriting the whole file from the cost of
+ * parsing a text format.</p>
+ */
+public class BinaryStorage implements Storage {
+    /**
+     * The size of the buffer used to read and write the file
+     */
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The path to the binary file
+     */
+    protected final Path filePath;
+
+    /**
+     * The initial dataset passed through the {@link #setup(Collection)} method
+     * to include in the storage output
+     */
+    protected Collection<GeneratedData> dataset;
+
+    public BinaryStorage() {
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve current working directory");
+
+        this.filePath = Paths.get(workingDir, "test.bin");
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "Binary";
+    }
+
+    /**
+     * Inserts the given {@code dataCollection} into the {@code records} mapped
+     * by their key, replacing any previous record with the same key.
+     *
+     * @param records        the records which to store the given data
+     * @param dataCollection the data which to insert
+     */
+    private static void toRecords(@NonNull Map<String, GeneratedData> records,
+                                  @NonNull Collection<GeneratedData> dataCollection) {
+        for (GeneratedData data : dataCollection) {
+            records.put(data.getDataAt(0, String.class), data);
+        }
+    }
+
+    /**
+     * Writes the entire contents of the given buffer to the channel.
+     *
+     * @param channel the channel to write to
+     * @param buffer  the buffer, in read mode
+     * @throws Exception if an error occurs writing to the channel
+     */
+    private static void writeFully(@NonNull FileChannel channel,
+                                   @NonNull ByteBuffer buffer) throws Exception {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        Files.createFile(this.filePath);
+
+        this.dataset = Collections.unmodifiableCollection(dataset);
+    }
+
+    @Override
+    public void setupIter() {
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        long time = PhaseTimer.start();
+        Map<String, GeneratedData> records = new LinkedHashMap<>(
+                this.dataset.size() + dataCollection.size());
+        toRecords(records, this.dataset);
+        toRecords(records, dataCollection);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(this.filePath,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, GeneratedData> entry : records.entrySet()) {
+                byte[] keyBytes = BinaryRecordCodec.encodeKey(entry.getKey());
+                int length = BinaryRecordCodec.getEncodedLength(keyBytes);
+                if (buffer.remaining() < length) {
+                    time = PhaseTimer.mark(Phase.SERIALIZE, time);
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                    time = PhaseTimer.mark(Phase.WRITE, time);
+                }
+
+                if (length > buffer.capacity()) {
+                    ByteBuffer record = BinaryRecordCodec.encode(entry.getValue());
+                    time = PhaseTimer.mark(Phase.SERIALIZE, time);
+                    writeFully(channel, record);
+                    time = PhaseTimer.mark(Phase.WRITE, time);
+                } else {
+                    BinaryRecordCodec.encode(entry.getValue(), keyBytes, buffer);
+                }
+            }
+
+            time = PhaseTimer.mark(Phase.SERIALIZE, time);
+            buffer.flip();
+            writeFully(channel, buffer);
+            PhaseTimer.mark(Phase.WRITE, time);
+        }
+    }
+
+    /**
+     * Reads and decodes every record in the file.
+     *
+     * @return the decoded records mapped by their key
+     * @throws Exception if an error occurs reading the file or if the file is
+     *                   truncated
+     */
+    protected @NonNull Map<String, GeneratedData> readRecords() throws Exception {
+        Map<String, GeneratedData> records = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(this.filePath,
+                StandardOpenOption.READ)) {
+            RecordChannelReader reader = new RecordChannelReader(channel, BUFFER_SIZE);
+
+            ByteBuffer body;
+            while ((body = reader.next()) != null) {
+                GeneratedData data = BinaryRecordCodec.decode(body);
+                records.put(data.getDataAt(0, String.class), data);
+            }
+        }
+
+        return records;
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        String str = randomData.getDataAt(0, String.class);
+
+        long time = PhaseTimer.start();
+        Map<String, GeneratedData> records = this.readRecords();
+        PhaseTimer.mark(Phase.PARSE, time);
+
+        return records.get(str) != null;
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        List<GeneratedData> dataset = new ArrayList<>(this.readRecords().values());
+
+        this.dataset = Collections.unmodifiableCollection(dataset);
+        return this.dataset;
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        Files.delete(this.filePath);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents a {@link BinaryStorage} which queries by streaming through the
+ * records, comparing only their keys without decoding them, and stops as soon
+ * as the key is found.
+ */
+public class BinaryStreamingStorage extends BinaryStorage {
+    @Override
+    public @NonNull String getName() {
+        return "Binary Streaming";
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        byte[] keyBytes = BinaryRecordCodec.encodeKey(
+                randomData.getDataAt(0, String.class));
+
+        long time = PhaseTimer.start();
+        try (FileChannel channel = FileChannel.open(this.filePath,
+                StandardOpenOption.READ)) {
+            RecordChannelReader reader = new RecordChannelReader(channel, BUFFER_SIZE);
+
+            ByteBuffer body;
+            while ((body = reader.next()) != null) {
+                if (BinaryRecordCodec.keyEquals(body, keyBytes)) {
+                    PhaseTimer.mark(Phase.PARSE, time);
+                    return true;
+                }
+            }
+        }
+
+        PhaseTimer.mark(Phase.PARSE, time);
+        return false;
+    }
+}
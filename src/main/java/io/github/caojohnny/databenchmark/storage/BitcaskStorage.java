@@ -0,0 +1,181 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import io.github.caojohnny.databenchmark.statistics.BenchmarkResult;
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import io.github.caojohnny.databenchmark.storage.bitcask.BitcaskStore;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents an embedded log-structured key-value store, {@link BitcaskStore},
+ * which appends every record to a data segment and keeps an in-memory index of
+ * the location of each key. The store already keeps the key of each entry, so
+ * only the values of each record are encoded using {@link BinaryRecordCodec}.
+ * Each store is forced to the storage device.
+ */
+public class BitcaskStorage implements Storage {
+    /**
+     * The size in bytes after which a new data segment is started
+     */
+    private static final long MAX_SEGMENT_BYTES = 1024 * 1024;
+    /**
+     * The number of immutable segments which triggers a merge
+     */
+    private static final int MERGE_THRESHOLD = 4;
+
+    /**
+     * The path to the directory containing the data segments
+     */
+    private final Path directoryPath;
+
+    /**
+     * The store which the data is written to
+     */
+    private BitcaskStore store;
+
+    public BitcaskStorage() {
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve current working directory");
+
+        this.directoryPath = Paths.get(workingDir, "test-bitcask");
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "Bitcask";
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        Files.createDirectory(this.directoryPath);
+
+        this.store = new BitcaskStore(this.directoryPath, MAX_SEGMENT_BYTES,
+                MERGE_THRESHOLD);
+        this.store.open(true);
+
+        this.storeData(dataset);
+    }
+
+    @Override
+    public void setupIter() {
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        long time = PhaseTimer.start();
+        for (GeneratedData data : dataCollection) {
+            byte[] values = BinaryRecordCodec.encodeValues(data);
+            time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+            this.store.put(data.getDataAt(0, String.class), values);
+            time = PhaseTimer.mark(Phase.WRITE, time);
+        }
+
+        this.store.flush();
+        PhaseTimer.mark(Phase.COMMIT, time);
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        String str = randomData.getDataAt(0, String.class);
+
+        long time = PhaseTimer.start();
+        byte[] values = this.store.get(str);
+        if (values == null) {
+            return false;
+        }
+
+        BinaryRecordCodec.decodeValues(str, ByteBuffer.wrap(values));
+        PhaseTimer.mark(Phase.PARSE, time);
+
+        return true;
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
+    }
+
+    /**
+     * Collects the number of segments and the space amplification of the
+     * store, which is the size of its files relative to the logical size of
+     * the records it contains, then measures the time taken to rebuild the
+     * index on startup both with and without the hint files.
+     */
+    @Override
+    public @NonNull Map<String, Double> collectStatistics() throws Exception {
+        Map<String, Double> statistics = new LinkedHashMap<>();
+
+        this.store.awaitMerge();
+        statistics.put("Segments", (double) this.store.getSegmentCount());
+        statistics.put("Space amplification",
+                (double) this.store.getDiskBytes() / IoStatistics.getLogicalBytes(this.readAll()));
+
+        this.store.close();
+        long hintStart = System.nanoTime();
+        this.store.open(true);
+        long hintNs = System.nanoTime() - hintStart;
+        statistics.put("Rebuild (hints) ms", (double) hintNs / BenchmarkResult.NS_PER_MS);
+
+        this.store.close();
+        long scanStart = System.nanoTime();
+        this.store.open(false);
+        long scanNs = System.nanoTime() - scanStart;
+        statistics.put("Rebuild (scan) ms", (double) scanNs / BenchmarkResult.NS_PER_MS);
+
+        return statistics;
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        this.store = new BitcaskStore(this.directoryPath, MAX_SEGMENT_BYTES,
+                MERGE_THRESHOLD);
+        this.store.open(true);
+
+        return this.readAll();
+    }
+
+    /**
+     * Reads and decodes every record contained in the store.
+     *
+     * @return the records of the store
+     * @throws Exception if any error occurs reading the store
+     */
+    private @NonNull List<GeneratedData> readAll() throws Exception {
+        Set<String> keys = this.store.getKeys();
+        List<GeneratedData> dataset = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            ByteBuffer values = ByteBuffer.wrap(requireNonNull(this.store.get(key)));
+            dataset.add(BinaryRecordCodec.decodeValues(key, values));
+        }
+
+        return dataset;
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        this.store.close();
+
+        StorageFiles.deleteDirectory(this.directoryPath);
+    }
+}
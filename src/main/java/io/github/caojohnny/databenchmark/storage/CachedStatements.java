@@ -0,0 +1,85 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.metrics.Timer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A long-lived connection to a database which prepares each distinct
+ * statement only once and reuses it for the lifetime of the connection, so
+ * that executing a statement does not parse and plan its SQL again.
+ */
+final class CachedStatements implements AutoCloseable {
+    /**
+     * The connection which the statements are prepared on
+     */
+    private final Connection connection;
+    /**
+     * The statements prepared so far, mapped by their SQL
+     */
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    /**
+     * Opens a new connection from the given data source.
+     *
+     * @param dataSource     the data source to connect to
+     * @param connectionWait the timer of the connection waits of the storage
+     * @throws SQLException if the connection could not be opened
+     */
+    CachedStatements(@NonNull DataSource dataSource, @NonNull Timer connectionWait)
+            throws SQLException {
+        this.connection = JdbcRecords.getConnection(dataSource, connectionWait);
+    }
+
+    /**
+     * Obtains the connection which the statements are prepared on.
+     *
+     * @return the connection
+     */
+    @NonNull Connection getConnection() {
+        return this.connection;
+    }
+
+    /**
+     * Obtains the statement with the given SQL, preparing it only if it has
+     * not been prepared yet. The parameters of the statement are not cleared
+     * and are overwritten when bound again.
+     *
+     * @param sql the SQL of the statement
+     * @return the prepared statement
+     * @throws SQLException if the statement could not be prepared
+     */
+    @NonNull PreparedStatement prepare(@NonNull String sql) throws SQLException {
+        PreparedStatement statement = this.statements.get(sql);
+        if (statement == null) {
+            statement = this.connection.prepareStatement(sql);
+            this.statements.put(sql, statement);
+        }
+
+        return statement;
+    }
+
+    /**
+     * Closes every prepared statement and then the connection.
+     *
+     * @throws SQLException if a statement or the connection could not be
+     *                      closed
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            for (PreparedStatement statement : this.statements.values()) {
+                statement.close();
+            }
+        } finally {
+            this.statements.clear();
+            this.connection.close();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Wraps another storage and only stores the records which have actually
+ * changed since they were last stored, which is determined by comparing a
+ * 64-bit fingerprint of the values of each record kept in a
+ * {@link FingerprintTable}.
+ *
+ * <p>An {@link Storage#isIncremental() incremental} storage is passed only
+ * the changed records. Any other storage rewrites its dataset together with
+ * the given records, so it is passed all of them unless none has changed
+ * since the previous call, in which case storing them is skipped entirely.</p>
+ *
+ * <p>Two records with different values are only mistaken for one another if
+ * their fingerprints collide, which is unlikely enough to be ignored by the
+ * benchmark. The tracked fingerprints are kept across iterations, as each of
+ * the wrapped storages keeps the stored data in
+ * {@link #cleanupIter(Collection)}.</p>
+ */
+public class ChangeTrackingStorage implements Storage {
+    /**
+     * The multiplier used to combine the hashes of the values of a record
+     */
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    /**
+     * The offset basis of the 64-bit FNV-1a hash of a string or byte array
+     */
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    /**
+     * The prime of the 64-bit FNV-1a hash of a string or byte array
+     */
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * The storage which the changed records are passed to
+     */
+    private final Storage delegate;
+    /**
+     * The fingerprint of every record last passed to the {@link #delegate}
+     */
+    private final FingerprintTable fingerprints = new FingerprintTable();
+
+    /**
+     * The number of records given to {@link #storeData(Collection)}
+     */
+    private long trackedRecords;
+    /**
+     * The number of records passed on to the {@link #delegate}
+     */
+    private long storedRecords;
+    /**
+     * The number of calls to {@link #storeData(Collection)} which did not
+     * pass any record to the {@link #delegate}
+     */
+    private long skippedStores;
+
+    /**
+     * Creates a new change tracking storage which passes the changed records
+     * to the given storage.
+     *
+     * @param delegate the storage to store the changed records into
+     */
+    public ChangeTrackingStorage(@NonNull Storage delegate) {
+        this.delegate = requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return this.delegate.getName() + " (change tracking)";
+    }
+
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return this.delegate.supports(schema);
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return this.delegate.isIncremental();
+    }
+
+    @Override
+    public boolean isNetworked() {
+        return this.delegate.isNetworked();
+    }
+
+    @Override
+    public boolean supportsRecordViews() {
+        return this.delegate.supportsRecordViews();
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        this.delegate.setup(dataset);
+
+        this.resetTracking(dataset);
+    }
+
+    @Override
+    public void setupIter() throws Exception {
+        this.delegate.setupIter();
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        if (this.delegate.isIncremental()) {
+            this.storeChanged(dataCollection);
+        } else {
+            this.storeAllIfChanged(dataCollection);
+        }
+    }
+
+    /**
+     * Passes only the records which have changed to the incremental
+     * {@link #delegate}.
+     *
+     * @param dataCollection the data to store
+     * @throws Exception if the delegate threw an exception storing the data
+     */
+    private void storeChanged(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        long time = PhaseTimer.start();
+        List<GeneratedData> changed = new ArrayList<>();
+        long[] changedFingerprints = new long[dataCollection.size()];
+        for (GeneratedData data : dataCollection) {
+            long fingerprint = fingerprint(data);
+            if (!this.fingerprints.matches(data.getDataAt(0, String.class), fingerprint)) {
+                changedFingerprints[changed.size()] = fingerprint;
+                changed.add(data);
+            }
+        }
+        PhaseTimer.mark(Phase.DIFF, time);
+
+        this.trackedRecords += dataCollection.size();
+        if (changed.isEmpty()) {
+            this.skippedStores++;
+            return;
+        }
+
+        this.delegate.storeData(changed);
+        this.storedRecords += changed.size();
+
+        // Only tracked once stored, so a failed store is retried in full
+        for (int i = 0; i < changed.size(); i++) {
+            this.fingerprints.put(changed.get(i).getDataAt(0, String.class), changedFingerprints[i]);
+        }
+    }
+
+    /**
+     * Passes all of the records to the {@link #delegate} which is not
+     * incremental, unless they are exactly the records which were passed to
+     * it by the previous call.
+     *
+     * @param dataCollection the data to store
+     * @throws Exception if the delegate threw an exception storing the data
+     */
+    private void storeAllIfChanged(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        long time = PhaseTimer.start();
+        // The same number of distinct keys, each with the same fingerprint,
+        // can only be the same records
+        boolean unchanged = dataCollection.size() == this.fingerprints.size();
+        if (unchanged) {
+            for (GeneratedData data : dataCollection) {
+                if (!this.fingerprints.matches(data.getDataAt(0, String.class), fingerprint(data))) {
+                    unchanged = false;
+                    break;
+                }
+            }
+        }
+        PhaseTimer.mark(Phase.DIFF, time);
+
+        this.trackedRecords += dataCollection.size();
+        if (unchanged) {
+            this.skippedStores++;
+            return;
+        }
+
+        this.delegate.storeData(dataCollection);
+        this.storedRecords += dataCollection.size();
+
+        this.fingerprints.clear();
+        for (GeneratedData data : dataCollection) {
+            this.fingerprints.put(data.getDataAt(0, String.class), fingerprint(data));
+        }
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        return this.delegate.queryData(randomData);
+    }
+
+    @Override
+    public @Nullable GeneratedData queryRecord(@NonNull GeneratedData randomData) throws Exception {
+        return this.delegate.queryRecord(randomData);
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        this.delegate.cleanupIter(dataCollection);
+    }
+
+    /**
+     * Collects the statistics of the {@link #delegate} followed by the share
+     * of the records which were passed on to it and the number of stores
+     * which were skipped entirely.
+     */
+    @Override
+    public @NonNull Map<String, Double> collectStatistics() throws Exception {
+        Map<String, Double> statistics = new LinkedHashMap<>(this.delegate.collectStatistics());
+        statistics.put("Stored records %", this.trackedRecords == 0 ?
+                0 : (double) this.storedRecords / this.trackedRecords * 100);
+        statistics.put("Skipped stores", (double) this.skippedStores);
+
+        return statistics;
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        Collection<GeneratedData> dataset = this.delegate.recover();
+
+        this.resetTracking(dataset);
+        return dataset;
+    }
+
+    @Override
+    public @NonNull Collection<Path> getSnapshotPaths() {
+        return this.delegate.getSnapshotPaths();
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        this.fingerprints.clear();
+
+        this.delegate.cleanup();
+    }
+
+    /**
+     * Forgets every tracked record and then tracks the given dataset, which
+     * has just been stored by the {@link #delegate}. The dataset is only
+     * tracked for an incremental delegate, as any other delegate rewrites it
+     * together with the records passed to each store.
+     *
+     * @param dataset the records in the delegate
+     */
+    private void resetTracking(@NonNull Collection<GeneratedData> dataset) {
+        this.fingerprints.clear();
+        this.trackedRecords = 0;
+        this.storedRecords = 0;
+        this.skippedStores = 0;
+
+        if (this.delegate.isIncremental()) {
+            for (GeneratedData data : dataset) {
+                this.fingerprints.put(data.getDataAt(0, String.class), fingerprint(data));
+            }
+        }
+    }
+
+    /**
+     * Computes a 64-bit fingerprint of the values of the given record, that
+     * is, every element following its key.
+     *
+     * @param data the record
+     * @return the fingerprint of the record
+     */
+    private static long fingerprint(@NonNull GeneratedData data) {
+        long h = data.getLength();
+        for (int i = 1; i < data.getLength(); i++) {
+            h = h * MULTIPLIER + hash(data.getDataAt(i, Object.class));
+        }
+
+        // Finalizer of MurmurHash3, so that every bit of the values affects
+        // every bit of the fingerprint
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Computes a 64-bit hash of the given value of a record.
+     *
+     * @param value the value
+     * @return the hash of the value
+     */
+    private static long hash(@NonNull Object value) {
+        if (value instanceof Double) {
+            return Double.doubleToLongBits((Double) value);
+        }
+        if (value instanceof Float) {
+            return Float.floatToIntBits((Float) value);
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+
+        // 64-bit FNV-1a of the bytes or the characters of the value
+        long h = FNV_OFFSET_BASIS;
+        if (value instanceof byte[]) {
+            for (byte b : (byte[]) value) {
+                h = (h ^ (b & 0xFF)) * FNV_PRIME;
+            }
+        } else {
+            String str = value.toString();
+            for (int i = 0; i < str.length(); i++) {
+                h = (h ^ str.charAt(i)) * FNV_PRIME;
+            }
+        }
+        return h;
+    }
+}
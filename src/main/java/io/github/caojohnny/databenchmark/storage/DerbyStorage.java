@@ -0,0 +1,222 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.metrics.Timer;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents an embedded Apache Derby database that utilizes a transaction to
+ * send the statements and indexing to improve query performance.
+ *
+ * <p>Derby does not support {@code REPLACE} or
+ * {@code ON DUPLICATE KEY UPDATE}, so each item is upserted by a standard
+ * {@code MERGE} statement which updates the row with the key of the item, or
+ * inserts it if there is none.</p>
+ */
+public class DerbyStorage implements Storage {
+    /**
+     * The SQL state indicating that the database was successfully shut down
+     */
+    private static final String SHUTDOWN_STATE = "08006";
+
+    /**
+     * The {@link DataSource} for the Derby connection
+     */
+    protected final EmbeddedDataSource dataSource = new EmbeddedDataSource();
+    /**
+     * The timer of the time spent waiting to obtain a connection, which is
+     * looked up by {@link #getConnectionWait()}
+     */
+    private Timer connectionWait;
+
+    /**
+     * The file system path to the Derby database directory
+     */
+    protected final Path databasePath;
+    /**
+     * The file system path to the log file written by Derby
+     */
+    private final Path logPath;
+
+    public DerbyStorage() {
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve working directory");
+
+        this.databasePath = Paths.get(workingDir, "test-derby");
+        this.logPath = Paths.get(workingDir, "derby.log");
+    }
+
+    /**
+     * Obtains the timer of the time spent waiting to obtain a connection,
+     * which is looked up the first time it is needed.
+     *
+     * @return the timer of the connection waits
+     */
+    protected @NonNull Timer getConnectionWait() {
+        if (this.connectionWait == null) {
+            this.connectionWait = JdbcRecords.getConnectionWait(this);
+        }
+
+        return this.connectionWait;
+    }
+
+    /**
+     * Obtains a connection from the {@link #dataSource}, recording the time
+     * spent waiting for it.
+     *
+     * @return the connection
+     * @throws SQLException if the connection could not be opened
+     */
+    protected @NonNull Connection getConnection() throws SQLException {
+        return JdbcRecords.getConnection(this.dataSource, this.getConnectionWait());
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "Derby";
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        this.dataSource.setDatabaseName(this.databasePath.toAbsolutePath().toString());
+        this.dataSource.setCreateDatabase("create");
+
+        String createTable = "CREATE TABLE \"test\" (" +
+                "\"str\" VARCHAR(36) PRIMARY KEY, " +
+                "\"int\" INT, " +
+                "\"double\" DOUBLE, " +
+                "\"float\" REAL, " +
+                "\"long\" BIGINT" +
+                ")";
+        try (Connection con = this.getConnection();
+             PreparedStatement ps = con.prepareStatement(createTable)) {
+            ps.executeUpdate();
+        }
+
+        this.storeData(dataset);
+    }
+
+    @Override
+    public void setupIter() {
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        List<Field> fields = RecordSchema.DEFAULT.getFields();
+        List<Field> valueFields = RecordSchema.DEFAULT.getValueFields();
+        String quote = JdbcRecords.STANDARD_QUOTE;
+        String sql = "MERGE INTO \"test\" USING SYSIBM.SYSDUMMY1 ON \"str\" = ? " +
+                "WHEN MATCHED THEN UPDATE SET " + JdbcRecords.assignments(valueFields, quote) + " " +
+                "WHEN NOT MATCHED THEN INSERT (" + JdbcRecords.columns(fields, quote) + ") " +
+                "VALUES (" + JdbcRecords.placeholders(fields.size()) + ")";
+        try (Connection con = this.getConnection()) {
+            con.setAutoCommit(false);
+
+            try {
+                long time = PhaseTimer.start();
+                for (GeneratedData data : dataCollection) {
+                    try (PreparedStatement ps = con.prepareStatement(sql)) {
+                        time = PhaseTimer.mark(Phase.PREPARE, time);
+                        int parameterIndex = 1;
+                        JdbcRecords.bind(ps, parameterIndex++, data, 0);
+                        for (int i = 1; i < fields.size(); i++) {
+                            JdbcRecords.bind(ps, parameterIndex++, data, i);
+                        }
+                        for (int i = 0; i < fields.size(); i++) {
+                            JdbcRecords.bind(ps, parameterIndex++, data, i);
+                        }
+                        time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+                        ps.executeUpdate();
+                    }
+                    time = PhaseTimer.mark(Phase.WRITE, time);
+                }
+
+                con.commit();
+                PhaseTimer.mark(Phase.COMMIT, time);
+            } catch (Exception e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        String str = randomData.getDataAt(0, String.class);
+        String quote = JdbcRecords.STANDARD_QUOTE;
+        String sql = "SELECT " + JdbcRecords.columns(RecordSchema.DEFAULT.getValueFields(), quote) +
+                " FROM \"test\" WHERE \"str\" = ?";
+        try (Connection con = this.getConnection()) {
+            long time = PhaseTimer.start();
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                time = PhaseTimer.mark(Phase.PREPARE, time);
+
+                ps.setString(1, str);
+                try (ResultSet rs = ps.executeQuery()) {
+                    time = PhaseTimer.mark(Phase.WRITE, time);
+
+                    boolean found = rs.next();
+                    PhaseTimer.mark(Phase.PARSE, time);
+
+                    return found;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        this.dataSource.setDatabaseName(this.databasePath.toAbsolutePath().toString());
+
+        return JdbcRecords.selectAll(this.dataSource, this.getConnectionWait(),
+                RecordSchema.DEFAULT, JdbcRecords.STANDARD_QUOTE);
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        this.dataSource.setCreateDatabase(null);
+        this.dataSource.setShutdownDatabase("shutdown");
+        try {
+            this.dataSource.getConnection().close();
+            throw new IllegalStateException("Derby database did not shut down");
+        } catch (SQLException e) {
+            if (!SHUTDOWN_STATE.equals(e.getSQLState())) {
+                throw e;
+            }
+        } finally {
+            this.dataSource.setShutdownDatabase(null);
+        }
+
+        StorageFiles.deleteDirectory(this.databasePath);
+        Files.deleteIfExists(this.logPath);
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents the procedure used by a flat-file storage to replace the entire
+ * contents of its file, which determines what remains of the file if the
+ * process or the system crashes while it is being written.
+ */
+public enum FileWriteMode {
+    /**
+     * Truncates the file and rewrites it in place without forcing it to the
+     * storage device. A crash while writing leaves a partially written file,
+     * losing both the old and the new contents.
+     */
+    TRUNCATE(""),
+    /**
+     * Writes the new contents to a temporary file, forces it to the storage
+     * device and then atomically moves it over the file, forcing the
+     * directory so that the move itself is durable. A crash leaves either the
+     * complete old or the complete new contents, even after a power loss.
+     */
+    ATOMIC_SYNC(" (atomic, fsync)"),
+    /**
+     * Writes the new contents to a temporary file and atomically moves it
+     * over the file without forcing either to the storage device. A process
+     * crash leaves either the complete old or the complete new contents, but
+     * a power loss may not.
+     */
+    ATOMIC(" (atomic, no fsync)");
+
+    /**
+     * The description appended to the name of the storage using this mode
+     */
+    private final String nameSuffix;
+
+    FileWriteMode(@NonNull String nameSuffix) {
+        this.nameSuffix = nameSuffix;
+    }
+
+    /**
+     * Obtains the description of this mode to be appended to the name of a
+     * storage using it, which is empty for {@link #TRUNCATE} so that the
+     * name of the storage is unchanged.
+     *
+     * @return the name suffix
+     */
+    public @NonNull String getNameSuffix() {
+        return this.nameSuffix;
+    }
+
+    /**
+     * Obtains the path of the temporary file used to write the given file.
+     *
+     * @param path the path to the file
+     * @return the path to the temporary file
+     */
+    public static @NonNull Path getTempPath(@NonNull Path path) {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    /**
+     * Replaces the contents of the file at the given path with the contents
+     * written by the given {@code content} procedure. Writing the contents is
+     * marked as the {@link Phase#WRITE} phase, while forcing and moving the
+     * file is marked as the {@link Phase#COMMIT} phase.
+     *
+     * @param path    the path to the file
+     * @param content the procedure that writes the new contents
+     * @throws Exception if any error occurs writing the file
+     */
+    public void write(@NonNull Path path, @NonNull ContentWriter content) throws Exception {
+        long time = PhaseTimer.start();
+        if (this == TRUNCATE) {
+            try (BufferedWriter bw = Files.newBufferedWriter(path)) {
+                content.write(bw);
+            }
+
+            PhaseTimer.mark(Phase.WRITE, time);
+            return;
+        }
+
+        Path tempPath = getTempPath(path);
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+            content.write(writer);
+            writer.flush();
+            time = PhaseTimer.mark(Phase.WRITE, time);
+
+            if (this == ATOMIC_SYNC) {
+                IoStatistics.sync(channel, true);
+            }
+        }
+
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        if (this == ATOMIC_SYNC) {
+            forceDirectory(path.toAbsolutePath().getParent());
+        }
+
+        PhaseTimer.mark(Phase.COMMIT, time);
+    }
+
+    /**
+     * Forces the entries of the given directory to the storage device, which
+     * makes the files that were moved into it durable.
+     *
+     * @param directory the directory
+     */
+    private static void forceDirectory(@NonNull Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            IoStatistics.sync(channel, true);
+        } catch (IOException e) {
+            // Directories cannot be opened on every platform, such as Windows
+        }
+    }
+
+    /**
+     * Writes the contents of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Writes the contents of the file to the given writer.
+         *
+         * @param writer the writer, which must not be closed
+         * @throws Exception if any error occurs writing the contents
+         */
+        void write(@NonNull Writer writer) throws Exception;
+    }
+}
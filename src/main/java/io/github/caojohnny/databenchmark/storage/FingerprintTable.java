@@ -0,0 +1,120 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Maps the key of each record to a 64-bit fingerprint of its values, used to
+ * determine whether a record has changed since it was last stored.
+ *
+ * <p>The table uses open addressing with linear probing over an array of keys
+ * and a parallel primitive array of fingerprints, so that tracking a record
+ * takes no more than a reference to its key and a {@code long}, without
+ * boxing the fingerprint or allocating an entry.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+final class FingerprintTable {
+    /**
+     * The initial number of slots, which must be a power of two
+     */
+    private static final int INITIAL_SLOTS = 1024;
+
+    /**
+     * The key in each slot, or {@code null} if the slot is empty
+     */
+    private String[] keys = new String[INITIAL_SLOTS];
+    /**
+     * The fingerprint of the key in each slot
+     */
+    private long[] fingerprints = new long[INITIAL_SLOTS];
+    /**
+     * The number of keys in the table
+     */
+    private int size;
+
+    /**
+     * Determines whether the given key was last put with the given
+     * fingerprint.
+     *
+     * @param key         the key
+     * @param fingerprint the fingerprint
+     * @return {@code true} if the key is in the table with the same
+     * fingerprint
+     */
+    boolean matches(@NonNull String key, long fingerprint) {
+        int slot = this.findSlot(key);
+        return this.keys[slot] != null && this.fingerprints[slot] == fingerprint;
+    }
+
+    /**
+     * Puts the given fingerprint for the given key, replacing any previous
+     * fingerprint.
+     *
+     * @param key         the key
+     * @param fingerprint the fingerprint
+     */
+    void put(@NonNull String key, long fingerprint) {
+        int slot = this.findSlot(key);
+        this.fingerprints[slot] = fingerprint;
+        if (this.keys[slot] == null) {
+            this.keys[slot] = key;
+            if (++this.size * 2 > this.keys.length) {
+                this.resize();
+            }
+        }
+    }
+
+    /**
+     * Removes every key from the table.
+     */
+    void clear() {
+        Arrays.fill(this.keys, null);
+        this.size = 0;
+    }
+
+    /**
+     * Obtains the number of keys in the table.
+     *
+     * @return the key count
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Finds the slot which contains the given key, or the empty slot where it
+     * would be inserted.
+     *
+     * @param key the key
+     * @return the index of the slot
+     */
+    private int findSlot(@NonNull String key) {
+        int mask = this.keys.length - 1;
+        int h = key.hashCode() * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (this.keys[slot] != null && !this.keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every key.
+     */
+    private void resize() {
+        String[] oldKeys = this.keys;
+        long[] oldFingerprints = this.fingerprints;
+        this.keys = new String[oldKeys.length * 2];
+        this.fingerprints = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = this.findSlot(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.fingerprints[slot] = oldFingerprints[i];
+            }
+        }
+    }
+}
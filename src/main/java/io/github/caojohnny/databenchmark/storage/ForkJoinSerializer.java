@@ -0,0 +1,191 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Serializes a collection of {@link GeneratedData} concurrently by splitting
+ * it into chunks which are each encoded into their own buffer on a
+ * {@link ForkJoinPool}, preserving the order of the input.
+ */
+final class ForkJoinSerializer {
+    /**
+     * The minimum number of items in a single chunk, below which the overhead
+     * of forking outweighs serializing on the current thread
+     */
+    private static final int MIN_CHUNK_SIZE = 64;
+    /**
+     * The number of chunks created per worker thread to allow work stealing to
+     * balance out uneven chunks
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Encodes a chunk of data into its serialized textual form.
+     */
+    @FunctionalInterface
+    interface ChunkEncoder {
+        /**
+         * Serializes the given chunk of data.
+         *
+         * @param chunk the data to serialize
+         * @return the serialized form of the chunk
+         */
+        @NonNull String encode(@NonNull List<GeneratedData> chunk);
+    }
+
+    /**
+     * The pool used to perform the serialization
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new serializer backed by a new pool with the given
+     * parallelism.
+     *
+     * @param parallelism the number of worker threads to serialize with
+     */
+    ForkJoinSerializer(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Combines the given collections of data into a single list in which
+     * each key appears only once, retaining the last value given for a key
+     * in the position where it first appeared.
+     *
+     * @param dataCollections the collections to combine
+     * @return the combined list of data
+     */
+    @SafeVarargs
+    static @NonNull List<GeneratedData> combine(@NonNull Collection<GeneratedData>... dataCollections) {
+        int size = 0;
+        for (Collection<GeneratedData> dataCollection : dataCollections) {
+            size += dataCollection.size();
+        }
+
+        Map<String, GeneratedData> combined = new LinkedHashMap<>(size);
+        for (Collection<GeneratedData> dataCollection : dataCollections) {
+            for (GeneratedData data : dataCollection) {
+                combined.put(data.getDataAt(0, String.class), data);
+            }
+        }
+
+        return new ArrayList<>(combined.values());
+    }
+
+    /**
+     * Serializes the given data in chunks concurrently.
+     *
+     * @param data    the data to serialize
+     * @param encoder the encoder used to serialize each chunk
+     * @return the UTF-8 encoded chunks, in the same order as the data
+     */
+    @NonNull List<ByteBuffer> serialize(@NonNull List<GeneratedData> data,
+                                        @NonNull ChunkEncoder encoder) {
+        int chunks = this.pool.getParallelism() * CHUNKS_PER_THREAD;
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (data.size() + chunks - 1) / chunks);
+
+        return this.pool.invoke(new ChunkTask(data, encoder, chunkSize));
+    }
+
+    /**
+     * Shuts down the worker threads of this serializer.
+     */
+    void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Writes the given buffers in order to the file at the given path using a
+     * single gathering write, replacing any previous contents.
+     *
+     * @param path    the path to the file
+     * @param buffers the buffers to write
+     * @throws IOException if an error occurs writing to the file
+     */
+    static void gatherWrite(@NonNull Path path, @NonNull ByteBuffer[] buffers)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+        }
+    }
+
+    /**
+     * Encodes the given string into a buffer ready to be written.
+     *
+     * @param str the string to encode
+     * @return the buffer containing the UTF-8 bytes of the string
+     */
+    static @NonNull ByteBuffer encode(@NonNull String str) {
+        return ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The task which recursively splits a list of data until it is small
+     * enough to be encoded as a single chunk.
+     */
+    private static class ChunkTask extends RecursiveTask<List<ByteBuffer>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<GeneratedData> data;
+        private final transient ChunkEncoder encoder;
+        private final int chunkSize;
+
+        ChunkTask(@NonNull List<GeneratedData> data,
+                  @NonNull ChunkEncoder encoder, int chunkSize) {
+            this.data = data;
+            this.encoder = encoder;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected List<ByteBuffer> compute() {
+            int size = this.data.size();
+            if (size <= this.chunkSize) {
+                List<ByteBuffer> result = new ArrayList<>(1);
+                if (size > 0) {
+                    result.add(encode(this.encoder.encode(this.data)));
+                }
+
+                return result;
+            }
+
+            int mid = size / 2;
+            ChunkTask left = new ChunkTask(this.data.subList(0, mid),
+                    this.encoder, this.chunkSize);
+            ChunkTask right = new ChunkTask(this.data.subList(mid, size),
+                    this.encoder, this.chunkSize);
+
+            left.fork();
+            List<ByteBuffer> rightResult = right.compute();
+            List<ByteBuffer> result = left.join();
+            result.addAll(rightResult);
+
+            return result;
+        }
+    }
+}
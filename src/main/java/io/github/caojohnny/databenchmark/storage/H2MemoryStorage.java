@@ -0,0 +1,36 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collection;
+
+/**
+ * Represents an in-memory H2 database running in MySQL compatibility mode,
+ * which is kept alive between connections until it is shut down. Nothing is
+ * persisted to the file system.
+ */
+public class H2MemoryStorage extends H2Storage {
+    public H2MemoryStorage() {
+        super("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "H2 Memory";
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The database does not outlive the process which created it, so the
+     * table is recreated and nothing is recovered.</p>
+     */
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        this.schema = RecordSchema.DEFAULT;
+        this.createTable();
+        return this.selectAll();
+    }
+}
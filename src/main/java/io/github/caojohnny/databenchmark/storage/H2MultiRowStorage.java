@@ -0,0 +1,41 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collection;
+
+/**
+ * Represents an embedded H2 database file which inserts the rows in chunks
+ * using the same multi-row statements as {@link MySqlMultiRowStorage}, which
+ * allows the effect of the statement size to be measured without a MySQL
+ * server.
+ */
+public class H2MultiRowStorage extends H2Storage {
+    /**
+     * The largest number of rows inserted by each statement
+     */
+    protected final int rowsPerStatement;
+
+    /**
+     * Creates a new H2 storage which inserts the given number of rows with
+     * each statement.
+     *
+     * @param rowsPerStatement the largest number of rows inserted by each
+     *                         statement
+     */
+    public H2MultiRowStorage(int rowsPerStatement) {
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "H2 Multi-Row (" + this.rowsPerStatement + " rows)";
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        this.upsertRows(dataCollection, this.rowsPerStatement);
+    }
+}
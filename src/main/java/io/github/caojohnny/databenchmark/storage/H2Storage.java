@@ -0,0 +1,108 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.h2.jdbcx.JdbcDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents an embedded H2 database file running in MySQL compatibility mode,
+ * which allows the same transaction and
+ * {@code INSERT INTO ... ON DUPLICATE KEY UPDATE} statements as
+ * {@link MySqlStorage} to be used without a database server.
+ */
+public class H2Storage extends MySqlStorage {
+    /**
+     * The file system path to the H2 database, excluding the file extension
+     */
+    protected final Path databasePath;
+
+    public H2Storage() {
+        this("jdbc:h2:" + getDatabasePath().toAbsolutePath() + ";MODE=MySQL");
+    }
+
+    /**
+     * Creates a new storage of the H2 database with the given JDBC URL.
+     *
+     * @param url the database URL
+     */
+    protected H2Storage(@NonNull String url) {
+        super(createDataSource(url));
+
+        this.databasePath = getDatabasePath();
+    }
+
+    /**
+     * Resolves the path to the H2 database file in the working directory.
+     *
+     * @return the path to the database, excluding the file extension
+     */
+    private static @NonNull Path getDatabasePath() {
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve working directory");
+
+        return Paths.get(workingDir, "test-h2");
+    }
+
+    /**
+     * Creates a data source which connects to the H2 database with the given
+     * JDBC URL.
+     *
+     * @param url the database URL
+     * @return the data source
+     */
+    private static @NonNull JdbcDataSource createDataSource(@NonNull String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+
+        return dataSource;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "H2";
+    }
+
+    @Override
+    public boolean isNetworked() {
+        return false;
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        this.schema = RecordSchema.of(dataset);
+
+        this.createTable();
+        this.storeData(dataset);
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        this.schema = RecordSchema.DEFAULT;
+        return this.selectAll();
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        super.cleanup();
+
+        String sql = "SHUTDOWN";
+        try (Connection con = this.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.executeUpdate();
+        }
+
+        String path = this.databasePath.toAbsolutePath().toString();
+        Files.deleteIfExists(Paths.get(path + ".mv.db"));
+        Files.deleteIfExists(Paths.get(path + ".trace.db"));
+    }
+}
@@ -0,0 +1,309 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.metrics.Counter;
+import io.github.caojohnny.databenchmark.metrics.MetricsRegistry;
+import io.github.caojohnny.databenchmark.metrics.Timer;
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Wraps another storage and reports the number of operations it performs, the
+ * time they take, the records and bytes it stores and the errors it throws to
+ * a {@link MetricsRegistry}, labelled with the name of the storage.
+ *
+ * <p>The metrics are looked up once, when the storage is wrapped, so
+ * reporting an operation only reads the clock and increments a few striped
+ * counters, which is cheap enough to leave enabled both while benchmarking
+ * and in production. Measuring the logical size of the stored records is
+ * not, so it is deferred until the next operation which is not timed by the
+ * benchmark, such as {@link #cleanupIter(Collection)}.</p>
+ */
+public class InstrumentedStorage implements Storage {
+    /**
+     * The name of the family of the operation timers
+     */
+    private static final String OPERATION_SECONDS = "data_benchmark_operation_seconds";
+    /**
+     * The description of the family of the operation timers
+     */
+    private static final String OPERATION_HELP = "Time taken by each operation of a storage";
+    /**
+     * The name of the family of the row counters
+     */
+    private static final String ROWS_TOTAL = "data_benchmark_rows_total";
+    /**
+     * The description of the family of the row counters
+     */
+    private static final String ROWS_HELP = "Records written or found by each operation of a storage";
+    /**
+     * The name of the family of the error counters
+     */
+    private static final String ERRORS_TOTAL = "data_benchmark_errors_total";
+    /**
+     * The description of the family of the error counters
+     */
+    private static final String ERRORS_HELP = "Operations of a storage which threw an exception";
+
+    /**
+     * The storage which performs the operations
+     */
+    private final Storage delegate;
+
+    /**
+     * The time taken by each setup
+     */
+    private final Timer setupTime;
+    /**
+     * The time taken by each store
+     */
+    private final Timer storeTime;
+    /**
+     * The time taken by each query
+     */
+    private final Timer queryTime;
+    /**
+     * The time taken by each query of a record view
+     */
+    private final Timer queryRecordTime;
+    /**
+     * The number of records imported by the setups
+     */
+    private final Counter setupRows;
+    /**
+     * The number of records stored
+     */
+    private final Counter storeRows;
+    /**
+     * The number of records found by the queries
+     */
+    private final Counter queryRows;
+    /**
+     * The number of records found by the queries of record views
+     */
+    private final Counter queryRecordRows;
+    /**
+     * The logical size of the records imported and stored, in bytes
+     */
+    private final Counter storedBytes;
+    /**
+     * The number of setups which threw an exception
+     */
+    private final Counter setupErrors;
+    /**
+     * The number of stores which threw an exception
+     */
+    private final Counter storeErrors;
+    /**
+     * The number of queries which threw an exception
+     */
+    private final Counter queryErrors;
+    /**
+     * The number of queries of record views which threw an exception
+     */
+    private final Counter queryRecordErrors;
+
+    /**
+     * The records which have been imported or stored but whose logical size
+     * has not yet been added to the {@link #storedBytes}
+     */
+    private final List<Collection<GeneratedData>> unmeasuredRecords = new ArrayList<>();
+
+    /**
+     * Creates a new instrumented storage which reports the operations of the
+     * given storage to the {@link MetricsRegistry#getDefault() default}
+     * registry.
+     *
+     * @param delegate the storage to instrument
+     */
+    public InstrumentedStorage(@NonNull Storage delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    /**
+     * Creates a new instrumented storage which reports the operations of the
+     * given storage to the given registry.
+     *
+     * @param delegate the storage to instrument
+     * @param registry the registry to report to
+     */
+    public InstrumentedStorage(@NonNull Storage delegate, @NonNull MetricsRegistry registry) {
+        this.delegate = requireNonNull(delegate, "delegate");
+
+        String name = delegate.getName();
+        this.setupTime = registry.timer(OPERATION_SECONDS, OPERATION_HELP,
+                "storage", name, "operation", "setup");
+        this.storeTime = registry.timer(OPERATION_SECONDS, OPERATION_HELP,
+                "storage", name, "operation", "store");
+        this.queryTime = registry.timer(OPERATION_SECONDS, OPERATION_HELP,
+                "storage", name, "operation", "query");
+        this.queryRecordTime = registry.timer(OPERATION_SECONDS, OPERATION_HELP,
+                "storage", name, "operation", "query_record");
+        this.setupRows = registry.counter(ROWS_TOTAL, ROWS_HELP,
+                "storage", name, "operation", "setup");
+        this.storeRows = registry.counter(ROWS_TOTAL, ROWS_HELP,
+                "storage", name, "operation", "store");
+        this.queryRows = registry.counter(ROWS_TOTAL, ROWS_HELP,
+                "storage", name, "operation", "query");
+        this.queryRecordRows = registry.counter(ROWS_TOTAL, ROWS_HELP,
+                "storage", name, "operation", "query_record");
+        this.storedBytes = registry.counter("data_benchmark_stored_bytes_total",
+                "Logical size of the records stored by a storage, excluding any formatting",
+                "storage", name);
+        this.setupErrors = registry.counter(ERRORS_TOTAL, ERRORS_HELP,
+                "storage", name, "operation", "setup");
+        this.storeErrors = registry.counter(ERRORS_TOTAL, ERRORS_HELP,
+                "storage", name, "operation", "store");
+        this.queryErrors = registry.counter(ERRORS_TOTAL, ERRORS_HELP,
+                "storage", name, "operation", "query");
+        this.queryRecordErrors = registry.counter(ERRORS_TOTAL, ERRORS_HELP,
+                "storage", name, "operation", "query_record");
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return this.delegate.getName();
+    }
+
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return this.delegate.supports(schema);
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return this.delegate.isIncremental();
+    }
+
+    @Override
+    public boolean isNetworked() {
+        return this.delegate.isNetworked();
+    }
+
+    @Override
+    public boolean supportsRecordViews() {
+        return this.delegate.supportsRecordViews();
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        long start = System.nanoTime();
+        try {
+            this.delegate.setup(dataset);
+        } catch (Exception e) {
+            this.setupErrors.increment();
+            throw e;
+        }
+        this.setupTime.recordSince(start);
+
+        this.setupRows.add(dataset.size());
+        this.unmeasuredRecords.add(dataset);
+    }
+
+    @Override
+    public void setupIter() throws Exception {
+        this.measureStoredBytes();
+        this.delegate.setupIter();
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        long start = System.nanoTime();
+        try {
+            this.delegate.storeData(dataCollection);
+        } catch (Exception e) {
+            this.storeErrors.increment();
+            throw e;
+        }
+        this.storeTime.recordSince(start);
+
+        this.storeRows.add(dataCollection.size());
+        this.unmeasuredRecords.add(dataCollection);
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        long start = System.nanoTime();
+        boolean found;
+        try {
+            found = this.delegate.queryData(randomData);
+        } catch (Exception e) {
+            this.queryErrors.increment();
+            throw e;
+        }
+        this.queryTime.recordSince(start);
+
+        if (found) {
+            this.queryRows.increment();
+        }
+        return found;
+    }
+
+    @Override
+    public @Nullable GeneratedData queryRecord(@NonNull GeneratedData randomData) throws Exception {
+        long start = System.nanoTime();
+        GeneratedData record;
+        try {
+            record = this.delegate.queryRecord(randomData);
+        } catch (Exception e) {
+            this.queryRecordErrors.increment();
+            throw e;
+        }
+        this.queryRecordTime.recordSince(start);
+
+        if (record != null) {
+            this.queryRecordRows.increment();
+        }
+        return record;
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        this.measureStoredBytes();
+        this.delegate.cleanupIter(dataCollection);
+    }
+
+    @Override
+    public @NonNull Map<String, Double> collectStatistics() throws Exception {
+        this.measureStoredBytes();
+        return this.delegate.collectStatistics();
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        return this.delegate.recover();
+    }
+
+    @Override
+    public @NonNull Collection<Path> getSnapshotPaths() {
+        return this.delegate.getSnapshotPaths();
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        this.measureStoredBytes();
+        this.delegate.cleanup();
+    }
+
+    /**
+     * Adds the logical size of the {@link #unmeasuredRecords} to the
+     * {@link #storedBytes}.
+     */
+    private void measureStoredBytes() {
+        for (Collection<GeneratedData> records : this.unmeasuredRecords) {
+            this.storedBytes.add(IoStatistics.getLogicalBytes(records));
+        }
+
+        this.unmeasuredRecords.clear();
+    }
+}
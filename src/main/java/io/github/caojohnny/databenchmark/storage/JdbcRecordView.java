@@ -0,0 +1,88 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.metrics.Timer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A view of a record stored in the {@code test} table which selects each
+ * column from the database only once it is accessed. Accessing a column costs
+ * a query of its own, which only pays off when the columns which are not
+ * accessed are large, such as the payload of a large record.
+ */
+final class JdbcRecordView extends LazyRecordView {
+    /**
+     * The data source which the columns are selected from
+     */
+    private final DataSource dataSource;
+    /**
+     * The timer of the connection waits of the storage which the record is
+     * stored in
+     */
+    private final Timer connectionWait;
+
+    /**
+     * Creates a new view of the record with the given key.
+     *
+     * @param dataSource     the data source which contains the record
+     * @param connectionWait the timer of the connection waits of the storage
+     * @param key            the key of the record
+     * @param schema         the schema of the table
+     */
+    private JdbcRecordView(@NonNull DataSource dataSource, @NonNull Timer connectionWait,
+                           @NonNull String key, @NonNull RecordSchema schema) {
+        super(key, schema);
+        this.dataSource = dataSource;
+        this.connectionWait = connectionWait;
+    }
+
+    /**
+     * Queries whether the record with the given key exists, selecting only
+     * its key, and creates a view of it if it does.
+     *
+     * @param dataSource     the data source to query
+     * @param connectionWait the timer of the connection waits of the storage
+     * @param key            the key of the record
+     * @param schema         the schema of the table
+     * @return the view of the record, or {@code null} if it does not exist
+     * @throws SQLException if any error occurs executing the query
+     */
+    static @Nullable JdbcRecordView query(@NonNull DataSource dataSource,
+                                          @NonNull Timer connectionWait, @NonNull String key,
+                                          @NonNull RecordSchema schema) throws SQLException {
+        try (Connection con = JdbcRecords.getConnection(dataSource, connectionWait);
+             PreparedStatement ps = con.prepareStatement("SELECT `str` FROM `test` WHERE `str` = ?")) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new JdbcRecordView(dataSource, connectionWait, key, schema) : null;
+            }
+        }
+    }
+
+    @Override
+    protected @NonNull Object decode(int index) {
+        Field field = this.getSchema().getField(index);
+        String sql = "SELECT `" + field.getName() + "` FROM `test` WHERE `str` = ?";
+        try (Connection con = JdbcRecords.getConnection(this.dataSource, this.connectionWait);
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, this.getDataAt(0, String.class));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Record no longer exists");
+                }
+
+                return JdbcRecords.read(rs, 1, field);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to select " + field.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.metrics.MetricsRegistry;
+import io.github.caojohnny.databenchmark.metrics.Timer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Utility methods shared by the storages which persist data using JDBC.
+ */
+final class JdbcRecords {
+    /**
+     * The longest variable-length value which is stored in a column with a
+     * declared length rather than in a large object column
+     */
+    private static final int MAX_VARCHAR_LENGTH = 255;
+    /**
+     * The quote around identifiers in MySQL and in the databases which are
+     * compatible with it
+     */
+    static final String MYSQL_QUOTE = "`";
+    /**
+     * The quote around identifiers in standard SQL, such as that of Derby
+     */
+    static final String STANDARD_QUOTE = "\"";
+
+    private JdbcRecords() {
+    }
+
+    /**
+     * Obtains a connection from the given data source, recording the time
+     * spent waiting for it to the given timer.
+     *
+     * @param dataSource     the data source to connect to
+     * @param connectionWait the timer of the connection waits of the storage,
+     *                       obtained from {@link #getConnectionWait(Storage)}
+     * @return the connection
+     * @throws SQLException if the connection could not be opened
+     */
+    static @NonNull Connection getConnection(@NonNull DataSource dataSource,
+                                             @NonNull Timer connectionWait) throws SQLException {
+        long start = System.nanoTime();
+        Connection con = dataSource.getConnection();
+        connectionWait.recordSince(start);
+
+        return con;
+    }
+
+    /**
+     * Obtains the timer of the time which the given storage spends waiting to
+     * obtain a connection from its data source.
+     *
+     * @param storage the storage
+     * @return the timer of the connection waits
+     */
+    static @NonNull Timer getConnectionWait(@NonNull Storage storage) {
+        return MetricsRegistry.getDefault().timer("data_benchmark_connection_wait_seconds",
+                "Time spent waiting to obtain a database connection", "storage", storage.getName());
+    }
+
+    /**
+     * Builds the statement which creates the {@code test} table, if it does
+     * not already exist, with a column named after each field of the given
+     * schema. The column types are those of MySQL, which are also accepted by
+     * SQLite and by H2 in its MySQL compatibility mode.
+     *
+     * @param schema     the schema of the records stored in the table
+     * @param primaryKey {@code true} to index the key column as the primary
+     *                   key of the table
+     * @return the {@code CREATE TABLE} statement
+     */
+    static @NonNull String createTable(@NonNull RecordSchema schema, boolean primaryKey) {
+        StringJoiner columns = new StringJoiner(", ", "CREATE TABLE IF NOT EXISTS `test` (", ")");
+        for (Field field : schema.getFields()) {
+            String column = "`" + field.getName() + "` " + getColumnType(field);
+            if (primaryKey && field == RecordSchema.KEY) {
+                column += " PRIMARY KEY";
+            }
+
+            columns.add(column);
+        }
+
+        return columns.toString();
+    }
+
+    /**
+     * Determines the MySQL type of the column which stores the given field.
+     *
+     * @param field the field
+     * @return the column type
+     */
+    private static @NonNull String getColumnType(@NonNull Field field) {
+        switch (field.getType()) {
+            case STRING:
+                return field.getMaxLength() <= MAX_VARCHAR_LENGTH ?
+                        "VARCHAR(" + field.getMaxLength() + ")" : "LONGTEXT";
+            case BYTES:
+                return field.getMaxLength() <= MAX_VARCHAR_LENGTH ?
+                        "VARBINARY(" + field.getMaxLength() + ")" : "LONGBLOB";
+            case INT:
+                return "INT";
+            case LONG:
+                return "BIGINT";
+            case FLOAT:
+                return "FLOAT";
+            case DOUBLE:
+                return "DOUBLE";
+            default:
+                throw new IllegalArgumentException("Unknown field type: " + field.getType());
+        }
+    }
+
+    /**
+     * Lists the quoted names of the given fields, separated by commas.
+     *
+     * @param fields the fields
+     * @return the column list
+     */
+    static @NonNull String columns(@NonNull List<Field> fields) {
+        return columns(fields, MYSQL_QUOTE);
+    }
+
+    /**
+     * Lists the names of the given fields, each surrounded by the given
+     * quote, separated by commas.
+     *
+     * @param fields the fields
+     * @param quote  the quote around identifiers
+     * @return the column list
+     */
+    static @NonNull String columns(@NonNull List<Field> fields, @NonNull String quote) {
+        StringJoiner columns = new StringJoiner(", ");
+        for (Field field : fields) {
+            columns.add(quote + field.getName() + quote);
+        }
+
+        return columns.toString();
+    }
+
+    /**
+     * Lists the given number of parameter placeholders, separated by commas.
+     *
+     * @param count the number of parameters
+     * @return the placeholder list
+     */
+    static @NonNull String placeholders(int count) {
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            placeholders.add("?");
+        }
+
+        return placeholders.toString();
+    }
+
+    /**
+     * Lists the given number of rows of parameter placeholders, separated by
+     * commas, such as for a multi-row {@code INSERT} statement.
+     *
+     * @param columns the number of parameters in each row
+     * @param rows    the number of rows
+     * @return the row list
+     */
+    static @NonNull String rows(int columns, int rows) {
+        String row = "(" + placeholders(columns) + ")";
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int i = 0; i < rows; i++) {
+            joiner.add(row);
+        }
+
+        return joiner.toString();
+    }
+
+    /**
+     * Lists an assignment of the value being inserted into each of the given
+     * fields, separated by commas, for the
+     * {@code ON DUPLICATE KEY UPDATE} clause of a multi-row {@code INSERT}
+     * statement.
+     *
+     * @param fields the fields
+     * @return the assignment list
+     */
+    static @NonNull String valueAssignments(@NonNull List<Field> fields) {
+        StringJoiner assignments = new StringJoiner(", ");
+        for (Field field : fields) {
+            assignments.add("`" + field.getName() + "` = VALUES(`" + field.getName() + "`)");
+        }
+
+        return assignments.toString();
+    }
+
+    /**
+     * Lists an assignment of a parameter to each of the given fields,
+     * separated by commas, such as for an {@code UPDATE} statement.
+     *
+     * @param fields the fields
+     * @return the assignment list
+     */
+    static @NonNull String assignments(@NonNull List<Field> fields) {
+        return assignments(fields, MYSQL_QUOTE);
+    }
+
+    /**
+     * Lists an assignment of a parameter to each of the given fields, whose
+     * names are surrounded by the given quote, separated by commas.
+     *
+     * @param fields the fields
+     * @param quote  the quote around identifiers
+     * @return the assignment list
+     */
+    static @NonNull String assignments(@NonNull List<Field> fields, @NonNull String quote) {
+        StringJoiner assignments = new StringJoiner(", ");
+        for (Field field : fields) {
+            assignments.add(quote + field.getName() + quote + " = ?");
+        }
+
+        return assignments.toString();
+    }
+
+    /**
+     * Binds the value of the field at the given index of the given data to
+     * the given statement parameter.
+     *
+     * @param ps             the statement
+     * @param parameterIndex the index of the parameter, starting from
+     *                       {@code 1}
+     * @param data           the data
+     * @param fieldIndex     the index of the field in the schema of the data
+     * @throws Exception if the parameter cannot be bound
+     */
+    static void bind(@NonNull PreparedStatement ps, int parameterIndex,
+                     @NonNull GeneratedData data, int fieldIndex) throws Exception {
+        switch (data.getSchema().getField(fieldIndex).getType()) {
+            case STRING:
+                ps.setString(parameterIndex, data.getDataAt(fieldIndex, String.class));
+                break;
+            case BYTES:
+                ps.setBytes(parameterIndex, data.getDataAt(fieldIndex, byte[].class));
+                break;
+            case INT:
+                ps.setInt(parameterIndex, data.getDataAt(fieldIndex, Integer.class));
+                break;
+            case LONG:
+                ps.setLong(parameterIndex, data.getDataAt(fieldIndex, Long.class));
+                break;
+            case FLOAT:
+                ps.setFloat(parameterIndex, data.getDataAt(fieldIndex, Float.class));
+                break;
+            case DOUBLE:
+                ps.setDouble(parameterIndex, data.getDataAt(fieldIndex, Double.class));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown field type");
+        }
+    }
+
+    /**
+     * Reads the value of the given field from the given column of the current
+     * row of the result.
+     *
+     * @param rs          the result, positioned at a row
+     * @param columnIndex the index of the column, starting from {@code 1}
+     * @param field       the field stored in the column
+     * @return the value of the field
+     * @throws SQLException if the value cannot be read
+     */
+    static @NonNull Object read(@NonNull ResultSet rs, int columnIndex,
+                                @NonNull Field field) throws SQLException {
+        switch (field.getType()) {
+            case STRING:
+                return rs.getString(columnIndex);
+            case BYTES:
+                return rs.getBytes(columnIndex);
+            case INT:
+                return rs.getInt(columnIndex);
+            case LONG:
+                return rs.getLong(columnIndex);
+            case FLOAT:
+                return rs.getFloat(columnIndex);
+            case DOUBLE:
+                return rs.getDouble(columnIndex);
+            default:
+                throw new IllegalArgumentException("Unknown field type");
+        }
+    }
+
+    /**
+     * Reads every row of the {@code test} table as a {@link GeneratedData}
+     * item of the given schema.
+     *
+     * @param dataSource     the data source to obtain the connection from
+     * @param connectionWait the timer of the connection waits of the storage
+     * @param schema         the schema of the records stored in the table
+     * @return the data read from the rows of the table
+     * @throws Exception if any error occurs executing the query
+     */
+    static @NonNull List<GeneratedData> selectAll(@NonNull DataSource dataSource,
+                                                  @NonNull Timer connectionWait,
+                                                  @NonNull RecordSchema schema) throws Exception {
+        return selectAll(dataSource, connectionWait, schema, MYSQL_QUOTE);
+    }
+
+    /**
+     * Reads every row of the {@code test} table as a {@link GeneratedData}
+     * item of the given schema, surrounding the identifiers in the query with
+     * the given quote.
+     *
+     * @param dataSource     the data source to obtain the connection from
+     * @param connectionWait the timer of the connection waits of the storage
+     * @param schema         the schema of the records stored in the table
+     * @param quote          the quote around identifiers
+     * @return the data read from the rows of the table
+     * @throws Exception if any error occurs executing the query
+     */
+    static @NonNull List<GeneratedData> selectAll(@NonNull DataSource dataSource,
+                                                  @NonNull Timer connectionWait,
+                                                  @NonNull RecordSchema schema,
+                                                  @NonNull String quote) throws Exception {
+        List<Field> fields = schema.getFields();
+        String sql = "SELECT " + columns(fields, quote) + " FROM " + quote + "test" + quote;
+        List<GeneratedData> dataCollection = new ArrayList<>();
+        try (Connection con = getConnection(dataSource, connectionWait);
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Object[] dataArray = new Object[fields.size()];
+                for (int i = 0; i < dataArray.length; i++) {
+                    dataArray[i] = read(rs, i + 1, fields.get(i));
+                }
+                dataCollection.add(new ArrayGeneratedData(schema, dataArray));
+            }
+        }
+
+        return dataCollection;
+    }
+}
@@ -1,37 +1,65 @@
 package io.github.caojohnny.databenchmark.storage;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.Field;
 import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Represents a JSON storage medium that utilizes GSON to serialize input and
- * write to a {@link BufferedWriter}.
+ * write it to the file using a {@link FileWriteMode}, which by default
+ * truncates and rewrites the file in place.
  */
 public class JsonStorage implements Storage {
     /**
      * The path to the YAML file
      */
-    private final Path filePath;
+    protected final Path filePath;
+    /**
+     * The procedure used to replace the contents of the file
+     */
+    protected final FileWriteMode writeMode;
 
     /**
      * The initial dataset passed through the {@link #setup(Collection)} method
      * to include in the storage output
      */
-    private Collection<GeneratedData> dataset;
+    protected Collection<GeneratedData> dataset;
 
     public JsonStorage() {
+        this(FileWriteMode.TRUNCATE);
+    }
+
+    /**
+     * Creates a new JSON storage which replaces the contents of its file using
+     * the given procedure.
+     *
+     * @param writeMode the procedure used to write the file
+     */
+    public JsonStorage(@NonNull FileWriteMode writeMode) {
+        this.writeMode = writeMode;
+
         String workingDir = System.getProperty("user.dir");
         requireNonNull(workingDir, "Cannot resolve current working directory");
 
@@ -40,30 +68,74 @@ public class JsonStorage implements Storage {
 
     @Override
     public @NonNull String getName() {
-        return "JSON";
+        return "JSON" + this.writeMode.getNameSuffix();
+    }
+
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return true;
     }
 
     /**
      * Stores the given {@code dataCollection} into the {@code root}
-     * {@link JsonObject}.
+     * {@link JsonObject}, with a property for each value field of the
+     * {@link RecordSchema} of the data. Byte arrays are stored as Base64
+     * strings.
      *
      * @param root           the JSON output which to store the given data
      * @param dataCollection the data which to store in JSON
      */
-    private static void toJson(@NonNull JsonObject root,
-                               @NonNull Collection<GeneratedData> dataCollection) {
+    static void toJson(@NonNull JsonObject root,
+                       @NonNull Collection<GeneratedData> dataCollection) {
         for (GeneratedData data : dataCollection) {
+            List<Field> fields = data.getSchema().getFields();
+
             JsonObject dataJson = new JsonObject();
-            dataJson.addProperty("int", data.getDataAt(1, int.class));
-            dataJson.addProperty("double", data.getDataAt(2, double.class));
-            dataJson.addProperty("float", data.getDataAt(3, float.class));
-            dataJson.addProperty("long", data.getDataAt(4, long.class));
+            for (int i = 1; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                switch (field.getType()) {
+                    case STRING:
+                        dataJson.addProperty(field.getName(), data.getDataAt(i, String.class));
+                        break;
+                    case BYTES:
+                        dataJson.addProperty(field.getName(), Base64.getEncoder()
+                                .encodeToString(data.getDataAt(i, byte[].class)));
+                        break;
+                    default:
+                        dataJson.addProperty(field.getName(), data.getDataAt(i, Number.class));
+                        break;
+                }
+            }
 
             String str = data.getDataAt(0, String.class);
             root.add(str, dataJson);
         }
     }
 
+    /**
+     * Reads the {@link GeneratedData} of the {@link RecordSchema#DEFAULT}
+     * schema back from the entries of the {@code root} {@link JsonObject}, the
+     * inverse of {@link #toJson(JsonObject, Collection)}.
+     *
+     * @param root the JSON input which to read the data from
+     * @return the data read from the JSON
+     */
+    static @NonNull List<GeneratedData> fromJson(@NonNull JsonObject root) {
+        List<GeneratedData> dataCollection = new ArrayList<>(root.size());
+        for (Map.Entry<String, JsonElement> entry : root.entrySet()) {
+            JsonObject dataJson = entry.getValue().getAsJsonObject();
+
+            Object[] dataArray = {entry.getKey(),
+                    dataJson.get("int").getAsInt(),
+                    dataJson.get("double").getAsDouble(),
+                    dataJson.get("float").getAsFloat(),
+                    dataJson.get("long").getAsLong()};
+            dataCollection.add(new ArrayGeneratedData(dataArray));
+        }
+
+        return dataCollection;
+    }
+
     @Override
     public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
         Files.createFile(this.filePath);
@@ -78,32 +150,95 @@ public class JsonStorage implements Storage {
     @Override
     public void storeData(@NonNull Collection<GeneratedData> dataCollection)
             throws Exception {
+        long time = PhaseTimer.start();
         JsonObject root = new JsonObject();
         toJson(root, this.dataset);
         toJson(root, dataCollection);
 
-        try (BufferedWriter bw = Files.newBufferedWriter(this.filePath)) {
-            bw.write(root.toString());
-        }
+        String json = root.toString();
+        PhaseTimer.mark(Phase.SERIALIZE, time);
+
+        this.writeMode.write(this.filePath, writer -> writer.write(json));
     }
 
     @Override
     public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
         String str = randomData.getDataAt(0, String.class);
 
+        long time = PhaseTimer.start();
         Gson gson = new Gson();
         try (BufferedReader br = Files.newBufferedReader(this.filePath)) {
             JsonObject root = gson.fromJson(br, JsonObject.class);
+            PhaseTimer.mark(Phase.PARSE, time);
+
             return root.getAsJsonObject(str) != null;
         }
     }
 
+    @Override
+    public boolean supportsRecordViews() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The file is read using the streaming API of GSON, which skips over
+     * every other record without building a tree of it and stops reading once
+     * the record has been found. The values of the record are kept as text
+     * and only parsed once accessed.</p>
+     */
+    @Override
+    public @Nullable GeneratedData queryRecord(@NonNull GeneratedData randomData) throws Exception {
+        String str = randomData.getDataAt(0, String.class);
+        RecordSchema schema = randomData.getSchema();
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(this.filePath))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(str)) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                String[] texts = new String[schema.getLength()];
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    int index = TextRecordView.indexOf(schema, reader.nextName());
+                    if (index < 0) {
+                        reader.skipValue();
+                    } else {
+                        // Numbers are returned as they appear in the file
+                        texts[index] = reader.nextString();
+                    }
+                }
+
+                return new TextRecordView(str, schema, texts);
+            }
+
+            return null;
+        }
+    }
+
     @Override
     public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
     }
 
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        Gson gson = new Gson();
+        try (BufferedReader br = Files.newBufferedReader(this.filePath)) {
+            JsonObject root = gson.fromJson(br, JsonObject.class);
+            List<GeneratedData> dataset = root == null ?
+                    Collections.emptyList() : fromJson(root);
+
+            this.dataset = Collections.unmodifiableCollection(dataset);
+            return this.dataset;
+        }
+    }
+
     @Override
     public void cleanup() throws Exception {
         Files.delete(this.filePath);
+        Files.deleteIfExists(FileWriteMode.getTempPath(this.filePath));
     }
 }
@@ -0,0 +1,79 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A view of a stored record returned by {@link Storage#queryRecord(GeneratedData)}
+ * which decodes each value of the record the first time it is accessed and
+ * keeps the decoded value for any later access.
+ */
+abstract class LazyRecordView implements GeneratedData {
+    /**
+     * The key of the record
+     */
+    private final String key;
+    /**
+     * The schema used to decode the values of the record
+     */
+    private final RecordSchema schema;
+    /**
+     * The values decoded so far, or {@code null} for those which have not
+     * been accessed yet
+     */
+    private final Object[] values;
+
+    /**
+     * Creates a new view of the record with the given key.
+     *
+     * @param key    the key of the record
+     * @param schema the schema used to decode the values of the record
+     */
+    LazyRecordView(@NonNull String key, @NonNull RecordSchema schema) {
+        this.key = key;
+        this.schema = schema;
+        this.values = new Object[schema.getLength()];
+    }
+
+    @Override
+    public @NonNull RecordSchema getSchema() {
+        return this.schema;
+    }
+
+    @Override
+    public int getLength() {
+        return this.values.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @NonNull T getDataAt(int index, @NonNull Class<T> type) {
+        if (index < 0 || index >= this.getLength()) {
+            throw new IndexOutOfBoundsException("Index is not within bounds");
+        }
+        if (index == 0) {
+            return (T) this.key;
+        }
+
+        Object value = this.values[index];
+        if (value == null) {
+            value = requireNonNull(this.decode(index));
+            this.values[index] = value;
+        }
+
+        return (T) value;
+    }
+
+    /**
+     * Decodes the value at the given index, which is called at most once for
+     * each value field of the record.
+     *
+     * @param index the index of the value, between 1 and
+     *              {@link #getLength()}{@code - 1}
+     * @return the decoded value
+     */
+    protected abstract @NonNull Object decode(int index);
+}
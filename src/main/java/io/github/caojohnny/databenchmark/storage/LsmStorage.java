@@ -0,0 +1,158 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import io.github.caojohnny.databenchmark.storage.lsm.LsmTree;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents an embedded log-structured merge tree, {@link LsmTree}, which
+ * buffers writes in a memtable backed by a write-ahead log and periodically
+ * flushes them into immutable sorted tables. Records are encoded using
+ * {@link BinaryRecordCodec} and the write-ahead log is forced to the storage
+ * device on each store.
+ */
+public class LsmStorage implements Storage {
+    /**
+     * The approximate size in bytes at which the memtable is flushed
+     */
+    private static final long MEMTABLE_LIMIT = 256 * 1024;
+    /**
+     * The number of similarly sized tables which triggers a compaction
+     */
+    private static final int COMPACTION_THRESHOLD = 4;
+
+    /**
+     * The path to the directory containing the log and tables
+     */
+    private final Path directoryPath;
+
+    /**
+     * The tree which the data is written to
+     */
+    private LsmTree tree;
+
+    public LsmStorage() {
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve current working directory");
+
+        this.directoryPath = Paths.get(workingDir, "test-lsm");
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "LSM";
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        Files.createDirectory(this.directoryPath);
+
+        this.tree = new LsmTree(this.directoryPath, MEMTABLE_LIMIT, COMPACTION_THRESHOLD);
+        this.tree.open();
+
+        this.storeData(dataset);
+    }
+
+    @Override
+    public void setupIter() {
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        long time = PhaseTimer.start();
+        for (GeneratedData data : dataCollection) {
+            ByteBuffer record = BinaryRecordCodec.encode(data);
+            time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+            this.tree.put(data.getDataAt(0, String.class), record.array());
+            time = PhaseTimer.mark(Phase.WRITE, time);
+        }
+
+        this.tree.sync();
+        PhaseTimer.mark(Phase.COMMIT, time);
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        String str = randomData.getDataAt(0, String.class);
+
+        long time = PhaseTimer.start();
+        byte[] record = this.tree.get(str);
+        if (record == null) {
+            return false;
+        }
+
+        ByteBuffer body = ByteBuffer.wrap(record);
+        body.position(BinaryRecordCodec.LENGTH_PREFIX_BYTES);
+        BinaryRecordCodec.decode(body);
+        PhaseTimer.mark(Phase.PARSE, time);
+
+        return true;
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
+    }
+
+    @Override
+    public @NonNull Map<String, Double> collectStatistics() {
+        Map<String, Double> statistics = new LinkedHashMap<>();
+        statistics.put("SSTables", (double) this.tree.getTableCount());
+        statistics.put("Compactions", (double) this.tree.getCompactionCount());
+        statistics.put("Write amplification", this.tree.getWriteAmplification());
+        statistics.put("Tables read per memtable miss", this.tree.getAverageTablesRead());
+        statistics.put("Tables skipped per memtable miss", this.tree.getAverageTablesSkipped());
+
+        return statistics;
+    }
+
+    @Override
+    public @NonNull Collection<Path> getSnapshotPaths() {
+        return Collections.singletonList(this.directoryPath);
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        this.tree = new LsmTree(this.directoryPath, MEMTABLE_LIMIT, COMPACTION_THRESHOLD);
+        this.tree.open();
+
+        Set<String> keys = this.tree.getKeys();
+        List<GeneratedData> dataset = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            ByteBuffer body = ByteBuffer.wrap(requireNonNull(this.tree.get(key)));
+            body.position(BinaryRecordCodec.LENGTH_PREFIX_BYTES);
+            dataset.add(BinaryRecordCodec.decode(body));
+        }
+
+        return dataset;
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        this.tree.close();
+
+        StorageFiles.deleteDirectory(this.directoryPath);
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.FieldType;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Represents a MySQL database which streams the data to the server as a
+ * single tab-separated file using {@code LOAD DATA LOCAL INFILE}, which is
+ * the fastest way to bulk load data into MySQL. The file is never written to
+ * disk, it is serialized into memory and handed to the driver as the stream
+ * to send in place of the file.
+ *
+ * <p>{@code LOAD DATA} cannot update the existing rows in place, so existing
+ * rows are replaced like {@link MySqlReplaceStorage}. Loading local files
+ * must be enabled on the server with the {@code local_infile} variable.</p>
+ */
+public class MySqlLoadDataStorage extends MySqlStorage {
+    /**
+     * The hexadecimal digits used to encode binary values
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public @NonNull String getName() {
+        return "MySQL LOAD DATA";
+    }
+
+    @Override
+    protected @NonNull String getConnectionProperties() {
+        return super.getConnectionProperties() + "&allowLoadLocalInfile=true";
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        List<Field> fields = this.schema.getFields();
+        try (Connection con = this.getConnection()) {
+            con.setAutoCommit(false);
+
+            try {
+                long time = PhaseTimer.start();
+                byte[] file = serialize(this.schema, dataCollection);
+                time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+                try (Statement st = con.createStatement()) {
+                    st.unwrap(JdbcStatement.class)
+                            .setLocalInfileInputStream(new ByteArrayInputStream(file));
+                    st.executeUpdate(getLoadData(fields));
+                }
+                time = PhaseTimer.mark(Phase.WRITE, time);
+
+                con.commit();
+                PhaseTimer.mark(Phase.COMMIT, time);
+            } catch (Exception e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Builds the {@code LOAD DATA} statement which loads a file serialized by
+     * {@link #serialize(RecordSchema, Collection)}. The binary fields are loaded into user
+     * variables and decoded from hexadecimal into their columns.
+     *
+     * @param fields the fields of the records in the file
+     * @return the {@code LOAD DATA} statement
+     */
+    private static @NonNull String getLoadData(@NonNull List<Field> fields) {
+        StringJoiner columns = new StringJoiner(", ", "(", ")");
+        StringJoiner assignments = new StringJoiner(", ", " SET ", "");
+        assignments.setEmptyValue("");
+        for (Field field : fields) {
+            if (field.getType() == FieldType.BYTES) {
+                columns.add("@" + field.getName());
+                assignments.add("`" + field.getName() + "` = UNHEX(@" + field.getName() + ")");
+            } else {
+                columns.add("`" + field.getName() + "`");
+            }
+        }
+
+        return "LOAD DATA LOCAL INFILE 'records.tsv' REPLACE INTO TABLE `test` " +
+                "CHARACTER SET utf8mb4 " + columns + assignments;
+    }
+
+    /**
+     * Serializes the given data into a file with a line for each record and
+     * its values separated by tabs, escaped as expected by the default
+     * options of {@code LOAD DATA}.
+     *
+     * @param schema         the schema of the data
+     * @param dataCollection the data to serialize
+     * @return the contents of the file
+     */
+    static byte @NonNull [] serialize(@NonNull RecordSchema schema,
+                                      @NonNull Collection<GeneratedData> dataCollection) {
+        int fieldCount = schema.getFields().size();
+        StringBuilder builder = new StringBuilder();
+        for (GeneratedData data : dataCollection) {
+            for (int i = 0; i < fieldCount; i++) {
+                if (i > 0) {
+                    builder.append('\t');
+                }
+
+                Object value = data.getDataAt(i, Object.class);
+                if (value instanceof byte[]) {
+                    for (byte b : (byte[]) value) {
+                        builder.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+                    }
+                } else if (value instanceof String) {
+                    appendEscaped(builder, (String) value);
+                } else {
+                    builder.append(value);
+                }
+            }
+
+            builder.append('\n');
+        }
+
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends the given string, escaping the characters which would otherwise
+     * be read as a separator or an escape by {@code LOAD DATA}. As the
+     * backslash is escaped, a string such as {@code \N} is not read as
+     * {@code NULL}.
+     *
+     * @param builder the builder to append to
+     * @param value   the string to append
+     */
+    private static void appendEscaped(@NonNull StringBuilder builder, @NonNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\0':
+                    builder.append("\\0");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collection;
+
+/**
+ * Represents a MySQL database which, rather than executing a statement for
+ * every row like {@link MySqlStorage}, inserts the rows in chunks using a
+ * single multi-row {@code INSERT INTO ... ON DUPLICATE KEY UPDATE} statement
+ * for each chunk, which saves a round trip to the server for every row.
+ */
+public class MySqlMultiRowStorage extends MySqlStorage {
+    /**
+     * The largest number of rows inserted by each statement
+     */
+    protected final int rowsPerStatement;
+
+    /**
+     * Creates a new MySQL storage which inserts the given number of rows with
+     * each statement.
+     *
+     * @param rowsPerStatement the largest number of rows inserted by each
+     *                         statement
+     */
+    public MySqlMultiRowStorage(int rowsPerStatement) {
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "MySQL Multi-Row (" + this.rowsPerStatement + " rows)";
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        this.upsertRows(dataCollection, this.rowsPerStatement);
+    }
+}
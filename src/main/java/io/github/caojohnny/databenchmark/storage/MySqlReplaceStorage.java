@@ -1,11 +1,15 @@
 package io.github.caojohnny.databenchmark.storage;
 
+import io.github.caojohnny.databenchmark.generator.Field;
 import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.util.Collection;
+import java.util.List;
 
 public class MySqlReplaceStorage extends MySqlStorage {
     @Override
@@ -16,24 +20,29 @@ public class MySqlReplaceStorage extends MySqlStorage {
     @Override
     public void storeData(@NonNull Collection<GeneratedData> dataCollection)
             throws Exception {
-        String sql = "REPLACE INTO `test` (`str`, `int`, `double`, `float`, `long`) VALUES (?, ?, ?, ?, ?)";
-        try (Connection con = this.dataSource.getConnection()) {
+        List<Field> fields = this.schema.getFields();
+        String sql = "REPLACE INTO `test` (" + JdbcRecords.columns(fields) + ") " +
+                "VALUES (" + JdbcRecords.placeholders(fields.size()) + ")";
+        try (Connection con = this.getConnection()) {
             con.setAutoCommit(false);
 
             try {
+                long time = PhaseTimer.start();
                 for (GeneratedData data : dataCollection) {
                     try (PreparedStatement ps = con.prepareStatement(sql)) {
-                        ps.setString(1, data.getDataAt(0, String.class));
-                        ps.setInt(2, data.getDataAt(1, int.class));
-                        ps.setDouble(3, data.getDataAt(2, double.class));
-                        ps.setFloat(4, data.getDataAt(3, float.class));
-                        ps.setLong(5, data.getDataAt(4, long.class));
+                        time = PhaseTimer.mark(Phase.PREPARE, time);
+                        for (int i = 0; i < fields.size(); i++) {
+                            JdbcRecords.bind(ps, i + 1, data, i);
+                        }
+                        time = PhaseTimer.mark(Phase.SERIALIZE, time);
 
                         ps.executeUpdate();
                     }
+                    time = PhaseTimer.mark(Phase.WRITE, time);
                 }
 
                 con.commit();
+                PhaseTimer.mark(Phase.COMMIT, time);
             } catch (Exception e) {
                 con.rollback();
                 throw e;
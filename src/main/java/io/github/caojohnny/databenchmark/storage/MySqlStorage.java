@@ -1,14 +1,23 @@
 package io.github.caojohnny.databenchmark.storage;
 
 import com.mysql.cj.jdbc.MysqlDataSource;
+import io.github.caojohnny.databenchmark.generator.Field;
 import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.metrics.Timer;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -29,44 +38,160 @@ public class MySqlStorage implements Storage {
     /**
      * The {@link DataSource} providing the connection to MySQL
      */
-    protected final MysqlDataSource dataSource = new MysqlDataSource();
+    protected final DataSource dataSource;
+    /**
+     * The {@link #dataSource} which is configured to connect to MySQL, or
+     * {@code null} if a subclass connects to another database, in which case
+     * it overrides the methods which configure it
+     */
+    private final MysqlDataSource mysqlDataSource;
+    /**
+     * The timer of the time spent waiting to obtain a connection, which is
+     * looked up by {@link #getConnectionWait()}
+     */
+    private Timer connectionWait;
+    /**
+     * The schema of the records stored in the table
+     */
+    protected RecordSchema schema = RecordSchema.DEFAULT;
+
+    public MySqlStorage() {
+        MysqlDataSource dataSource = new MysqlDataSource();
+        this.dataSource = dataSource;
+        this.mysqlDataSource = dataSource;
+    }
+
+    /**
+     * Creates a new storage which connects to another database accepting the
+     * same statements as MySQL through the given data source. The subclass
+     * must override {@link #setup(Collection)} and {@link #recover()}, which
+     * otherwise configure the connection to MySQL.
+     *
+     * @param dataSource the data source of the database
+     */
+    protected MySqlStorage(@NonNull DataSource dataSource) {
+        this.dataSource = requireNonNull(dataSource, "dataSource");
+        this.mysqlDataSource = null;
+    }
+
+    /**
+     * Obtains the {@link #dataSource} which is configured to connect to
+     * MySQL.
+     *
+     * @return the MySQL data source
+     * @throws IllegalStateException if the storage connects to another
+     *                               database
+     */
+    private @NonNull MysqlDataSource getMysqlDataSource() {
+        if (this.mysqlDataSource == null) {
+            throw new IllegalStateException(this.getName() + " does not connect to MySQL");
+        }
+
+        return this.mysqlDataSource;
+    }
+
+    /**
+     * Obtains the timer of the time spent waiting to obtain a connection,
+     * which is looked up the first time it is needed.
+     *
+     * @return the timer of the connection waits
+     */
+    protected @NonNull Timer getConnectionWait() {
+        if (this.connectionWait == null) {
+            this.connectionWait = JdbcRecords.getConnectionWait(this);
+        }
+
+        return this.connectionWait;
+    }
+
+    /**
+     * Obtains a connection from the {@link #dataSource}, recording the time
+     * spent waiting for it.
+     *
+     * @return the connection
+     * @throws SQLException if the connection could not be opened
+     */
+    protected @NonNull Connection getConnection() throws SQLException {
+        return JdbcRecords.getConnection(this.dataSource, this.getConnectionWait());
+    }
 
     @Override
     public @NonNull String getName() {
         return "MySQL";
     }
 
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return true;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public boolean isNetworked() {
+        return true;
+    }
+
     @Override
     public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
-        this.dataSource.setUrl("jdbc:mysql://localhost:3306?serverTimezone=UTC");
+        this.schema = RecordSchema.of(dataset);
 
-        String user = requireNonNull(System.getProperty(MYSQL_USER_PROP),
-                "System property unset: -D" + MYSQL_USER_PROP);
-        String pass = requireNonNull(System.getProperty(MYSQL_PASS_PROP),
-                "System property unset: -D" + MYSQL_PASS_PROP);
-        this.dataSource.setUser(user);
-        this.dataSource.setPassword(pass);
+        MysqlDataSource dataSource = this.getMysqlDataSource();
+        dataSource.setUrl("jdbc:mysql://localhost:3306?" + this.getConnectionProperties());
+
+        setCredentials(dataSource);
 
         String createDb = "CREATE DATABASE IF NOT EXISTS `test`";
-        try (Connection con = this.dataSource.getConnection();
+        try (Connection con = this.getConnection();
              PreparedStatement ps = con.prepareStatement(createDb)) {
             ps.executeUpdate();
         }
-        this.dataSource.setUrl("jdbc:mysql://localhost:3306/test?serverTimezone=UTC");
-
-        String createTable = "CREATE TABLE IF NOT EXISTS `test` (" +
-                "`str` VARCHAR(36) PRIMARY KEY, " +
-                "`int` INT, " +
-                "`double` DOUBLE, " +
-                "`float` FLOAT, " +
-                "`long` BIGINT" +
-                ")";
-        try (Connection con = this.dataSource.getConnection();
+        dataSource.setUrl("jdbc:mysql://localhost:3306/test?" + this.getConnectionProperties());
+
+        this.createTable();
+        this.storeData(dataset);
+    }
+
+    /**
+     * Obtains the properties of the connection to MySQL, which are appended
+     * to the JDBC URL.
+     *
+     * @return the connection properties, separated by {@code &}
+     */
+    protected @NonNull String getConnectionProperties() {
+        return "serverTimezone=UTC";
+    }
+
+    /**
+     * Sets the MySQL username and password of the given {@code dataSource}
+     * from the system properties.
+     *
+     * @param dataSource the data source to authenticate
+     */
+    private static void setCredentials(@NonNull MysqlDataSource dataSource) {
+        String user = requireNonNull(System.getProperty(MYSQL_USER_PROP),
+                "System property unset: -D" + MYSQL_USER_PROP);
+        String pass = requireNonNull(System.getProperty(MYSQL_PASS_PROP),
+                "System property unset: -D" + MYSQL_PASS_PROP);
+        dataSource.setUser(user);
+        dataSource.setPassword(pass);
+    }
+
+    /**
+     * Creates the indexed table which the data is stored in, if it does not
+     * already exist, with a column for each field of the {@link #schema}.
+     *
+     * @throws Exception if any error occurs creating the table
+     */
+    protected void createTable() throws Exception {
+        String createTable = JdbcRecords.createTable(this.schema, true);
+        try (Connection con = this.getConnection();
              PreparedStatement ps = con.prepareStatement(createTable)) {
             ps.executeUpdate();
         }
-
-        this.storeData(dataset);
     }
 
     @Override
@@ -76,30 +201,83 @@ public class MySqlStorage implements Storage {
     @Override
     public void storeData(@NonNull Collection<GeneratedData> dataCollection)
             throws Exception {
-        String sql = "INSERT INTO `test` (`str`, `int`, `double`, `float`, `long`) VALUES (?, ?, ?, ?, ?) " +
-                "ON DUPLICATE KEY UPDATE `int` = ?, `double` = ?, `float` = ?, `long` = ?";
-        try (Connection con = this.dataSource.getConnection()) {
+        List<Field> fields = this.schema.getFields();
+        String sql = "INSERT INTO `test` (" + JdbcRecords.columns(fields) + ") " +
+                "VALUES (" + JdbcRecords.placeholders(fields.size()) + ") " +
+                "ON DUPLICATE KEY UPDATE " + JdbcRecords.assignments(this.schema.getValueFields());
+        try (Connection con = this.getConnection()) {
             con.setAutoCommit(false);
 
             try {
+                long time = PhaseTimer.start();
                 for (GeneratedData data : dataCollection) {
                     try (PreparedStatement ps = con.prepareStatement(sql)) {
-                        ps.setString(1, data.getDataAt(0, String.class));
-                        ps.setInt(2, data.getDataAt(1, int.class));
-                        ps.setDouble(3, data.getDataAt(2, double.class));
-                        ps.setFloat(4, data.getDataAt(3, float.class));
-                        ps.setLong(5, data.getDataAt(4, long.class));
+                        time = PhaseTimer.mark(Phase.PREPARE, time);
+                        for (int i = 0; i < fields.size(); i++) {
+                            JdbcRecords.bind(ps, i + 1, data, i);
+                        }
+                        for (int i = 1; i < fields.size(); i++) {
+                            JdbcRecords.bind(ps, fields.size() + i, data, i);
+                        }
+                        time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+                        ps.executeUpdate();
+                    }
+                    time = PhaseTimer.mark(Phase.WRITE, time);
+                }
+
+                con.commit();
+                PhaseTimer.mark(Phase.COMMIT, time);
+            } catch (Exception e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stores the given data in a single transaction using multi-row
+     * {@code INSERT INTO ... ON DUPLICATE KEY UPDATE} statements, each of
+     * which inserts up to the given number of rows.
+     *
+     * @param dataCollection   the data to store
+     * @param rowsPerStatement the largest number of rows inserted by each
+     *                         statement
+     * @throws Exception if any error occurs executing the statements
+     */
+    protected void upsertRows(@NonNull Collection<GeneratedData> dataCollection,
+                              int rowsPerStatement) throws Exception {
+        List<Field> fields = this.schema.getFields();
+        List<GeneratedData> rows = new ArrayList<>(dataCollection);
+        try (Connection con = this.getConnection()) {
+            con.setAutoCommit(false);
 
-                        ps.setInt(6, data.getDataAt(1, int.class));
-                        ps.setDouble(7, data.getDataAt(2, double.class));
-                        ps.setFloat(8, data.getDataAt(3, float.class));
-                        ps.setLong(9, data.getDataAt(4, long.class));
+            try {
+                long time = PhaseTimer.start();
+                for (int start = 0; start < rows.size(); start += rowsPerStatement) {
+                    List<GeneratedData> chunk = rows.subList(start,
+                            Math.min(start + rowsPerStatement, rows.size()));
+                    String sql = "INSERT INTO `test` (" + JdbcRecords.columns(fields) + ") " +
+                            "VALUES " + JdbcRecords.rows(fields.size(), chunk.size()) + " " +
+                            "ON DUPLICATE KEY UPDATE " +
+                            JdbcRecords.valueAssignments(this.schema.getValueFields());
+                    try (PreparedStatement ps = con.prepareStatement(sql)) {
+                        time = PhaseTimer.mark(Phase.PREPARE, time);
+                        int parameterIndex = 1;
+                        for (GeneratedData data : chunk) {
+                            for (int i = 0; i < fields.size(); i++) {
+                                JdbcRecords.bind(ps, parameterIndex++, data, i);
+                            }
+                        }
+                        time = PhaseTimer.mark(Phase.SERIALIZE, time);
 
                         ps.executeUpdate();
                     }
+                    time = PhaseTimer.mark(Phase.WRITE, time);
                 }
 
                 con.commit();
+                PhaseTimer.mark(Phase.COMMIT, time);
             } catch (Exception e) {
                 con.rollback();
                 throw e;
@@ -110,20 +288,41 @@ public class MySqlStorage implements Storage {
     @Override
     public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
         String str = randomData.getDataAt(0, String.class);
-        String sql = "SELECT `int`, `double`, `float`, `long` FROM `test` WHERE `str` = ?";
-        try (Connection con = this.dataSource.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, str);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
+        String sql = "SELECT " + JdbcRecords.columns(this.schema.getValueFields()) +
+                " FROM `test` WHERE `str` = ?";
+        try (Connection con = this.getConnection()) {
+            long time = PhaseTimer.start();
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                time = PhaseTimer.mark(Phase.PREPARE, time);
+
+                ps.setString(1, str);
+                try (ResultSet rs = ps.executeQuery()) {
+                    time = PhaseTimer.mark(Phase.WRITE, time);
+
+                    boolean found = rs.next();
+                    PhaseTimer.mark(Phase.PARSE, time);
+
+                    return found;
+                }
             }
         }
     }
 
+    @Override
+    public boolean supportsRecordViews() {
+        return true;
+    }
+
+    @Override
+    public @Nullable GeneratedData queryRecord(@NonNull GeneratedData randomData) throws Exception {
+        return JdbcRecordView.query(this.dataSource, this.getConnectionWait(),
+                randomData.getDataAt(0, String.class), this.schema);
+    }
+
     @Override
     public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
         /* String sql = "DELETE FROM `test` WHERE `str` = ?";
-        try (Connection con = this.dataSource.getConnection()) {
+        try (Connection con = this.getConnection()) {
             con.setAutoCommit(false);
 
             try {
@@ -144,10 +343,38 @@ public class MySqlStorage implements Storage {
         } */
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only datasets of the {@link RecordSchema#DEFAULT} schema are
+     * recovered, so the schema left behind by a previous setup is reset to
+     * it.</p>
+     */
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        MysqlDataSource dataSource = this.getMysqlDataSource();
+        dataSource.setUrl("jdbc:mysql://localhost:3306/test?" + this.getConnectionProperties());
+        setCredentials(dataSource);
+
+        this.schema = RecordSchema.DEFAULT;
+        return this.selectAll();
+    }
+
+    /**
+     * Reads every row of the table, with a column for each field of the
+     * {@link #schema}.
+     *
+     * @return the data read from the table
+     * @throws Exception if any error occurs querying the table
+     */
+    protected @NonNull Collection<GeneratedData> selectAll() throws Exception {
+        return JdbcRecords.selectAll(this.dataSource, this.getConnectionWait(), this.schema);
+    }
+
     @Override
     public void cleanup() throws Exception {
         String sql = "DROP TABLE `test`";
-        try (Connection con = this.dataSource.getConnection();
+        try (Connection con = this.getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.executeUpdate();
         }
@@ -0,0 +1,129 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import io.github.caojohnny.databenchmark.storage.memory.OffHeapStore;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents an in-memory storage which keeps the data outside of the Java
+ * heap in an {@link OffHeapStore}, serving as a lower bound for the cost of
+ * encoding the data without any file system or database involved. Records are
+ * encoded using {@link BinaryRecordCodec}.
+ *
+ * <p>Nothing is persisted, so nothing survives the process.</p>
+ */
+public class OffHeapStorage implements Storage {
+    /**
+     * The number of bytes in one mebibyte
+     */
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * The store which the data is written to
+     */
+    private OffHeapStore store;
+    /**
+     * The buffer which each record is encoded into before it is copied into
+     * the store
+     */
+    private ByteBuffer recordBuffer;
+
+    @Override
+    public @NonNull String getName() {
+        return "Off-Heap";
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) {
+        this.store = new OffHeapStore();
+        this.recordBuffer = ByteBuffer.allocate(256);
+
+        this.storeData(dataset);
+    }
+
+    @Override
+    public void setupIter() {
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection) {
+        long time = PhaseTimer.start();
+        for (GeneratedData data : dataCollection) {
+            String key = data.getDataAt(0, String.class);
+            byte[] keyBytes = BinaryRecordCodec.encodeKey(key);
+            int length = BinaryRecordCodec.getEncodedLength(keyBytes);
+            if (this.recordBuffer.capacity() < length) {
+                this.recordBuffer = ByteBuffer.allocate(length);
+            }
+
+            this.recordBuffer.clear();
+            BinaryRecordCodec.encode(data, keyBytes, this.recordBuffer);
+            this.recordBuffer.flip();
+            time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+            this.store.put(key, this.recordBuffer);
+            time = PhaseTimer.mark(Phase.WRITE, time);
+        }
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) {
+        String str = randomData.getDataAt(0, String.class);
+
+        long time = PhaseTimer.start();
+        ByteBuffer record = this.store.get(str);
+        if (record == null) {
+            return false;
+        }
+
+        record.position(record.position() + BinaryRecordCodec.LENGTH_PREFIX_BYTES);
+        BinaryRecordCodec.decode(record);
+        PhaseTimer.mark(Phase.PARSE, time);
+
+        return true;
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
+    }
+
+    @Override
+    public @NonNull Map<String, Double> collectStatistics() {
+        Map<String, Double> statistics = new LinkedHashMap<>();
+        statistics.put("Arena MB", this.store.getArenaBytes() / BYTES_PER_MB);
+        statistics.put("Index MB", this.store.getIndexBytes() / BYTES_PER_MB);
+
+        return statistics;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The data does not outlive the process which stored it, so a new,
+     * empty store is created and nothing is recovered.</p>
+     */
+    @Override
+    public @NonNull Collection<GeneratedData> recover() {
+        this.setup(Collections.emptyList());
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void cleanup() {
+        this.store = null;
+        this.recordBuffer = null;
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents an in-memory storage which simply keeps references to the data
+ * in a {@link HashMap}, serving as a lower bound for the cost of storing and
+ * querying the data with no serialization at all.
+ *
+ * <p>Unlike {@link OffHeapStorage}, every stored item remains on the Java heap
+ * for the garbage collector to trace. Nothing is persisted, so nothing
+ * survives the process.</p>
+ */
+public class OnHeapStorage implements Storage {
+    /**
+     * The stored data, mapped by key
+     */
+    private Map<String, GeneratedData> records;
+
+    @Override
+    public @NonNull String getName() {
+        return "On-Heap";
+    }
+
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return true;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) {
+        this.records = new HashMap<>();
+
+        this.storeData(dataset);
+    }
+
+    @Override
+    public void setupIter() {
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection) {
+        long time = PhaseTimer.start();
+        for (GeneratedData data : dataCollection) {
+            this.records.put(data.getDataAt(0, String.class), data);
+        }
+        PhaseTimer.mark(Phase.WRITE, time);
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) {
+        String str = randomData.getDataAt(0, String.class);
+        return this.records.get(str) != null;
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The data does not outlive the process which stored it, so a new,
+     * empty map is created and nothing is recovered.</p>
+     */
+    @Override
+    public @NonNull Collection<GeneratedData> recover() {
+        this.setup(Collections.emptyList());
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void cleanup() {
+        this.records = null;
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import com.google.gson.JsonObject;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Represents a {@link JsonStorage} which serializes the data in chunks
+ * concurrently on a fork-join pool and writes the resulting buffers to the
+ * file with a single gathering write.
+ */
+public class ParallelJsonStorage extends JsonStorage {
+    /**
+     * The number of threads used to serialize the data
+     */
+    private final int parallelism;
+
+    /**
+     * The serializer used during the benchmark
+     */
+    private ForkJoinSerializer serializer;
+
+    /**
+     * Creates a new parallel JSON storage.
+     *
+     * @param parallelism the number of threads used to serialize the data
+     */
+    public ParallelJsonStorage(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "JSON Parallel (" + this.parallelism + " threads)";
+    }
+
+    /**
+     * Serializes a chunk of data as the comma-separated members of a JSON
+     * object, without the enclosing braces.
+     *
+     * @param chunk the data to serialize
+     * @return the JSON object members
+     */
+    private static @NonNull String toJsonMembers(@NonNull List<GeneratedData> chunk) {
+        JsonObject root = new JsonObject();
+        toJson(root, chunk);
+
+        String json = root.toString();
+        return json.substring(1, json.length() - 1);
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        super.setup(dataset);
+
+        this.serializer = new ForkJoinSerializer(this.parallelism);
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        long time = PhaseTimer.start();
+        List<GeneratedData> data = ForkJoinSerializer.combine(this.dataset, dataCollection);
+        List<ByteBuffer> chunks = this.serializer.serialize(data,
+                ParallelJsonStorage::toJsonMembers);
+
+        List<ByteBuffer> buffers = new ArrayList<>(chunks.size() * 2 + 1);
+        buffers.add(ForkJoinSerializer.encode("{"));
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                buffers.add(ForkJoinSerializer.encode(","));
+            }
+
+            buffers.add(chunks.get(i));
+        }
+        buffers.add(ForkJoinSerializer.encode("}"));
+        time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+        ForkJoinSerializer.gatherWrite(this.filePath, buffers.toArray(new ByteBuffer[0]));
+        PhaseTimer.mark(Phase.WRITE, time);
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        Collection<GeneratedData> dataset = super.recover();
+
+        this.serializer = new ForkJoinSerializer(this.parallelism);
+        return dataset;
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        this.serializer.shutdown();
+
+        super.cleanup();
+    }
+}
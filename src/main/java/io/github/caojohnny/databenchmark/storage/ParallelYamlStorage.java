@@ -0,0 +1,99 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a {@link YamlStorage} which serializes the data in chunks
+ * concurrently on a fork-join pool and writes the resulting buffers to the
+ * file with a single gathering write.
+ *
+ * <p>Each chunk is dumped as its own block mapping, which may simply be
+ * concatenated with the other chunks to form the complete document.</p>
+ */
+public class ParallelYamlStorage extends YamlStorage {
+    /**
+     * The number of threads used to serialize the data
+     */
+    private final int parallelism;
+
+    /**
+     * The serializer used during the benchmark
+     */
+    private ForkJoinSerializer serializer;
+
+    /**
+     * Creates a new parallel YAML storage.
+     *
+     * @param parallelism the number of threads used to serialize the data
+     */
+    public ParallelYamlStorage(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "YAML Parallel (" + this.parallelism + " threads)";
+    }
+
+    /**
+     * Serializes a chunk of data as a YAML block mapping.
+     *
+     * @param chunk the data to serialize
+     * @return the YAML document containing the chunk
+     */
+    private static @NonNull String toYamlBlock(@NonNull List<GeneratedData> chunk) {
+        Map<String, Object> root = new LinkedHashMap<>(chunk.size());
+        toYamlMap(root, chunk);
+
+        Yaml yaml = new Yaml();
+        return yaml.dump(root);
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        super.setup(dataset);
+
+        this.serializer = new ForkJoinSerializer(this.parallelism);
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        long time = PhaseTimer.start();
+        List<GeneratedData> data = ForkJoinSerializer.combine(this.dataset, dataCollection);
+        List<ByteBuffer> chunks = this.serializer.serialize(data,
+                ParallelYamlStorage::toYamlBlock);
+        if (chunks.isEmpty()) {
+            chunks.add(ForkJoinSerializer.encode("{}\n"));
+        }
+        time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+        ForkJoinSerializer.gatherWrite(this.filePath, chunks.toArray(new ByteBuffer[0]));
+        PhaseTimer.mark(Phase.WRITE, time);
+    }
+
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        Collection<GeneratedData> dataset = super.recover();
+
+        this.serializer = new ForkJoinSerializer(this.parallelism);
+        return dataset;
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        this.serializer.shutdown();
+
+        super.cleanup();
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Reads length-prefixed records written by {@link BinaryRecordCodec} from a
+ * channel through a reusable direct buffer.
+ *
+ * <p>A length prefix which is longer than the rest of the channel, such as
+ * that of a record which was only partly written, marks the end of the valid
+ * data rather than growing the buffer to the corrupted length.</p>
+ */
+final class RecordChannelReader {
+    /**
+     * The channel to read the records from
+     */
+    private final SeekableByteChannel channel;
+    /**
+     * The buffer holding the bytes read from the channel, in read mode
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a new reader for the given channel.
+     *
+     * @param channel    the channel to read from
+     * @param bufferSize the initial size of the read buffer, which is grown if a
+     *                   single record does not fit
+     */
+    RecordChannelReader(@NonNull SeekableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.flip();
+    }
+
+    /**
+     * Reads the next record from the channel.
+     *
+     * <p>The returned buffer shares its contents with the read buffer and is
+     * only valid until the next call to this method.</p>
+     *
+     * @return the body of the next record, positioned after its length prefix,
+     * or {@code null} if the end of the channel or of the valid data has been
+     * reached
+     * @throws EOFException if the channel ends part way through a record
+     * @throws IOException  if an error occurs reading from the channel
+     */
+    @Nullable ByteBuffer next() throws IOException {
+        if (!this.fill(BinaryRecordCodec.LENGTH_PREFIX_BYTES)) {
+            if (this.buffer.hasRemaining()) {
+                throw new EOFException("Truncated record length");
+            }
+
+            return null;
+        }
+
+        int length = this.buffer.getInt();
+        if (length < 0) {
+            throw new IOException("Corrupted record length: " + length);
+        }
+        if (length > this.getRemaining()) {
+            return null;
+        }
+        if (!this.fill(length)) {
+            throw new EOFException("Truncated record");
+        }
+
+        ByteBuffer body = this.buffer.slice();
+        body.limit(length);
+        this.buffer.position(this.buffer.position() + length);
+
+        return body;
+    }
+
+    /**
+     * Determines the number of bytes left to be read, both from the buffer and
+     * from the rest of the channel.
+     *
+     * @return the number of bytes left
+     * @throws IOException if an error occurs determining the channel size
+     */
+    private long getRemaining() throws IOException {
+        return this.buffer.remaining() + this.channel.size() - this.channel.position();
+    }
+
+    /**
+     * Ensures that at least the given number of bytes are available to be
+     * read from the buffer, reading more from the channel as necessary.
+     *
+     * @param length the number of bytes required
+     * @return {@code true} if the bytes are available, {@code false} if the
+     * channel ended first
+     * @throws IOException if an error occurs reading from the channel
+     */
+    private boolean fill(int length) throws IOException {
+        if (this.buffer.remaining() >= length) {
+            return true;
+        }
+
+        if (this.buffer.capacity() < length) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(
+                    Math.max(length, this.buffer.capacity() * 2));
+            grown.put(this.buffer);
+            this.buffer = grown;
+        } else {
+            this.buffer.compact();
+        }
+
+        while (this.buffer.position() < length) {
+            if (this.channel.read(this.buffer) < 0) {
+                this.buffer.flip();
+                return false;
+            }
+        }
+
+        this.buffer.flip();
+        return true;
+    }
+}
@@ -0,0 +1,407 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represents a flat-file storage medium which partitions the data across a
+ * number of smaller files, or "shards", in a single directory rather than
+ * keeping every entry in one file.
+ *
+ * <p>Each {@link GeneratedData} item is assigned a shard by hashing its key
+ * (the first {@link String} element). Only the shards that were modified by a
+ * call to {@link #storeData(Collection)} are rewritten and a query only reads
+ * the single shard which may contain the key being searched for.</p>
+ *
+ * <p>If the storage is created with a parallelism greater than {@code 1}, the
+ * dirty shards are serialized and written concurrently on a
+ * {@link ForkJoinPool}.</p>
+ *
+ * <p>Like the single file storages, the data passed to
+ * {@link #storeData(Collection)} is removed again by
+ * {@link #cleanupIter(Collection)}, which restores the shards it modified to
+ * the initial dataset so that every iteration stores into the same amount of
+ * data.</p>
+ */
+public abstract class ShardedFileStorage implements Storage {
+    /**
+     * The shard count which places every key into its own file, named after
+     * the key, rather than hashing keys into a fixed number of files
+     */
+    public static final int ONE_FILE_PER_KEY = 0;
+
+    /**
+     * The path to the directory containing the shard files
+     */
+    protected final Path directoryPath;
+    /**
+     * The number of shards to hash the keys into, or {@link #ONE_FILE_PER_KEY}
+     */
+    private final int shardCount;
+    /**
+     * The number of threads used to flush the dirty shards
+     */
+    private final int parallelism;
+
+    /**
+     * The current contents of each shard, mapped by the shard ID
+     */
+    private final Map<String, Map<String, GeneratedData>> shards = new HashMap<>();
+    /**
+     * The IDs of the shards which have been modified since they were last
+     * written to the file system
+     */
+    private final Set<String> dirtyShards = new LinkedHashSet<>();
+    /**
+     * The records of the initial dataset, mapped by their key, which the
+     * shards are restored to after each iteration
+     */
+    private final Map<String, GeneratedData> dataset = new HashMap<>();
+
+    /**
+     * The pool used to flush the dirty shards concurrently, or {@code null} if
+     * the shards are flushed on the benchmark thread
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Creates a new sharded storage which writes its shards into a directory
+     * with the given name in the current working directory.
+     *
+     * @param directoryName the name of the directory containing the shards
+     * @param shardCount    the number of shards to partition the data into, or
+     *                      {@link #ONE_FILE_PER_KEY}
+     * @param parallelism   the number of threads used to flush the dirty
+     *                      shards
+     */
+    protected ShardedFileStorage(@NonNull String directoryName, int shardCount,
+                                 int parallelism) {
+        if (shardCount < 0) {
+            throw new IllegalArgumentException("Shard count cannot be negative");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        String workingDir = System.getProperty("user.dir");
+        requireNonNull(workingDir, "Cannot resolve current working directory");
+
+        this.directoryPath = Paths.get(workingDir, directoryName);
+        this.shardCount = shardCount;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Obtains the description of the shard count to be included in the name of
+     * this storage.
+     *
+     * @return the shard count description
+     */
+    protected @NonNull String describeShardCount() {
+        String description = this.shardCount == ONE_FILE_PER_KEY ?
+                "per key" : String.valueOf(this.shardCount);
+        if (this.parallelism > 1) {
+            description += ", " + this.parallelism + " threads";
+        }
+
+        return description;
+    }
+
+    /**
+     * Obtains the file extension, excluding the {@code .}, which is used to
+     * name the shard files.
+     *
+     * @return the shard file extension
+     */
+    protected abstract @NonNull String getFileExtension();
+
+    /**
+     * Serializes the entire contents of a single shard into the contents of
+     * its file.
+     *
+     * @param shardData the data contained in the shard
+     * @return the contents of the shard file
+     * @throws Exception if any error occurs serializing the shard
+     */
+    protected abstract @NonNull String serializeShard(@NonNull Collection<GeneratedData> shardData)
+            throws Exception;
+
+    /**
+     * Reads the shard at the given path and determines whether it contains
+     * an entry for the given key.
+     *
+     * @param shardPath the path to the shard file
+     * @param key       the key to search for
+     * @return {@code true} if the shard contains the key
+     * @throws Exception if any error occurs reading the shard
+     */
+    protected abstract boolean readShard(@NonNull Path shardPath,
+                                         @NonNull String key) throws Exception;
+
+    /**
+     * Reads every entry contained in the shard at the given path.
+     *
+     * @param shardPath the path to the shard file
+     * @return the data contained in the shard
+     * @throws Exception if any error occurs reading the shard
+     */
+    protected abstract @NonNull Collection<GeneratedData> loadShard(@NonNull Path shardPath)
+            throws Exception;
+
+    /**
+     * Determines the ID of the shard which the given key belongs to.
+     *
+     * @param key the key of the data
+     * @return the shard ID
+     */
+    private @NonNull String getShardId(@NonNull String key) {
+        if (this.shardCount == ONE_FILE_PER_KEY) {
+            return key;
+        }
+
+        return String.valueOf(Math.floorMod(key.hashCode(), this.shardCount));
+    }
+
+    /**
+     * Resolves the path to the file of the shard with the given ID.
+     *
+     * @param shardId the shard ID
+     * @return the path to the shard file
+     */
+    private @NonNull Path getShardPath(@NonNull String shardId) {
+        return this.directoryPath.resolve(shardId + "." + this.getFileExtension());
+    }
+
+    /**
+     * Writes the given contents to the shard file at the given path, replacing
+     * any previous contents.
+     *
+     * @param shardPath the path to the shard file
+     * @param contents  the serialized contents of the shard
+     * @throws Exception if any error occurs writing the shard
+     */
+    private static void writeShard(@NonNull Path shardPath, @NonNull String contents)
+            throws Exception {
+        try (BufferedWriter bw = Files.newBufferedWriter(shardPath)) {
+            bw.write(contents);
+        }
+    }
+
+    /**
+     * Inserts the given data into their respective shards and marks those
+     * shards as dirty.
+     *
+     * @param dataCollection the data to insert
+     */
+    private void insert(@NonNull Collection<GeneratedData> dataCollection) {
+        for (GeneratedData data : dataCollection) {
+            String key = data.getDataAt(0, String.class);
+            String shardId = this.getShardId(key);
+
+            this.shards.computeIfAbsent(shardId, k -> new LinkedHashMap<>())
+                    .put(key, data);
+            this.dirtyShards.add(shardId);
+        }
+    }
+
+    /**
+     * Writes all of the dirty shards to the file system, deleting the files of
+     * the dirty shards which no longer contain any data.
+     *
+     * <p>Shards flushed concurrently are serialized and written within the
+     * same task, so the time spent waiting for all of the tasks is marked as
+     * the {@link Phase#WRITE} phase.</p>
+     *
+     * @throws Exception if any error occurs writing the shards
+     */
+    protected void flushDirtyShards() throws Exception {
+        Iterator<String> it = this.dirtyShards.iterator();
+        while (it.hasNext()) {
+            String shardId = it.next();
+            if (requireNonNull(this.shards.get(shardId)).isEmpty()) {
+                this.shards.remove(shardId);
+                Files.deleteIfExists(this.getShardPath(shardId));
+                it.remove();
+            }
+        }
+
+        long time = PhaseTimer.start();
+        if (this.pool == null) {
+            for (String shardId : this.dirtyShards) {
+                Map<String, GeneratedData> shard = requireNonNull(this.shards.get(shardId));
+                String contents = this.serializeShard(shard.values());
+                time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+                writeShard(this.getShardPath(shardId), contents);
+                time = PhaseTimer.mark(Phase.WRITE, time);
+            }
+        } else {
+            List<Callable<Void>> tasks = new ArrayList<>(this.dirtyShards.size());
+            for (String shardId : this.dirtyShards) {
+                Map<String, GeneratedData> shard = requireNonNull(this.shards.get(shardId));
+                Path shardPath = this.getShardPath(shardId);
+                tasks.add(() -> {
+                    writeShard(shardPath, this.serializeShard(shard.values()));
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : this.pool.invokeAll(tasks)) {
+                future.get();
+            }
+            PhaseTimer.mark(Phase.WRITE, time);
+        }
+
+        this.dirtyShards.clear();
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
+        Files.createDirectory(this.directoryPath);
+        if (this.parallelism > 1) {
+            this.pool = new ForkJoinPool(this.parallelism);
+        }
+
+        for (GeneratedData data : dataset) {
+            this.dataset.put(data.getDataAt(0, String.class), data);
+        }
+
+        this.insert(dataset);
+        this.flushDirtyShards();
+    }
+
+    @Override
+    public void setupIter() {
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        this.insert(dataCollection);
+        this.flushDirtyShards();
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        String key = randomData.getDataAt(0, String.class);
+        Path shardPath = this.getShardPath(this.getShardId(key));
+        if (!Files.exists(shardPath)) {
+            return false;
+        }
+
+        long time = PhaseTimer.start();
+        boolean found = this.readShard(shardPath, key);
+        PhaseTimer.mark(Phase.PARSE, time);
+
+        return found;
+    }
+
+    @Override
+    public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection)
+            throws Exception {
+        for (GeneratedData data : dataCollection) {
+            String key = data.getDataAt(0, String.class);
+            String shardId = this.getShardId(key);
+            Map<String, GeneratedData> shard = this.shards.get(shardId);
+            if (shard == null) {
+                continue;
+            }
+
+            GeneratedData initial = this.dataset.get(key);
+            if (initial == null) {
+                shard.remove(key);
+            } else {
+                shard.put(key, initial);
+            }
+            this.dirtyShards.add(shardId);
+        }
+
+        this.flushDirtyShards();
+    }
+
+    @Override
+    public @NonNull Collection<Path> getSnapshotPaths() {
+        return Collections.singletonList(this.directoryPath);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Shard files which cannot be read, such as one which was being
+     * rewritten when the previous process was terminated, are skipped so that
+     * only the data in those shards is lost.</p>
+     */
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        if (this.parallelism > 1) {
+            this.pool = new ForkJoinPool(this.parallelism);
+        }
+
+        List<GeneratedData> dataset = new ArrayList<>();
+        String extension = "." + this.getFileExtension();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directoryPath)) {
+            for (Path shardPath : stream) {
+                if (!shardPath.getFileName().toString().endsWith(extension)) {
+                    continue;
+                }
+
+                try {
+                    dataset.addAll(this.loadShard(shardPath));
+                } catch (Exception e) {
+                    // Torn shard, its data is lost
+                }
+            }
+        }
+
+        for (GeneratedData data : dataset) {
+            this.dataset.put(data.getDataAt(0, String.class), data);
+        }
+
+        this.insert(dataset);
+        this.dirtyShards.clear();
+
+        return dataset;
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        StorageFiles.deleteDirectory(this.directoryPath);
+
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+
+        this.shards.clear();
+        this.dirtyShards.clear();
+        this.dataset.clear();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Represents a JSON storage medium which partitions the data into a number of
+ * JSON shard files, each written in the same format as {@link JsonStorage}.
+ */
+public class ShardedJsonStorage extends ShardedFileStorage {
+    /**
+     * Creates a new sharded JSON storage.
+     *
+     * @param shardCount the number of shard files to hash the keys into, or
+     *                   {@link ShardedFileStorage#ONE_FILE_PER_KEY}
+     */
+    public ShardedJsonStorage(int shardCount) {
+        this(shardCount, 1);
+    }
+
+    /**
+     * Creates a new sharded JSON storage which flushes its dirty shards
+     * concurrently.
+     *
+     * @param shardCount  the number of shard files to hash the keys into, or
+     *                    {@link ShardedFileStorage#ONE_FILE_PER_KEY}
+     * @param parallelism the number of threads used to flush the dirty shards
+     */
+    public ShardedJsonStorage(int shardCount, int parallelism) {
+        super("test-json-shards", shardCount, parallelism);
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "JSON Sharded (" + this.describeShardCount() + ")";
+    }
+
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return true;
+    }
+
+    @Override
+    protected @NonNull String getFileExtension() {
+        return "json";
+    }
+
+    @Override
+    protected @NonNull String serializeShard(@NonNull Collection<GeneratedData> shardData) {
+        JsonObject root = new JsonObject();
+        JsonStorage.toJson(root, shardData);
+
+        return root.toString();
+    }
+
+    @Override
+    protected boolean readShard(@NonNull Path shardPath, @NonNull String key)
+            throws Exception {
+        Gson gson = new Gson();
+        try (BufferedReader br = Files.newBufferedReader(shardPath)) {
+            JsonObject root = gson.fromJson(br, JsonObject.class);
+            return root.getAsJsonObject(key) != null;
+        }
+    }
+
+    @Override
+    protected @NonNull Collection<GeneratedData> loadShard(@NonNull Path shardPath)
+            throws Exception {
+        Gson gson = new Gson();
+        try (BufferedReader br = Files.newBufferedReader(shardPath)) {
+            JsonObject root = gson.fromJson(br, JsonObject.class);
+            return root == null ? Collections.emptyList() : JsonStorage.fromJson(root);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents a YAML storage medium which partitions the data into a number of
+ * YAML shard files, each written in the same format as {@link YamlStorage}.
+ */
+public class ShardedYamlStorage extends ShardedFileStorage {
+    /**
+     * Creates a new sharded YAML storage.
+     *
+     * @param shardCount the number of shard files to hash the keys into, or
+     *                   {@link ShardedFileStorage#ONE_FILE_PER_KEY}
+     */
+    public ShardedYamlStorage(int shardCount) {
+        this(shardCount, 1);
+    }
+
+    /**
+     * Creates a new sharded YAML storage which flushes its dirty shards
+     * concurrently.
+     *
+     * @param shardCount  the number of shard files to hash the keys into, or
+     *                    {@link ShardedFileStorage#ONE_FILE_PER_KEY}
+     * @param parallelism the number of threads used to flush the dirty shards
+     */
+    public ShardedYamlStorage(int shardCount, int parallelism) {
+        super("test-yml-shards", shardCount, parallelism);
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "YAML Sharded (" + this.describeShardCount() + ")";
+    }
+
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return true;
+    }
+
+    @Override
+    protected @NonNull String getFileExtension() {
+        return "yml";
+    }
+
+    @Override
+    protected @NonNull String serializeShard(@NonNull Collection<GeneratedData> shardData) {
+        Map<String, Object> root = new LinkedHashMap<>(shardData.size());
+        YamlStorage.toYamlMap(root, shardData);
+
+        Yaml yaml = new Yaml();
+        return yaml.dump(root);
+    }
+
+    @Override
+    protected boolean readShard(@NonNull Path shardPath, @NonNull String key)
+            throws Exception {
+        Yaml yaml = new Yaml();
+        try (BufferedReader br = Files.newBufferedReader(shardPath)) {
+            Map<String, Object> root = yaml.load(br);
+            return root.get(key) != null;
+        }
+    }
+
+    @Override
+    protected @NonNull Collection<GeneratedData> loadShard(@NonNull Path shardPath)
+            throws Exception {
+        Yaml yaml = new Yaml();
+        try (BufferedReader br = Files.newBufferedReader(shardPath)) {
+            Map<String, Object> root = yaml.load(br);
+            return root == null ? Collections.emptyList() : YamlStorage.fromYamlMap(root);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Represents an SQLite data storage medium which uses transactions and
+ * indexing like {@link SqliteTransactionStorage}, but keeps a single
+ * connection open for the entire benchmark and prepares each statement on it
+ * only once, so the store and query times do not include opening the
+ * database file or parsing and planning the SQL.
+ */
+public class SqliteCachedStorage extends SqliteTransactionStorage {
+    /**
+     * The connection and statements which are reused by every store and
+     * query, opened by the first one
+     */
+    protected CachedStatements statements;
+
+    @Override
+    public @NonNull String getName() {
+        return "SQLite Cached";
+    }
+
+    /**
+     * Obtains the connection and statements which are reused, opening them if
+     * they have not been opened yet.
+     *
+     * @return the cached statements
+     * @throws Exception if the connection could not be opened
+     */
+    protected @NonNull CachedStatements getStatements() throws Exception {
+        if (this.statements == null) {
+            this.statements = new CachedStatements(this.dataSource, this.getConnectionWait());
+        }
+
+        return this.statements;
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        List<Field> fields = this.schema.getFields();
+        String sql = "REPLACE INTO `test` (" + JdbcRecords.columns(fields) + ") " +
+                "VALUES (" + JdbcRecords.placeholders(fields.size()) + ")";
+        CachedStatements statements = this.getStatements();
+        Connection con = statements.getConnection();
+        con.setAutoCommit(false);
+
+        try {
+            long time = PhaseTimer.start();
+            PreparedStatement ps = statements.prepare(sql);
+            time = PhaseTimer.mark(Phase.PREPARE, time);
+            for (GeneratedData data : dataCollection) {
+                for (int i = 0; i < fields.size(); i++) {
+                    JdbcRecords.bind(ps, i + 1, data, i);
+                }
+                time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+                ps.executeUpdate();
+                time = PhaseTimer.mark(Phase.WRITE, time);
+            }
+
+            con.commit();
+            PhaseTimer.mark(Phase.COMMIT, time);
+        } catch (Exception e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
+        String str = randomData.getDataAt(0, String.class);
+        String sql = "SELECT " + JdbcRecords.columns(this.schema.getValueFields()) +
+                " FROM `test` WHERE `str` = ?";
+        long time = PhaseTimer.start();
+        PreparedStatement ps = this.getStatements().prepare(sql);
+        time = PhaseTimer.mark(Phase.PREPARE, time);
+
+        ps.setString(1, str);
+        try (ResultSet rs = ps.executeQuery()) {
+            time = PhaseTimer.mark(Phase.WRITE, time);
+
+            boolean found = rs.next();
+            PhaseTimer.mark(Phase.PARSE, time);
+
+            return found;
+        }
+    }
+
+    @Override
+    public void cleanup() throws Exception {
+        if (this.statements != null) {
+            this.statements.close();
+            this.statements = null;
+        }
+
+        super.cleanup();
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Represents an SQLite data storage medium which uses transactions and
+ * indexing like {@link SqliteTransactionStorage}, but replaces the rows in
+ * chunks using a single multi-row {@code REPLACE} statement for each chunk
+ * rather than a statement for every row.
+ *
+ * <p>The number of rows in each statement is limited so that it does not
+ * bind more than {@link #MAX_PARAMETERS} parameters.</p>
+ */
+public class SqliteMultiRowStorage extends SqliteTransactionStorage {
+    /**
+     * The largest number of parameters that can be bound to a statement,
+     * which is the default limit since SQLite 3.32.0. Older versions, such as
+     * the ones bundled with old Spigot versions, only allow 999 parameters.
+     */
+    protected static final int MAX_PARAMETERS = 32766;
+
+    /**
+     * The largest number of rows inserted by each statement
+     */
+    protected final int rowsPerStatement;
+
+    /**
+     * Creates a new SQLite storage which replaces the given number of rows
+     * with each statement.
+     *
+     * @param rowsPerStatement the largest number of rows replaced by each
+     *                         statement
+     */
+    public SqliteMultiRowStorage(int rowsPerStatement) {
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "SQLite Multi-Row (" + this.rowsPerStatement + " rows)";
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        String replace = "REPLACE INTO `test` (" + JdbcRecords.columns(this.schema.getFields()) + ") ";
+        try (Connection con = this.getConnection()) {
+            con.setAutoCommit(false);
+
+            try {
+                long time = PhaseTimer.start();
+                time = this.insertRows(con, replace, dataCollection, time);
+
+                con.commit();
+                PhaseTimer.mark(Phase.COMMIT, time);
+            } catch (Exception e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Inserts the given data in chunks using multi-row statements, each of
+     * which starts with the given clause followed by the {@code VALUES} of up
+     * to {@link #rowsPerStatement} rows.
+     *
+     * @param con            the connection to execute the statements on
+     * @param insert         the clause preceding the {@code VALUES}, such as
+     *                       {@code INSERT INTO `test` (...)}
+     * @param dataCollection the data to insert
+     * @param time           the timestamp at which the current phase started
+     * @return the timestamp at which the next phase starts
+     * @throws Exception if any error occurs executing the statements
+     */
+    protected long insertRows(@NonNull Connection con, @NonNull String insert,
+                              @NonNull Collection<GeneratedData> dataCollection,
+                              long time) throws Exception {
+        List<Field> fields = this.schema.getFields();
+        int chunkSize = Math.min(this.rowsPerStatement, MAX_PARAMETERS / fields.size());
+        List<GeneratedData> rows = new ArrayList<>(dataCollection);
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            List<GeneratedData> chunk = rows.subList(start,
+                    Math.min(start + chunkSize, rows.size()));
+            String sql = insert + "VALUES " + JdbcRecords.rows(fields.size(), chunk.size());
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                time = PhaseTimer.mark(Phase.PREPARE, time);
+                int parameterIndex = 1;
+                for (GeneratedData data : chunk) {
+                    for (int i = 0; i < fields.size(); i++) {
+                        JdbcRecords.bind(ps, parameterIndex++, data, i);
+                    }
+                }
+                time = PhaseTimer.mark(Phase.SERIALIZE, time);
+
+                ps.executeUpdate();
+            }
+            time = PhaseTimer.mark(Phase.WRITE, time);
+        }
+
+        return time;
+    }
+}
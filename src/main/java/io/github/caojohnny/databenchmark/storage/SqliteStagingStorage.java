@@ -0,0 +1,101 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Represents an SQLite data storage medium which bulk loads the rows into a
+ * temporary staging table kept in memory using multi-row statements, and then
+ * merges the staging table into the indexed table with a single
+ * {@code INSERT INTO ... SELECT ... ON CONFLICT DO UPDATE} statement, so that
+ * the index of the table is only updated by one statement.
+ *
+ * <p>Upserts using {@code ON CONFLICT} require SQLite 3.24.0 or newer.</p>
+ */
+public class SqliteStagingStorage extends SqliteMultiRowStorage {
+    public SqliteStagingStorage() {
+        // As many rows per statement as the parameter limit allows
+        super(Integer.MAX_VALUE);
+
+        SQLiteConfig config = new SQLiteConfig();
+        config.setPragma(SQLiteConfig.Pragma.TEMP_STORE, "MEMORY");
+
+        this.dataSource = new SQLiteDataSource(config);
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return "SQLite Staging";
+    }
+
+    @Override
+    public void storeData(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        List<Field> fields = this.schema.getFields();
+        String columns = JdbcRecords.columns(fields);
+        String createStaging = "CREATE TEMP TABLE IF NOT EXISTS `staging` AS " +
+                "SELECT * FROM `test` WHERE 0";
+        String insert = "INSERT INTO `staging` (" + columns + ") ";
+        // The WHERE clause is required to parse ON CONFLICT after a SELECT
+        String merge = "INSERT INTO `test` (" + columns + ") " +
+                "SELECT " + columns + " FROM `staging` WHERE true " +
+                "ON CONFLICT (`" + fields.get(0).getName() + "`) DO UPDATE SET " +
+                getExcludedAssignments(this.schema.getValueFields());
+        String clearStaging = "DELETE FROM `staging`";
+        try (Connection con = this.getConnection()) {
+            con.setAutoCommit(false);
+
+            try {
+                long time = PhaseTimer.start();
+                try (PreparedStatement ps = con.prepareStatement(createStaging)) {
+                    ps.executeUpdate();
+                }
+                time = PhaseTimer.mark(Phase.PREPARE, time);
+
+                time = this.insertRows(con, insert, dataCollection, time);
+
+                try (PreparedStatement ps = con.prepareStatement(merge)) {
+                    time = PhaseTimer.mark(Phase.PREPARE, time);
+                    ps.executeUpdate();
+                }
+                try (PreparedStatement ps = con.prepareStatement(clearStaging)) {
+                    ps.executeUpdate();
+                }
+                time = PhaseTimer.mark(Phase.WRITE, time);
+
+                con.commit();
+                PhaseTimer.mark(Phase.COMMIT, time);
+            } catch (Exception e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Lists an assignment of the value which conflicted to each of the given
+     * fields, separated by commas, for the {@code DO UPDATE} clause of an
+     * upsert.
+     *
+     * @param fields the fields
+     * @return the assignment list
+     */
+    private static @NonNull String getExcludedAssignments(@NonNull List<Field> fields) {
+        StringJoiner assignments = new StringJoiner(", ");
+        for (Field field : fields) {
+            assignments.add("`" + field.getName() + "` = excluded.`" + field.getName() + "`");
+        }
+
+        return assignments.toString();
+    }
+}
@@ -1,7 +1,15 @@
 package io.github.caojohnny.databenchmark.storage;
 
+import io.github.caojohnny.databenchmark.generator.Field;
 import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.metrics.Timer;
+import io.github.caojohnny.databenchmark.statistics.BenchmarkResult;
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sqlite.SQLiteDataSource;
 
 import javax.sql.DataSource;
@@ -11,7 +19,12 @@ import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
@@ -25,6 +38,15 @@ public class SqliteStorage implements Storage {
      * The {@link DataSource} for the SQLite connection
      */
     protected DataSource dataSource;
+    /**
+     * The timer of the time spent waiting to obtain a connection, which is
+     * looked up by {@link #getConnectionWait()}
+     */
+    private Timer connectionWait;
+    /**
+     * The schema of the records stored in the table
+     */
+    protected RecordSchema schema = RecordSchema.DEFAULT;
 
     /**
      * The file system path to the SQLite database file
@@ -40,11 +62,46 @@ public class SqliteStorage implements Storage {
         this.databasePath = Paths.get(workingDir, "test.db");
     }
 
+    /**
+     * Obtains the timer of the time spent waiting to obtain a connection,
+     * which is looked up the first time it is needed.
+     *
+     * @return the timer of the connection waits
+     */
+    protected @NonNull Timer getConnectionWait() {
+        if (this.connectionWait == null) {
+            this.connectionWait = JdbcRecords.getConnectionWait(this);
+        }
+
+        return this.connectionWait;
+    }
+
+    /**
+     * Obtains a connection from the {@link #dataSource}, recording the time
+     * spent waiting for it.
+     *
+     * @return the connection
+     * @throws SQLException if the connection could not be opened
+     */
+    protected @NonNull Connection getConnection() throws SQLException {
+        return JdbcRecords.getConnection(this.dataSource, this.getConnectionWait());
+    }
+
     @Override
     public @NonNull String getName() {
         return "SQLite";
     }
 
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return true;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
     @Override
     public void setup(@NonNull Collection<GeneratedData> dataset)
             throws Exception {
@@ -54,30 +111,25 @@ public class SqliteStorage implements Storage {
         SQLiteDataSource dataSource = (SQLiteDataSource) this.dataSource;
         dataSource.setUrl(jdbcUrl);
 
-        String createTable = "CREATE TABLE IF NOT EXISTS `test` (" +
-                "`str` VARCHAR(36), " +
-                "`int` INT, " +
-                "`double` DOUBLE, " +
-                "`float` FLOAT, " +
-                "`long` BIGINT" +
-                ")";
-        try (Connection con = this.dataSource.getConnection();
+        this.schema = RecordSchema.of(dataset);
+        String createTable = JdbcRecords.createTable(this.schema, false);
+        try (Connection con = this.getConnection();
              PreparedStatement ps = con.prepareStatement(createTable)) {
             ps.executeUpdate();
         }
 
-        String replace = "REPLACE INTO `test` (`str`, `int`, `double`, `float`, `long`) VALUES (?, ?, ?, ?, ?)";
-        try (Connection con = this.dataSource.getConnection()) {
+        List<Field> fields = this.schema.getFields();
+        String replace = "REPLACE INTO `test` (" + JdbcRecords.columns(fields) + ") " +
+                "VALUES (" + JdbcRecords.placeholders(fields.size()) + ")";
+        try (Connection con = this.getConnection()) {
             con.setAutoCommit(false);
 
             try {
                 for (GeneratedData data : dataset) {
                     try (PreparedStatement ps = con.prepareStatement(replace)) {
-                        ps.setString(1, data.getDataAt(0, String.class));
-                        ps.setInt(2, data.getDataAt(1, int.class));
-                        ps.setDouble(3, data.getDataAt(2, double.class));
-                        ps.setFloat(4, data.getDataAt(3, float.class));
-                        ps.setLong(5, data.getDataAt(4, long.class));
+                        for (int i = 0; i < fields.size(); i++) {
+                            JdbcRecords.bind(ps, i + 1, data, i);
+                        }
 
                         ps.executeUpdate();
                     }
@@ -99,18 +151,22 @@ public class SqliteStorage implements Storage {
     @Override
     public void storeData(@NonNull Collection<GeneratedData> dataCollection)
             throws Exception {
-        String sql = "REPLACE INTO `test` (`str`, `int`, `double`, `float`, `long`) VALUES (?, ?, ?, ?, ?)";
-        try (Connection con = this.dataSource.getConnection()) {
+        List<Field> fields = this.schema.getFields();
+        String sql = "REPLACE INTO `test` (" + JdbcRecords.columns(fields) + ") " +
+                "VALUES (" + JdbcRecords.placeholders(fields.size()) + ")";
+        try (Connection con = this.getConnection()) {
+            long time = PhaseTimer.start();
             for (GeneratedData data : dataCollection) {
                 try (PreparedStatement ps = con.prepareStatement(sql)) {
-                    ps.setString(1, data.getDataAt(0, String.class));
-                    ps.setInt(2, data.getDataAt(1, int.class));
-                    ps.setDouble(3, data.getDataAt(2, double.class));
-                    ps.setFloat(4, data.getDataAt(3, float.class));
-                    ps.setLong(5, data.getDataAt(4, long.class));
+                    time = PhaseTimer.mark(Phase.PREPARE, time);
+                    for (int i = 0; i < fields.size(); i++) {
+                        JdbcRecords.bind(ps, i + 1, data, i);
+                    }
+                    time = PhaseTimer.mark(Phase.SERIALIZE, time);
 
                     ps.executeUpdate();
                 }
+                time = PhaseTimer.mark(Phase.WRITE, time);
             }
         }
     }
@@ -118,21 +174,42 @@ public class SqliteStorage implements Storage {
     @Override
     public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
         String str = randomData.getDataAt(0, String.class);
-        String sql = "SELECT `int`, `double`, `float`, `long` FROM `test` WHERE `str` = ?";
-        try (Connection con = this.dataSource.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, str);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
+        String sql = "SELECT " + JdbcRecords.columns(this.schema.getValueFields()) +
+                " FROM `test` WHERE `str` = ?";
+        try (Connection con = this.getConnection()) {
+            long time = PhaseTimer.start();
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                time = PhaseTimer.mark(Phase.PREPARE, time);
+
+                ps.setString(1, str);
+                try (ResultSet rs = ps.executeQuery()) {
+                    time = PhaseTimer.mark(Phase.WRITE, time);
+
+                    boolean found = rs.next();
+                    PhaseTimer.mark(Phase.PARSE, time);
+
+                    return found;
+                }
             }
         }
     }
 
+    @Override
+    public boolean supportsRecordViews() {
+        return true;
+    }
+
+    @Override
+    public @Nullable GeneratedData queryRecord(@NonNull GeneratedData randomData) throws Exception {
+        return JdbcRecordView.query(this.dataSource, this.getConnectionWait(),
+                randomData.getDataAt(0, String.class), this.schema);
+    }
+
     @Override
     public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection)
             throws Exception {
         /* String sql = "DELETE FROM `test` WHERE `str` = ?";
-        try (Connection con = this.dataSource.getConnection()) {
+        try (Connection con = this.getConnection()) {
             con.setAutoCommit(false);
 
             try {
@@ -153,6 +230,63 @@ public class SqliteStorage implements Storage {
         } */
     }
 
+    /**
+     * Collects the space amplification of the database, which is the size of
+     * its file relative to the logical size of the records it contains, then
+     * measures the time taken to reopen the database and query a record,
+     * comparable to the time taken by {@link BitcaskStorage} to rebuild its
+     * index.
+     */
+    @Override
+    public @NonNull Map<String, Double> collectStatistics() throws Exception {
+        Map<String, Double> statistics = new LinkedHashMap<>();
+
+        List<GeneratedData> records = JdbcRecords.selectAll(this.dataSource, this.getConnectionWait(), this.schema);
+        statistics.put("Space amplification",
+                (double) Files.size(this.databasePath) / IoStatistics.getLogicalBytes(records));
+
+        if (!records.isEmpty()) {
+            String sql = "SELECT " + JdbcRecords.columns(this.schema.getValueFields()) +
+                    " FROM `test` WHERE `str` = ?";
+            long reopenStart = System.nanoTime();
+            try (Connection con = this.getConnection();
+                 PreparedStatement ps = con.prepareStatement(sql)) {
+                ps.setString(1, records.get(0).getDataAt(0, String.class));
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+            }
+            long reopenNs = System.nanoTime() - reopenStart;
+            statistics.put("Reopen ms", (double) reopenNs / BenchmarkResult.NS_PER_MS);
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public @NonNull Collection<Path> getSnapshotPaths() {
+        return Collections.singletonList(this.databasePath);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only datasets of the {@link RecordSchema#DEFAULT} schema are
+     * recovered, so the schema left behind by a previous setup is reset to
+     * it.</p>
+     */
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        String path = this.databasePath.toAbsolutePath().toString();
+        String jdbcUrl = "jdbc:sqlite:" + path;
+
+        SQLiteDataSource dataSource = (SQLiteDataSource) this.dataSource;
+        dataSource.setUrl(jdbcUrl);
+
+        this.schema = RecordSchema.DEFAULT;
+        return JdbcRecords.selectAll(this.dataSource, this.getConnectionWait(), this.schema);
+    }
+
     @Override
     public void cleanup() throws Exception {
         Files.delete(this.databasePath);
@@ -1,9 +1,14 @@
 package io.github.caojohnny.databenchmark.storage;
 
 import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Represents some data storage target used for persisting data.
@@ -17,6 +22,45 @@ public interface Storage {
      */
     @NonNull String getName();
 
+    /**
+     * Determines whether this storage is able to store records of the given
+     * schema. Storages which only support the {@link RecordSchema#DEFAULT}
+     * schema are skipped when benchmarking generators with another schema.
+     *
+     * @param schema the schema of the records
+     * @return {@code true} if the records can be stored
+     */
+    default boolean supports(@NonNull RecordSchema schema) {
+        return schema.equals(RecordSchema.DEFAULT);
+    }
+
+    /**
+     * Determines whether each call to {@link #storeData(Collection)} only
+     * inserts or replaces the given records, leaving every other record that
+     * was stored before in place. Such a storage may be passed only the
+     * records which have changed since they were last stored. Storages which
+     * instead rewrite the initial dataset together with the given records
+     * must always be passed all of them.
+     *
+     * @return {@code true} if the records are stored incrementally
+     */
+    default boolean isIncremental() {
+        return false;
+    }
+
+    /**
+     * Determines whether this storage sends its data over a network to a
+     * database server running in another process. The I/O counters of the
+     * benchmark process include the bytes written to and read from the
+     * socket, but not the I/O of the server itself, so they do not describe
+     * the I/O of such a storage and are not reported for it.
+     *
+     * @return {@code true} if the data is stored by a database server
+     */
+    default boolean isNetworked() {
+        return false;
+    }
+
     /**
      * Performs the one-time setup procedure. This creates any necessary
      * databases or file handles to prepare the data storage medium to be
@@ -58,6 +102,38 @@ public interface Storage {
      */
     boolean queryData(@NonNull GeneratedData randomData) throws Exception;
 
+    /**
+     * Determines whether this storage is able to query views of its records
+     * through {@link #queryRecord(GeneratedData)}.
+     *
+     * @return {@code true} if record views are supported
+     */
+    default boolean supportsRecordViews() {
+        return false;
+    }
+
+    /**
+     * Queries the record with the key of the given data from this storage
+     * medium, returning a view of the record which decodes each of its values
+     * only once it is accessed rather than decoding the entire record, or the
+     * entire storage, up front.
+     *
+     * @param randomData some random data from the {@link GeneratedData}
+     *                   collection last provided to the
+     *                   {@link #storeData(Collection)} procedure, whose
+     *                   schema is used to decode the values of the record
+     * @return a view of the stored record, or {@code null} if it could not be
+     * found
+     * @throws UnsupportedOperationException if the storage does not
+     *                                       {@link #supportsRecordViews()
+     *                                       support record views}
+     * @throws Exception                     if any error occurs performing the
+     *                                       query
+     */
+    default @Nullable GeneratedData queryRecord(@NonNull GeneratedData randomData) throws Exception {
+        throw new UnsupportedOperationException(this.getName() + " does not support record views");
+    }
+
     /**
      * Performs the cleanup subsequent to each iteration iteration.
      *
@@ -71,6 +147,50 @@ public interface Storage {
     void cleanupIter(@NonNull Collection<GeneratedData> dataCollection)
             throws Exception;
 
+    /**
+     * Collects any additional statistics specific to this storage, such as
+     * the size of the files it has written. This is called once after all of
+     * the measurement iterations have completed and prior to
+     * {@link #cleanup()}.
+     *
+     * @return the statistics mapped by their description, in the order that
+     * they should be reported
+     * @throws Exception if any error occurs collecting the statistics
+     */
+    default @NonNull Map<String, Double> collectStatistics() throws Exception {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Performs the recovery procedure in place of {@link #setup(Collection)},
+     * reattaching to the data left behind by a previous process that was
+     * terminated without calling {@link #cleanup()}, such as after a crash.
+     * After recovering, the storage may continue to be used as if it had been
+     * set up with the recovered data and must be cleaned up as usual.
+     *
+     * <p>Storages which keep their data in memory cannot reattach to it and
+     * instead recover an empty storage.</p>
+     *
+     * @return every record that could be read back from the storage
+     * @throws Exception if any error occurs performing the recovery, such as
+     *                   if the data was corrupted
+     */
+    @NonNull Collection<GeneratedData> recover() throws Exception;
+
+    /**
+     * Obtains the files and directories which contain all of the data of this
+     * storage and which are not modified while the storage is idle between
+     * operations. Copying these paths after {@link #setup(Collection)} and
+     * copying them back before {@link #recover()} restores the storage to the
+     * state it was in after the setup.
+     *
+     * @return the paths of the storage, or an empty collection if the storage
+     * cannot be snapshotted
+     */
+    default @NonNull Collection<Path> getSnapshotPaths() {
+        return Collections.emptyList();
+    }
+
     /**
      * Performs the one-time cleanup procedure at the end of the entire
      * measurement.
@@ -0,0 +1,78 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Utility methods for managing the files created by the {@link Storage}
+ * implementations.
+ */
+public final class StorageFiles {
+    private StorageFiles() {
+    }
+
+    /**
+     * Deletes the given directory along with all of its contents.
+     *
+     * @param directory the directory to delete
+     * @throws IOException if an error occurs deleting the files
+     */
+    public static void deleteDirectory(@NonNull Path directory) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (Files.isDirectory(path)) {
+                    deleteDirectory(path);
+                } else {
+                    Files.delete(path);
+                }
+            }
+        }
+
+        Files.delete(directory);
+    }
+
+    /**
+     * Copies the given file, or the given directory along with all of its
+     * contents, to the given target, which must not exist.
+     *
+     * @param source the file or directory to copy
+     * @param target the path of the copy
+     * @throws IOException if an error occurs copying the files
+     */
+    public static void copy(@NonNull Path source, @NonNull Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            Files.copy(source, target);
+            return;
+        }
+
+        Files.createDirectory(target);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(source)) {
+            for (Path path : stream) {
+                copy(path, target.resolve(path.getFileName().toString()));
+            }
+        }
+    }
+
+    /**
+     * Determines the total size of the files in the given directory and its
+     * subdirectories.
+     *
+     * @param directory the directory
+     * @return the total size of the files, in bytes
+     * @throws IOException if an error occurs reading the size of the files
+     */
+    public static long getDirectorySize(@NonNull Path directory) throws IOException {
+        long size = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                size += Files.isDirectory(path) ? getDirectorySize(path) : Files.size(path);
+            }
+        }
+
+        return size;
+    }
+}
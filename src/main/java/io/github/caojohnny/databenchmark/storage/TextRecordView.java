@@ -0,0 +1,76 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Base64;
+
+/**
+ * A view of a record read from a text format such as JSON or YAML, which keeps
+ * the text of each value as it appears in the document and only parses it
+ * into its field type once it is accessed. Byte arrays are expected to be
+ * encoded as Base64, optionally split over multiple lines.
+ */
+final class TextRecordView extends LazyRecordView {
+    /**
+     * The text of each value, indexed like the fields of the schema
+     */
+    private final String[] texts;
+
+    /**
+     * Creates a new view of the record with the given key.
+     *
+     * @param key    the key of the record
+     * @param schema the schema used to parse the values of the record
+     * @param texts  the text of each value, indexed like the fields of the
+     *               schema
+     */
+    TextRecordView(@NonNull String key, @NonNull RecordSchema schema, String @NonNull [] texts) {
+        super(key, schema);
+        this.texts = texts;
+    }
+
+    /**
+     * Finds the index of the field with the given name in the given schema.
+     *
+     * @param schema the schema
+     * @param name   the name of the field
+     * @return the index of the field, or {@code -1} if the schema has no
+     * field with that name
+     */
+    static int indexOf(@NonNull RecordSchema schema, @NonNull String name) {
+        for (int i = 0; i < schema.getLength(); i++) {
+            if (schema.getField(i).getName().equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    protected @NonNull Object decode(int index) {
+        String text = this.texts[index];
+        if (text == null) {
+            throw new IllegalStateException("Record has no value for field " +
+                    this.getSchema().getField(index).getName());
+        }
+
+        switch (this.getSchema().getField(index).getType()) {
+            case STRING:
+                return text;
+            case BYTES:
+                return Base64.getMimeDecoder().decode(text);
+            case INT:
+                return Integer.parseInt(text);
+            case LONG:
+                return Long.parseLong(text);
+            case FLOAT:
+                return Float.parseFloat(text);
+            case DOUBLE:
+                return Double.parseDouble(text);
+            default:
+                throw new IllegalStateException("Unknown field type");
+        }
+    }
+}
@@ -1,38 +1,65 @@
 package io.github.caojohnny.databenchmark.storage;
 
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.Field;
 import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import io.github.caojohnny.databenchmark.statistics.Phase;
+import io.github.caojohnny.databenchmark.statistics.PhaseTimer;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Represents a YAML flat-file that uses SnakeYAML to serialize and write data
- * to a {@link BufferedWriter}.
+ * to the file using a {@link FileWriteMode}, which by default truncates and
+ * rewrites the file in place.
  */
 public class YamlStorage implements Storage {
     /**
      * The path to the YAML file
      */
-    private final Path filePath;
+    protected final Path filePath;
+    /**
+     * The procedure used to replace the contents of the file
+     */
+    protected final FileWriteMode writeMode;
 
     /**
      * The initial dataset passed through the {@link #setup(Collection)} method
      * to include in the storage output
      */
-    private Collection<GeneratedData> dataset;
+    protected Collection<GeneratedData> dataset;
 
     public YamlStorage() {
+        this(FileWriteMode.TRUNCATE);
+    }
+
+    /**
+     * Creates a new YAML storage which replaces the contents of its file using
+     * the given procedure.
+     *
+     * @param writeMode the procedure used to write the file
+     */
+    public YamlStorage(@NonNull FileWriteMode writeMode) {
+        this.writeMode = writeMode;
+
         String workingDir = System.getProperty("user.dir");
         requireNonNull(workingDir, "Cannot resolve current working directory");
 
@@ -41,33 +68,66 @@ public class YamlStorage implements Storage {
 
     @Override
     public @NonNull String getName() {
-        return "YAML";
+        return "YAML" + this.writeMode.getNameSuffix();
+    }
+
+    @Override
+    public boolean supports(@NonNull RecordSchema schema) {
+        return true;
     }
 
     /**
      * Inserts the items in the given {@code dataCollection} into a YAML map
      * containing entries with a nested YAML map to the {@link GeneratedData}
-     * and populates the {@code yamlMap} with the root.
+     * and populates the {@code yamlMap} with the root. The nested map has an
+     * entry for each value field of the {@link RecordSchema} of the data, with
+     * byte arrays being dumped as binary scalars.
      *
      * @param yamlMap        the map to populate with the YAML entries
      * @param dataCollection the collection of data to insert into the
      *                       {@code yamlMap}
      */
-    private static void toYamlMap(@NonNull Map<String, Object> yamlMap,
-                                  @NonNull Collection<GeneratedData> dataCollection) {
+    static void toYamlMap(@NonNull Map<String, Object> yamlMap,
+                          @NonNull Collection<GeneratedData> dataCollection) {
         for (GeneratedData data : dataCollection) {
+            List<Field> fields = data.getSchema().getFields();
+
             Map<String, Object> dataSection =
                     new LinkedHashMap<>(data.getLength());
-            dataSection.put("int", data.getDataAt(1, int.class));
-            dataSection.put("double", data.getDataAt(2, double.class));
-            dataSection.put("float", data.getDataAt(3, float.class));
-            dataSection.put("long", data.getDataAt(4, long.class));
+            for (int i = 1; i < fields.size(); i++) {
+                dataSection.put(fields.get(i).getName(), data.getDataAt(i, Object.class));
+            }
 
             String str = data.getDataAt(0, String.class);
             yamlMap.put(str, dataSection);
         }
     }
 
+    /**
+     * Reads the {@link GeneratedData} of the {@link RecordSchema#DEFAULT}
+     * schema back from the entries of a YAML map, the inverse of
+     * {@link #toYamlMap(Map, Collection)}.
+     *
+     * @param yamlMap the map containing the YAML entries
+     * @return the data read from the {@code yamlMap}
+     */
+    @SuppressWarnings("unchecked")
+    static @NonNull List<GeneratedData> fromYamlMap(@NonNull Map<String, Object> yamlMap) {
+        List<GeneratedData> dataCollection = new ArrayList<>(yamlMap.size());
+        for (Map.Entry<String, Object> entry : yamlMap.entrySet()) {
+            Map<String, Object> dataSection = (Map<String, Object>) entry.getValue();
+
+            Object[] dataArray = {entry.getKey(),
+                    ((Number) dataSection.get("int")).intValue(),
+                    ((Number) dataSection.get("double")).doubleValue(),
+                    ((Number) dataSection.get("float")).floatValue(),
+                    ((Number) dataSection.get("long")).longValue()};
+            dataCollection.add(new ArrayGeneratedData(dataArray));
+        }
+
+        return dataCollection;
+    }
+
     @Override
     public void setup(@NonNull Collection<GeneratedData> dataset) throws Exception {
         Files.createFile(this.filePath);
@@ -81,34 +141,124 @@ public class YamlStorage implements Storage {
 
     @Override
     public void storeData(@NonNull Collection<GeneratedData> dataCollection) throws Exception {
+        long time = PhaseTimer.start();
         Map<String, Object> root = new LinkedHashMap<>(
                 this.dataset.size() + dataCollection.size());
         toYamlMap(root, this.dataset);
         toYamlMap(root, dataCollection);
 
         Yaml yaml = new Yaml();
-        try (BufferedWriter bw = Files.newBufferedWriter(this.filePath)) {
-            yaml.dump(root, bw);
-        }
+        String yamlString = yaml.dump(root);
+        PhaseTimer.mark(Phase.SERIALIZE, time);
+
+        this.writeMode.write(this.filePath, writer -> writer.write(yamlString));
     }
 
     @Override
     public boolean queryData(@NonNull GeneratedData randomData) throws Exception {
         String str = randomData.getDataAt(0, String.class);
 
+        long time = PhaseTimer.start();
         Yaml yaml = new Yaml();
         try (BufferedReader br = Files.newBufferedReader(this.filePath)) {
             Map<String, Object> root = yaml.load(br);
+            PhaseTimer.mark(Phase.PARSE, time);
+
             return root.get(str) != null;
         }
     }
 
+    @Override
+    public boolean supportsRecordViews() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The file is read as a stream of parser events, which skips over
+     * every other record without constructing any objects for it and stops
+     * reading once the record has been found. The values of the record are
+     * kept as the text of their scalars and only parsed once accessed.</p>
+     */
+    @Override
+    public @Nullable GeneratedData queryRecord(@NonNull GeneratedData randomData) throws Exception {
+        String str = randomData.getDataAt(0, String.class);
+        RecordSchema schema = randomData.getSchema();
+        Yaml yaml = new Yaml();
+        try (BufferedReader br = Files.newBufferedReader(this.filePath)) {
+            Iterator<Event> events = yaml.parse(br).iterator();
+            // An empty file has no root mapping
+            Event event;
+            do {
+                if (!events.hasNext()) {
+                    return null;
+                }
+
+                event = events.next();
+            } while (!event.is(Event.ID.MappingStart));
+
+            while (!(event = events.next()).is(Event.ID.MappingEnd)) {
+                if (!((ScalarEvent) event).getValue().equals(str)) {
+                    skipNode(events);
+                    continue;
+                }
+
+                String[] texts = new String[schema.getLength()];
+                events.next();
+                while (!(event = events.next()).is(Event.ID.MappingEnd)) {
+                    int index = TextRecordView.indexOf(schema, ((ScalarEvent) event).getValue());
+                    if (index < 0) {
+                        skipNode(events);
+                    } else {
+                        texts[index] = ((ScalarEvent) events.next()).getValue();
+                    }
+                }
+
+                return new TextRecordView(str, schema, texts);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Skips the events of the next node, including every node nested in it.
+     *
+     * @param events the events of the document
+     */
+    private static void skipNode(@NonNull Iterator<Event> events) {
+        int depth = 0;
+        do {
+            Event event = events.next();
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                depth++;
+            } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
     @Override
     public void cleanupIter(@NonNull Collection<GeneratedData> dataCollection) {
     }
 
+    @Override
+    public @NonNull Collection<GeneratedData> recover() throws Exception {
+        Yaml yaml = new Yaml();
+        try (BufferedReader br = Files.newBufferedReader(this.filePath)) {
+            Map<String, Object> root = yaml.load(br);
+            List<GeneratedData> dataset = root == null ?
+                    Collections.emptyList() : fromYamlMap(root);
+
+            this.dataset = Collections.unmodifiableCollection(dataset);
+            return this.dataset;
+        }
+    }
+
     @Override
     public void cleanup() throws Exception {
         Files.delete(this.filePath);
+        Files.deleteIfExists(FileWriteMode.getTempPath(this.filePath));
     }
 }
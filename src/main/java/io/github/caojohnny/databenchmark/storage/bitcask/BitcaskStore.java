@@ -0,0 +1,795 @@
+package io.github.caojohnny.databenchmark.storage.bitcask;
+
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * A log-structured hash table in the style of Bitcask.
+ *
+ * <p>Every write is appended to the active data segment and the location of
+ * the latest value of each key is kept in an in-memory hash index, so that a
+ * read requires at most a single positional read. Once the active segment
+ * grows past its maximum size it becomes immutable, a hint file listing the
+ * locations of its entries is written next to it and a new active segment is
+ * started. Hint files allow the index to be rebuilt on startup without
+ * reading the values from every segment.</p>
+ *
+ * <p>Once enough immutable segments have accumulated, they are merged in the
+ * background into a single segment containing only the live values,
+ * reclaiming the space taken by values that have since been overwritten.</p>
+ *
+ * <p>Each data segment entry is laid out as follows:</p>
+ *
+ * <pre>
+ * int    CRC32 of the remainder of the entry
+ * short  length of the key
+ * int    length of the value
+ * byte[] UTF-8 encoded key
+ * byte[] value
+ * </pre>
+ */
+public class BitcaskStore implements AutoCloseable {
+    /**
+     * The file extension of the data segments
+     */
+    private static final String DATA_EXTENSION = ".data";
+    /**
+     * The file extension of the hint files
+     */
+    private static final String HINT_EXTENSION = ".hint";
+    /**
+     * The file extension of a merged segment which has not yet been
+     * completely written
+     */
+    private static final String MERGE_EXTENSION = ".merge";
+    /**
+     * The number of bytes in the header of an entry
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES +
+            Integer.BYTES;
+    /**
+     * The size of the buffer used to batch writes to the active segment
+     */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The directory containing the segments
+     */
+    private final Path directory;
+    /**
+     * The size in bytes after which the active segment is made immutable
+     */
+    private final long maxSegmentBytes;
+    /**
+     * The number of immutable segments which triggers a background merge
+     */
+    private final int mergeThreshold;
+
+    /**
+     * The location of the latest value of each key
+     */
+    private final Map<String, Location> index = new HashMap<>();
+    /**
+     * The IDs of the segments which are no longer written to
+     */
+    private final TreeSet<Integer> immutableSegments = new TreeSet<>();
+    /**
+     * The channels used to read the values from each segment
+     */
+    private final Map<Integer, FileChannel> readChannels = new HashMap<>();
+    /**
+     * The keys and locations of the entries written to the active segment,
+     * used to produce its hint file
+     */
+    private final List<HintEntry> activeHints = new ArrayList<>();
+    /**
+     * The buffer containing entries which have not yet been written to the
+     * active segment
+     */
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+
+    /**
+     * The executor performing the background merges
+     */
+    private ExecutorService mergeExecutor;
+    /**
+     * Whether a merge is currently queued or in progress
+     */
+    private boolean merging;
+    /**
+     * The error thrown by the last background merge, rethrown by the next
+     * call to {@link #flush()}
+     */
+    private IOException mergeFailure;
+    /**
+     * The ID of the segment which is currently being appended to
+     */
+    private int activeSegment;
+    /**
+     * The channel used to append to the active segment
+     */
+    private FileChannel activeChannel;
+    /**
+     * The size of the active segment, including the buffered entries
+     */
+    private long activeSize;
+    /**
+     * The total size of the live entries referenced by the index
+     */
+    private long liveBytes;
+
+    /**
+     * Creates a new store in the given directory, which must already exist.
+     *
+     * @param directory       the directory to keep the segments in
+     * @param maxSegmentBytes the size in bytes after which a new segment is
+     *                        started
+     * @param mergeThreshold  the number of immutable segments after which
+     *                        they are merged in the background
+     */
+    public BitcaskStore(@NonNull Path directory, long maxSegmentBytes,
+                        int mergeThreshold) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    /**
+     * Opens the store, rebuilding the index from the existing segments and
+     * starting a new active segment.
+     *
+     * @param useHints {@code true} to rebuild the index from the hint files
+     *                 where they exist, {@code false} to always scan the data
+     *                 segments
+     * @throws IOException if an error occurs reading the segments
+     */
+    public synchronized void open(boolean useHints) throws IOException {
+        TreeSet<Integer> segments = new TreeSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith(MERGE_EXTENSION)) {
+                    Files.delete(path);
+                } else if (fileName.endsWith(DATA_EXTENSION)) {
+                    segments.add(Integer.parseInt(fileName.substring(0,
+                            fileName.length() - DATA_EXTENSION.length())));
+                }
+            }
+        }
+
+        for (int segment : segments) {
+            Path hintPath = this.getPath(segment, HINT_EXTENSION);
+            if (useHints && Files.exists(hintPath)) {
+                try {
+                    for (HintEntry hint : readHints(hintPath)) {
+                        this.index(hint.key, hint.location);
+                    }
+
+                    continue;
+                } catch (EOFException e) {
+                    // Incomplete hint file, fall back to scanning the segment
+                }
+            }
+
+            scanSegment(this.getPath(segment, DATA_EXTENSION), segment,
+                    (key, location, value) -> this.index(key, location));
+        }
+
+        this.immutableSegments.addAll(segments);
+        this.activeSegment = segments.isEmpty() ? 0 : segments.last() + 1;
+        this.startActiveSegment();
+
+        this.mergeExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Bitcask Merge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Writes the given value for the given key, replacing any previous value.
+     * The value is not guaranteed to be written to the segment until
+     * {@link #flush()} is called.
+     *
+     * @param key   the key
+     * @param value the value
+     * @throws IOException if an error occurs writing to the active segment
+     */
+    public synchronized void put(@NonNull String key, byte @NonNull [] value)
+            throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int entryBytes = HEADER_BYTES + keyBytes.length + value.length;
+        if (this.activeSize > 0 && this.activeSize + entryBytes > this.maxSegmentBytes) {
+            this.rotateActiveSegment();
+        }
+
+        if (this.writeBuffer.remaining() < entryBytes) {
+            this.writeBuffered();
+        }
+
+        ByteBuffer entry = entryBytes > this.writeBuffer.capacity() ?
+                ByteBuffer.allocate(entryBytes) : this.writeBuffer;
+        writeEntry(entry, keyBytes, value);
+        if (entry != this.writeBuffer) {
+            entry.flip();
+            writeFully(this.activeChannel, entry);
+        }
+
+        Location location = new Location(this.activeSegment,
+                this.activeSize + HEADER_BYTES + keyBytes.length, value.length);
+        this.activeSize += entryBytes;
+        this.activeHints.add(new HintEntry(key, location));
+        this.index(key, location);
+    }
+
+    /**
+     * Reads the latest value of the given key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key has never been written
+     * @throws IOException if an error occurs reading the segment
+     */
+    public synchronized byte @Nullable [] get(@NonNull String key)
+            throws IOException {
+        Location location = this.index.get(key);
+        if (location == null) {
+            return null;
+        }
+
+        if (location.segment == this.activeSegment) {
+            this.writeBuffered();
+        }
+
+        FileChannel channel = this.readChannels.get(location.segment);
+        if (channel == null) {
+            channel = FileChannel.open(this.getPath(location.segment, DATA_EXTENSION),
+                    StandardOpenOption.READ);
+            this.readChannels.put(location.segment, channel);
+        }
+
+        ByteBuffer value = ByteBuffer.allocate(location.length);
+        long position = location.offset;
+        while (value.hasRemaining()) {
+            int read = channel.read(value, position);
+            if (read < 0) {
+                throw new EOFException("Value extends past the end of segment " +
+                        location.segment);
+            }
+
+            position += read;
+        }
+
+        return value.array();
+    }
+
+    /**
+     * Writes all buffered entries to the active segment and forces them to
+     * the storage device.
+     *
+     * @throws IOException if an error occurs writing the segment
+     */
+    public synchronized void flush() throws IOException {
+        if (this.mergeFailure != null) {
+            IOException failure = this.mergeFailure;
+            this.mergeFailure = null;
+            throw new IOException("Background merge failed", failure);
+        }
+
+        this.writeBuffered();
+        IoStatistics.sync(this.activeChannel, false);
+    }
+
+    /**
+     * Merges all of the immutable segments into a single segment containing
+     * only their live entries.
+     *
+     * <p>The merged entries are copied without holding the lock on this store,
+     * so that reads and writes may continue while the merge is in
+     * progress.</p>
+     *
+     * @throws IOException if an error occurs reading or writing the segments
+     */
+    public void merge() throws IOException {
+        List<Integer> segments;
+        synchronized (this) {
+            segments = new ArrayList<>(this.immutableSegments);
+        }
+        if (segments.size() < 2) {
+            return;
+        }
+
+        int mergedSegment = segments.get(segments.size() - 1);
+        Path mergePath = this.getPath(mergedSegment, MERGE_EXTENSION);
+        List<HintEntry> mergedHints = new ArrayList<>();
+        List<Location> previousLocations = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(mergePath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            long[] size = {0};
+            for (int segment : segments) {
+                scanSegment(this.getPath(segment, DATA_EXTENSION), segment,
+                        (key, location, value) -> {
+                            synchronized (this) {
+                                if (!location.equals(this.index.get(key))) {
+                                    return;
+                                }
+                            }
+
+                            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                            int entryBytes = HEADER_BYTES + keyBytes.length + value.length;
+                            ByteBuffer entry = buffer;
+                            if (buffer.remaining() < entryBytes) {
+                                buffer.flip();
+                                writeFully(channel, buffer);
+                                buffer.clear();
+
+                                if (entryBytes > buffer.capacity()) {
+                                    entry = ByteBuffer.allocate(entryBytes);
+                                }
+                            }
+
+                            writeEntry(entry, keyBytes, value);
+                            if (entry != buffer) {
+                                entry.flip();
+                                writeFully(channel, entry);
+                            }
+
+                            mergedHints.add(new HintEntry(key, new Location(mergedSegment,
+                                    size[0] + HEADER_BYTES + keyBytes.length, value.length)));
+                            previousLocations.add(location);
+                            size[0] += entryBytes;
+                        });
+            }
+
+            buffer.flip();
+            writeFully(channel, buffer);
+            IoStatistics.sync(channel, true);
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < mergedHints.size(); i++) {
+                HintEntry hint = mergedHints.get(i);
+                if (previousLocations.get(i).equals(this.index.get(hint.key))) {
+                    this.index.put(hint.key, hint.location);
+                }
+            }
+
+            for (int segment : segments) {
+                FileChannel channel = this.readChannels.remove(segment);
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+
+            Files.deleteIfExists(this.getPath(mergedSegment, HINT_EXTENSION));
+            Files.move(mergePath, this.getPath(mergedSegment, DATA_EXTENSION),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeHints(this.getPath(mergedSegment, HINT_EXTENSION), mergedHints);
+
+            for (int segment : segments) {
+                if (segment != mergedSegment) {
+                    Files.delete(this.getPath(segment, DATA_EXTENSION));
+                    Files.deleteIfExists(this.getPath(segment, HINT_EXTENSION));
+                    this.immutableSegments.remove(segment);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for any queued or in-progress background merge to complete.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitMerge() throws InterruptedException {
+        try {
+            this.mergeExecutor.submit(() -> {
+            }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Obtains every key which has been written to the store.
+     *
+     * @return a copy of the keys in the index
+     */
+    public synchronized @NonNull Set<String> getKeys() {
+        return new HashSet<>(this.index.keySet());
+    }
+
+    /**
+     * Obtains the number of data segments, including the active segment.
+     *
+     * @return the number of segments
+     */
+    public synchronized int getSegmentCount() {
+        return this.immutableSegments.size() + 1;
+    }
+
+    /**
+     * Obtains the total size of the entries which are referenced by the index,
+     * that is, the size the data would occupy if there were no overwritten
+     * entries.
+     *
+     * @return the size of the live entries, in bytes
+     */
+    public synchronized long getLiveBytes() {
+        return this.liveBytes;
+    }
+
+    /**
+     * Obtains the total size of all of the data segments and hint files.
+     *
+     * @return the size of the files of this store, in bytes
+     * @throws IOException if an error occurs reading the size of the files
+     */
+    public synchronized long getDiskBytes() throws IOException {
+        long diskBytes = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+            for (Path path : stream) {
+                diskBytes += Files.size(path);
+            }
+        }
+
+        return diskBytes + this.writeBuffer.position();
+    }
+
+    /**
+     * Closes the store after waiting for any background merge to complete,
+     * writing the hint file for the active segment.
+     *
+     * @throws IOException if an error occurs writing the active segment
+     */
+    @Override
+    public void close() throws IOException {
+        this.mergeExecutor.shutdown();
+        try {
+            this.mergeExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            this.flush();
+            this.activeChannel.close();
+            writeHints(this.getPath(this.activeSegment, HINT_EXTENSION), this.activeHints);
+
+            for (FileChannel channel : this.readChannels.values()) {
+                channel.close();
+            }
+
+            this.readChannels.clear();
+            this.immutableSegments.clear();
+            this.activeHints.clear();
+            this.index.clear();
+            this.liveBytes = 0;
+        }
+    }
+
+    /**
+     * Resolves the path to a file belonging to the given segment.
+     *
+     * @param segment   the segment ID
+     * @param extension the file extension
+     * @return the path to the file
+     */
+    private @NonNull Path getPath(int segment, @NonNull String extension) {
+        return this.directory.resolve(String.format("%08d%s", segment, extension));
+    }
+
+    /**
+     * Points the index entry for the given key to the given location,
+     * updating the size of the live entries.
+     *
+     * @param key      the key
+     * @param location the location of the latest value of the key
+     */
+    private void index(@NonNull String key, @NonNull Location location) {
+        int keyBytes = key.getBytes(StandardCharsets.UTF_8).length;
+        Location previous = this.index.put(key, location);
+        if (previous != null) {
+            this.liveBytes -= HEADER_BYTES + keyBytes + previous.length;
+        }
+
+        this.liveBytes += HEADER_BYTES + keyBytes + location.length;
+    }
+
+    /**
+     * Creates the file for the active segment and opens it to be appended to.
+     *
+     * @throws IOException if an error occurs creating the segment
+     */
+    private void startActiveSegment() throws IOException {
+        this.activeChannel = FileChannel.open(this.getPath(this.activeSegment, DATA_EXTENSION),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.activeSize = 0;
+        this.activeHints.clear();
+    }
+
+    /**
+     * Makes the active segment immutable, writing its hint file, starting a
+     * new active segment and queueing a merge if the threshold has been
+     * reached.
+     *
+     * @throws IOException if an error occurs writing the segment
+     */
+    private void rotateActiveSegment() throws IOException {
+        this.flush();
+        this.activeChannel.close();
+        writeHints(this.getPath(this.activeSegment, HINT_EXTENSION), this.activeHints);
+
+        this.immutableSegments.add(this.activeSegment);
+        this.activeSegment++;
+        this.startActiveSegment();
+
+        if (!this.merging && this.immutableSegments.size() >= this.mergeThreshold) {
+            this.merging = true;
+            this.mergeExecutor.execute(() -> {
+                IOException failure = null;
+                try {
+                    this.merge();
+                } catch (IOException e) {
+                    failure = e;
+                }
+
+                synchronized (this) {
+                    this.merging = false;
+                    if (failure != null) {
+                        this.mergeFailure = failure;
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes the buffered entries to the active segment without forcing them
+     * to the storage device.
+     *
+     * @throws IOException if an error occurs writing to the segment
+     */
+    private void writeBuffered() throws IOException {
+        this.writeBuffer.flip();
+        writeFully(this.activeChannel, this.writeBuffer);
+        this.writeBuffer.clear();
+    }
+
+    /**
+     * Encodes an entry into the given buffer.
+     *
+     * @param buffer   the buffer to write to
+     * @param keyBytes the encoded key
+     * @param value    the value
+     */
+    private static void writeEntry(@NonNull ByteBuffer buffer, byte @NonNull [] keyBytes,
+                                   byte @NonNull [] value) {
+        buffer.putInt(checksum(keyBytes, value));
+        buffer.putShort((short) keyBytes.length);
+        buffer.putInt(value.length);
+        buffer.put(keyBytes);
+        buffer.put(value);
+    }
+
+    /**
+     * Computes the checksum of an entry.
+     *
+     * @param keyBytes the encoded key
+     * @param value    the value
+     * @return the CRC32 of the lengths, key and value of the entry
+     */
+    private static int checksum(byte @NonNull [] keyBytes, byte @NonNull [] value) {
+        ByteBuffer lengths = ByteBuffer.allocate(Short.BYTES + Integer.BYTES);
+        lengths.putShort((short) keyBytes.length);
+        lengths.putInt(value.length);
+
+        CRC32 crc = new CRC32();
+        crc.update(lengths.array(), 0, lengths.capacity());
+        crc.update(keyBytes, 0, keyBytes.length);
+        crc.update(value, 0, value.length);
+
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes the entire contents of the given buffer to the channel.
+     *
+     * @param channel the channel to write to
+     * @param buffer  the buffer, in read mode
+     * @throws IOException if an error occurs writing to the channel
+     */
+    private static void writeFully(@NonNull FileChannel channel,
+                                   @NonNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads every valid entry of a data segment in order, stopping at the end
+     * of the file or at the first incomplete or corrupted entry. The lengths
+     * in the header of an entry are checked against the remaining size of
+     * the file before they are allocated, so that a torn header cannot
+     * request an arbitrarily large buffer.
+     *
+     * @param path    the path to the data segment
+     * @param segment the ID of the segment
+     * @param visitor the visitor to pass each entry to
+     * @throws IOException if an error occurs reading the segment
+     */
+    private static void scanSegment(@NonNull Path path, int segment,
+                                    @NonNull EntryVisitor visitor) throws IOException {
+        long fileSize = Files.size(path);
+        try (InputStream is = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            long position = 0;
+            while (true) {
+                byte[] keyBytes;
+                byte[] value;
+                try {
+                    int expectedCrc = in.readInt();
+                    short keyLength = in.readShort();
+                    int valueLength = in.readInt();
+                    if (keyLength < 0 || valueLength < 0 ||
+                            (long) HEADER_BYTES + keyLength + valueLength > fileSize - position) {
+                        return;
+                    }
+
+                    keyBytes = new byte[keyLength];
+                    value = new byte[valueLength];
+                    in.readFully(keyBytes);
+                    in.readFully(value);
+                    if (checksum(keyBytes, value) != expectedCrc) {
+                        return;
+                    }
+                } catch (EOFException e) {
+                    return;
+                }
+
+                String key = new String(keyBytes, StandardCharsets.UTF_8);
+                long valueOffset = position + HEADER_BYTES + keyBytes.length;
+                visitor.visit(key, new Location(segment, valueOffset, value.length), value);
+                position = valueOffset + value.length;
+            }
+        }
+    }
+
+    /**
+     * Writes the given hints to a hint file.
+     *
+     * @param path  the path to the hint file
+     * @param hints the hints to write
+     * @throws IOException if an error occurs writing the file
+     */
+    private static void writeHints(@NonNull Path path, @NonNull List<HintEntry> hints)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path)))) {
+            for (HintEntry hint : hints) {
+                out.writeUTF(hint.key);
+                out.writeLong(hint.location.offset);
+                out.writeInt(hint.location.length);
+            }
+        }
+    }
+
+    /**
+     * Reads the hints from a hint file.
+     *
+     * @param path the path to the hint file
+     * @return the hints, in the order they were written
+     * @throws IOException if an error occurs reading the file
+     */
+    private static @NonNull List<HintEntry> readHints(@NonNull Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        int segment = Integer.parseInt(fileName.substring(0,
+                fileName.length() - HINT_EXTENSION.length()));
+
+        List<HintEntry> hints = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(path)))) {
+            while (true) {
+                String key;
+                try {
+                    key = in.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                hints.add(new HintEntry(key, new Location(segment, in.readLong(),
+                        in.readInt())));
+            }
+        }
+
+        return hints;
+    }
+
+    /**
+     * Receives the entries read from a data segment.
+     */
+    @FunctionalInterface
+    private interface EntryVisitor {
+        void visit(@NonNull String key, @NonNull Location location,
+                   byte @NonNull [] value) throws IOException;
+    }
+
+    /**
+     * The location of a value within the data segments.
+     */
+    private static final class Location {
+        private final int segment;
+        private final long offset;
+        private final int length;
+
+        Location(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Location)) {
+                return false;
+            }
+
+            Location location = (Location) o;
+            return this.segment == location.segment &&
+                    this.offset == location.offset &&
+                    this.length == location.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.segment, this.offset, this.length);
+        }
+    }
+
+    /**
+     * An entry of a hint file, pointing a key to the location of its value.
+     */
+    private static final class HintEntry {
+        private final String key;
+        private final Location location;
+
+        HintEntry(@NonNull String key, @NonNull Location location) {
+            this.key = key;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.caojohnny.databenchmark.storage.lsm;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A bloom filter over byte array keys, used to skip reading an
+ * {@link SSTable} which definitely does not contain a key.
+ *
+ * <p>The bit positions are derived from two 64-bit hashes of the key using
+ * double hashing.</p>
+ */
+final class BloomFilter {
+    /**
+     * The bits of the filter
+     */
+    private final long[] bits;
+    /**
+     * The number of bits set per key
+     */
+    private final int hashCount;
+
+    private BloomFilter(long @NonNull [] bits, int hashCount) {
+        this.bits = bits;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Creates an empty filter sized for the given number of keys.
+     *
+     * @param expectedKeys the number of keys which will be added
+     * @param bitsPerKey   the number of bits to allocate per key
+     * @return the new filter
+     */
+    static @NonNull BloomFilter create(int expectedKeys, int bitsPerKey) {
+        long bitCount = Math.max(64, (long) expectedKeys * bitsPerKey);
+        int hashCount = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+
+        return new BloomFilter(new long[(int) ((bitCount + 63) / 64)], hashCount);
+    }
+
+    /**
+     * Reads a filter written by {@link #write(DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the filter
+     * @throws IOException if an error occurs reading the filter
+     */
+    static @NonNull BloomFilter read(@NonNull DataInput in) throws IOException {
+        int hashCount = in.readInt();
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+
+        return new BloomFilter(bits, hashCount);
+    }
+
+    /**
+     * Adds the given key to this filter.
+     *
+     * @param key the key
+     */
+    void add(byte @NonNull [] key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        long bitCount = (long) this.bits.length * 64;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            this.bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Determines whether the given key may have been added to this filter.
+     *
+     * @param key the key
+     * @return {@code false} if the key was definitely not added
+     */
+    boolean mightContain(byte @NonNull [] key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        long bitCount = (long) this.bits.length * 64;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((this.bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes this filter to the given output.
+     *
+     * @param out the output to write to
+     * @throws IOException if an error occurs writing the filter
+     */
+    void write(@NonNull DataOutput out) throws IOException {
+        out.writeInt(this.hashCount);
+        out.writeInt(this.bits.length);
+        for (long word : this.bits) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Obtains the number of bytes taken by this filter once written.
+     *
+     * @return the written size of the filter
+     */
+    int getWrittenSize() {
+        return Integer.BYTES * 2 + this.bits.length * Long.BYTES;
+    }
+
+    /**
+     * Hashes the key with a 64-bit FNV-1a variant followed by a finalizer to
+     * mix the bits.
+     *
+     * @param key  the key
+     * @param seed the seed distinguishing the hash functions
+     * @return the hash of the key
+     */
+    private static long hash(byte @NonNull [] key, long seed) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (byte b : key) {
+            hash ^= b;
+            hash *= 0x100000001B3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,559 @@
+package io.github.caojohnny.databenchmark.storage.lsm;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A log-structured merge tree.
+ *
+ * <p>Writes are appended to a {@link WriteAheadLog} and applied to a sorted
+ * in-memory memtable. Once the memtable grows past its size limit, it is
+ * written out as an immutable {@link SSTable} and the log is discarded.
+ * Reads check the memtable followed by the tables from newest to oldest,
+ * using the bloom filter of each table to skip those which cannot contain the
+ * key.</p>
+ *
+ * <p>Tables are compacted using a size-tiered strategy: once enough adjacent
+ * tables of a similar size accumulate, they are merged into a single table
+ * retaining only the newest value of each key. Only adjacent tables are merged
+ * together so that the merged table can take the place of its inputs in the
+ * newest-to-oldest order.</p>
+ */
+public class LsmTree implements AutoCloseable {
+    /**
+     * The name of the write-ahead log file
+     */
+    private static final String WAL_NAME = "wal.log";
+    /**
+     * The file extension of the tables
+     */
+    private static final String TABLE_EXTENSION = ".sst";
+    /**
+     * The file extension of a table which has not yet been completely
+     * written
+     */
+    private static final String TEMP_EXTENSION = ".tmp";
+    /**
+     * The ratio to the smallest table of a tier within which another table is
+     * considered to be of a similar size
+     */
+    private static final double TIER_RATIO = 2.0;
+
+    /**
+     * The directory containing the log and tables
+     */
+    private final Path directory;
+    /**
+     * The approximate size in bytes of the memtable at which it is flushed
+     */
+    private final long memtableLimit;
+    /**
+     * The number of similarly sized tables which triggers a compaction
+     */
+    private final int compactionThreshold;
+
+    /**
+     * The most recent writes which have not yet been flushed
+     */
+    private final ConcurrentSkipListMap<String, byte[]> memtable =
+            new ConcurrentSkipListMap<>();
+    /**
+     * The open tables, ordered from newest to oldest
+     */
+    private volatile List<SSTable> tables = Collections.emptyList();
+
+    /**
+     * The log of the writes in the memtable
+     */
+    private WriteAheadLog wal;
+    /**
+     * The approximate size of the memtable, in bytes
+     */
+    private long memtableBytes;
+    /**
+     * The ID which will be given to the next flushed table
+     */
+    private int nextTableId;
+
+    /**
+     * The total size of the keys and values which have been written
+     */
+    private long logicalBytes;
+    /**
+     * The total size of the tables written by flushing the memtable
+     */
+    private long flushBytes;
+    /**
+     * The total size of the tables written by compactions
+     */
+    private long compactionBytes;
+    /**
+     * The number of compactions performed
+     */
+    private int compactionCount;
+    /**
+     * The number of reads which were not satisfied by the memtable and looked
+     * through the tables
+     */
+    private long tableLookups;
+    /**
+     * The total number of tables which were read from by the reads
+     */
+    private long tablesRead;
+    /**
+     * The total number of tables which were skipped by the reads due to their
+     * bloom filters
+     */
+    private long tablesSkipped;
+
+    /**
+     * Creates a new tree in the given directory, which must already exist.
+     *
+     * @param directory           the directory to keep the log and tables in
+     * @param memtableLimit       the approximate size in bytes at which the
+     *                            memtable is flushed to a table
+     * @param compactionThreshold the number of adjacent tables of a similar
+     *                            size which are compacted together
+     */
+    public LsmTree(@NonNull Path directory, long memtableLimit, int compactionThreshold) {
+        this.directory = directory;
+        this.memtableLimit = memtableLimit;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Opens the tree, opening the existing tables and replaying the
+     * write-ahead log into the memtable.
+     *
+     * @throws IOException if an error occurs reading the files
+     */
+    public synchronized void open() throws IOException {
+        List<SSTable> tables = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith(TEMP_EXTENSION)) {
+                    Files.delete(path);
+                } else if (fileName.endsWith(TABLE_EXTENSION)) {
+                    int id = Integer.parseInt(fileName.substring(0,
+                            fileName.length() - TABLE_EXTENSION.length()));
+                    tables.add(SSTable.open(id, path));
+                }
+            }
+        }
+
+        tables.sort(Comparator.comparingInt(SSTable::getId).reversed());
+        this.tables = Collections.unmodifiableList(tables);
+        this.nextTableId = tables.isEmpty() ? 0 : tables.get(0).getId() + 1;
+
+        Path walPath = this.directory.resolve(WAL_NAME);
+        if (Files.exists(walPath)) {
+            WriteAheadLog.replay(walPath, this::applyToMemtable);
+        }
+
+        if (!this.memtable.isEmpty()) {
+            this.writeMemtable();
+        }
+
+        this.wal = new WriteAheadLog(walPath);
+    }
+
+    /**
+     * Writes the given value for the given key, replacing any previous value.
+     * The write is not guaranteed to be durable until {@link #sync()} is
+     * called.
+     *
+     * @param key   the key
+     * @param value the value
+     * @throws IOException if an error occurs writing the log or flushing the
+     *                     memtable
+     */
+    public synchronized void put(@NonNull String key, byte @NonNull [] value)
+            throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        this.wal.append(keyBytes, value);
+        this.applyToMemtable(key, value);
+        this.logicalBytes += keyBytes.length + value.length;
+
+        if (this.memtableBytes >= this.memtableLimit) {
+            this.flushMemtable();
+        }
+    }
+
+    /**
+     * Forces the writes in the log to the storage device.
+     *
+     * @throws IOException if an error occurs writing the log
+     */
+    public synchronized void sync() throws IOException {
+        this.wal.sync();
+    }
+
+    /**
+     * Reads the newest value of the given key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key has never been written
+     * @throws IOException if an error occurs reading the tables
+     */
+    public synchronized byte @Nullable [] get(@NonNull String key) throws IOException {
+        byte[] value = this.memtable.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        this.tableLookups++;
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        for (SSTable table : this.tables) {
+            if (!table.mightContain(keyBytes)) {
+                this.tablesSkipped++;
+                continue;
+            }
+
+            this.tablesRead++;
+            value = table.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Obtains every key which has been written to the tree, merging the keys
+     * of the memtable and every table.
+     *
+     * @return the keys in the tree
+     * @throws IOException if an error occurs reading the tables
+     */
+    public synchronized @NonNull Set<String> getKeys() throws IOException {
+        Set<String> keys = new HashSet<>(this.memtable.keySet());
+        try (MergeIterator iterator = new MergeIterator(this.tables)) {
+            while (iterator.hasNext()) {
+                keys.add(iterator.next().getKey());
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Obtains the number of tables.
+     *
+     * @return the table count
+     */
+    public int getTableCount() {
+        return this.tables.size();
+    }
+
+    /**
+     * Obtains the number of compactions performed since this tree was
+     * created.
+     *
+     * @return the compaction count
+     */
+    public synchronized int getCompactionCount() {
+        return this.compactionCount;
+    }
+
+    /**
+     * Obtains the ratio of the bytes written to the log and tables to the
+     * bytes of the keys and values written to this tree.
+     *
+     * @return the write amplification
+     */
+    public synchronized double getWriteAmplification() {
+        long physicalBytes = this.wal.getBytesWritten() + this.flushBytes +
+                this.compactionBytes;
+        return (double) physicalBytes / this.logicalBytes;
+    }
+
+    /**
+     * Obtains the average number of tables which were read from per read
+     * that was not satisfied by the memtable.
+     *
+     * @return the average tables read per read, or {@code 0} if every read
+     * was satisfied by the memtable
+     */
+    public synchronized double getAverageTablesRead() {
+        return this.tableLookups == 0 ? 0 : (double) this.tablesRead / this.tableLookups;
+    }
+
+    /**
+     * Obtains the average number of tables which were skipped due to their
+     * bloom filters per read that was not satisfied by the memtable.
+     *
+     * @return the average tables skipped per read, or {@code 0} if every read
+     * was satisfied by the memtable
+     */
+    public synchronized double getAverageTablesSkipped() {
+        return this.tableLookups == 0 ? 0 : (double) this.tablesSkipped / this.tableLookups;
+    }
+
+    /**
+     * Closes the log and tables. The memtable is not flushed, as its contents
+     * are retained by the log.
+     *
+     * @throws IOException if an error occurs closing the files
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        this.wal.close();
+        for (SSTable table : this.tables) {
+            table.close();
+        }
+
+        this.tables = Collections.emptyList();
+        this.memtable.clear();
+        this.memtableBytes = 0;
+    }
+
+    /**
+     * Inserts the given entry into the memtable, updating its approximate
+     * size.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    private void applyToMemtable(@NonNull String key, byte @NonNull [] value) {
+        byte[] previous = this.memtable.put(key, value);
+        if (previous == null) {
+            this.memtableBytes += key.length() + value.length;
+        } else {
+            this.memtableBytes += value.length - previous.length;
+        }
+    }
+
+    /**
+     * Writes the memtable into a new table and discards the log.
+     *
+     * @throws IOException if an error occurs writing the table or log
+     */
+    private void flushMemtable() throws IOException {
+        this.writeMemtable();
+        this.wal.reset();
+    }
+
+    /**
+     * Writes the memtable into a new table, clearing it, and performs a
+     * compaction if necessary.
+     *
+     * @throws IOException if an error occurs writing the table
+     */
+    private void writeMemtable() throws IOException {
+        int id = this.nextTableId++;
+        Path tempPath = this.getPath(id, TEMP_EXTENSION);
+        this.flushBytes += SSTable.write(tempPath, this.memtable.entrySet().iterator(),
+                this.memtable.size());
+
+        Path tablePath = this.getPath(id, TABLE_EXTENSION);
+        Files.move(tempPath, tablePath, StandardCopyOption.ATOMIC_MOVE);
+
+        List<SSTable> tables = new ArrayList<>(this.tables.size() + 1);
+        tables.add(SSTable.open(id, tablePath));
+        tables.addAll(this.tables);
+        this.tables = Collections.unmodifiableList(tables);
+
+        this.memtable.clear();
+        this.memtableBytes = 0;
+
+        this.compact();
+    }
+
+    /**
+     * Finds the newest run of adjacent tables of a similar size which is at
+     * least as long as the compaction threshold and merges it into a single
+     * table, repeating until no such run exists.
+     *
+     * @throws IOException if an error occurs reading or writing the tables
+     */
+    private void compact() throws IOException {
+        while (true) {
+            List<SSTable> tables = this.tables;
+            int runStart = -1;
+            int runEnd = -1;
+            for (int start = 0; start < tables.size() && runStart < 0; ) {
+                long smallest = tables.get(start).getSize();
+                long largest = smallest;
+                int end = start + 1;
+                while (end < tables.size()) {
+                    long size = tables.get(end).getSize();
+                    long newSmallest = Math.min(smallest, size);
+                    long newLargest = Math.max(largest, size);
+                    if (newLargest > newSmallest * TIER_RATIO) {
+                        break;
+                    }
+
+                    smallest = newSmallest;
+                    largest = newLargest;
+                    end++;
+                }
+
+                if (end - start >= this.compactionThreshold) {
+                    runStart = start;
+                    runEnd = end;
+                } else {
+                    start++;
+                }
+            }
+
+            if (runStart < 0) {
+                return;
+            }
+
+            this.merge(tables.subList(runStart, runEnd));
+        }
+    }
+
+    /**
+     * Merges the given adjacent tables into a single table which takes the ID
+     * of the newest of them.
+     *
+     * @param run the tables to merge, ordered from newest to oldest
+     * @throws IOException if an error occurs reading or writing the tables
+     */
+    private void merge(@NonNull List<SSTable> run) throws IOException {
+        SSTable newest = run.get(0);
+        int expectedEntries = 0;
+        for (SSTable table : run) {
+            expectedEntries += table.getEntryCount();
+        }
+
+        Path tempPath = this.getPath(newest.getId(), TEMP_EXTENSION);
+        try (MergeIterator iterator = new MergeIterator(run)) {
+            this.compactionBytes += SSTable.write(tempPath, iterator, expectedEntries);
+        }
+
+        for (SSTable table : run) {
+            table.close();
+        }
+
+        Path mergedPath = newest.getPath();
+        Files.move(tempPath, mergedPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        for (SSTable table : run) {
+            if (table != newest) {
+                Files.delete(table.getPath());
+            }
+        }
+
+        List<SSTable> tables = new ArrayList<>(this.tables);
+        int index = tables.indexOf(newest);
+        tables.removeAll(run);
+        tables.add(index, SSTable.open(newest.getId(), mergedPath));
+        this.tables = Collections.unmodifiableList(tables);
+
+        this.compactionCount++;
+    }
+
+    private @NonNull Path getPath(int id, @NonNull String extension) {
+        return this.directory.resolve(String.format("%08d%s", id, extension));
+    }
+
+    /**
+     * Merges the entries of multiple tables into a single sorted sequence,
+     * taking the value from the newest table when a key is present in more
+     * than one.
+     */
+    private static final class MergeIterator
+            implements Iterator<Map.Entry<String, byte[]>>, AutoCloseable {
+        /**
+         * The scanners which have not been exhausted, ordered by their current
+         * key followed by the age of their table
+         */
+        private final PriorityQueue<RankedScanner> queue;
+        /**
+         * All of the scanners, used to close them once merging is complete
+         */
+        private final List<SSTable.Scanner> scanners = new ArrayList<>();
+
+        MergeIterator(@NonNull List<SSTable> run) throws IOException {
+            this.queue = new PriorityQueue<>(run.size(), Comparator
+                    .comparing((RankedScanner s) -> s.scanner.getKey())
+                    .thenComparingInt(s -> s.rank));
+
+            for (int rank = 0; rank < run.size(); rank++) {
+                SSTable.Scanner scanner = run.get(rank).scan();
+                this.scanners.add(scanner);
+                if (scanner.advance()) {
+                    this.queue.add(new RankedScanner(scanner, rank));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.queue.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<String, byte[]> next() {
+            RankedScanner newest = this.queue.poll();
+            if (newest == null) {
+                throw new NoSuchElementException();
+            }
+
+            String key = newest.scanner.getKey();
+            Map.Entry<String, byte[]> entry =
+                    new AbstractMap.SimpleImmutableEntry<>(key, newest.scanner.getValue());
+            try {
+                this.advance(newest);
+                while (!this.queue.isEmpty() &&
+                        this.queue.peek().scanner.getKey().equals(key)) {
+                    this.advance(this.queue.poll());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read table", e);
+            }
+
+            return entry;
+        }
+
+        private void advance(@NonNull RankedScanner scanner) throws IOException {
+            if (scanner.scanner.advance()) {
+                this.queue.add(scanner);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (SSTable.Scanner scanner : this.scanners) {
+                scanner.close();
+            }
+        }
+    }
+
+    /**
+     * A table scanner paired with the rank of its table, lower ranks being
+     * newer.
+     */
+    private static final class RankedScanner {
+        private final SSTable.Scanner scanner;
+        private final int rank;
+
+        RankedScanner(SSTable.@NonNull Scanner scanner, int rank) {
+            this.scanner = scanner;
+            this.rank = rank;
+        }
+    }
+}
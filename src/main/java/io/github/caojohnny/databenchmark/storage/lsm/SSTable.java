@@ -0,0 +1,442 @@
+package io.github.caojohnny.databenchmark.storage.lsm;
+
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, sorted string table file.
+ *
+ * <p>The file consists of the sorted entries, followed by a sparse index
+ * containing the key and offset of every {@link #INDEX_INTERVAL}th entry, the
+ * {@link BloomFilter} of all of the keys and finally a fixed size footer. The
+ * sparse index and bloom filter are kept in memory while the table is open,
+ * so a lookup reads at most a single block of {@link #INDEX_INTERVAL}
+ * entries.</p>
+ *
+ * <pre>
+ * entry  := short key length, byte[] UTF-8 key, int value length, byte[] value
+ * index  := (short key length, byte[] UTF-8 key, long entry offset)*
+ * footer := long index offset, long bloom filter offset, int entry count,
+ *           int magic
+ * </pre>
+ */
+final class SSTable implements Closeable {
+    /**
+     * The number of entries between each key in the sparse index
+     */
+    static final int INDEX_INTERVAL = 16;
+    /**
+     * The number of bloom filter bits allocated per key
+     */
+    private static final int BLOOM_BITS_PER_KEY = 10;
+    /**
+     * The value marking the end of a completely written table
+     */
+    private static final int MAGIC = 0x4C534D54;
+    /**
+     * The number of bytes in the footer
+     */
+    private static final int FOOTER_BYTES = Long.BYTES * 2 + Integer.BYTES * 2;
+
+    /**
+     * The ID of this table, higher IDs containing more recent entries
+     */
+    private final int id;
+    /**
+     * The path to the table file
+     */
+    private final Path path;
+    /**
+     * The channel used to read the entries
+     */
+    private final FileChannel channel;
+    /**
+     * The keys of the sparse index
+     */
+    private final String[] indexKeys;
+    /**
+     * The offsets of the entries with the keys in the sparse index
+     */
+    private final long[] indexOffsets;
+    /**
+     * The offset of the end of the entries
+     */
+    private final long dataEnd;
+    /**
+     * The filter of all the keys in this table
+     */
+    private final BloomFilter bloomFilter;
+    /**
+     * The number of entries in this table
+     */
+    private final int entryCount;
+    /**
+     * The size of the table file, in bytes
+     */
+    private final long size;
+
+    private SSTable(int id, @NonNull Path path, @NonNull FileChannel channel,
+                    @NonNull String[] indexKeys, long @NonNull [] indexOffsets,
+                    long dataEnd, @NonNull BloomFilter bloomFilter, int entryCount,
+                    long size) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.indexKeys = indexKeys;
+        this.indexOffsets = indexOffsets;
+        this.dataEnd = dataEnd;
+        this.bloomFilter = bloomFilter;
+        this.entryCount = entryCount;
+        this.size = size;
+    }
+
+    /**
+     * Writes the given sorted entries into a new table file and forces it to
+     * the storage device.
+     *
+     * @param path            the path to the new file
+     * @param entries         the entries, sorted by their keys with no
+     *                        duplicates
+     * @param expectedEntries an upper bound of the number of entries, used to
+     *                        size the bloom filter
+     * @return the number of bytes written
+     * @throws IOException if an error occurs writing the file
+     */
+    static long write(@NonNull Path path,
+                      @NonNull Iterator<Map.Entry<String, byte[]>> entries,
+                      int expectedEntries) throws IOException {
+        BloomFilter bloomFilter = BloomFilter.create(expectedEntries, BLOOM_BITS_PER_KEY);
+        List<byte[]> indexKeys = new ArrayList<>();
+        List<Long> indexOffsets = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Channels.newOutputStream(channel)));
+
+            long offset = 0;
+            int entryCount = 0;
+            while (entries.hasNext()) {
+                Map.Entry<String, byte[]> entry = entries.next();
+                byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                byte[] value = entry.getValue();
+
+                if (entryCount % INDEX_INTERVAL == 0) {
+                    indexKeys.add(keyBytes);
+                    indexOffsets.add(offset);
+                }
+                bloomFilter.add(keyBytes);
+
+                out.writeShort(keyBytes.length);
+                out.write(keyBytes);
+                out.writeInt(value.length);
+                out.write(value);
+
+                offset += Short.BYTES + keyBytes.length + Integer.BYTES + value.length;
+                entryCount++;
+            }
+
+            long indexOffset = offset;
+            for (int i = 0; i < indexKeys.size(); i++) {
+                byte[] keyBytes = indexKeys.get(i);
+                out.writeShort(keyBytes.length);
+                out.write(keyBytes);
+                out.writeLong(indexOffsets.get(i));
+
+                offset += Short.BYTES + keyBytes.length + Long.BYTES;
+            }
+
+            long bloomOffset = offset;
+            bloomFilter.write(out);
+            offset += bloomFilter.getWrittenSize();
+
+            out.writeLong(indexOffset);
+            out.writeLong(bloomOffset);
+            out.writeInt(entryCount);
+            out.writeInt(MAGIC);
+            offset += FOOTER_BYTES;
+
+            out.flush();
+            IoStatistics.sync(channel, true);
+
+            return offset;
+        }
+    }
+
+    /**
+     * Opens an existing table file, reading its sparse index and bloom filter
+     * into memory.
+     *
+     * @param id   the ID of the table
+     * @param path the path to the table file
+     * @return the opened table
+     * @throws IOException if an error occurs reading the file or if it is not
+     *                     a complete table
+     */
+    static @NonNull SSTable open(int id, @NonNull Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < FOOTER_BYTES) {
+                throw new EOFException("Incomplete table: " + path);
+            }
+
+            ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            long bloomOffset = footer.getLong();
+            int entryCount = footer.getInt();
+            if (footer.getInt() != MAGIC) {
+                throw new IOException("Corrupted table footer: " + path);
+            }
+
+            ByteBuffer index = readFully(channel, indexOffset,
+                    (int) (bloomOffset - indexOffset));
+            int indexSize = (entryCount + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+            String[] indexKeys = new String[indexSize];
+            long[] indexOffsets = new long[indexSize];
+            for (int i = 0; i < indexSize; i++) {
+                byte[] keyBytes = new byte[index.getShort()];
+                index.get(keyBytes);
+                indexKeys[i] = new String(keyBytes, StandardCharsets.UTF_8);
+                indexOffsets[i] = index.getLong();
+            }
+
+            ByteBuffer bloom = readFully(channel, bloomOffset,
+                    (int) (size - FOOTER_BYTES - bloomOffset));
+            BloomFilter bloomFilter;
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                    bloom.array()))) {
+                bloomFilter = BloomFilter.read(in);
+            }
+
+            return new SSTable(id, path, channel, indexKeys, indexOffsets,
+                    indexOffset, bloomFilter, entryCount, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtains the ID of this table.
+     *
+     * @return the table ID
+     */
+    int getId() {
+        return this.id;
+    }
+
+    /**
+     * Obtains the path to the file of this table.
+     *
+     * @return the table file path
+     */
+    @NonNull Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Obtains the number of entries in this table.
+     *
+     * @return the entry count
+     */
+    int getEntryCount() {
+        return this.entryCount;
+    }
+
+    /**
+     * Obtains the size of the file of this table.
+     *
+     * @return the size in bytes
+     */
+    long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Determines whether this table may contain the given key according to
+     * its bloom filter.
+     *
+     * @param keyBytes the encoded key
+     * @return {@code false} if this table definitely does not contain the key
+     */
+    boolean mightContain(byte @NonNull [] keyBytes) {
+        return this.bloomFilter.mightContain(keyBytes);
+    }
+
+    /**
+     * Reads the value of the given key by locating its block using the sparse
+     * index and scanning through it.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if this table does not contain the
+     * key
+     * @throws IOException if an error occurs reading the file
+     */
+    byte @Nullable [] get(@NonNull String key) throws IOException {
+        int low = 0;
+        int high = this.indexKeys.length - 1;
+        int block = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.indexKeys[mid].compareTo(key) <= 0) {
+                block = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (block < 0) {
+            return null;
+        }
+
+        long blockStart = this.indexOffsets[block];
+        long blockEnd = block + 1 < this.indexOffsets.length ?
+                this.indexOffsets[block + 1] : this.dataEnd;
+        ByteBuffer buffer = readFully(this.channel, blockStart, (int) (blockEnd - blockStart));
+        while (buffer.hasRemaining()) {
+            byte[] keyBytes = new byte[buffer.getShort()];
+            buffer.get(keyBytes);
+            int valueLength = buffer.getInt();
+
+            int comparison = new String(keyBytes, StandardCharsets.UTF_8).compareTo(key);
+            if (comparison == 0) {
+                byte[] value = new byte[valueLength];
+                buffer.get(value);
+                return value;
+            } else if (comparison > 0) {
+                return null;
+            }
+
+            buffer.position(buffer.position() + valueLength);
+        }
+
+        return null;
+    }
+
+    /**
+     * Opens a new scanner which reads through all of the entries of this
+     * table in order.
+     *
+     * @return the scanner
+     * @throws IOException if an error occurs opening the file
+     */
+    @NonNull Scanner scan() throws IOException {
+        return new Scanner(Files.newInputStream(this.path), this.dataEnd);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Reads the given region of the channel.
+     *
+     * @param channel  the channel to read from
+     * @param position the position of the region
+     * @param length   the length of the region
+     * @return a heap buffer containing the region
+     * @throws IOException if an error occurs reading the channel
+     */
+    private static @NonNull ByteBuffer readFully(@NonNull FileChannel channel,
+                                                 long position, int length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of table");
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads through the entries of a table sequentially.
+     */
+    static final class Scanner implements Closeable {
+        private final DataInputStream in;
+        private final long dataEnd;
+
+        private long position;
+        private String key;
+        private byte[] value;
+
+        private Scanner(@NonNull InputStream in, long dataEnd) {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+            this.dataEnd = dataEnd;
+        }
+
+        /**
+         * Advances to the next entry.
+         *
+         * @return {@code true} if there was another entry
+         * @throws IOException if an error occurs reading the file
+         */
+        boolean advance() throws IOException {
+            if (this.position >= this.dataEnd) {
+                this.key = null;
+                this.value = null;
+                return false;
+            }
+
+            byte[] keyBytes = new byte[this.in.readShort()];
+            this.in.readFully(keyBytes);
+            byte[] value = new byte[this.in.readInt()];
+            this.in.readFully(value);
+
+            this.key = new String(keyBytes, StandardCharsets.UTF_8);
+            this.value = value;
+            this.position += Short.BYTES + keyBytes.length + Integer.BYTES + value.length;
+            return true;
+        }
+
+        /**
+         * Obtains the key of the current entry.
+         *
+         * @return the current key
+         */
+        @NonNull String getKey() {
+            return this.key;
+        }
+
+        /**
+         * Obtains the value of the current entry.
+         *
+         * @return the current value
+         */
+        byte @NonNull [] getValue() {
+            return this.value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.in.close();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package io.github.caojohnny.databenchmark.storage.lsm;
+
+import io.github.caojohnny.databenchmark.statistics.IoStatistics;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * The log of the writes which have been applied to the memtable but not yet
+ * flushed into an {@link SSTable}, replayed when the tree is reopened.
+ *
+ * <pre>
+ * entry := int CRC32, short key length, int value length, byte[] UTF-8 key,
+ *          byte[] value
+ * </pre>
+ */
+final class WriteAheadLog implements Closeable {
+    /**
+     * The number of bytes in the header of an entry
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES +
+            Integer.BYTES;
+    /**
+     * The size of the buffer used to batch the appended entries
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The path to the log file
+     */
+    private final Path path;
+    /**
+     * The buffer of entries not yet written to the file
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * The channel used to append to the log
+     */
+    private FileChannel channel;
+    /**
+     * The total number of bytes written to the log
+     */
+    private long bytesWritten;
+
+    /**
+     * Opens a new, empty log at the given path, replacing any existing log.
+     *
+     * @param path the path to the log file
+     * @throws IOException if an error occurs creating the file
+     */
+    WriteAheadLog(@NonNull Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Reads every valid entry of the log at the given path in order, stopping
+     * at the end of the file or at the first incomplete or corrupted entry.
+     * The lengths in the header of an entry are checked against the remaining
+     * size of the file before they are allocated, so that a torn header
+     * cannot request an arbitrarily large buffer.
+     *
+     * @param path     the path to the log file
+     * @param consumer the consumer of the keys and values of each entry
+     * @throws IOException if an error occurs reading the file
+     */
+    static void replay(@NonNull Path path,
+                       @NonNull BiConsumer<String, byte[]> consumer) throws IOException {
+        long remaining = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(path)))) {
+            while (true) {
+                try {
+                    int expectedCrc = in.readInt();
+                    short keyLength = in.readShort();
+                    int valueLength = in.readInt();
+                    if (keyLength < 0 || valueLength < 0 ||
+                            (long) HEADER_BYTES + keyLength + valueLength > remaining) {
+                        return;
+                    }
+                    remaining -= HEADER_BYTES + keyLength + valueLength;
+
+                    byte[] keyBytes = new byte[keyLength];
+                    byte[] value = new byte[valueLength];
+                    in.readFully(keyBytes);
+                    in.readFully(value);
+                    if (checksum(keyBytes, value) != expectedCrc) {
+                        return;
+                    }
+
+                    consumer.accept(new String(keyBytes, StandardCharsets.UTF_8), value);
+                } catch (EOFException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends an entry to the log. The entry is not guaranteed to be written
+     * to the file until {@link #sync()} is called.
+     *
+     * @param keyBytes the encoded key
+     * @param value    the value
+     * @throws IOException if an error occurs writing to the file
+     */
+    void append(byte @NonNull [] keyBytes, byte @NonNull [] value) throws IOException {
+        int entryBytes = HEADER_BYTES + keyBytes.length + value.length;
+        if (this.buffer.remaining() < entryBytes) {
+            this.writeBuffered();
+        }
+
+        ByteBuffer entry = entryBytes > this.buffer.capacity() ?
+                ByteBuffer.allocate(entryBytes) : this.buffer;
+        entry.putInt(checksum(keyBytes, value));
+        entry.putShort((short) keyBytes.length);
+        entry.putInt(value.length);
+        entry.put(keyBytes);
+        entry.put(value);
+
+        if (entry != this.buffer) {
+            entry.flip();
+            this.writeFully(entry);
+        }
+    }
+
+    /**
+     * Writes the buffered entries and forces them to the storage device.
+     *
+     * @throws IOException if an error occurs writing to the file
+     */
+    void sync() throws IOException {
+        this.writeBuffered();
+        IoStatistics.sync(this.channel, false);
+    }
+
+    /**
+     * Discards the contents of the log once its entries have been flushed
+     * into an {@link SSTable}.
+     *
+     * @throws IOException if an error occurs truncating the file
+     */
+    void reset() throws IOException {
+        this.buffer.clear();
+        this.channel.close();
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Obtains the total number of bytes written to the log.
+     *
+     * @return the bytes written
+     */
+    long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.sync();
+        this.channel.close();
+    }
+
+    private void writeBuffered() throws IOException {
+        this.buffer.flip();
+        this.writeFully(this.buffer);
+        this.buffer.clear();
+    }
+
+    private void writeFully(@NonNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.bytesWritten += this.channel.write(buffer);
+        }
+    }
+
+    /**
+     * Computes the checksum of an entry.
+     *
+     * @param keyBytes the encoded key
+     * @param value    the value
+     * @return the CRC32 of the lengths, key and value of the entry
+     */
+    private static int checksum(byte @NonNull [] keyBytes, byte @NonNull [] value) {
+        ByteBuffer lengths = ByteBuffer.allocate(Short.BYTES + Integer.BYTES);
+        lengths.putShort((short) keyBytes.length);
+        lengths.putInt(value.length);
+
+        CRC32 crc = new CRC32();
+        crc.update(lengths.array(), 0, lengths.capacity());
+        crc.update(keyBytes, 0, keyBytes.length);
+        crc.update(value, 0, value.length);
+
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,322 @@
+package io.github.caojohnny.databenchmark.storage.memory;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An in-memory key-value store which keeps its entries outside of the Java
+ * heap so that holding a large number of them adds nothing for the garbage
+ * collector to trace.
+ *
+ * <p>Entries are appended to an arena backed by a direct {@link ByteBuffer},
+ * which is doubled in size when it runs out of space. Each entry is laid out
+ * as follows:</p>
+ *
+ * <pre>
+ * short  key length
+ * byte[] UTF-8 key
+ * int    value length
+ * byte[] value
+ * </pre>
+ *
+ * <p>Entries are located using an open-addressing hash index with linear
+ * probing, made up of two primitive arrays holding the arena offset and the
+ * hash of each entry, so the index itself contains no objects either. A value
+ * which is replaced by one of the same length is overwritten in place,
+ * otherwise the new entry is appended and the space taken by the old entry is
+ * not reclaimed.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+public class OffHeapStore {
+    /**
+     * The initial capacity of the arena, in bytes
+     */
+    private static final int INITIAL_ARENA_BYTES = 1024 * 1024;
+    /**
+     * The initial number of slots in the index, which must be a power of two
+     */
+    private static final int INITIAL_SLOTS = 1024;
+    /**
+     * The offset stored in an index slot which does not contain an entry
+     */
+    private static final int EMPTY = -1;
+    /**
+     * The number of bytes used by the lengths of an entry
+     */
+    private static final int HEADER_BYTES = Short.BYTES + Integer.BYTES;
+
+    /**
+     * The buffer containing the entries
+     */
+    private ByteBuffer arena = ByteBuffer.allocateDirect(INITIAL_ARENA_BYTES);
+    /**
+     * The offset in the arena at which the next entry is appended
+     */
+    private int arenaEnd;
+
+    /**
+     * The arena offset of the entry in each slot of the index, or
+     * {@link #EMPTY}
+     */
+    private int[] offsets = newOffsets(INITIAL_SLOTS);
+    /**
+     * The hash of the key of the entry in each slot of the index
+     */
+    private int[] hashes = new int[INITIAL_SLOTS];
+    /**
+     * The number of entries in the store
+     */
+    private int size;
+
+    /**
+     * Writes the given value for the given key, replacing any previous value.
+     * The remaining bytes of the value are copied into the store without
+     * modifying its position.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(@NonNull String key, @NonNull ByteBuffer value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Key is too long to be stored");
+        }
+
+        int hash = hash(key);
+        int slot = this.findSlot(keyBytes, hash);
+        int offset = this.offsets[slot];
+        int valueLength = value.remaining();
+        if (offset != EMPTY && this.getValueLength(offset) == valueLength) {
+            this.putValue(offset, value);
+            return;
+        }
+
+        int entryOffset = this.allocate(HEADER_BYTES + keyBytes.length + valueLength);
+        this.arena.position(entryOffset);
+        this.arena.putShort((short) keyBytes.length);
+        this.arena.put(keyBytes);
+        this.arena.putInt(valueLength);
+        this.putValue(entryOffset, value);
+
+        this.offsets[slot] = entryOffset;
+        this.hashes[slot] = hash;
+        if (offset == EMPTY && ++this.size * 2 > this.offsets.length) {
+            this.resize();
+        }
+    }
+
+    /**
+     * Obtains the value of the given key.
+     *
+     * @param key the key
+     * @return a read-only view of the value in the store, which is only valid
+     * until the next call to {@link #put(String, ByteBuffer)}, or {@code null}
+     * if the key has never been written
+     */
+    public @Nullable ByteBuffer get(@NonNull String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int offset = this.offsets[this.findSlot(keyBytes, hash(key))];
+        if (offset == EMPTY) {
+            return null;
+        }
+
+        int valueOffset = this.getValueOffset(offset);
+        ByteBuffer value = this.arena.asReadOnlyBuffer();
+        value.limit(valueOffset + this.getValueLength(offset));
+        value.position(valueOffset);
+        return value;
+    }
+
+    /**
+     * Obtains the number of entries in the store.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Obtains the number of bytes allocated for the arena.
+     *
+     * @return the arena capacity
+     */
+    public long getArenaBytes() {
+        return this.arena.capacity();
+    }
+
+    /**
+     * Obtains the number of bytes of the arena taken by entries, including
+     * those which have been superseded.
+     *
+     * @return the used arena bytes
+     */
+    public long getUsedBytes() {
+        return this.arenaEnd;
+    }
+
+    /**
+     * Obtains the number of bytes taken by the index, which is kept on the
+     * heap.
+     *
+     * @return the index size in bytes
+     */
+    public long getIndexBytes() {
+        return (long) this.offsets.length * (Integer.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Spreads the hash code of the given key so that keys with similar hash
+     * codes do not cluster in the index.
+     *
+     * @param key the key
+     * @return the hash of the key
+     */
+    private static int hash(@NonNull String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Creates the offsets of a new, empty index.
+     *
+     * @param slots the number of slots
+     * @return the offsets of the index
+     */
+    private static int @NonNull [] newOffsets(int slots) {
+        int[] offsets = new int[slots];
+        Arrays.fill(offsets, EMPTY);
+        return offsets;
+    }
+
+    /**
+     * Finds the slot of the index which contains the given key, or the empty
+     * slot where it would be inserted.
+     *
+     * @param keyBytes the encoded key
+     * @param hash     the hash of the key
+     * @return the index slot
+     */
+    private int findSlot(byte @NonNull [] keyBytes, int hash) {
+        int mask = this.offsets.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int offset = this.offsets[slot];
+            if (offset == EMPTY || (this.hashes[slot] == hash && this.keyEquals(offset, keyBytes))) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Determines whether the entry at the given offset has the given key.
+     *
+     * @param offset   the arena offset of the entry
+     * @param keyBytes the encoded key
+     * @return {@code true} if the keys are equal
+     */
+    private boolean keyEquals(int offset, byte @NonNull [] keyBytes) {
+        if (this.arena.getShort(offset) != keyBytes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (this.arena.get(offset + Short.BYTES + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Obtains the arena offset of the value of the entry at the given offset.
+     *
+     * @param offset the arena offset of the entry
+     * @return the arena offset of the value
+     */
+    private int getValueOffset(int offset) {
+        return offset + HEADER_BYTES + this.arena.getShort(offset);
+    }
+
+    /**
+     * Obtains the length of the value of the entry at the given offset.
+     *
+     * @param offset the arena offset of the entry
+     * @return the length of the value, in bytes
+     */
+    private int getValueLength(int offset) {
+        return this.arena.getInt(offset + Short.BYTES + this.arena.getShort(offset));
+    }
+
+    /**
+     * Copies the remaining bytes of the given value into the value of the
+     * entry at the given offset, which must be of the same length.
+     *
+     * @param offset the arena offset of the entry
+     * @param value  the value
+     */
+    private void putValue(int offset, @NonNull ByteBuffer value) {
+        this.arena.position(this.getValueOffset(offset));
+        this.arena.put(value.duplicate());
+    }
+
+    /**
+     * Reserves the given number of bytes at the end of the arena, growing it
+     * if necessary.
+     *
+     * @param length the number of bytes
+     * @return the offset of the reserved bytes
+     */
+    private int allocate(int length) {
+        int offset = this.arenaEnd;
+        if (this.arena.capacity() - offset < length) {
+            long capacity = Math.max((long) this.arena.capacity() * 2, (long) offset + length);
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Arena cannot grow past 2 GiB");
+            }
+
+            ByteBuffer arena = ByteBuffer.allocateDirect((int) capacity);
+            ByteBuffer entries = this.arena.duplicate();
+            entries.position(0);
+            entries.limit(offset);
+            arena.put(entries);
+            this.arena = arena;
+        }
+
+        this.arenaEnd += length;
+        return offset;
+    }
+
+    /**
+     * Doubles the number of slots in the index and reinserts every entry.
+     */
+    private void resize() {
+        int[] offsets = this.offsets;
+        int[] hashes = this.hashes;
+        this.offsets = newOffsets(offsets.length * 2);
+        this.hashes = new int[hashes.length * 2];
+
+        int mask = this.offsets.length - 1;
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] == EMPTY) {
+                continue;
+            }
+
+            int slot = hashes[i] & mask;
+            while (this.offsets[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+
+            this.offsets[slot] = offsets[i];
+            this.hashes[slot] = hashes[i];
+        }
+    }
+}
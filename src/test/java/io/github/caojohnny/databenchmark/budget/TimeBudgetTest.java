@@ -0,0 +1,80 @@
+package io.github.caojohnny.databenchmark.budget;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeBudgetTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    private static Object awaitInterrupt() throws InterruptedException {
+        Thread.sleep(Long.MAX_VALUE);
+        return null;
+    }
+
+    @Test
+    void completesWithinBudget() throws Exception {
+        TimeBudget budget = new TimeBudget(1_000, 100, this.clock::get);
+
+        budget.run("test", () -> {
+            for (int i = 0; i < 5; i++) {
+                budget.startIteration();
+                this.clock.addAndGet(50);
+                budget.completeIteration(50);
+            }
+            return null;
+        });
+
+        assertEquals(5, budget.getCompletedIterations());
+        assertEquals(0, budget.getTimeoutBenchmarkNs());
+        assertEquals(50.0, budget.getExtrapolatedIterationNs());
+    }
+
+    @Test
+    void cutsOffSlowIteration() throws Exception {
+        TimeBudget budget = new TimeBudget(1_000, 100, this.clock::get);
+
+        TimeoutException e = assertThrows(TimeoutException.class, () -> budget.run("test", () -> {
+            budget.startIteration();
+            this.clock.addAndGet(40);
+            budget.completeIteration(40);
+
+            budget.startIteration();
+            this.clock.addAndGet(160);
+            return awaitInterrupt();
+        }));
+
+        assertEquals("Iteration exceeded its time budget", e.getMessage());
+        assertEquals(1, budget.getCompletedIterations());
+        assertEquals(200, budget.getTimeoutBenchmarkNs());
+        assertEquals(100.0, budget.getExtrapolatedIterationNs());
+        assertFalse(budget.isRunnerAlive());
+        assertThrows(CancellationException.class, () -> budget.completeIteration(160));
+    }
+
+    @Test
+    void exhaustsBenchmarkBudget() throws Exception {
+        TimeBudget budget = new TimeBudget(1_000, 500, this.clock::get);
+
+        TimeoutException e = assertThrows(TimeoutException.class, () -> budget.run("test", () -> {
+            for (int i = 0; i < 3; i++) {
+                budget.startIteration();
+                budget.completeIteration(400);
+                this.clock.addAndGet(400);
+            }
+            return awaitInterrupt();
+        }));
+
+        assertEquals("Benchmark exceeded its time budget", e.getMessage());
+        assertEquals(3, budget.getCompletedIterations());
+        assertEquals(1_200, budget.getTimeoutBenchmarkNs());
+        assertEquals(400.0, budget.getExtrapolatedIterationNs());
+        assertThrows(CancellationException.class, budget::startIteration);
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.caojohnny.databenchmark.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RandomRecordsTest {
+    private static void assertDataEquals(List<GeneratedData> expected, List<GeneratedData> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            GeneratedData expectedData = expected.get(i);
+            GeneratedData actualData = actual.get(i);
+            assertEquals(expectedData.getLength(), actualData.getLength());
+            for (int j = 0; j < expectedData.getLength(); j++) {
+                assertEquals(expectedData.getDataAt(j, Object.class), actualData.getDataAt(j, Object.class));
+            }
+        }
+    }
+
+    @Test
+    void sameSeedGeneratesSameRecords() {
+        // Enough records for several chunks, which are generated in parallel
+        List<GeneratedData> first = new RandomDataGenerator(42).generate(20_000);
+        List<GeneratedData> second = new RandomDataGenerator(42).generate(20_000);
+
+        assertDataEquals(first, second);
+    }
+
+    @Test
+    void differentSeedsGenerateDifferentRecords() {
+        List<GeneratedData> first = new RandomDataGenerator(42).generate(10);
+        List<GeneratedData> second = new RandomDataGenerator(43).generate(10);
+
+        assertFalse(first.get(0).getDataAt(0, String.class).equals(second.get(0).getDataAt(0, String.class)));
+    }
+
+    @Test
+    void parallelChunksMatchSequentialGeneration() {
+        int amount = 20_000;
+        List<Long> generated = RandomRecords.generate(new SplittableRandom(7), amount,
+                (index, random) -> random.nextLong());
+
+        SplittableRandom random = new SplittableRandom(7);
+        SplittableRandom chunkRandom = null;
+        for (int i = 0; i < amount; i++) {
+            if (i % 8192 == 0) {
+                chunkRandom = random.split();
+            }
+            assertEquals(chunkRandom.nextLong(), (long) generated.get(i));
+        }
+    }
+
+    @Test
+    void generatesVersion4Uuids() {
+        UUID uuid = UUID.fromString(RandomRecords.nextUuid(new SplittableRandom(1)));
+
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(RandomRecords.nextUuid(new SplittableRandom(1)), uuid.toString());
+    }
+}
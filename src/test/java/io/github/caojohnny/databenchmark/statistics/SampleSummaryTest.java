@@ -0,0 +1,94 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleSummaryTest {
+    private static final double Z_95 = 1.959964;
+
+    private static List<Long> millis(int count) {
+        List<Long> samplesNs = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            samplesNs.add(i * BenchmarkResult.NS_PER_MS);
+        }
+
+        return samplesNs;
+    }
+
+    @Test
+    void percentileUsesNearestRank() {
+        long[] sorted = {10, 20, 30, 40};
+
+        assertEquals(10, SampleSummary.percentile(sorted, 0));
+        assertEquals(10, SampleSummary.percentile(sorted, 0.25));
+        assertEquals(20, SampleSummary.percentile(sorted, 0.5));
+        assertEquals(30, SampleSummary.percentile(sorted, 0.51));
+        assertEquals(40, SampleSummary.percentile(sorted, 0.99));
+        assertEquals(40, SampleSummary.percentile(sorted, 1));
+    }
+
+    @Test
+    void summarizesShuffledTimes() {
+        List<Long> samplesNs = millis(100);
+        Collections.shuffle(samplesNs);
+        SampleSummary summary = SampleSummary.of(samplesNs);
+
+        assertEquals(100, summary.getCount());
+        assertEquals(50.5, summary.getMeanMs(), 1e-9);
+        assertEquals(50, summary.getMedianMs(), 1e-9);
+        assertEquals(99, summary.getP99Ms(), 1e-9);
+        assertTrue(summary.getOutliers().isEmpty());
+    }
+
+    @Test
+    void meanConfidenceIntervalUsesSampleDeviation() {
+        SampleSummary summary = SampleSummary.of(millis(100));
+
+        // The sample variance of 1..n is n(n + 1) / 12
+        double expected = Z_95 * Math.sqrt(100 * 101 / 12.0) / Math.sqrt(100);
+        assertEquals(expected, summary.getMeanErrorMs(), 1e-6);
+        assertEquals(expected / 50.5, summary.getMeanRelativeError(), 1e-9);
+    }
+
+    @Test
+    void constantTimesHaveNoError() {
+        SampleSummary summary = SampleSummary.of(Collections.nCopies(10, 5 * BenchmarkResult.NS_PER_MS));
+
+        assertEquals(5, summary.getMeanMs(), 1e-9);
+        assertEquals(0, summary.getMeanErrorMs(), 1e-9);
+        assertTrue(summary.getOutliers().isEmpty());
+    }
+
+    @Test
+    void meanErrorIsUnboundedForSingleTime() {
+        SampleSummary summary = SampleSummary.of(Collections.singletonList(BenchmarkResult.NS_PER_MS));
+
+        assertEquals(Double.POSITIVE_INFINITY, summary.getMeanErrorMs());
+    }
+
+    @Test
+    void p99ConfidenceIntervalNeedsEnoughTimes() {
+        assertEquals(Double.POSITIVE_INFINITY, SampleSummary.of(millis(100)).getP99RelativeError());
+
+        // The ranks of the bounds are floor(990 - 6.17) and ceil(990 + 6.17)
+        SampleSummary summary = SampleSummary.of(millis(1000));
+        assertEquals(990, summary.getP99Ms(), 1e-9);
+        assertEquals(7 / 990.0, summary.getP99RelativeError(), 1e-9);
+    }
+
+    @Test
+    void flagsTimesOutsideFences() {
+        List<Long> samplesNs = Arrays.asList(100L, 102L, 98L, 101L, 5000L, 99L, 100L, 1L);
+        SampleSummary summary = SampleSummary.of(samplesNs);
+
+        assertEquals(Arrays.asList(4, 7), summary.getOutliers());
+        assertEquals(8, summary.getCount());
+    }
+}
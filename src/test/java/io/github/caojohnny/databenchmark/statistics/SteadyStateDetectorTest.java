@@ -0,0 +1,64 @@
+package io.github.caojohnny.databenchmark.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SteadyStateDetectorTest {
+    @Test
+    void constantTimesAreSteadyAfterTwoWindows() {
+        SteadyStateDetector detector = new SteadyStateDetector(5, 0.05);
+        for (int i = 0; i < 9; i++) {
+            assertFalse(detector.add(1_000));
+        }
+
+        assertTrue(detector.add(1_000));
+    }
+
+    @Test
+    void trendingTimesAreNotSteady() {
+        SteadyStateDetector detector = new SteadyStateDetector(5, 0.05);
+        double nanos = 1_000_000;
+        for (int i = 0; i < 100; i++) {
+            assertFalse(detector.add((long) nanos));
+            nanos *= 0.97;
+        }
+    }
+
+    @Test
+    void trendingTimesAreSteadyOnceFlat() {
+        SteadyStateDetector detector = new SteadyStateDetector(5, 0.05);
+        long[] warmUp = {5_000, 4_000, 3_000, 2_000, 1_500, 1_200, 1_100, 1_050};
+        for (long nanos : warmUp) {
+            assertFalse(detector.add(nanos));
+        }
+
+        boolean steady = false;
+        for (int i = 0; i < 10 && !steady; i++) {
+            steady = detector.add(1_000);
+        }
+        assertTrue(steady);
+        assertTrue(detector.isSteady());
+    }
+
+    @Test
+    void noisyTimesAreSteadyDespiteSpikes() {
+        SteadyStateDetector detector = new SteadyStateDetector(5, 0.05);
+        long[] noisy = {1_000, 1_030, 970, 50_000, 1_010, 990, 1_020, 40_000, 980, 1_000};
+        for (int i = 0; i < noisy.length - 1; i++) {
+            assertFalse(detector.add(noisy[i]));
+        }
+
+        assertTrue(detector.add(noisy[noisy.length - 1]));
+    }
+
+    @Test
+    void noisyTimesBeyondToleranceAreNotSteady() {
+        SteadyStateDetector detector = new SteadyStateDetector(4, 0.05);
+        long[] noisy = {1_000, 1_000, 1_000, 1_000, 1_200, 1_200, 1_200, 1_200};
+        for (long nanos : noisy) {
+            assertFalse(detector.add(nanos));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryRecordCodecTest {
+    private static final GeneratedData DATA = new ArrayGeneratedData(new Object[]{
+            "b0e2c7f4-a1d3-4c5e-9f6a-7b8c9d0e1f2a", 42, 3.5, 1.25F, Long.MIN_VALUE});
+
+    private static void assertDataEquals(GeneratedData expected, GeneratedData actual) {
+        assertEquals(expected.getLength(), actual.getLength());
+        for (int i = 0; i < expected.getLength(); i++) {
+            assertEquals(expected.getDataAt(i, Object.class), actual.getDataAt(i, Object.class));
+        }
+    }
+
+    @Test
+    void decodesEncodedRecord() {
+        ByteBuffer record = BinaryRecordCodec.encode(DATA);
+
+        assertEquals(record.remaining() - BinaryRecordCodec.LENGTH_PREFIX_BYTES, record.getInt());
+        GeneratedData decoded = BinaryRecordCodec.decode(record);
+
+        assertDataEquals(DATA, decoded);
+        assertFalse(record.hasRemaining());
+    }
+
+    @Test
+    void encodedLengthIncludesPrefixKeyAndValues() {
+        byte[] keyBytes = BinaryRecordCodec.encodeKey(DATA.getDataAt(0, String.class));
+
+        assertEquals(BinaryRecordCodec.getEncodedLength(keyBytes), BinaryRecordCodec.encode(DATA).remaining());
+        assertEquals(BinaryRecordCodec.LENGTH_PREFIX_BYTES + Short.BYTES + keyBytes.length +
+                BinaryRecordCodec.VALUE_BYTES, BinaryRecordCodec.getEncodedLength(keyBytes));
+    }
+
+    @Test
+    void decodesEncodedValues() {
+        byte[] values = BinaryRecordCodec.encodeValues(DATA);
+
+        assertEquals(BinaryRecordCodec.VALUE_BYTES, values.length);
+        assertDataEquals(DATA, BinaryRecordCodec.decodeValues(DATA.getDataAt(0, String.class),
+                ByteBuffer.wrap(values)));
+    }
+
+    @Test
+    void comparesKeyWithoutMovingBuffer() {
+        ByteBuffer record = BinaryRecordCodec.encode(DATA);
+        record.position(BinaryRecordCodec.LENGTH_PREFIX_BYTES);
+        byte[] keyBytes = BinaryRecordCodec.encodeKey(DATA.getDataAt(0, String.class));
+
+        assertTrue(BinaryRecordCodec.keyEquals(record, keyBytes));
+        assertFalse(BinaryRecordCodec.keyEquals(record, BinaryRecordCodec.encodeKey("other")));
+        assertEquals(DATA.getDataAt(0, String.class), BinaryRecordCodec.decodeKey(record));
+        assertEquals(BinaryRecordCodec.LENGTH_PREFIX_BYTES, record.position());
+    }
+
+    @Test
+    void encodesKeyAsUtf8() {
+        String key = "\u043a\u043b\u044e\u0447";
+
+        assertEquals(key.getBytes(StandardCharsets.UTF_8).length, BinaryRecordCodec.encodeKey(key).length);
+    }
+
+    @Test
+    void rejectsKeyTooLongForLengthPrefix() {
+        char[] key = new char[Short.MAX_VALUE + 1];
+        Arrays.fill(key, 'k');
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryRecordCodec.encodeKey(new String(key)));
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeTrackingStorageTest {
+    private static GeneratedData record(String key, int value) {
+        return new ArrayGeneratedData(new Object[]{key, value, 3.5, 1.25F, 7L});
+    }
+
+    private static final List<GeneratedData> DATASET = Arrays.asList(
+            record("a", 1), record("b", 2), record("c", 3));
+
+    @Test
+    void skipsUnchangedRecords() throws Exception {
+        RecordingStorage delegate = new RecordingStorage(true);
+        ChangeTrackingStorage storage = new ChangeTrackingStorage(delegate);
+        storage.setup(DATASET);
+
+        storage.storeData(Arrays.asList(record("a", 1), record("b", 2)));
+
+        assertTrue(delegate.stores.isEmpty());
+        assertEquals(Double.valueOf(1), storage.collectStatistics().get("Skipped stores"));
+    }
+
+    @Test
+    void passesChangedAndNewRecords() throws Exception {
+        RecordingStorage delegate = new RecordingStorage(true);
+        ChangeTrackingStorage storage = new ChangeTrackingStorage(delegate);
+        storage.setup(DATASET);
+
+        GeneratedData changed = record("a", 10);
+        GeneratedData added = record("d", 4);
+        storage.storeData(Arrays.asList(changed, record("b", 2), added));
+
+        assertEquals(1, delegate.stores.size());
+        List<GeneratedData> stored = delegate.stores.get(0);
+        assertEquals(2, stored.size());
+        assertSame(changed, stored.get(0));
+        assertSame(added, stored.get(1));
+
+        // Tracked once stored, so storing them again is skipped
+        storage.storeData(Arrays.asList(record("a", 10), record("d", 4)));
+        assertEquals(1, delegate.stores.size());
+    }
+
+    @Test
+    void retriesRecordsOfFailedStore() throws Exception {
+        RecordingStorage delegate = new RecordingStorage(true);
+        ChangeTrackingStorage storage = new ChangeTrackingStorage(delegate);
+        storage.setup(DATASET);
+
+        delegate.fail = true;
+        try {
+            storage.storeData(Collections.singletonList(record("a", 10)));
+        } catch (IllegalStateException e) {
+            delegate.fail = false;
+        }
+        storage.storeData(Collections.singletonList(record("a", 10)));
+
+        assertEquals(2, delegate.stores.size());
+    }
+
+    @Test
+    void passesAllRecordsToNonIncrementalStorage() throws Exception {
+        RecordingStorage delegate = new RecordingStorage(false);
+        ChangeTrackingStorage storage = new ChangeTrackingStorage(delegate);
+        storage.setup(DATASET);
+
+        storage.storeData(DATASET);
+        storage.storeData(DATASET);
+        assertEquals(1, delegate.stores.size());
+
+        List<GeneratedData> changed = Arrays.asList(record("a", 1), record("b", 20), record("c", 3));
+        storage.storeData(changed);
+        assertEquals(2, delegate.stores.size());
+        assertEquals(changed, delegate.stores.get(1));
+    }
+
+    @Test
+    void fingerprintTableGrowsAndClears() {
+        FingerprintTable table = new FingerprintTable();
+        for (int i = 0; i < 5000; i++) {
+            table.put("key-" + i, i);
+        }
+        table.put("key-0", -1);
+
+        assertEquals(5000, table.size());
+        assertTrue(table.matches("key-0", -1));
+        assertTrue(table.matches("key-4999", 4999));
+        assertFalse(table.matches("key-1", 2));
+        assertFalse(table.matches("key-5000", 5000));
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertFalse(table.matches("key-1", 1));
+    }
+
+    /**
+     * Records the data passed to each call of {@link #storeData(Collection)}.
+     */
+    private static final class RecordingStorage implements Storage {
+        private final boolean incremental;
+        private final List<List<GeneratedData>> stores = new ArrayList<>();
+        private boolean fail;
+
+        RecordingStorage(boolean incremental) {
+            this.incremental = incremental;
+        }
+
+        @Override
+        public String getName() {
+            return "Recording";
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return this.incremental;
+        }
+
+        @Override
+        public void setup(Collection<GeneratedData> dataset) {
+        }
+
+        @Override
+        public void setupIter() {
+        }
+
+        @Override
+        public void storeData(Collection<GeneratedData> dataCollection) {
+            this.stores.add(new ArrayList<>(dataCollection));
+            if (this.fail) {
+                throw new IllegalStateException("Store failed");
+            }
+        }
+
+        @Override
+        public boolean queryData(GeneratedData randomData) {
+            return false;
+        }
+
+        @Override
+        public void cleanupIter(Collection<GeneratedData> dataCollection) {
+        }
+
+        @Override
+        public Collection<GeneratedData> recover() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.Field;
+import io.github.caojohnny.databenchmark.generator.FieldType;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import io.github.caojohnny.databenchmark.generator.RecordSchema;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MySqlLoadDataStorageTest {
+    private static String serialize(RecordSchema schema, GeneratedData... dataCollection) {
+        return new String(MySqlLoadDataStorage.serialize(schema, Arrays.asList(dataCollection)),
+                StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void separatesValuesByTabsAndRecordsByLines() {
+        String file = serialize(RecordSchema.DEFAULT,
+                new ArrayGeneratedData(new Object[]{"a", 1, 2.5, 1.25F, 7L}),
+                new ArrayGeneratedData(new Object[]{"b", -1, 0.5, 0.75F, -7L}));
+
+        assertEquals("a\t1\t2.5\t1.25\t7\nb\t-1\t0.5\t0.75\t-7\n", file);
+    }
+
+    @Test
+    void escapesSeparatorsAndBackslashes() {
+        String file = serialize(RecordSchema.DEFAULT,
+                new ArrayGeneratedData(new Object[]{"a\tb\nc\rd\\e", 1, 2.5, 1.25F, 7L}));
+
+        assertEquals("a\\tb\\nc\\rd\\\\e\t1\t2.5\t1.25\t7\n", file);
+    }
+
+    @Test
+    void escapesNulAndNullMarker() {
+        String file = serialize(RecordSchema.DEFAULT,
+                new ArrayGeneratedData(new Object[]{"\u0000", 1, 2.5, 1.25F, 7L}),
+                new ArrayGeneratedData(new Object[]{"\\N", 1, 2.5, 1.25F, 7L}));
+
+        assertEquals("\\0\t1\t2.5\t1.25\t7\n\\\\N\t1\t2.5\t1.25\t7\n", file);
+    }
+
+    @Test
+    void encodesBytesAsHex() {
+        RecordSchema schema = new RecordSchema("Bytes", Collections.singletonList(
+                new Field("payload", FieldType.BYTES, 3, 3)));
+        String file = serialize(schema,
+                new ArrayGeneratedData(schema, new Object[]{"a", new byte[]{0x00, (byte) 0xAB, '\t'}}));
+
+        assertEquals("a\t00ab09\n", file);
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.caojohnny.databenchmark.storage;
+
+import io.github.caojohnny.databenchmark.generator.ArrayGeneratedData;
+import io.github.caojohnny.databenchmark.generator.GeneratedData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordChannelReaderTest {
+    private static final GeneratedData DATA = new ArrayGeneratedData(new Object[]{
+            "b0e2c7f4-a1d3-4c5e-9f6a-7b8c9d0e1f2a", 42, 3.5, 1.25F, Long.MIN_VALUE});
+
+    @TempDir
+    Path directory;
+
+    private Path write(ByteBuffer... buffers) throws Exception {
+        Path file = this.directory.resolve("records");
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+        return file;
+    }
+
+    private static ByteBuffer lengthPrefix(int length) {
+        ByteBuffer prefix = ByteBuffer.allocate(BinaryRecordCodec.LENGTH_PREFIX_BYTES);
+        prefix.putInt(length);
+        prefix.flip();
+        return prefix;
+    }
+
+    @Test
+    void readsRecordsLargerThanBuffer() throws Exception {
+        Path file = this.write(BinaryRecordCodec.encode(DATA), BinaryRecordCodec.encode(DATA));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordChannelReader reader = new RecordChannelReader(channel, 1);
+
+            for (int i = 0; i < 2; i++) {
+                ByteBuffer body = reader.next();
+                assertNotNull(body);
+                assertEquals(DATA.getDataAt(0, String.class), BinaryRecordCodec.decodeKey(body));
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void stopsAtLengthBeyondChannel() throws Exception {
+        Path file = this.write(BinaryRecordCodec.encode(DATA), lengthPrefix(Integer.MAX_VALUE));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordChannelReader reader = new RecordChannelReader(channel, 64);
+
+            assertNotNull(reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsTruncatedLength() throws Exception {
+        ByteBuffer partial = lengthPrefix(1);
+        partial.limit(1);
+        Path file = this.write(partial);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordChannelReader reader = new RecordChannelReader(channel, 64);
+
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+}
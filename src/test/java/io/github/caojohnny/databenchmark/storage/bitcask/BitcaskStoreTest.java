@@ -0,0 +1,114 @@
+package io.github.caojohnny.databenchmark.storage.bitcask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitcaskStoreTest {
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private BitcaskStore open(long maxSegmentBytes, boolean useHints) throws IOException {
+        BitcaskStore store = new BitcaskStore(this.directory, maxSegmentBytes, Integer.MAX_VALUE);
+        store.open(useHints);
+        return store;
+    }
+
+    private Path lastSegment() throws IOException {
+        Path last = null;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*.data")) {
+            for (Path path : stream) {
+                if (last == null || path.compareTo(last) > 0) {
+                    last = path;
+                }
+            }
+        }
+
+        return last;
+    }
+
+    @Test
+    void readsLatestValue() throws IOException {
+        BitcaskStore store = this.open(1024 * 1024, true);
+        store.put("a", bytes("1"));
+        store.put("b", bytes("2"));
+        store.put("a", bytes("3"));
+
+        assertArrayEquals(bytes("3"), store.get("a"));
+        assertArrayEquals(bytes("2"), store.get("b"));
+        assertNull(store.get("c"));
+        store.close();
+    }
+
+    @Test
+    void rebuildsIndexWithAndWithoutHints() throws IOException {
+        BitcaskStore store = this.open(64, true);
+        for (int i = 0; i < 100; i++) {
+            store.put("key-" + i % 10, bytes("value-" + i));
+        }
+        store.close();
+
+        for (boolean useHints : new boolean[]{true, false}) {
+            store = this.open(64, useHints);
+            assertEquals(10, store.getKeys().size());
+            for (int i = 0; i < 10; i++) {
+                assertArrayEquals(bytes("value-" + (90 + i)), store.get("key-" + i));
+            }
+            store.close();
+        }
+    }
+
+    @Test
+    void mergeKeepsOnlyLiveValues() throws IOException, InterruptedException {
+        BitcaskStore store = this.open(64, true);
+        for (int i = 0; i < 100; i++) {
+            store.put("key-" + i % 10, bytes("value-" + i));
+        }
+        store.flush();
+        long diskBytes = store.getDiskBytes();
+        store.merge();
+        store.awaitMerge();
+
+        assertTrue(store.getDiskBytes() < diskBytes);
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(bytes("value-" + (90 + i)), store.get("key-" + i));
+        }
+        store.close();
+    }
+
+    @Test
+    void ignoresTornEntryWithOversizedLength() throws IOException {
+        BitcaskStore store = this.open(1024 * 1024, true);
+        store.put("a", bytes("1"));
+        store.close();
+
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(this.lastSegment(),
+                StandardOpenOption.APPEND))) {
+            out.writeInt(0);
+            out.writeShort(1);
+            out.writeInt(Integer.MAX_VALUE);
+            out.writeByte('b');
+        }
+
+        store = this.open(1024 * 1024, false);
+        assertArrayEquals(bytes("1"), store.get("a"));
+        assertNull(store.get("b"));
+        store.close();
+    }
+}
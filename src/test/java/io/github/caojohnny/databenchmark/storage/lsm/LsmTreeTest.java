@@ -0,0 +1,100 @@
+package io.github.caojohnny.databenchmark.storage.lsm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LsmTreeTest {
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private LsmTree open(long memtableLimit) throws IOException {
+        LsmTree tree = new LsmTree(this.directory, memtableLimit, 4);
+        tree.open();
+        return tree;
+    }
+
+    @Test
+    void readsNewestValueAcrossTables() throws IOException {
+        LsmTree tree = this.open(256);
+        for (int i = 0; i < 200; i++) {
+            tree.put("key-" + i % 20, bytes("value-" + i));
+        }
+
+        assertTrue(tree.getTableCount() > 0);
+        assertTrue(tree.getCompactionCount() > 0);
+        assertEquals(20, tree.getKeys().size());
+        for (int i = 0; i < 20; i++) {
+            assertArrayEquals(bytes("value-" + (180 + i)), tree.get("key-" + i));
+        }
+        assertNull(tree.get("missing"));
+        tree.close();
+    }
+
+    @Test
+    void replaysLogOnOpen() throws IOException {
+        LsmTree tree = this.open(1024 * 1024);
+        tree.put("a", bytes("1"));
+        tree.put("a", bytes("2"));
+        tree.sync();
+        tree.close();
+
+        tree = this.open(1024 * 1024);
+        assertArrayEquals(bytes("2"), tree.get("a"));
+        tree.close();
+    }
+
+    @Test
+    void ignoresTornLogEntryWithOversizedLength() throws IOException {
+        LsmTree tree = this.open(1024 * 1024);
+        tree.put("a", bytes("1"));
+        tree.close();
+
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(
+                this.directory.resolve("wal.log"), StandardOpenOption.APPEND))) {
+            out.writeInt(0);
+            out.writeShort(1);
+            out.writeInt(Integer.MAX_VALUE);
+            out.writeByte('b');
+        }
+
+        tree = this.open(1024 * 1024);
+        assertArrayEquals(bytes("1"), tree.get("a"));
+        assertNull(tree.get("b"));
+        tree.close();
+    }
+
+    @Test
+    void averagesTablesReadOverMemtableMisses() throws IOException {
+        LsmTree tree = this.open(1024 * 1024);
+        assertEquals(0, tree.getAverageTablesRead());
+
+        tree.put("a", bytes("1"));
+        tree.get("a");
+        assertEquals(0, tree.getAverageTablesRead());
+        tree.close();
+
+        // Reopening flushes the replayed log into a table
+        tree = this.open(1024 * 1024);
+        tree.put("b", bytes("2"));
+        tree.get("a");
+        tree.get("b");
+        assertEquals(1, tree.getAverageTablesRead());
+        tree.close();
+    }
+}
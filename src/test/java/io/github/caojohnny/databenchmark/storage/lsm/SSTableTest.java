@@ -0,0 +1,90 @@
+package io.github.caojohnny.databenchmark.storage.lsm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SSTableTest {
+    @TempDir
+    Path directory;
+
+    private static TreeMap<String, byte[]> entries(int count) {
+        TreeMap<String, byte[]> entries = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            entries.put(String.format("key-%05d", i), ("value-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return entries;
+    }
+
+    @Test
+    void readsEveryWrittenEntry() throws IOException {
+        TreeMap<String, byte[]> entries = entries(SSTable.INDEX_INTERVAL * 10 + 3);
+        Path path = this.directory.resolve("1.sst");
+        long written = SSTable.write(path, entries.entrySet().iterator(), entries.size());
+
+        try (SSTable table = SSTable.open(1, path)) {
+            assertEquals(Files.size(path), written);
+            assertEquals(written, table.getSize());
+            assertEquals(entries.size(), table.getEntryCount());
+            for (String key : entries.keySet()) {
+                assertTrue(table.mightContain(key.getBytes(StandardCharsets.UTF_8)));
+                assertArrayEquals(entries.get(key), table.get(key));
+            }
+        }
+    }
+
+    @Test
+    void returnsNullForMissingKeys() throws IOException {
+        TreeMap<String, byte[]> entries = entries(100);
+        Path path = this.directory.resolve("1.sst");
+        SSTable.write(path, entries.entrySet().iterator(), entries.size());
+
+        try (SSTable table = SSTable.open(1, path)) {
+            assertNull(table.get("a"));
+            assertNull(table.get("key-00010a"));
+            assertNull(table.get("z"));
+        }
+    }
+
+    @Test
+    void scansEntriesInOrder() throws IOException {
+        TreeMap<String, byte[]> entries = entries(50);
+        Path path = this.directory.resolve("1.sst");
+        SSTable.write(path, entries.entrySet().iterator(), entries.size());
+
+        try (SSTable table = SSTable.open(1, path);
+             SSTable.Scanner scanner = table.scan()) {
+            for (String key : entries.keySet()) {
+                assertTrue(scanner.advance());
+                assertEquals(key, scanner.getKey());
+                assertArrayEquals(entries.get(key), scanner.getValue());
+            }
+            assertFalse(scanner.advance());
+        }
+    }
+
+    @Test
+    void rejectsIncompleteTable() throws IOException {
+        TreeMap<String, byte[]> entries = entries(100);
+        Path path = this.directory.resolve("1.sst");
+        SSTable.write(path, entries.entrySet().iterator(), entries.size());
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> SSTable.open(1, path));
+    }
+}
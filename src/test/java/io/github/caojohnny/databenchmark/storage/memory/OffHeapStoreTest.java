@@ -0,0 +1,95 @@
+package io.github.caojohnny.databenchmark.storage.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapStoreTest {
+    private static ByteBuffer value(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(ByteBuffer value) {
+        byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void returnsNullForMissingKey() {
+        OffHeapStore store = new OffHeapStore();
+        store.put("a", value("1"));
+
+        assertNull(store.get("b"));
+    }
+
+    @Test
+    void returnsLatestValue() {
+        OffHeapStore store = new OffHeapStore();
+        store.put("a", value("1"));
+        store.put("b", value("2"));
+        store.put("a", value("3"));
+
+        assertEquals("3", read(store.get("a")));
+        assertEquals("2", read(store.get("b")));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void doesNotModifyPositionOfPutValue() {
+        OffHeapStore store = new OffHeapStore();
+        ByteBuffer value = value("value");
+        store.put("a", value);
+
+        assertEquals(0, value.position());
+    }
+
+    @Test
+    void overwritesValueOfSameLengthInPlace() {
+        OffHeapStore store = new OffHeapStore();
+        store.put("a", value("1"));
+        long usedBytes = store.getUsedBytes();
+        store.put("a", value("2"));
+
+        assertEquals(usedBytes, store.getUsedBytes());
+        assertEquals("2", read(store.get("a")));
+    }
+
+    @Test
+    void appendsValueOfDifferentLength() {
+        OffHeapStore store = new OffHeapStore();
+        store.put("a", value("1"));
+        long usedBytes = store.getUsedBytes();
+        store.put("a", value("22"));
+
+        assertEquals(usedBytes * 2 + 1, store.getUsedBytes());
+        assertEquals("22", read(store.get("a")));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void growsArenaAndIndex() {
+        OffHeapStore store = new OffHeapStore();
+        long arenaBytes = store.getArenaBytes();
+        long indexBytes = store.getIndexBytes();
+        byte[] padding = new byte[256];
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            ByteBuffer value = ByteBuffer.allocate(Integer.BYTES + padding.length);
+            value.putInt(i).put(padding).flip();
+            store.put("key-" + i, value);
+        }
+
+        assertEquals(count, store.size());
+        assertTrue(store.getArenaBytes() > arenaBytes);
+        assertTrue(store.getIndexBytes() > indexBytes);
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, store.get("key-" + i).getInt());
+        }
+    }
+}